@@ -0,0 +1,118 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.tribble.Feature;
+import htsjdk.tribble.SimpleFeature;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link FeatureCache} queries, in queries per second, using the same hit/miss logic as
+ * {@link FeatureDataSource#queryAndPrefetch}. Queries either move along a contig the way a walker's do, or move along
+ * it in overlapping windows that back up after every query, and cache misses are refilled with the cache's lookahead
+ * (starting at {@link FeatureDataSource#DEFAULT_QUERY_LOOKAHEAD_BASES}) from an in-memory sorted list of features,
+ * so that the benchmark measures the cache rather than the decoding of a feature file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureCacheBenchmark {
+    private static final String CONTIG = "1";
+    private static final int CONTIG_LENGTH = 1_000_000;
+    private static final int MAX_FEATURE_LENGTH = 100;
+    private static final int QUERY_STEP = 100;
+    private static final int NUM_QUERIES = CONTIG_LENGTH / QUERY_STEP;
+    private static final int BACKUP_DISTANCE = 500;
+
+    /**
+     * Average distance between the starts of consecutive features
+     */
+    @Param({"10", "1000"})
+    public int featureSpacing;
+
+    @Param({"1", "300"})
+    public int queryLength;
+
+    // sorted by start
+    private List<Feature> features;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        features = new ArrayList<>(CONTIG_LENGTH / featureSpacing);
+        for ( int start = 1; start < CONTIG_LENGTH; start += 1 + random.nextInt(2 * featureSpacing) ) {
+            features.add(new SimpleFeature(CONTIG, start, start + random.nextInt(MAX_FEATURE_LENGTH)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_QUERIES)
+    public void queryAlongContig(final Blackhole blackhole) {
+        final FeatureCache<Feature> cache = newCache();
+        for ( int start = 1; start + queryLength <= CONTIG_LENGTH; start += QUERY_STEP ) {
+            blackhole.consume(query(cache, new SimpleInterval(CONTIG, start, start + queryLength - 1)));
+        }
+    }
+
+    /**
+     * Each query is followed by one that starts {@link #BACKUP_DISTANCE} bases before it, as when a tool queries
+     * overlapping windows around each of its loci
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * NUM_QUERIES)
+    public void queryBackingUp(final Blackhole blackhole) {
+        final FeatureCache<Feature> cache = newCache();
+        for ( int start = BACKUP_DISTANCE + 1; start + queryLength <= CONTIG_LENGTH; start += QUERY_STEP ) {
+            blackhole.consume(query(cache, new SimpleInterval(CONTIG, start, start + queryLength - 1)));
+            blackhole.consume(query(cache, new SimpleInterval(CONTIG, start - BACKUP_DISTANCE, start - BACKUP_DISTANCE + queryLength - 1)));
+        }
+    }
+
+    private static FeatureCache<Feature> newCache() {
+        return new FeatureCache<>(FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, FeatureCache.DEFAULT_MAX_CACHED_FEATURES);
+    }
+
+    private List<Feature> query(final FeatureCache<Feature> cache, final SimpleInterval interval) {
+        if ( cache.cacheHit(interval) ) {
+            cache.releaseFeaturesBehind(interval.getStart());
+        } else {
+            final SimpleInterval queryInterval = new SimpleInterval(CONTIG, interval.getStart(), interval.getEnd() + cache.getLookaheadBases());
+            cache.fill(overlapping(queryInterval).iterator(), queryInterval);
+        }
+        return cache.getCachedFeatures(interval);
+    }
+
+    /**
+     * @return the features overlapping {@code interval}, in order, like a query of an indexed feature file
+     */
+    private List<Feature> overlapping(final SimpleInterval interval) {
+        // no feature starting before this position can overlap the interval
+        final int minStart = interval.getStart() - MAX_FEATURE_LENGTH;
+        int low = 0;
+        int high = features.size();
+        while ( low < high ) {
+            final int mid = (low + high) >>> 1;
+            if ( features.get(mid).getStart() < minStart ) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        final List<Feature> result = new ArrayList<>();
+        for ( int i = low; i < features.size() && features.get(i).getStart() <= interval.getEnd(); i++ ) {
+            if ( features.get(i).getEnd() >= interval.getStart() ) {
+                result.add(features.get(i));
+            }
+        }
+        return result;
+    }
+}
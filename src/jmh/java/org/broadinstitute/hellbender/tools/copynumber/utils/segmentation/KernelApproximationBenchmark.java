@@ -0,0 +1,52 @@
+package org.broadinstitute.hellbender.tools.copynumber.utils.segmentation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Time taken by {@link KernelSegmenter#findChangepoints} using the low-rank approximation to the kernel, compared with
+ * that taken using the exact kernel (i.e., using all data points to calculate the kernel matrix, which is the case when
+ * the kernel approximation dimension is the number of points).  The data is zero-mean multimodal data, in which the sign
+ * of each point is randomly chosen and changepoints occur in the absolute value of the mean every 100 points.
+ * The changepoints found are checked in {@code KernelSegmenterUnitTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelApproximationBenchmark {
+    private static final int NUM_POINTS = 1000;
+    private static final int MAX_NUM_CHANGEPOINTS = 25;
+    private static final List<Integer> WINDOW_SIZES = Arrays.asList(8, 16, 32, 64);
+    private static final double NUM_CHANGEPOINTS_PENALTY_FACTOR = 2.;
+    private static final BiFunction<Double, Double, Double> GAUSSIAN_KERNEL = (x, y) -> Math.exp(-(x - y) * (x - y));
+
+    @Param({"1000", "200", "100", "50", "20"})
+    public int kernelApproximationDimension;
+
+    private KernelSegmenter<Double> segmenter;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final List<Double> data = IntStream.range(0, NUM_POINTS)
+                .mapToObj(i -> 2 * (random.nextBoolean() ? -1 : 1) * Math.abs(i / 100 - 5) + 0.1 * random.nextGaussian())
+                .collect(Collectors.toList());
+        segmenter = new KernelSegmenter<>(data);
+    }
+
+    @Benchmark
+    public List<Integer> findChangepoints() {
+        return segmenter.findChangepoints(MAX_NUM_CHANGEPOINTS, GAUSSIAN_KERNEL, kernelApproximationDimension, WINDOW_SIZES,
+                NUM_CHANGEPOINTS_PENALTY_FACTOR, NUM_CHANGEPOINTS_PENALTY_FACTOR, KernelSegmenter.ChangepointSortOrder.INDEX);
+    }
+}
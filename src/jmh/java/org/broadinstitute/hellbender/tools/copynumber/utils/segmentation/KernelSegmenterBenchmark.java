@@ -0,0 +1,53 @@
+package org.broadinstitute.hellbender.tools.copynumber.utils.segmentation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Time taken by {@link KernelSegmenter#findChangepoints} to segment simulated copy-ratio-like data (Gaussian data with
+ * a changepoint in the mean every 1000 points) with a Gaussian kernel, using the parameters of ModelSegments.
+ * See also {@link KernelApproximationBenchmark}, which compares the time taken using the low-rank approximation to the
+ * kernel with that taken using the exact kernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelSegmenterBenchmark {
+    private static final int MAX_NUM_CHANGEPOINTS = 100;
+    private static final List<Integer> WINDOW_SIZES = Arrays.asList(8, 16, 32, 64, 128, 256);
+    private static final double NUM_CHANGEPOINTS_PENALTY_FACTOR = 1.;
+    private static final BiFunction<Double, Double, Double> GAUSSIAN_KERNEL = (x, y) -> Math.exp(-(x - y) * (x - y) / (2. * 0.1 * 0.1));
+
+    @Param({"10000", "100000"})
+    public int numPoints;
+
+    @Param({"20", "100"})
+    public int kernelApproximationDimension;
+
+    private KernelSegmenter<Double> segmenter;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final List<Double> data = IntStream.range(0, numPoints)
+                .mapToObj(i -> 0.5 * ((i / 1000) % 3) + 0.1 * random.nextGaussian())
+                .collect(Collectors.toList());
+        segmenter = new KernelSegmenter<>(data);
+    }
+
+    @Benchmark
+    public List<Integer> findChangepoints() {
+        return segmenter.findChangepoints(MAX_NUM_CHANGEPOINTS, GAUSSIAN_KERNEL, kernelApproximationDimension, WINDOW_SIZES,
+                NUM_CHANGEPOINTS_PENALTY_FACTOR, NUM_CHANGEPOINTS_PENALTY_FACTOR, KernelSegmenter.ChangepointSortOrder.INDEX);
+    }
+}
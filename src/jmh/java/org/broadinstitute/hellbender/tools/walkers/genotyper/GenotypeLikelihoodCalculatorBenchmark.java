@@ -0,0 +1,68 @@
+package org.broadinstitute.hellbender.tools.walkers.genotyper;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.GenotypeLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.genotyper.ReadLikelihoods;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link GenotypeLikelihoodCalculator#genotypeLikelihoods}, in samples per second, for one sample with
+ * {@value #NUM_READS} reads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenotypeLikelihoodCalculatorBenchmark {
+    private static final int NUM_READS = 100;
+    private static final List<Allele> ALLELES = Collections.unmodifiableList(Arrays.asList(
+            Allele.create("A", true), Allele.create("C"), Allele.create("G"), Allele.create("T"), Allele.create("AC"), Allele.create("AGT")));
+
+    @Param({"1", "2", "4"})
+    public int ploidy;
+
+    @Param({"2", "3", "6"})
+    public int alleleCount;
+
+    private GenotypeLikelihoodCalculator calculator;
+    private LikelihoodMatrix<Allele> likelihoods;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeader(1, 1, 1000);
+        final List<GATKRead> reads = new ArrayList<>(NUM_READS);
+        for ( int i = 0; i < NUM_READS; i++ ) {
+            reads.add(ArtificialReadUtils.createArtificialRead(header, "read" + i, 0, 1, 100));
+        }
+
+        likelihoods = new ReadLikelihoods<>(new IndexedSampleList("sample"), new IndexedAlleleList<>(ALLELES.subList(0, alleleCount)),
+                Collections.singletonMap("sample", reads)).sampleMatrix(0);
+        for ( int a = 0; a < alleleCount; a++ ) {
+            for ( int r = 0; r < NUM_READS; r++ ) {
+                likelihoods.set(a, r, -10 * random.nextDouble());
+            }
+        }
+        calculator = new GenotypeLikelihoodCalculators().getInstance(ploidy, alleleCount);
+    }
+
+    @Benchmark
+    public GenotypeLikelihoods genotypeLikelihoods() {
+        return calculator.genotypeLikelihoods(likelihoods);
+    }
+}
@@ -0,0 +1,53 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.utils.BenchmarkDataUtils;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the construction of a {@link ReadThreadingGraph} the way {@link ReadThreadingAssembler} does it for an
+ * assembly region (adding the reference and the reads, then threading them), in graphs per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadThreadingGraphBenchmark {
+    private static final int REFERENCE_LENGTH = 400;
+    private static final int READ_LENGTH = 151;
+    private static final int NUM_READS = 500;
+
+    @Param({"10", "25"})
+    public int kmerSize;
+
+    private SAMFileHeader header;
+    private byte[] reference;
+    private List<GATKRead> reads;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        header = ArtificialReadUtils.createArtificialSamHeaderWithGroups(1, 1, REFERENCE_LENGTH, 1);
+        reference = BenchmarkDataUtils.randomBases(random, REFERENCE_LENGTH);
+        reads = BenchmarkDataUtils.artificialReads(random, header, reference, NUM_READS, READ_LENGTH);
+    }
+
+    @Benchmark
+    public ReadThreadingGraph buildGraph() {
+        final ReadThreadingGraph graph = new ReadThreadingGraph(kmerSize);
+        graph.addSequence("ref", reference, true);
+        for ( final GATKRead read : reads ) {
+            graph.addRead(read, header);
+        }
+        graph.buildGraphIfNecessary();
+        return graph;
+    }
+}
@@ -0,0 +1,111 @@
+package org.broadinstitute.hellbender.utils;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random but reproducible data for the JMH benchmarks. Every benchmark should seed its own {@link Random}, so that
+ * results are comparable between runs and revisions.
+ */
+public final class BenchmarkDataUtils {
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+    private BenchmarkDataUtils() {}
+
+    /**
+     * @return {@code length} random A, C, G or T bases
+     */
+    public static byte[] randomBases(final Random random, final int length) {
+        final byte[] bases = new byte[length];
+        for ( int i = 0; i < length; i++ ) {
+            bases[i] = BASES[random.nextInt(BASES.length)];
+        }
+        return bases;
+    }
+
+    /**
+     * @return a copy of {@code bases} where each base has been replaced by a random one with probability {@code mismatchRate}
+     */
+    public static byte[] withMismatches(final Random random, final byte[] bases, final double mismatchRate) {
+        final byte[] result = bases.clone();
+        for ( int i = 0; i < result.length; i++ ) {
+            if ( random.nextDouble() < mismatchRate ) {
+                result[i] = BASES[random.nextInt(BASES.length)];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code length} random base qualities in [minQual, maxQual]
+     */
+    public static byte[] randomQuals(final Random random, final int length, final int minQual, final int maxQual) {
+        final byte[] quals = new byte[length];
+        for ( int i = 0; i < length; i++ ) {
+            quals[i] = (byte)(minQual + random.nextInt(maxQual - minQual + 1));
+        }
+        return quals;
+    }
+
+    /**
+     * Create coordinate-sorted reads of the first contig of {@code header}, with their bases copied from {@code reference}
+     * (which must start at position 1 of that contig) with 1% mismatches. One read in ten has a 1 base deletion in the middle.
+     * Reads are given the first read group of {@code header}, if there is one, and a random strand.
+     */
+    public static List<GATKRead> artificialReads(final Random random, final SAMFileHeader header, final byte[] reference,
+                                                 final int numReads, final int readLength) {
+        Utils.validateArg(reference.length > readLength + 1, "the reference must be longer than the reads");
+        final String contig = header.getSequence(0).getSequenceName();
+        final String readGroup = header.getReadGroups().isEmpty() ? null : header.getReadGroups().get(0).getId();
+
+        final List<GATKRead> reads = new ArrayList<>(numReads);
+        for ( int i = 0; i < numReads; i++ ) {
+            final boolean hasDeletion = i % 10 == 0;
+            final int start = 1 + random.nextInt(reference.length - readLength - 1);
+            final byte[] bases = new byte[readLength];
+            if ( hasDeletion ) {
+                final int firstHalf = readLength / 2;
+                System.arraycopy(reference, start - 1, bases, 0, firstHalf);
+                System.arraycopy(reference, start + firstHalf, bases, firstHalf, readLength - firstHalf);
+            } else {
+                System.arraycopy(reference, start - 1, bases, 0, readLength);
+            }
+            final String cigar = hasDeletion ? (readLength / 2) + "M1D" + (readLength - readLength / 2) + "M" : readLength + "M";
+            final GATKRead read = ArtificialReadUtils.createArtificialRead(header, "read" + i, contig, start,
+                    withMismatches(random, bases, 0.01), randomQuals(random, readLength, 10, 40), cigar);
+            if ( readGroup != null ) {
+                read.setReadGroup(readGroup);
+            }
+            read.setIsReverseStrand(random.nextBoolean());
+            reads.add(read);
+        }
+        reads.sort(Comparator.comparingInt(GATKRead::getStart));
+        return reads;
+    }
+
+    /**
+     * @return a copy of {@code bases} with {@code length} random bases inserted at {@code position}
+     */
+    public static byte[] withInsertion(final Random random, final byte[] bases, final int position, final int length) {
+        final byte[] result = Arrays.copyOf(bases, bases.length + length);
+        System.arraycopy(bases, position, result, position + length, bases.length - position);
+        System.arraycopy(randomBases(random, length), 0, result, position, length);
+        return result;
+    }
+
+    /**
+     * @return a copy of {@code bases} with the {@code length} bases at {@code position} deleted
+     */
+    public static byte[] withDeletion(final byte[] bases, final int position, final int length) {
+        final byte[] result = Arrays.copyOf(bases, bases.length - length);
+        System.arraycopy(bases, position + length, result, position, bases.length - position - length);
+        return result;
+    }
+}
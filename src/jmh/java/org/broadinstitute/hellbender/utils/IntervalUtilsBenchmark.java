@@ -0,0 +1,79 @@
+package org.broadinstitute.hellbender.utils;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the merging of interval lists by {@link IntervalUtils}, in lists per second, for unsorted lists of
+ * exome-target-like intervals (a few hundred bases each) spread over 3 contigs, many of which overlap or abut.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalUtilsBenchmark {
+    private static final int NUM_CONTIGS = 3;
+    private static final int CONTIG_LENGTH = 10_000_000;
+
+    @Param({"1000", "100000"})
+    public int numIntervals;
+
+    @Param({"ALL", "OVERLAPPING_ONLY"})
+    public IntervalMergingRule mergingRule;
+
+    private GenomeLocParser parser;
+    private List<GenomeLoc> unsortedIntervals;
+    private List<GenomeLoc> sortedIntervals;
+    private List<GenomeLoc> mergedIntervals;
+    private List<GenomeLoc> otherMergedIntervals;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final SAMSequenceDictionary dictionary = ArtificialReadUtils.createArtificialSamHeader(NUM_CONTIGS, 1, CONTIG_LENGTH).getSequenceDictionary();
+        parser = new GenomeLocParser(dictionary);
+        unsortedIntervals = randomIntervals(random, dictionary);
+        sortedIntervals = new ArrayList<>(unsortedIntervals);
+        Collections.sort(sortedIntervals);
+        mergedIntervals = IntervalUtils.sortAndMergeIntervals(parser, unsortedIntervals, mergingRule).toList();
+        otherMergedIntervals = IntervalUtils.sortAndMergeIntervals(parser, randomIntervals(random, dictionary), mergingRule).toList();
+    }
+
+    private List<GenomeLoc> randomIntervals(final Random random, final SAMSequenceDictionary dictionary) {
+        final List<GenomeLoc> intervals = new ArrayList<>(numIntervals);
+        // dense enough for a good fraction of the intervals to overlap or abut, whatever their number
+        final int maxStart = Math.max(1000, numIntervals * 200 / NUM_CONTIGS);
+        for ( int i = 0; i < numIntervals; i++ ) {
+            final SAMSequenceRecord contig = dictionary.getSequence(random.nextInt(NUM_CONTIGS));
+            final int start = 1 + random.nextInt(Math.min(maxStart, contig.getSequenceLength() - 1000));
+            intervals.add(parser.createGenomeLoc(contig.getSequenceName(), start, start + 50 + random.nextInt(250)));
+        }
+        Collections.shuffle(intervals, random);
+        return intervals;
+    }
+
+    @Benchmark
+    public GenomeLocSortedSet sortAndMergeIntervals() {
+        return IntervalUtils.sortAndMergeIntervals(parser, unsortedIntervals, mergingRule);
+    }
+
+    @Benchmark
+    public List<GenomeLoc> mergeIntervalLocations() {
+        return IntervalUtils.mergeIntervalLocations(sortedIntervals, mergingRule);
+    }
+
+    @Benchmark
+    public List<GenomeLoc> intersectIntervalLists() {
+        return IntervalUtils.mergeListsBySetOperator(mergedIntervals, otherMergedIntervals, IntervalSetRule.INTERSECTION);
+    }
+}
@@ -0,0 +1,60 @@
+package org.broadinstitute.hellbender.utils.locusiterator;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.engine.AlignmentContext;
+import org.broadinstitute.hellbender.utils.BenchmarkDataUtils;
+import org.broadinstitute.hellbender.utils.downsampling.DownsamplingMethod;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link LocusIteratorByState#next}, as the number of complete passes per second over the pileups of
+ * {@value #REFERENCE_LENGTH} bases covered by reads at the given depth.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocusIteratorByStateBenchmark {
+    private static final int REFERENCE_LENGTH = 10_000;
+    private static final int READ_LENGTH = 151;
+
+    @Param({"30", "200"})
+    public int coverage;
+
+    @Param({"false", "true"})
+    public boolean includeReadsWithDeletionAtLoci;
+
+    private SAMFileHeader header;
+    private Set<String> samples;
+    private List<GATKRead> reads;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        header = ArtificialReadUtils.createArtificialSamHeaderWithGroups(1, 1, REFERENCE_LENGTH, 1);
+        samples = ReadUtils.getSamplesFromHeader(header);
+        final byte[] reference = BenchmarkDataUtils.randomBases(random, REFERENCE_LENGTH);
+        reads = BenchmarkDataUtils.artificialReads(random, header, reference, coverage * REFERENCE_LENGTH / READ_LENGTH, READ_LENGTH);
+    }
+
+    @Benchmark
+    public void iterateAllLoci(final Blackhole blackhole) {
+        final LocusIteratorByState libs = new LocusIteratorByState(reads.iterator(), DownsamplingMethod.NONE, false,
+                samples, header, includeReadsWithDeletionAtLoci);
+        while ( libs.hasNext() ) {
+            final AlignmentContext context = libs.next();
+            blackhole.consume(context.getBasePileup().size());
+        }
+    }
+}
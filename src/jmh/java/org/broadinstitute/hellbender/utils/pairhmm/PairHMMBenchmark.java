@@ -0,0 +1,103 @@
+package org.broadinstitute.hellbender.utils.pairhmm;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.PairHMMNativeArgumentCollection;
+import org.broadinstitute.hellbender.utils.BenchmarkDataUtils;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.genotyper.ReadLikelihoods;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link PairHMM#computeLog10Likelihoods}, in reads per second (each read being evaluated against all
+ * the haplotypes). The haplotypes look like those of an assembly region: they share most of their bases, and differ
+ * from each other by a SNP and sometimes a short indel.
+ *
+ * Only the Java implementations are benchmarked by default. The native ones can be benchmarked on machines that
+ * support them with eg. {@code -p implementation=AVX_LOGLESS_CACHING}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PairHMMBenchmark {
+    private static final int HAPLOTYPE_LENGTH = 400;
+    private static final int READ_LENGTH = 151;
+    private static final int NUM_READS = 100;
+    private static final byte GAP_CONTINUATION_PENALTY = 10;
+
+    @Param({"LOGLESS_CACHING", "PREFIX_SHARING_LOGLESS_CACHING"})
+    public PairHMM.Implementation implementation;
+
+    @Param({"4", "16"})
+    public int numHaplotypes;
+
+    private PairHMM hmm;
+    private List<GATKRead> reads;
+    private Map<GATKRead, byte[]> gapContinuationPenalties;
+    private LikelihoodMatrix<Haplotype> likelihoods;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final byte[] referenceBases = BenchmarkDataUtils.randomBases(random, HAPLOTYPE_LENGTH);
+        final List<Haplotype> haplotypes = new ArrayList<>(numHaplotypes);
+        haplotypes.add(new Haplotype(referenceBases, true));
+        for ( int i = 1; i < numHaplotypes; i++ ) {
+            // a SNP at a different position in each haplotype, so that they are all distinct, and an indel in two thirds of them
+            final byte[] bases = referenceBases.clone();
+            final int snpPosition = 10 + i * (HAPLOTYPE_LENGTH - 20) / numHaplotypes;
+            bases[snpPosition] = bases[snpPosition] == 'A' ? (byte)'C' : (byte)'A';
+            final int indelPosition = 20 + random.nextInt(HAPLOTYPE_LENGTH - 40);
+            final byte[] withIndel = i % 3 == 1 ? BenchmarkDataUtils.withInsertion(random, bases, indelPosition, 1 + random.nextInt(5)) :
+                    i % 3 == 2 ? BenchmarkDataUtils.withDeletion(bases, indelPosition, 1 + random.nextInt(5)) : bases;
+            haplotypes.add(new Haplotype(withIndel, false));
+        }
+
+        final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeader(1, 1, 1_000_000);
+        reads = new ArrayList<>(NUM_READS);
+        gapContinuationPenalties = new HashMap<>(NUM_READS);
+        for ( int i = 0; i < NUM_READS; i++ ) {
+            final byte[] haplotypeBases = haplotypes.get(random.nextInt(numHaplotypes)).getBases();
+            final int offset = random.nextInt(haplotypeBases.length - READ_LENGTH);
+            final byte[] bases = BenchmarkDataUtils.withMismatches(random, Arrays.copyOfRange(haplotypeBases, offset, offset + READ_LENGTH), 0.01);
+            final GATKRead read = ArtificialReadUtils.createArtificialRead(header, "read" + i, 0, 1 + offset, bases,
+                    BenchmarkDataUtils.randomQuals(random, READ_LENGTH, 10, 40), READ_LENGTH + "M");
+            reads.add(read);
+            final byte[] gcp = new byte[READ_LENGTH];
+            Arrays.fill(gcp, GAP_CONTINUATION_PENALTY);
+            gapContinuationPenalties.put(read, gcp);
+        }
+
+        likelihoods = new ReadLikelihoods<>(new IndexedSampleList("sample"), new IndexedAlleleList<>(haplotypes),
+                Collections.singletonMap("sample", reads)).sampleMatrix(0);
+        hmm = implementation.makeNewHMM(new PairHMMNativeArgumentCollection().getPairHMMArgs());
+    }
+
+    @TearDown
+    public void tearDown() {
+        hmm.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_READS)
+    public double computeLikelihoods() {
+        hmm.computeLog10Likelihoods(likelihoods, reads, gapContinuationPenalties);
+        return likelihoods.get(0, 0);
+    }
+}
@@ -0,0 +1,70 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.utils.BenchmarkDataUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.reference.ReferenceBases;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link BaseRecalibrationEngine#processRead}, in reads per second, with the number of bytes allocated
+ * per read reported as {@code gc.alloc.rate.norm}.
+ *
+ * Reads have about 1% mismatches against a random reference and some deletions, and there are no known sites.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseRecalibrationEngineBenchmark {
+    private static final int REFERENCE_LENGTH = 100_000;
+    private static final int NUM_READS = 1000;
+
+    @Param({"101", "151"})
+    public int readLength;
+
+    @Param({"false", "true"})
+    public boolean enableBAQ;
+
+    @Param({"false", "true"})
+    public boolean useFlatTables;
+
+    private BaseRecalibrationEngine engine;
+    private ReferenceDataSource reference;
+    private List<GATKRead> reads;
+    private int nextRead = 0;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeaderWithGroups(1, 1, REFERENCE_LENGTH, 1);
+        final String contig = header.getSequence(0).getSequenceName();
+
+        final byte[] referenceBases = BenchmarkDataUtils.randomBases(random, REFERENCE_LENGTH);
+        reference = ReferenceDataSource.of(new ReferenceBases(referenceBases, new SimpleInterval(contig, 1, REFERENCE_LENGTH)), header.getSequenceDictionary());
+        reads = BenchmarkDataUtils.artificialReads(random, header, referenceBases, NUM_READS, readLength);
+
+        final RecalibrationArgumentCollection recalArgs = new RecalibrationArgumentCollection();
+        recalArgs.enableBAQ = enableBAQ;
+        engine = new BaseRecalibrationEngine(recalArgs, header, useFlatTables);
+    }
+
+    /**
+     * Processes one read per invocation, so the throughput is in reads per second.
+     */
+    @Benchmark
+    public void processRead() {
+        engine.processRead(reads.get(nextRead), reference, Collections.emptyList());
+        nextRead = nextRead + 1 == reads.size() ? 0 : nextRead + 1;
+    }
+}
@@ -0,0 +1,69 @@
+package org.broadinstitute.hellbender.utils.smithwaterman;
+
+import org.broadinstitute.gatk.nativebindings.smithwaterman.SWOverhangStrategy;
+import org.broadinstitute.hellbender.utils.BenchmarkDataUtils;
+import org.broadinstitute.hellbender.utils.read.CigarUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link SmithWatermanJavaAligner#align}, in alignments per second, for the two alignments done by the
+ * HaplotypeCaller: haplotypes against the reference of an assembly region, and reads against their best haplotype,
+ * each with the parameters and overhang strategy used there.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmithWatermanJavaAlignerBenchmark {
+    private static final int NUM_SEQUENCES = 16;
+    private static final int READ_LENGTH = 151;
+
+    @Param({"300", "1000"})
+    public int referenceLength;
+
+    private final SmithWatermanJavaAligner aligner = SmithWatermanJavaAligner.getInstance();
+    private byte[] reference;
+    private byte[][] haplotypes;
+    private byte[][] reads;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        reference = BenchmarkDataUtils.randomBases(random, referenceLength);
+        haplotypes = new byte[NUM_SEQUENCES][];
+        reads = new byte[NUM_SEQUENCES][];
+        for ( int i = 0; i < NUM_SEQUENCES; i++ ) {
+            final byte[] withSNPs = BenchmarkDataUtils.withMismatches(random, reference, 0.005);
+            final int indelPosition = 20 + random.nextInt(referenceLength - 40);
+            final int indelLength = 1 + random.nextInt(10);
+            haplotypes[i] = i % 2 == 0 ? BenchmarkDataUtils.withInsertion(random, withSNPs, indelPosition, indelLength) :
+                    BenchmarkDataUtils.withDeletion(withSNPs, indelPosition, indelLength);
+
+            final int readStart = random.nextInt(haplotypes[i].length - READ_LENGTH);
+            reads[i] = BenchmarkDataUtils.withMismatches(random, Arrays.copyOfRange(haplotypes[i], readStart, readStart + READ_LENGTH), 0.01);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SEQUENCES)
+    public void alignHaplotypesToReference(final Blackhole blackhole) {
+        for ( final byte[] haplotype : haplotypes ) {
+            blackhole.consume(aligner.align(reference, haplotype, CigarUtils.NEW_SW_PARAMETERS, SWOverhangStrategy.SOFTCLIP));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SEQUENCES)
+    public void alignReadsToHaplotypes(final Blackhole blackhole) {
+        for ( int i = 0; i < NUM_SEQUENCES; i++ ) {
+            blackhole.consume(aligner.align(haplotypes[i], reads[i], CigarUtils.ALIGNMENT_TO_BEST_HAPLOTYPE_SW_PARAMETERS, SWOverhangStrategy.SOFTCLIP));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package htsjdk.samtools;
+
+import htsjdk.samtools.util.BinaryCodec;
+import htsjdk.samtools.util.BlockCompressedFilePointerUtil;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedOutputStream;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A BAM writer that writes stored (uncompressed) BGZF blocks to a {@link ParallelBlockCompressedOutputStream}, which
+ * compresses them in parallel. It writes exactly what {@link BAMFileWriter} writes, so the output is identical (see
+ * {@link ParallelBlockCompressedOutputStream} for the deflaters used).
+ *
+ * The BAM index, if any, is built while writing: the virtual file pointers of each record (which refer to the stored
+ * blocks) are translated to the compressed output once the blocks of the record have been compressed and written, so the
+ * records are kept until then, like htsjdk's asynchronous writer keeps them. This class lives in the htsjdk package
+ * to set the file source of the records for the indexer, like {@link BAMFileWriter} does.
+ */
+public final class ParallelCompressedBAMFileWriter extends SAMFileWriterImpl {
+    private final BlockCompressedOutputStream storedOutput;
+    private final BinaryCodec outputBinaryCodec;
+    private final StoredBlockIndexer indexer;
+    private BAMRecordCodec bamRecordCodec = null;
+
+    /**
+     * @param bgzfOutput stream to which the BAM output is written; closed when this writer is closed
+     * @param filename name of the output, for error messages
+     * @param header header of the output
+     * @param preSorted if true then the records must already be sorted to match the header sort order
+     * @param indexPath where to write the BAM index of the output, or null to not index it. Requires coordinate-sorted output.
+     */
+    public ParallelCompressedBAMFileWriter(final ParallelBlockCompressedOutputStream bgzfOutput, final String filename,
+                                           final SAMFileHeader header, final boolean preSorted, final Path indexPath) {
+        indexer = indexPath == null ? null : new StoredBlockIndexer(new BAMIndexer(indexPath, header));
+        storedOutput = new BlockCompressedOutputStream(indexer == null ? bgzfOutput.storedBlockSink() : bgzfOutput.storedBlockSink(indexer),
+                (Path)null, BlockCompressedOutputStream.getDefaultCompressionLevel(), ParallelBlockCompressedOutputStream.STORING_DEFLATER_FACTORY);
+        outputBinaryCodec = new BinaryCodec(storedOutput);
+        outputBinaryCodec.setOutputFileName(filename);
+        // same setup as SAMFileWriterFactory
+        setSortOrder(header.getSortOrder(), preSorted);
+        setHeader(header);
+    }
+
+    // htsjdk's BAM writer still writes its header through this deprecated method
+    @Override
+    @SuppressWarnings("deprecation")
+    protected void writeHeader(final String textHeader) {
+        BAMFileWriter.writeHeader(outputBinaryCodec, getFileHeader(), textHeader);
+    }
+
+    @Override
+    protected void writeAlignment(final SAMRecord alignment) {
+        if (bamRecordCodec == null) {
+            bamRecordCodec = new BAMRecordCodec(getFileHeader());
+            bamRecordCodec.setOutputStream(outputBinaryCodec.getOutputStream(), getFilename());
+        }
+        final long start = storedOutput.getFilePointer();
+        bamRecordCodec.encode(alignment);
+        if (indexer != null) {
+            alignment.setFileSource(new SAMFileSource(null, new BAMFileSpan(new Chunk(start, storedOutput.getFilePointer()))));
+            indexer.add(alignment);
+        }
+    }
+
+    @Override
+    protected void finish() {
+        // writes all remaining blocks
+        outputBinaryCodec.close();
+        if (indexer != null) {
+            indexer.finish();
+        }
+    }
+
+    @Override
+    protected String getFilename() {
+        return outputBinaryCodec.getOutputFileName();
+    }
+
+    /**
+     * Indexes records whose file source is a span of the stored output, once the blocks of that span have been
+     * written, replacing their file source with the same span of the compressed output.
+     */
+    private static final class StoredBlockIndexer implements ParallelBlockCompressedOutputStream.StoredBlockListener {
+        private final BAMIndexer indexer;
+        // records written, but not indexed yet, in order
+        private final Deque<SAMRecord> unindexedRecords = new ArrayDeque<>();
+        // {stored address, compressed address} of the blocks written since the start of the last indexed record
+        // (blocks are written while a record is encoded, before it's added)
+        private final Deque<long[]> writtenBlocks = new ArrayDeque<>();
+
+        StoredBlockIndexer(final BAMIndexer indexer) {
+            this.indexer = indexer;
+        }
+
+        void add(final SAMRecord record) {
+            unindexedRecords.add(record);
+            indexWrittenRecords();
+        }
+
+        @Override
+        public void blockWritten(final long storedAddress, final long compressedAddress) {
+            writtenBlocks.add(new long[]{storedAddress, compressedAddress});
+            indexWrittenRecords();
+        }
+
+        void finish() {
+            if (!unindexedRecords.isEmpty()) {
+                throw new GATKException("BAM output closed before the blocks of " + unindexedRecords.size() + " records were written");
+            }
+            indexer.finish();
+        }
+
+        private void indexWrittenRecords() {
+            while (!unindexedRecords.isEmpty()) {
+                final SAMRecord record = unindexedRecords.peekFirst();
+                final Chunk storedChunk = ((BAMFileSpan)record.getFileSource().getFilePointer()).getChunks().get(0);
+                if (writtenBlocks.isEmpty() || writtenBlocks.peekLast()[0] < BlockCompressedFilePointerUtil.getBlockAddress(storedChunk.getChunkEnd())) {
+                    return;
+                }
+                while (writtenBlocks.peekFirst()[0] < BlockCompressedFilePointerUtil.getBlockAddress(storedChunk.getChunkStart())) {
+                    writtenBlocks.removeFirst();
+                }
+                final Chunk chunk = new Chunk(toCompressedFilePointer(storedChunk.getChunkStart()), toCompressedFilePointer(storedChunk.getChunkEnd()));
+                record.setFileSource(new SAMFileSource(null, new BAMFileSpan(chunk)));
+                indexer.processAlignment(record);
+                unindexedRecords.removeFirst();
+            }
+        }
+
+        private long toCompressedFilePointer(final long storedFilePointer) {
+            final long storedAddress = BlockCompressedFilePointerUtil.getBlockAddress(storedFilePointer);
+            for (final long[] block : writtenBlocks) {
+                if (block[0] == storedAddress) {
+                    return BlockCompressedFilePointerUtil.makeFilePointer(block[1], BlockCompressedFilePointerUtil.getBlockOffset(storedFilePointer));
+                }
+            }
+            throw new GATKException("No BGZF block was written at stored address " + storedAddress);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.broadinstitute.hellbender.cmdline.PicardCommandLineProgramExecutor;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.exceptions.PicardNonZeroExitException;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.ClassRegistry;
 import org.broadinstitute.hellbender.utils.ClassUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.config.ConfigFactory;
@@ -303,13 +304,12 @@ public class Main {
                                                           final List<Class<? extends CommandLineProgram>> classList,
                                                           final String commandLineName ) {
         /** Get the set of classes that are our command line programs **/
-        final ClassFinder classFinder = new ClassFinder();
+        final Set<Class<?>> toCheck = new LinkedHashSet<>();
         for (final String pkg : packageList) {
-            classFinder.find(pkg, picard.cmdline.CommandLineProgram.class);
-            classFinder.find(pkg, CommandLineProgram.class);
+            toCheck.addAll(ClassRegistry.findClasses(pkg, picard.cmdline.CommandLineProgram.class));
+            toCheck.addAll(ClassRegistry.findClasses(pkg, CommandLineProgram.class));
         }
         String missingAnnotationClasses = "";
-        final Set<Class<?>> toCheck = classFinder.getClasses();
         toCheck.addAll(classList);
         final Map<String, Class<?>> simpleNameToClass = new LinkedHashMap<>();
         for (final Class<?> clazz : toCheck) {
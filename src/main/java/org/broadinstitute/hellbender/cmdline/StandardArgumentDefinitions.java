@@ -96,4 +96,13 @@ public final class StandardArgumentDefinitions {
     public static final String NIO_MAX_REOPENS_LONG_NAME = "gcs-max-retries";
     public static final String NIO_MAX_REOPENS_SHORT_NAME = "gcs-retries";
     public static final String NIO_PROJECT_FOR_REQUESTER_PAYS_LONG_NAME = "gcs-project-for-requester-pays";
+
+    /**
+     * Arguments for the number of threads are named after the unit of work that they process concurrently:
+     * {@code --read-threads}, {@code --locus-threads} and {@code --assembly-region-threads} for the traversals of the
+     * walkers (a tool has at most one of these), tool-specific ones such as {@code --variant-threads} (Funcotator) or
+     * {@code --em-threads} (VariantRecalibrator), and {@code --bgzf-threads} for the compression of the outputs.
+     * There is no bare {@code --threads} argument.
+     */
+    public static final String BGZF_THREADS_LONG_NAME = "bgzf-threads";
 }
@@ -11,15 +11,18 @@ import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.IGVUtils;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.activityprofile.ActivityProfileState;
 import org.broadinstitute.hellbender.utils.downsampling.PositionalDownsampler;
 import org.broadinstitute.hellbender.utils.downsampling.ReadsDownsampler;
+import org.broadinstitute.hellbender.utils.runtime.OrderedWorkerPool;
 
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 /**
  * An AssemblyRegionWalker is a tool that processes an entire region of reads at a time, each marked as either "active"
@@ -50,6 +53,8 @@ public abstract class AssemblyRegionWalker extends GATKTool {
     public static final String PROPAGATION_LONG_NAME = "max-prob-propagation-distance";
     public static final String PROFILE_OUT_LONG_NAME = "activity-profile-out";
     public static final String ASSEMBLY_REGION_OUT_LONG_NAME = "assembly-region-out";
+    public static final String ASSEMBLY_REGION_THREADS_LONG_NAME = "assembly-region-threads";
+    public static final String READ_PREFETCH_BUFFER_SIZE_LONG_NAME = "read-prefetch-buffer-size";
 
     @Advanced
     @Argument(fullName = MIN_ASSEMBLY_LONG_NAME, doc = "Minimum size of an assembly region", optional = true)
@@ -100,6 +105,28 @@ public abstract class AssemblyRegionWalker extends GATKTool {
 
     private PrintStream assemblyRegionOutStream;
 
+    /**
+     * Number of threads used to process assembly regions concurrently. Determination of the assembly regions
+     * (the activity profile) always happens on the main traversal thread, but with more than one thread the
+     * regions themselves are handed to a bounded pool of {@link AssemblyRegionWorker}s, and their results
+     * are emitted in the original region order. With more than one thread, each region draws from its own random
+     * generator (see {@link Utils#runWithRandomGenerator}), so the output is the same whatever the number of threads,
+     * but randomized values such as jittered annotations may differ from those of a single-threaded run, which draws
+     * from the shared generator. Only supported by tools that override {@link #supportsMultiThreadedAssemblyRegionProcessing}.
+     */
+    @Advanced
+    @Argument(fullName = ASSEMBLY_REGION_THREADS_LONG_NAME, doc = "Number of threads to use for processing assembly regions concurrently", optional = true, minValue = 1)
+    protected int assemblyRegionThreads = 1;
+
+    /**
+     * If > 0, reads are decoded, transformed, filtered and downsampled on a background thread, which stays up to
+     * two buffers of this many reads ahead of the activity profile and assembly region processing. This mostly
+     * helps when reads come from slow (eg., network-mounted) storage.
+     */
+    @Advanced
+    @Argument(fullName = READ_PREFETCH_BUFFER_SIZE_LONG_NAME, doc = "Number of reads per buffer to load ahead of the traversal on a background thread. Set to 0 to disable.", optional = true, minValue = 0)
+    protected int readPrefetchBufferSize = 0;
+
     /**
      * @return Default value for the {@link #minAssemblyRegionSize} parameter, if none is provided on the command line
      */
@@ -135,6 +162,26 @@ public abstract class AssemblyRegionWalker extends GATKTool {
      */
     protected abstract boolean includeReadsWithDeletionsInIsActivePileups();
 
+    /**
+     * @return true if this tool can process assembly regions on more than one thread (see {@link #assemblyRegionThreads}),
+     *         in which case it must also override {@link #makeAssemblyRegionWorker}. The default implementation returns false.
+     */
+    protected boolean supportsMultiThreadedAssemblyRegionProcessing() {
+        return false;
+    }
+
+    /**
+     * Create a new worker that processes assembly regions on its own thread, in place of {@link #apply}. Called
+     * once per thread, on the main traversal thread, after {@link #onTraversalStart}. Only called if
+     * {@link #supportsMultiThreadedAssemblyRegionProcessing} returns true and more than one assembly region
+     * thread was requested.
+     *
+     * @return a new worker, owning its own instances of any non-thread-safe state used to process a region
+     */
+    protected AssemblyRegionWorker makeAssemblyRegionWorker() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support multi-threaded assembly region processing");
+    }
+
     @Override
     public final boolean requiresReads() { return true; }
 
@@ -171,6 +218,11 @@ public abstract class AssemblyRegionWalker extends GATKTool {
             throw new CommandLineException.BadArgumentValue("maxReadsPerAlignmentStart must be >= 0");
         }
 
+        if ( assemblyRegionThreads > 1 && ! supportsMultiThreadedAssemblyRegionProcessing() ) {
+            throw new CommandLineException.BadArgumentValue(ASSEMBLY_REGION_THREADS_LONG_NAME, Integer.toString(assemblyRegionThreads),
+                    getClass().getSimpleName() + " does not support multi-threaded assembly region processing");
+        }
+
         final List<SimpleInterval> intervals = hasUserSuppliedIntervals() ? userIntervals : IntervalUtils.getAllIntervalsForReference(getHeaderForReads().getSequenceDictionary());
         readShards = makeReadShards(intervals);
 
@@ -256,15 +308,31 @@ public abstract class AssemblyRegionWalker extends GATKTool {
         // meter to check the time more frequently (every 10 regions instead of every 1000 regions).
         progressMeter.setRecordsBetweenTimeChecks(10L);
 
-        for ( final MultiIntervalLocalReadShard readShard : readShards ) {
-            // Since reads in each shard are lazily fetched, we need to pass the filter and transformers to the window
-            // instead of filtering the reads directly here
-            readShard.setPreReadFilterTransformer(makePreReadFilterTransformer());
-            readShard.setReadFilter(countedFilter);
-            readShard.setDownsampler(createDownsampler());
-            readShard.setPostReadFilterTransformer(makePostReadFilterTransformer());
+        // With multiple threads, the reference is also queried from the worker threads, so it must be synchronized,
+        // unless it is a .2bit reference, which can be queried concurrently (the FeatureManager synchronizes its own queries)
+        final ReferenceDataSource traversalReference = assemblyRegionThreads > 1 && !(reference instanceof ReferenceTwoBitSource) ?
+                new SynchronizedReferenceDataSource(reference) : reference;
 
-            processReadShard(readShard, reference, features);
+        if ( assemblyRegionThreads > 1 ) {
+            logger.info("Processing assembly regions using " + assemblyRegionThreads + " threads");
+        }
+        try ( final OrderedWorkerPool<AssemblyRegionWorker> workerPool = assemblyRegionThreads > 1 ?
+                new OrderedWorkerPool<>("assembly-region-worker", assemblyRegionThreads, this::makeAssemblyRegionWorker, AssemblyRegionWorker::close) : null ) {
+            for ( final MultiIntervalLocalReadShard readShard : readShards ) {
+                // Since reads in each shard are lazily fetched, we need to pass the filter and transformers to the window
+                // instead of filtering the reads directly here
+                readShard.setPreReadFilterTransformer(makePreReadFilterTransformer());
+                readShard.setReadFilter(countedFilter);
+                readShard.setDownsampler(createDownsampler());
+                readShard.setPostReadFilterTransformer(makePostReadFilterTransformer());
+                readShard.setReadPrefetchBufferSize(readPrefetchBufferSize);
+
+                processReadShard(readShard, traversalReference, features, workerPool);
+            }
+
+            if ( workerPool != null ) {
+                workerPool.drain();
+            }
         }
 
         logger.info(countedFilter.getSummaryLine());
@@ -277,8 +345,9 @@ public abstract class AssemblyRegionWalker extends GATKTool {
      * @param shard MultiIntervalLocalReadShard to process
      * @param reference Reference data source
      * @param features FeatureManager
+     * @param workerPool pool to process the regions on, or null to process them on this thread via {@link #apply}
      */
-    private void processReadShard(MultiIntervalLocalReadShard shard, ReferenceDataSource reference, FeatureManager features ) {
+    private void processReadShard(MultiIntervalLocalReadShard shard, ReferenceDataSource reference, FeatureManager features, OrderedWorkerPool<AssemblyRegionWorker> workerPool ) {
         final Iterator<AssemblyRegion> assemblyRegionIter = new AssemblyRegionIterator(shard, getHeaderForReads(), reference, features, assemblyRegionEvaluator(), minAssemblyRegionSize, maxAssemblyRegionSize, assemblyRegionPadding, activeProbThreshold, maxProbPropagationDistance, includeReadsWithDeletionsInIsActivePileups());
 
         // Call into the tool implementation to process each assembly region from this shard.
@@ -288,15 +357,34 @@ public abstract class AssemblyRegionWalker extends GATKTool {
             logger.debug("Processing assembly region at " + assemblyRegion.getSpan() + " isActive: " + assemblyRegion.isActive() + " numReads: " + assemblyRegion.getReads().size());
             writeAssemblyRegion(assemblyRegion);
 
-            apply(assemblyRegion,
-                    new ReferenceContext(reference, assemblyRegion.getExtendedSpan()),
-                    new FeatureContext(features, assemblyRegion.getExtendedSpan()));
-
-            // For this traversal, the progress meter unit is the assembly region rather than the read shard
-            progressMeter.update(assemblyRegion.getSpan());
+            final ReferenceContext referenceContext = new ReferenceContext(reference, assemblyRegion.getExtendedSpan());
+            final FeatureContext featureContext = new FeatureContext(features, assemblyRegion.getExtendedSpan());
+
+            if ( workerPool == null ) {
+                apply(assemblyRegion, referenceContext, featureContext);
+
+                // For this traversal, the progress meter unit is the assembly region rather than the read shard
+                progressMeter.update(assemblyRegion.getSpan());
+            } else {
+                // each region draws its random numbers (e.g. for annotation jittering) from its own generator, so that
+                // the output doesn't depend on the number of threads or on the order in which the regions are processed
+                final Random regionRandomGenerator = makeRegionRandomGenerator(assemblyRegion);
+                workerPool.submit(worker -> {
+                    final Runnable emitResults = Utils.runWithRandomGenerator(regionRandomGenerator,
+                            () -> worker.processRegion(assemblyRegion, referenceContext, featureContext));
+                    return () -> {
+                        emitResults.run();
+                        progressMeter.update(assemblyRegion.getSpan());
+                    };
+                });
+            }
         }
     }
 
+    private static Random makeRegionRandomGenerator(final AssemblyRegion region) {
+        return new Random(31L * region.getContig().hashCode() + region.getStart());
+    }
+
     private void writeAssemblyRegion(final AssemblyRegion region) {
         writeActivityProfile(region.getSupportingStates());
 
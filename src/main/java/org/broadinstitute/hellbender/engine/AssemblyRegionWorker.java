@@ -0,0 +1,33 @@
+package org.broadinstitute.hellbender.engine;
+
+/**
+ * A per-thread processor of {@link AssemblyRegion}s, used by {@link AssemblyRegionWalker} when traversing with
+ * more than one assembly region thread.
+ *
+ * Each worker thread owns exactly one worker, so implementations may keep expensive non-thread-safe state
+ * (PairHMM, Smith-Waterman aligner, assembler, reference reader, etc.) as plain fields. Any state shared with
+ * other workers or with the traversal thread (for example an output writer) must not be touched from
+ * {@link #processRegion}. Instead, {@link #processRegion} returns a {@link Runnable} that the traversal thread
+ * will run later, in the same order in which the regions were produced, so output stays coordinate-sorted.
+ */
+public interface AssemblyRegionWorker extends AutoCloseable {
+
+    /**
+     * Process an individual AssemblyRegion on a worker thread.
+     *
+     * @param region region to process (pre-marked as either active or inactive)
+     * @param referenceContext reference data overlapping the full extended span of the assembly region
+     * @param featureContext features overlapping the full extended span of the assembly region
+     * @return an action that emits the results for this region; it will be run on the traversal thread, in region order
+     */
+    Runnable processRegion( final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Release any resources held by this worker. Called on the traversal thread once all regions have been emitted.
+     * The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+        //do nothing
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 
 import java.util.*;
 
@@ -13,21 +14,38 @@ import java.util.*;
  * during query operations initiated via {@link FeatureDataSource#query(org.broadinstitute.hellbender.utils.SimpleInterval)}
  * and/or {@link FeatureDataSource#queryAndPrefetch(org.broadinstitute.hellbender.utils.SimpleInterval)}.
  *
- * Strategy is to pre-fetch a large number of records AFTER each query interval that produces
+ * Strategy is to pre-fetch a number of bases (the lookahead) AFTER each query interval that produces
  * a cache miss. This optimizes for the use case of intervals with gradually increasing start
  * positions, as many subsequent queries will find their records wholly contained in the cache
- * before we have another cache miss. Performance will be poor for random/non-localized access
- * patterns, or intervals with decreasing start positions.
+ * before we have another cache miss.
+ *
+ * To also serve random access patterns, or intervals with decreasing start positions, the cache holds
+ * the records from several fills (cached regions) rather than only the most recent one. Cached regions are
+ * indexed by contig and start position, and the records within a region are indexed by how far they reach,
+ * so that queries anywhere within a cached region don't need to scan the region from its start. Once the
+ * cache holds more than a maximum number of records, the least-recently-used regions are evicted.
+ *
+ * As queries move forward through a region, the records ending more than the lookahead before the query
+ * start are released (see {@link #releaseFeaturesBehind(int)}), so that a forward traversal keeps about
+ * two lookahead windows of records in memory, while queries backing up within that trailing window
+ * are still cache hits.
+ *
+ * The lookahead adapts to the hit rate: if a fill serves few queries before the traversal runs off its end,
+ * the lookahead is doubled, and if it serves few queries before the traversal moves elsewhere (backwards,
+ * to another contig, or far ahead) the lookahead was mostly wasted, and is halved.
  *
  * Usage:
  * -Test whether each query interval is a cache hit via {@link #cacheHit(org.broadinstitute.hellbender.utils.SimpleInterval)}
  *
- * -If it is a cache hit, trim the cache to the start position of the interval (discarding records that
- *  end before the start of the new interval) via {@link #trimToNewStartPosition(int)}, then retrieve
- *  records up to the desired endpoint using {@link #getCachedFeaturesUpToStopPosition(int)}.
+ * -If it is a cache hit, release the records the query has moved past via {@link #releaseFeaturesBehind(int)}, then
+ *  retrieve the records overlapping the interval via {@link #getCachedFeatures(SimpleInterval)}.
+ *
+ * -If it is a cache miss, add a new cached region using {@link #fill(java.util.Iterator, org.broadinstitute.hellbender.utils.SimpleInterval)},
+ *  pre-fetching {@link #getLookaheadBases()} bases after the query interval in addition to those actually requested,
+ *  and then retrieve the records overlapping the interval via {@link #getCachedFeatures(SimpleInterval)}.
  *
- * -If it is a cache miss, reset the cache using {@link #fill(java.util.Iterator, org.broadinstitute.hellbender.utils.SimpleInterval)}, pre-fetching
- *  a large number of records after the query interval in addition to those actually requested.
+ * The most recently filled or hit region can also be trimmed to a new start position via {@link #trimToNewStartPosition(int)},
+ * and read up to a stop position via {@link #getCachedFeaturesUpToStopPosition(int)}.
  *
  * @param <CACHED_FEATURE> Type of Feature record we are caching
  */
@@ -35,14 +53,64 @@ class FeatureCache<CACHED_FEATURE extends Feature> {
     private static final Logger logger = LogManager.getLogger(FeatureCache.class);
 
     /**
-     * Our cache of Features, optimized for insertion/removal at both ends.
+     * Default maximum number of Features in the cache. Once this is exceeded, the least-recently-used regions
+     * are evicted (the most recently used region is always kept, however large it is). Each region counts as
+     * one more than its number of Features, so that the number of regions without any Features is bounded too.
+     */
+    public static final int DEFAULT_MAX_CACHED_FEATURES = 4096;
+
+    /**
+     * The lookahead adapts to the hit rate within this factor of the initial lookahead, in either direction
+     */
+    private static final int MAX_LOOKAHEAD_SCALE = 64;
+
+    /**
+     * The lookahead is adapted whenever a fill served fewer than this many cache hits
+     */
+    private static final int TARGET_HITS_PER_FILL = 16;
+
+    /**
+     * Our cached regions on each contig, keyed by start position. No region on a contig contains another,
+     * so that when sorted by start the regions are also sorted by end, and the only region that can contain
+     * a query interval is the last one starting at or before it.
+     */
+    private final Map<String, TreeMap<Integer, CachedRegion<CACHED_FEATURE>>> regionsByContig = new HashMap<>();
+
+    /**
+     * All of our cached regions, from least to most recently used
      */
-    private final Deque<CACHED_FEATURE> cache;
+    private final LinkedHashSet<CachedRegion<CACHED_FEATURE>> regionsByRecency = new LinkedHashSet<>();
 
     /**
-     * Our cache currently contains Feature records overlapping this interval
+     * The most recently filled or hit region, or null if we've had no fills yet
      */
-    private SimpleInterval cachedInterval;
+    private CachedRegion<CACHED_FEATURE> currentRegion;
+
+    /**
+     * Total number of Features in our cached regions
+     */
+    private int numCachedFeatures = 0;
+
+    /**
+     * Maximum number of Features in our cached regions, plus one per region, before we start evicting regions
+     */
+    private final int maxCachedFeatures;
+
+    /**
+     * Number of bases to pre-fetch after the end of a query interval that produced a cache miss
+     */
+    private int lookaheadBases;
+
+    private final int minLookaheadBases;
+
+    private final int maxLookaheadBases;
+
+    /**
+     * The interval of the most recent fill, and the number of cache hits since then
+     */
+    private SimpleInterval lastFilledInterval;
+
+    private int numCacheHitsSinceLastFill = 0;
 
     /**
      * Number of times we called {@link #cacheHit(SimpleInterval)} and it returned true
@@ -55,58 +123,68 @@ class FeatureCache<CACHED_FEATURE extends Feature> {
     private int numCacheMisses = 0;
 
     /**
-     * Initial capacity of our cache (will grow by doubling if needed)
+     * Number of cached regions evicted to keep the cache within its maximum size
      */
-    private static final int INITIAL_CAPACITY = 1024;
+    private int numEvictions = 0;
 
     /**
-     * When we trim our cache to a new start position, this is the maximum number of
-     * Features we expect to need to place into temporary storage for the duration of
-     * the trim operation. Performance only suffers slightly if our estimate is wrong.
+     * Create an initially-empty FeatureCache with the default maximum size and no lookahead
      */
-    private static final int EXPECTED_MAX_OVERLAPPING_FEATURES_DURING_CACHE_TRIM = 128;
+    public FeatureCache() {
+        this(0, DEFAULT_MAX_CACHED_FEATURES);
+    }
 
     /**
-     * Create an initially-empty FeatureCache with default initial capacity
+     * Create an initially-empty FeatureCache
+     *
+     * @param initialLookaheadBases initial number of bases to pre-fetch after a query interval that produced a cache miss;
+     *                              if 0, there is no lookahead, and it is not adapted
+     * @param maxCachedFeatures maximum number of Features in the cache, plus one per cached region, before
+     *                          least-recently-used regions are evicted
      */
-    public FeatureCache() {
-        cache = new ArrayDeque<>(INITIAL_CAPACITY);
+    public FeatureCache( final int initialLookaheadBases, final int maxCachedFeatures ) {
+        Utils.validateArg(initialLookaheadBases >= 0, "Query lookahead bases must be >= 0");
+        Utils.validateArg(maxCachedFeatures > 0, "The maximum number of cached features must be > 0");
+        this.lookaheadBases = initialLookaheadBases;
+        this.minLookaheadBases = initialLookaheadBases == 0 ? 0 : Math.max(1, initialLookaheadBases / MAX_LOOKAHEAD_SCALE);
+        this.maxLookaheadBases = (int)Math.min(Integer.MAX_VALUE / 2, (long)initialLookaheadBases * MAX_LOOKAHEAD_SCALE);
+        this.maxCachedFeatures = maxCachedFeatures;
     }
 
     /**
-     * Get the name of the contig on which the Features in our cache are located
+     * Get the name of the contig of the most recently filled or hit region
      *
-     * @return the name of the contig on which the Features in our cache are located
+     * @return the name of the contig of the most recently filled or hit region
      */
     public String getContig() {
-        return cachedInterval.getContig();
+        return currentRegion.interval.getContig();
     }
 
     /**
-     * Get the start position of the interval that all Features in our cache overlap
+     * Get the start position of the interval that all Features in the most recently filled or hit region overlap
      *
-     * @return the start position of the interval that all Features in our cache overlap
+     * @return the start position of the interval that all Features in the most recently filled or hit region overlap
      */
     public int getCacheStart() {
-        return cachedInterval.getStart();
+        return currentRegion.interval.getStart();
     }
 
     /**
-     * Get the stop position of the interval that all Features in our cache overlap
+     * Get the stop position of the interval that all Features in the most recently filled or hit region overlap
      *
-     * @return the stop position of the interval that all Features in our cache overlap
+     * @return the stop position of the interval that all Features in the most recently filled or hit region overlap
      */
     public int getCacheEnd() {
-        return cachedInterval.getEnd();
+        return currentRegion.interval.getEnd();
     }
 
     /**
-     * Does our cache currently contain no Features?
+     * Does the most recently filled or hit region contain no Features?
      *
-     * @return true if our cache contains no Features, otherwise false
+     * @return true if the most recently filled or hit region contains no Features (or there is no such region), otherwise false
      */
     public boolean isEmpty() {
-        return cache.isEmpty();
+        return currentRegion == null || currentRegion.size() == 0;
     }
 
     /**
@@ -124,96 +202,161 @@ class FeatureCache<CACHED_FEATURE extends Feature> {
     }
 
     /**
-     * Clear our cache and fill it with the records from the provided iterator, preserving their
-     * relative ordering, and update our contig/start/stop to reflect the new interval that all
-     * records in our cache overlap.
+     * @return Number of cached regions evicted to keep the cache within its maximum size
+     */
+    public int getNumEvictions() {
+        return numEvictions;
+    }
+
+    /**
+     * @return Number of Features currently in the cache, over all cached regions
+     */
+    public int getNumCachedFeatures() {
+        return numCachedFeatures;
+    }
+
+    /**
+     * @return Number of cached regions
+     */
+    public int getNumCachedRegions() {
+        return regionsByRecency.size();
+    }
+
+    /**
+     * @return Number of bases to pre-fetch after the end of a query interval that produced a cache miss.
+     *         Adapted to the hit rate on every cache miss.
+     */
+    public int getLookaheadBases() {
+        return lookaheadBases;
+    }
+
+    /**
+     * Add a new cached region holding the records from the provided iterator, preserving their relative ordering,
+     * and make it the current region. Cached regions that contain, or are contained in, the new region are discarded,
+     * and the least-recently-used regions are evicted if the cache grows beyond its maximum size.
      *
-     * Typically each fill operation should involve significant lookahead beyond the region
-     * requested so that future queries will be cache hits.
+     * Typically each fill operation should involve lookahead beyond the region requested
+     * (see {@link #getLookaheadBases()}) so that future queries will be cache hits.
      *
-     * @param featureIter iterator from which to pull Features with which to populate our cache
-     *                    (replacing existing cache contents)
+     * @param featureIter iterator from which to pull Features with which to populate the new region,
+     *                    sorted by start position
      * @param interval all Features from featureIter overlap this interval
      */
     public void fill( final Iterator<CACHED_FEATURE> featureIter, final SimpleInterval interval ) {
-        cache.clear();
+        final List<CACHED_FEATURE> features = new ArrayList<>();
         while ( featureIter.hasNext() ) {
-            cache.add(featureIter.next());
+            features.add(featureIter.next());
         }
 
-        cachedInterval = interval;
+        currentRegion = new CachedRegion<>(interval, features);
+        addRegion(currentRegion);
+
+        lastFilledInterval = interval;
+        numCacheHitsSinceLastFill = 0;
     }
 
     /**
-     * Determines whether all records overlapping the provided interval are already contained in our cache.
+     * Determines whether all records overlapping the provided interval are already contained in one of our
+     * cached regions. If so, that region becomes the current region. If not, the lookahead is adapted to the
+     * hit rate of the most recent fill before the caller refills the cache.
      *
      * @param interval the interval to check against the contents of our cache
      * @return true if all records overlapping the provided interval are already contained in our cache, otherwise false
      */
     public boolean cacheHit( final SimpleInterval interval ) {
-        final boolean cacheHit = cachedInterval != null && cachedInterval.contains(interval);
+        final CachedRegion<CACHED_FEATURE> region = findContainingRegion(interval);
 
-        if ( cacheHit ) {
+        if ( region != null ) {
             ++numCacheHits;
+            ++numCacheHitsSinceLastFill;
+            currentRegion = region;
+            markRecentlyUsed(region);
         }
         else {
             ++numCacheMisses;
+            adaptLookahead(interval);
         }
 
-        return cacheHit;
+        return region != null;
     }
 
     /**
-     * Trims the cache to the specified new start position by discarding all records that end before it
+     * Returns (but does not remove) all cached Features in the current region that overlap the provided interval,
+     * in the order in which they were added to the cache.
+     *
+     * @param interval interval that returned Features must overlap; must be contained in the current region
+     *                 (ie., the previous call to {@link #cacheHit(SimpleInterval)} must have returned true for it,
+     *                 or the previous {@link #fill} must have covered it)
+     * @return all cached Features that overlap the provided interval
+     */
+    public List<CACHED_FEATURE> getCachedFeatures( final SimpleInterval interval ) {
+        if ( currentRegion == null || ! currentRegion.interval.contains(interval) ) {
+            throw new GATKException(String.format("BUG: attempted to retrieve Features over %s from a Feature cache region that doesn't contain it (%s)",
+                    interval, currentRegion == null ? "no cached region" : currentRegion.interval));
+        }
+        return currentRegion.getOverlapping(interval.getStart(), interval.getEnd());
+    }
+
+    /**
+     * Trims the current region to the specified new start position by discarding all records that end before it
      * while preserving relative ordering of records.
      *
-     * @param newStart new start position on the current contig to which to trim the cache
+     * @param newStart new start position on the current contig to which to trim the current region
      */
     public void trimToNewStartPosition( final int newStart ) {
-        if ( newStart > cachedInterval.getEnd() ) {
+        if ( newStart > currentRegion.interval.getEnd() ) {
             throw new GATKException(String.format("BUG: attempted to trim Feature cache to an improper new start position (%d). Cache stop = %d",
-                    newStart, cachedInterval.getEnd()));
+                    newStart, currentRegion.interval.getEnd()));
         }
 
-        List<CACHED_FEATURE> overlappingFeaturesBeforeNewStart = new ArrayList<>(EXPECTED_MAX_OVERLAPPING_FEATURES_DURING_CACHE_TRIM);
-
-        // In order to trim the cache to the new start position, we need to find
-        // all Features in the cache that start before the new start position,
-        // and discard those that don't overlap the new start while keeping those
-        // that do overlap. We can stop once we find a Feature that starts on or
-        // after the new start position, since the Features are assumed to be sorted
-        // by start position.
-        while ( ! cache.isEmpty() && cache.getFirst().getStart() < newStart ) {
-            CACHED_FEATURE featureBeforeNewStart = cache.removeFirst();
-
-            if ( featureBeforeNewStart.getEnd() >= newStart ) {
-                overlappingFeaturesBeforeNewStart.add(featureBeforeNewStart);
-            }
+        final TreeMap<Integer, CachedRegion<CACHED_FEATURE>> contigRegions = regionsByContig.get(currentRegion.interval.getContig());
+        contigRegions.remove(currentRegion.interval.getStart());
+        numCachedFeatures -= currentRegion.size();
+        currentRegion.trim(newStart);
+        numCachedFeatures += currentRegion.size();
+
+        // The region is re-indexed under its new start position. It can't contain any other region now if it didn't
+        // before, but it may now be contained in the last region starting before it, or in one starting at the same
+        // position, which are then discarded.
+        final CachedRegion<CACHED_FEATURE> sameStart = contigRegions.put(newStart, currentRegion);
+        if ( sameStart != null ) {
+            regionsByRecency.remove(sameStart);
+            numCachedFeatures -= sameStart.size();
         }
-
-        // Add back the Features that started before the new start but overlapped it
-        // in the reverse of the order in which we encountered them so that their original
-        // relative ordering in the cache is restored.
-        for ( int i = overlappingFeaturesBeforeNewStart.size() - 1; i >= 0; --i ) {
-            cache.addFirst(overlappingFeaturesBeforeNewStart.get(i));
+        final Map.Entry<Integer, CachedRegion<CACHED_FEATURE>> previous = contigRegions.lowerEntry(newStart);
+        if ( previous != null && previous.getValue().interval.getEnd() >= currentRegion.interval.getEnd() ) {
+            removeRegion(previous.getValue());
         }
+    }
 
-        // Record our new start boundary
-        cachedInterval = new SimpleInterval(cachedInterval.getContig(), newStart, cachedInterval.getEnd());
+    /**
+     * Releases the Features in the current region that end more than {@link #getLookaheadBases()} bases before
+     * the given position, by trimming the region to that new start position if it is after the current start.
+     * Called as queries move forward, this keeps memory use of a forward traversal to about two lookahead windows,
+     * while still allowing queries to back up by up to the lookahead.
+     *
+     * @param position start position of the most recent query, which must be contained in the current region
+     */
+    public void releaseFeaturesBehind( final int position ) {
+        final int newStart = position - lookaheadBases;
+        if ( newStart > currentRegion.interval.getStart() ) {
+            trimToNewStartPosition(newStart);
+        }
     }
 
     /**
-     * Returns (but does not remove) all cached Features that overlap the region from the start
-     * of our cache (cacheStart) to the specified stop position.
+     * Returns (but does not remove) all Features in the current region that overlap the region from the start
+     * of the current region (cacheStart) to the specified stop position.
      *
      * @param stopPosition Endpoint of the interval that returned Features must overlap
-     * @return all cached Features that overlap the region from the start of our cache to the specified stop position
+     * @return all cached Features that overlap the region from the start of the current region to the specified stop position
      */
     public List<CACHED_FEATURE> getCachedFeaturesUpToStopPosition( final int stopPosition ) {
-        List<CACHED_FEATURE> matchingFeatures = new ArrayList<>(cache.size());
+        final List<CACHED_FEATURE> features = currentRegion.features;
+        final List<CACHED_FEATURE> matchingFeatures = new ArrayList<>(currentRegion.size());
 
         // Find (but do not remove from our cache) all Features that start before or on the provided stop position
-        for ( CACHED_FEATURE candidateFeature : cache ) {
+        for ( final CACHED_FEATURE candidateFeature : features.subList(currentRegion.firstFeature, features.size()) ) {
             if ( candidateFeature.getStart() > stopPosition ) {
                 break; // No more possible matches among the remaining cached Features, so stop looking
             }
@@ -222,6 +365,105 @@ class FeatureCache<CACHED_FEATURE extends Feature> {
         return matchingFeatures;
     }
 
+    /**
+     * @return the cached region containing the interval, or null if there is none
+     */
+    private CachedRegion<CACHED_FEATURE> findContainingRegion( final SimpleInterval interval ) {
+        // Check the current region first, since consecutive queries usually hit the same region
+        if ( currentRegion != null && currentRegion.interval.contains(interval) ) {
+            return currentRegion;
+        }
+
+        final TreeMap<Integer, CachedRegion<CACHED_FEATURE>> contigRegions = regionsByContig.get(interval.getContig());
+        if ( contigRegions == null ) {
+            return null;
+        }
+        final Map.Entry<Integer, CachedRegion<CACHED_FEATURE>> candidate = contigRegions.floorEntry(interval.getStart());
+        return candidate != null && candidate.getValue().interval.contains(interval) ? candidate.getValue() : null;
+    }
+
+    /**
+     * Index a new region, discarding the regions that contain or are contained in it, then evict least-recently-used
+     * regions until we're within our maximum size (or only the new region is left).
+     */
+    private void addRegion( final CachedRegion<CACHED_FEATURE> region ) {
+        final SimpleInterval interval = region.interval;
+        final TreeMap<Integer, CachedRegion<CACHED_FEATURE>> existingContigRegions = regionsByContig.get(interval.getContig());
+
+        // Of the regions starting before the new one, only the last one can contain it. Of the regions starting
+        // within the new one, those ending within it are contained in it, and one starting at the same position
+        // contains it.
+        if ( existingContigRegions != null ) {
+            final List<CachedRegion<CACHED_FEATURE>> redundantRegions = new ArrayList<>();
+            final Map.Entry<Integer, CachedRegion<CACHED_FEATURE>> previous = existingContigRegions.lowerEntry(interval.getStart());
+            if ( previous != null && previous.getValue().interval.getEnd() >= interval.getEnd() ) {
+                redundantRegions.add(previous.getValue());
+            }
+            for ( final CachedRegion<CACHED_FEATURE> overlapping : existingContigRegions.subMap(interval.getStart(), true, interval.getEnd(), true).values() ) {
+                if ( overlapping.interval.getStart() == interval.getStart() || overlapping.interval.getEnd() <= interval.getEnd() ) {
+                    redundantRegions.add(overlapping);
+                }
+            }
+            redundantRegions.forEach(this::removeRegion);
+        }
+
+        regionsByContig.computeIfAbsent(interval.getContig(), contig -> new TreeMap<>()).put(interval.getStart(), region);
+        regionsByRecency.add(region);
+        numCachedFeatures += region.size();
+
+        final Iterator<CachedRegion<CACHED_FEATURE>> leastRecentlyUsed = regionsByRecency.iterator();
+        while ( numCachedFeatures + regionsByRecency.size() > maxCachedFeatures && regionsByRecency.size() > 1 ) {
+            final CachedRegion<CACHED_FEATURE> evicted = leastRecentlyUsed.next();
+            if ( evicted != region ) {
+                leastRecentlyUsed.remove();
+                removeFromContigIndex(evicted);
+                ++numEvictions;
+            }
+        }
+    }
+
+    private void removeRegion( final CachedRegion<CACHED_FEATURE> region ) {
+        regionsByRecency.remove(region);
+        removeFromContigIndex(region);
+    }
+
+    private void removeFromContigIndex( final CachedRegion<CACHED_FEATURE> region ) {
+        final TreeMap<Integer, CachedRegion<CACHED_FEATURE>> contigRegions = regionsByContig.get(region.interval.getContig());
+        contigRegions.remove(region.interval.getStart());
+        if ( contigRegions.isEmpty() ) {
+            regionsByContig.remove(region.interval.getContig());
+        }
+        numCachedFeatures -= region.size();
+    }
+
+    private void markRecentlyUsed( final CachedRegion<CACHED_FEATURE> region ) {
+        regionsByRecency.remove(region);
+        regionsByRecency.add(region);
+    }
+
+    /**
+     * Adapt the lookahead after a cache miss, based on how many cache hits the most recent fill served.
+     * If it served few before the traversal ran off its end, we didn't look far enough ahead. If it served few
+     * before the traversal moved elsewhere, most of the lookahead was wasted.
+     *
+     * @param missedInterval the query interval that produced a cache miss
+     */
+    private void adaptLookahead( final SimpleInterval missedInterval ) {
+        if ( lastFilledInterval == null || numCacheHitsSinceLastFill >= TARGET_HITS_PER_FILL ) {
+            return;
+        }
+
+        final boolean ranOffEnd = lastFilledInterval.getContig().equals(missedInterval.getContig()) &&
+                missedInterval.getStart() >= lastFilledInterval.getStart() &&
+                missedInterval.getStart() <= (long)lastFilledInterval.getEnd() + lookaheadBases + 1 &&
+                missedInterval.getEnd() > lastFilledInterval.getEnd();
+
+        lookaheadBases = ranOffEnd ? Math.min(maxLookaheadBases, lookaheadBases * 2) : Math.max(minLookaheadBases, lookaheadBases / 2);
+
+        // only adapt once per fill
+        lastFilledInterval = null;
+    }
+
     /**
      * Print statistics about the cache hit rate for debugging.
      */
@@ -238,11 +480,129 @@ class FeatureCache<CACHED_FEATURE extends Feature> {
         final String sourceNameString = sourceName.isEmpty() ? "" : "for data source " + sourceName;
 
         final int totalQueries = getNumCacheHits() + getNumCacheMisses();
-        logger.debug(String.format("Cache hit rate %s was %.2f%% (%d out of %d total queries)",
+        logger.debug(String.format("Cache hit rate %s was %.2f%% (%d out of %d total queries, %d cached regions evicted, final lookahead %d bases)",
                 sourceNameString,
                 totalQueries > 0 ? ((double)getNumCacheHits() / totalQueries) * 100.0 : 0.0,
                 getNumCacheHits(),
-                totalQueries));
+                totalQueries,
+                getNumEvictions(),
+                getLookaheadBases()));
     }
-}
 
+    /**
+     * The Features from a single fill, with an index of how far they reach so that queries
+     * within the region can skip the Features that end before the query starts.
+     */
+    private static final class CachedRegion<F extends Feature> {
+        /**
+         * Each bucket of the index covers 2**BUCKET_SHIFT Features
+         */
+        private static final int BUCKET_SHIFT = 5;
+
+        /**
+         * All Features in this region overlap this interval
+         */
+        private SimpleInterval interval;
+
+        /**
+         * Features sorted by start position, in the order in which they were added. Features before
+         * firstFeature have been trimmed away, and their slots cleared.
+         */
+        private final List<F> features;
+
+        private int firstFeature = 0;
+
+        /**
+         * reach[b] is the maximum end position over the Features originally in buckets 0 to b, so it never decreases.
+         * Trimming only removes Features, or moves them to later slots, so it remains an upper bound afterwards.
+         */
+        private final int[] reach;
+
+        CachedRegion( final SimpleInterval interval, final List<F> features ) {
+            this.interval = interval;
+            this.features = features;
+            this.reach = new int[(features.size() + (1 << BUCKET_SHIFT) - 1) >> BUCKET_SHIFT];
+            int maxEnd = Integer.MIN_VALUE;
+            for ( int i = 0; i < features.size(); i++ ) {
+                maxEnd = Math.max(maxEnd, features.get(i).getEnd());
+                reach[i >> BUCKET_SHIFT] = maxEnd;
+            }
+        }
+
+        /**
+         * @return the number of Features remaining in this region
+         */
+        int size() {
+            return features.size() - firstFeature;
+        }
+
+        /**
+         * @return the Features overlapping [start, end], in order
+         */
+        List<F> getOverlapping( final int start, final int end ) {
+            final List<F> overlapping = new ArrayList<>();
+            for ( int i = Math.max(firstFeature, firstPotentiallyReaching(start)); i < features.size(); i++ ) {
+                final F feature = features.get(i);
+                // Features are sorted by start position, so no later Feature can overlap either
+                if ( feature.getStart() > end ) {
+                    break;
+                }
+                if ( feature.getEnd() >= start ) {
+                    overlapping.add(feature);
+                }
+            }
+            return overlapping;
+        }
+
+        /**
+         * Discard the Features that end before the new start position, preserving the relative ordering of the others
+         */
+        void trim( final int newStart ) {
+            // In order to trim the region to the new start position, we need to find all Features that start
+            // before the new start position, and discard those that don't overlap the new start while keeping
+            // those that do overlap. We can stop once we find a Feature that starts on or after the new start
+            // position, since the Features are sorted by start position.
+            List<F> overlappingFeaturesBeforeNewStart = Collections.emptyList();
+            int next = firstFeature;
+            while ( next < features.size() && features.get(next).getStart() < newStart ) {
+                final F featureBeforeNewStart = features.get(next++);
+                if ( featureBeforeNewStart.getEnd() >= newStart ) {
+                    if ( overlappingFeaturesBeforeNewStart.isEmpty() ) {
+                        overlappingFeaturesBeforeNewStart = new ArrayList<>();
+                    }
+                    overlappingFeaturesBeforeNewStart.add(featureBeforeNewStart);
+                }
+            }
+
+            // Move the Features we keep to the slots just before the first Feature starting on or after the new start,
+            // and clear the slots before them so that the discarded Features can be garbage-collected
+            final int newFirstFeature = next - overlappingFeaturesBeforeNewStart.size();
+            for ( int i = firstFeature; i < newFirstFeature; i++ ) {
+                features.set(i, null);
+            }
+            for ( int i = 0; i < overlappingFeaturesBeforeNewStart.size(); i++ ) {
+                features.set(newFirstFeature + i, overlappingFeaturesBeforeNewStart.get(i));
+            }
+            firstFeature = newFirstFeature;
+
+            interval = new SimpleInterval(interval.getContig(), newStart, interval.getEnd());
+        }
+
+        /**
+         * @return an index such that no Feature before it reaches the given position
+         */
+        private int firstPotentiallyReaching( final int position ) {
+            int low = 0;
+            int high = reach.length;
+            while ( low < high ) {
+                final int mid = (low + high) >>> 1;
+                if ( reach[mid] < position ) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low << BUCKET_SHIFT;
+        }
+    }
+}
@@ -84,21 +84,21 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
 
     /**
      * Cache containing Features from recent queries initiated via {@link #query(SimpleInterval)} and/or
-     * {@link #queryAndPrefetch(SimpleInterval)}. This is guaranteed to start at the start position of the
-     * most recent query, but will typically end well after the end of the most recent query. Designed to
-     * improve performance of the common access pattern involving multiple queries across nearby intervals
-     * with gradually increasing start positions.
-     */
-    private final FeatureCache<T> queryCache;
-
-    /**
+     * {@link #queryAndPrefetch(SimpleInterval)}. Each cache miss adds a region starting at the start position of the
+     * query, but typically ending well after the end of the query. Features that the queries have moved well past
+     * are released from the region in use, and the least-recently-used regions are evicted once the cache is full.
+     * Designed to improve performance of the common access pattern involving multiple queries across nearby
+     * intervals with gradually increasing start positions, while still serving queries that back up
+     * or move between a few loci (eg., across contigs) from memory.
+     *
      * When we experience a cache miss (ie., a query interval not fully contained within our cache) and need
-     * to re-populate the Feature cache from disk to satisfy a query, this controls the number of extra bases
-     * AFTER the end of our interval to fetch. Should be sufficiently large so that typically a significant number
-     * of subsequent queries will be cache hits (ie., query intervals fully contained within our cache) before
-     * we have another cache miss and need to go to disk again.
+     * to re-populate the Feature cache from disk to satisfy a query, the cache also controls the number of extra bases
+     * AFTER the end of our interval to fetch. This starts at the queryLookaheadBases given to our constructor,
+     * and adapts to the cache hit rate so that typically a significant number of subsequent queries will be cache
+     * hits (ie., query intervals fully contained within our cache) before we have another cache miss and need to
+     * go to disk again.
      */
-    private final int queryLookaheadBases;
+    private final FeatureCache<T> queryCache;
 
     /**
      * Holds information about the path this datasource reads from.
@@ -166,7 +166,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      *
      * @param featureFile         file containing Features
      * @param name                logical name for this data source (may be null)
-     * @param queryLookaheadBases look ahead this many bases during queries that produce cache misses
+     * @param queryLookaheadBases initially look ahead this many bases during queries that produce cache misses (adapted to the cache hit rate)
      */
     public FeatureDataSource(final File featureFile, final String name, final int queryLookaheadBases) {
         this(Utils.nonNull(featureFile).getAbsolutePath(), name, queryLookaheadBases, null);
@@ -177,7 +177,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      *
      * @param featurePath         path to file or GenomicsDB url containing features
      * @param name                logical name for this data source (may be null)
-     * @param queryLookaheadBases look ahead this many bases during queries that produce cache misses
+     * @param queryLookaheadBases initially look ahead this many bases during queries that produce cache misses (adapted to the cache hit rate)
      * @param targetFeatureType   When searching for a {@link FeatureCodec} for this data source, restrict the search to codecs
      *                            that produce this type of Feature. May be null, which results in an unrestricted search.
      */
@@ -190,7 +190,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      * during queries that produce cache misses.
      *
      * @param featureInput        a FeatureInput specifying a source of Features
-     * @param queryLookaheadBases look ahead this many bases during queries that produce cache misses
+     * @param queryLookaheadBases initially look ahead this many bases during queries that produce cache misses (adapted to the cache hit rate)
      * @param targetFeatureType   When searching for a {@link FeatureCodec} for this data source, restrict the search to codecs
      *                            that produce this type of Feature. May be null, which results in an unrestricted search.
      */
@@ -203,7 +203,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      *
      * @param featurePath              path to file or GenomicsDB url containing features
      * @param name                     logical name for this data source (may be null)
-     * @param queryLookaheadBases      look ahead this many bases during queries that produce cache misses
+     * @param queryLookaheadBases      initially look ahead this many bases during queries that produce cache misses (adapted to the cache hit rate)
      * @param targetFeatureType        When searching for a {@link FeatureCodec} for this data source, restrict the search to codecs
      *                                 that produce this type of Feature. May be null, which results in an unrestricted search.
      * @param cloudPrefetchBuffer      MB size of caching/prefetching wrapper for the data, if on Google Cloud (0 to disable).
@@ -219,7 +219,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      * during queries that produce cache misses.
      *
      * @param featureInput             a FeatureInput specifying a source of Features
-     * @param queryLookaheadBases      look ahead this many bases during queries that produce cache misses
+     * @param queryLookaheadBases      initially look ahead this many bases during queries that produce cache misses (adapted to the cache hit rate)
      * @param targetFeatureType        When searching for a {@link FeatureCodec} for this data source, restrict the search to codecs
      *                                 that produce this type of Feature. May be null, which results in an unrestricted search.
      * @param cloudPrefetchBuffer      MB size of caching/prefetching wrapper for the data, if on Google Cloud (0 to disable).
@@ -236,7 +236,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      * during queries that produce cache misses.
      *
      * @param featureInput             a FeatureInput specifying a source of Features
-     * @param queryLookaheadBases      look ahead this many bases during queries that produce cache misses
+     * @param queryLookaheadBases      initially look ahead this many bases during queries that produce cache misses (adapted to the cache hit rate)
      * @param targetFeatureType        When searching for a {@link FeatureCodec} for this data source, restrict the search to codecs
      *                                 that produce this type of Feature. May be null, which results in an unrestricted search.
      * @param cloudPrefetchBuffer      MB size of caching/prefetching wrapper for the data, if on Google Cloud (0 to disable).
@@ -273,8 +273,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
 
         this.currentIterator = null;
         this.intervalsForTraversal = null;
-        this.queryCache = new FeatureCache<>();
-        this.queryLookaheadBases = queryLookaheadBases;
+        this.queryCache = new FeatureCache<>(queryLookaheadBases, FeatureCache.DEFAULT_MAX_CACHED_FEATURES);
     }
 
     final void printCacheStats() {
@@ -492,24 +491,23 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
                     "If it's a file, please index it using the bundled tool " + IndexFeatureFile.class.getSimpleName());
         }
 
-        // If the query can be satisfied using existing cache contents, prepare for retrieval
-        // by discarding all Features at the beginning of the cache that end before the start
-        // of our query interval.
+        // If the query can be satisfied using existing cache contents, release the Features that
+        // the queries have moved well past. Otherwise, we have a cache miss, so go to disk to add
+        // the Features overlapping our query interval to our cache.
         if (queryCache.cacheHit(interval)) {
-            queryCache.trimToNewStartPosition(interval.getStart());
+            queryCache.releaseFeaturesBehind(interval.getStart());
         }
-        // Otherwise, we have a cache miss, so go to disk to refill our cache.
         else {
             refillQueryCache(interval);
         }
 
         // Return the subset of our cache that overlaps our query interval
-        return queryCache.getCachedFeaturesUpToStopPosition(interval.getEnd());
+        return queryCache.getCachedFeatures(interval);
     }
 
     /**
      * Refill our cache from disk after a cache miss. Will prefetch Features overlapping an additional
-     * queryLookaheadBases bases after the end of the provided interval, in addition to those overlapping
+     * {@link FeatureCache#getLookaheadBases()} bases after the end of the provided interval, in addition to those overlapping
      * the interval itself.
      * <p>
      * Calling this has the side effect of invalidating (closing) any currently-open iteration over
@@ -522,13 +520,13 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         // results in undefined behavior
         closeOpenIterationIfNecessary();
 
-        // Expand the end of our query by the configured number of bases, in anticipation of probable future
+        // Expand the end of our query by the cache's current lookahead, in anticipation of probable future
         // queries with slightly larger start/stop positions.
         //
         // Note that it doesn't matter if we go off the end of the contig in the process, since
         // our reader's query operation is not aware of (and does not care about) contig boundaries.
         // Note: we use addExact to blow up on overflow rather than propagate negative results downstream
-        final SimpleInterval queryInterval = new SimpleInterval(interval.getContig(), interval.getStart(), Math.addExact(interval.getEnd(), queryLookaheadBases));
+        final SimpleInterval queryInterval = new SimpleInterval(interval.getContig(), interval.getStart(), Math.addExact(interval.getEnd(), queryCache.getLookaheadBases()));
 
         // Query iterator over our reader will be immediately closed after re-populating our cache
         try (final CloseableTribbleIterator<T> queryIter = featureReader.query(queryInterval.getContig(), queryInterval.getStart(), queryInterval.getEnd())) {
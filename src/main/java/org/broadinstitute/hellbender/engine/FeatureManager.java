@@ -14,6 +14,7 @@ import org.broadinstitute.barclay.argparser.CommandLineParser;
 import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.ClassRegistry;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.config.ConfigFactory;
@@ -34,7 +35,7 @@ import java.util.stream.Collectors;
  * and creation/management/querying of FeatureDataSources for each source of Features.
  *
  * At startup, walks the packages specified in {@link GATKConfig#codec_packages} in the config file to discover what codecs are available
- * to decode Feature-containing files.
+ * to decode Feature-containing files (looking them up in the {@link ClassRegistry} when running from the GATK jar).
  *
  * Then, given a tool instance, it discovers what FeatureInput argument fields are declared in the
  * tool's class hierarchy (and associated ArgumentCollections), and for each argument actually specified
@@ -71,12 +72,14 @@ public final class FeatureManager implements AutoCloseable {
         // Get our configuration:
         final GATKConfig config = ConfigFactory.getInstance().getGATKConfig();
 
-        final ClassFinder finder = new ClassFinder();
+        final Set<Class<?>> codecClasses = new LinkedHashSet<>();
         for ( final String codecPackage : config.codec_packages() ) {
-            finder.find(codecPackage, CODEC_BASE_CLASS);
+            // Exclude abstract classes and interfaces from the list of discovered codec classes
+            ClassRegistry.findClasses(codecPackage, CODEC_BASE_CLASS).stream()
+                    .filter(ClassFinder::isConcrete)
+                    .forEach(codecClasses::add);
         }
-        // Exclude abstract classes and interfaces from the list of discovered codec classes
-        DISCOVERED_CODECS = Collections.unmodifiableSet(finder.getConcreteClasses());
+        DISCOVERED_CODECS = Collections.unmodifiableSet(codecClasses);
     }
 
     /**
@@ -325,13 +328,16 @@ public final class FeatureManager implements AutoCloseable {
      * FeatureManager was initialized with, or was not an @Argument-annotated field in the tool
      * (or parent classes).
      *
+     * Synchronized so that {@link FeatureContext}s handed to concurrent assembly region workers can be queried
+     * safely (see {@link AssemblyRegionWalker}).
+     *
      * @param featureDescriptor FeatureInput argument from our tool representing the Feature source to query
      * @param interval interval to query over (returned Features will overlap this interval)
      * @param <T> type of Feature in the source represented by featureDescriptor
      * @return A List of all Features in the backing data source for the provided FeatureInput that overlap
      *         the provided interval (may be empty if there are none, but never null)
      */
-    public <T extends Feature> List<T> getFeatures( final FeatureInput<T> featureDescriptor, final SimpleInterval interval ) {
+    public synchronized <T extends Feature> List<T> getFeatures( final FeatureInput<T> featureDescriptor, final SimpleInterval interval ) {
         final FeatureDataSource<T> dataSource = lookupDataSource(featureDescriptor);
 
         // No danger of a ClassCastException here, since we verified that the FeatureDataSource for this
@@ -370,7 +376,7 @@ public final class FeatureManager implements AutoCloseable {
      * @param <T> type of Feature in our FeatureInput
      * @return header for the provided FeatureInput
      */
-    public <T extends Feature> Object getHeader( final FeatureInput<T> featureDescriptor ) {
+    public synchronized <T extends Feature> Object getHeader( final FeatureInput<T> featureDescriptor ) {
         final FeatureDataSource<T> dataSource = lookupDataSource(featureDescriptor);
         return dataSource.getHeader();
     }
@@ -4,11 +4,13 @@ import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMProgramRecord;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.util.Locatable;
 import htsjdk.tribble.Feature;
 import htsjdk.variant.variantcontext.writer.Options;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.vcf.VCFHeaderLine;
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
 import org.broadinstitute.barclay.argparser.CommandLinePluginDescriptor;
@@ -116,6 +118,18 @@ public abstract class GATKTool extends CommandLineProgram {
             optional = true)
     public boolean disableBamIndexCaching = false;
 
+    @Advanced
+    @Argument(fullName = StandardArgumentDefinitions.BGZF_THREADS_LONG_NAME,
+            doc = "Number of threads used to compress the BGZF blocks of BAM and block-compressed VCF outputs. " +
+                    "Only affects compression of outputs: inputs are still decompressed on the traversal thread. " +
+                    "If > 1, the JDK deflater is used instead of the Intel deflater at compression levels 1 and 2 " +
+                    "(where the Intel deflater can't compress blocks independently), so the output is the same for any " +
+                    "number of threads > 1, but may differ from the output of a single thread at these levels. " +
+                    "If > 1, indices of BAM outputs are still built while writing, but block-compressed VCF outputs " +
+                    "are read once more on a single thread to index them after they have been written.",
+            optional = true, common = true, minValue = 1)
+    public int bgzfThreads = 1;
+
     @Argument(fullName = StandardArgumentDefinitions.SITES_ONLY_LONG_NAME,
             doc = "If true, don't emit genotype fields when writing vcf file output.", optional = true)
     public boolean outputSitesOnlyVCFs = false;
@@ -372,26 +386,39 @@ public abstract class GATKTool extends CommandLineProgram {
      */
     void initializeReads() {
         if (! readArguments.getReadFiles().isEmpty()) {
-            SamReaderFactory factory = SamReaderFactory.makeDefault().validationStringency(readArguments.getReadValidationStringency());
-            if (hasReference()) { // pass in reference if available, because CRAM files need it
-                factory = factory.referenceSequence(referenceArguments.getReferencePath());
-            }
-            else if (hasCramInput()) {
-                throw new UserException.MissingReference("A reference file is required when using CRAM files.");
-            }
-
-            if(bamIndexCachingShouldBeEnabled()) {
-                factory = factory.enable(SamReaderFactory.Option.CACHE_FILE_BASED_INDEXES);
-            }
-
-            reads = new ReadsDataSource(readArguments.getReadPaths(), readArguments.getReadIndexPaths(), factory, cloudPrefetchBuffer,
-                (cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer));
+            reads = createReadsDataSource();
         }
         else {
             reads = null;
         }
     }
 
+    /**
+     * Open a new source of reads data for the reads argument(s), with the same settings as the tool's own source.
+     * Used by traversals and tools that need more than one independent reader (eg., one per thread).
+     * The caller must close the returned source.
+     */
+    protected ReadsDataSource createReadsDataSource() {
+        SamReaderFactory factory = SamReaderFactory.makeDefault().validationStringency(readArguments.getReadValidationStringency());
+        if (hasReference()) { // pass in reference if available, because CRAM files need it
+            final Path referencePath = referenceArguments.getReferencePath();
+            // htsjdk only reads fasta references, so a .2bit reference is given to it through its data source
+            factory = ReferenceTwoBitSource.isTwoBit(referencePath) ?
+                    factory.referenceSource(new ReferenceSource(new ReferenceDataSourceSequenceFile(ReferenceDataSource.of(referencePath)))) :
+                    factory.referenceSequence(referencePath);
+        }
+        else if (hasCramInput()) {
+            throw new UserException.MissingReference("A reference file is required when using CRAM files.");
+        }
+
+        if(bamIndexCachingShouldBeEnabled()) {
+            factory = factory.enable(SamReaderFactory.Option.CACHE_FILE_BASED_INDEXES);
+        }
+
+        return new ReadsDataSource(readArguments.getReadPaths(), readArguments.getReadIndexPaths(), factory, cloudPrefetchBuffer,
+            (cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer));
+    }
+
 
     private boolean bamIndexCachingShouldBeEnabled() {
         return intervalArgumentCollection.intervalsSpecified() && !disableBamIndexCaching;
@@ -765,7 +792,8 @@ public abstract class GATKTool extends CommandLineProgram {
                 getHeaderForSAMWriter(),
                 preSorted,
                 createOutputBamIndex,
-                createOutputBamMD5
+                createOutputBamMD5,
+                bgzfThreads
             )
         );
     }
@@ -805,6 +833,7 @@ public abstract class GATKTool extends CommandLineProgram {
                 outFile,
                 sequenceDictionary,
                 createOutputVariantMD5,
+                bgzfThreads,
                 options.toArray(new Options[options.size()]));
     }
 
@@ -2,6 +2,7 @@ package org.broadinstitute.hellbender.engine;
 
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMReadGroupRecord;
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
@@ -9,17 +10,22 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
+import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.locusiterator.AlignmentContextIteratorBuilder;
 import org.broadinstitute.hellbender.utils.locusiterator.LIBSDownsamplingInfo;
 import org.broadinstitute.hellbender.utils.locusiterator.LocusIteratorByState;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.runtime.OrderedWorkerPool;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A LocusWalker is a tool that processes reads that overlap a single position in a reference at a time from
@@ -35,6 +41,10 @@ import java.util.stream.Collectors;
  * LocusWalker authors must implement the apply() method to process each position, and may optionally implement
  * onTraversalStart(), onTraversalSuccess() and/or closeTool().
  *
+ * Tools whose per-locus results can be accumulated independently for disjoint sets of loci and merged afterwards
+ * may also support multi-threaded traversal (see {@link #locusThreads}) by overriding
+ * {@link #supportsMultiThreadedLocusTraversal()} and {@link #makeLocusWorker()}.
+ *
  * @author Daniel Gomez-Sanchez (magicDGS)
  */
 public abstract class LocusWalker extends GATKTool {
@@ -42,6 +52,24 @@ public abstract class LocusWalker extends GATKTool {
     @Argument(fullName = "maxDepthPerSample", shortName = "maxDepthPerSample", doc = "Maximum number of reads to retain per sample per locus. Reads above this threshold will be downsampled. Set to 0 to disable.", optional = true)
     protected int maxDepthPerSample = defaultMaxDepthPerSample();
 
+    public static final String LOCUS_THREADS_LONG_NAME = "locus-threads";
+
+    /**
+     * Approximate number of loci in each of the shards processed concurrently when {@link #locusThreads} is > 1.
+     */
+    static final int LOCUS_SHARD_SIZE = 1_000_000;
+
+    /**
+     * Number of threads used to traverse the loci. With more than one thread, the traversal intervals are split into
+     * shards of about {@value #LOCUS_SHARD_SIZE} loci, each of which is traversed by a {@link LocusWorker} on a
+     * worker thread with its own reads, reference and feature readers, and the results of the shards are merged
+     * in shard order. Only supported by tools that override {@link #supportsMultiThreadedLocusTraversal}, and
+     * requires indexed reads.
+     */
+    @Advanced
+    @Argument(fullName = LOCUS_THREADS_LONG_NAME, doc = "Number of threads to use for traversing the loci concurrently", optional = true, minValue = 1)
+    protected int locusThreads = 1;
+
     /**
      * Should the LIBS keep unique reads? Tools that do should override to return {@code true}.
      */
@@ -49,6 +77,25 @@ public abstract class LocusWalker extends GATKTool {
         return false;
     }
 
+    /**
+     * @return true if this tool can traverse the loci on more than one thread (see {@link #locusThreads}),
+     *         in which case it must also override {@link #makeLocusWorker}. The default implementation returns false.
+     */
+    protected boolean supportsMultiThreadedLocusTraversal() {
+        return false;
+    }
+
+    /**
+     * Create a new worker that processes the loci of one shard on a worker thread, in place of {@link #apply}.
+     * Called once per shard, on the main traversal thread, after {@link #onTraversalStart}. Only called if
+     * {@link #supportsMultiThreadedLocusTraversal} returns true and more than one locus thread was requested.
+     *
+     * @return a new worker, owning its own accumulators for the results of the shard
+     */
+    protected LocusWorker makeLocusWorker() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support multi-threaded locus traversal");
+    }
+
     /**
      * LocusWalkers requires read sources
      */
@@ -135,6 +182,15 @@ public abstract class LocusWalker extends GATKTool {
     @Override
     protected final void onStartup() {
         super.onStartup();
+        if ( locusThreads > 1 ) {
+            if ( ! supportsMultiThreadedLocusTraversal() ) {
+                throw new CommandLineException.BadArgumentValue(LOCUS_THREADS_LONG_NAME, Integer.toString(locusThreads),
+                        getClass().getSimpleName() + " does not support multi-threaded locus traversal");
+            }
+            if ( ! reads.indicesAvailable() ) {
+                throw new UserException("Traversing the loci with more than one thread requires an index for every reads input");
+            }
+        }
         if ( hasUserSuppliedIntervals() ) {
             reads.setTraversalBounds(intervalArgumentCollection.getTraversalParameters(getHeaderForReads().getSequenceDictionary()));
         }
@@ -150,6 +206,10 @@ public abstract class LocusWalker extends GATKTool {
      */
     @Override
     public void traverse() {
+        if ( locusThreads > 1 ) {
+            traverseShardsConcurrently();
+            return;
+        }
         final SAMFileHeader header = getHeaderForReads();
         // get the samples from the read groups
         final Set<String> samples = header.getReadGroups().stream()
@@ -159,14 +219,7 @@ public abstract class LocusWalker extends GATKTool {
         // get the filter and transformed iterator
         final Iterator<GATKRead> readIterator = getTransformedReadStream(countedFilter).iterator();
 
-        final AlignmentContextIteratorBuilder alignmentContextIteratorBuilder = new AlignmentContextIteratorBuilder();
-        alignmentContextIteratorBuilder.setDownsamplingInfo(getDownsamplingInfo());
-        alignmentContextIteratorBuilder.setEmitEmptyLoci(emitEmptyLoci());
-        alignmentContextIteratorBuilder.setIncludeDeletions(includeDeletions());
-        alignmentContextIteratorBuilder.setKeepUniqueReadListInLibs(keepUniqueReadListInLibs());
-        alignmentContextIteratorBuilder.setIncludeNs(includeNs());
-
-        final Iterator<AlignmentContext> iterator = alignmentContextIteratorBuilder.build(
+        final Iterator<AlignmentContext> iterator = makeAlignmentContextIteratorBuilder().build(
                 readIterator, header, userIntervals, getBestAvailableSequenceDictionary(),
                 hasReference());
 
@@ -180,6 +233,153 @@ public abstract class LocusWalker extends GATKTool {
         logger.info(countedFilter.getSummaryLine());
     }
 
+    private AlignmentContextIteratorBuilder makeAlignmentContextIteratorBuilder() {
+        final AlignmentContextIteratorBuilder alignmentContextIteratorBuilder = new AlignmentContextIteratorBuilder();
+        alignmentContextIteratorBuilder.setDownsamplingInfo(getDownsamplingInfo());
+        alignmentContextIteratorBuilder.setEmitEmptyLoci(emitEmptyLoci());
+        alignmentContextIteratorBuilder.setIncludeDeletions(includeDeletions());
+        alignmentContextIteratorBuilder.setKeepUniqueReadListInLibs(keepUniqueReadListInLibs());
+        alignmentContextIteratorBuilder.setIncludeNs(includeNs());
+        return alignmentContextIteratorBuilder;
+    }
+
+    /**
+     * Multi-threaded traversal: the traversal intervals are split into shards, and the loci of each shard are
+     * processed by a new {@link LocusWorker} on one of {@link #locusThreads} threads. Each thread queries its own
+     * readers, so that the shards are read, filtered and piled up independently. The results of the shards are
+     * merged on this thread in shard order.
+     *
+     * Reads that overlap more than one shard are read (and filtered) once per shard, but contribute to the pileups
+     * of each locus only once, since the loci of each shard are restricted to the shard's intervals.
+     */
+    private void traverseShardsConcurrently() {
+        final List<SimpleInterval> intervals = hasUserSuppliedIntervals() ? userIntervals :
+                IntervalUtils.getAllIntervalsForReference(getBestAvailableSequenceDictionary());
+        final List<List<SimpleInterval>> shards = makeShards(intervals, LOCUS_SHARD_SIZE);
+        logger.info(String.format("Traversing %d loci shards using %d threads", shards.size(), locusThreads));
+
+        final List<ShardReaders> allReaders = new ArrayList<>(locusThreads);
+        try ( final OrderedWorkerPool<ShardReaders> workerPool = new OrderedWorkerPool<>("locus-worker", locusThreads, () -> {
+                    final ShardReaders readers = new ShardReaders();
+                    allReaders.add(readers);
+                    return readers;
+                }, ShardReaders::close) ) {
+            for ( final List<SimpleInterval> shard : shards ) {
+                final LocusWorker worker = Utils.nonNull(makeLocusWorker(), "makeLocusWorker returned a null worker");
+                workerPool.submit(readers -> {
+                    final long numLoci = readers.traverseShard(shard, worker);
+                    return () -> {
+                        worker.mergeResults();
+                        progressMeter.update(shard.get(shard.size() - 1), numLoci);
+                    };
+                });
+            }
+            workerPool.drain();
+        }
+
+        // reads overlapping several shards are counted once per shard
+        final long filteredCount = allReaders.stream().mapToLong(readers -> readers.countedFilter.getFilteredCount()).sum();
+        logger.info(String.format("%d read(s) filtered by: %s", filteredCount, allReaders.get(0).countedFilter.getName()));
+    }
+
+    /**
+     * Split the intervals into shards of about {@code shardSize} loci. Intervals larger than {@code shardSize} are
+     * cut into pieces, and consecutive intervals on the same contig are grouped into the same shard until it spans
+     * at least {@code shardSize} loci.
+     *
+     * @param intervals intervals to split, in traversal order
+     * @param shardSize approximate number of loci in each shard, must be > 0
+     * @return the shards in traversal order, each one a non-empty list of intervals on a single contig
+     */
+    static List<List<SimpleInterval>> makeShards( final List<SimpleInterval> intervals, final int shardSize ) {
+        Utils.nonNull(intervals);
+        Utils.validateArg(shardSize > 0, "shardSize must be > 0");
+        final List<List<SimpleInterval>> shards = new ArrayList<>();
+        List<SimpleInterval> currentShard = new ArrayList<>();
+        long currentShardSize = 0;
+        for ( final SimpleInterval interval : IntervalUtils.cutToShards(intervals, shardSize) ) {
+            if ( ! currentShard.isEmpty() && (currentShardSize >= shardSize || ! currentShard.get(0).getContig().equals(interval.getContig())) ) {
+                shards.add(currentShard);
+                currentShard = new ArrayList<>();
+                currentShardSize = 0;
+            }
+            currentShard.add(interval);
+            currentShardSize += interval.size();
+        }
+        if ( ! currentShard.isEmpty() ) {
+            shards.add(currentShard);
+        }
+        return shards;
+    }
+
+    /**
+     * The readers and read filter owned by one locus traversal thread.
+     */
+    private final class ShardReaders implements AutoCloseable {
+        private final ReadsDataSource shardReads;
+        private ReferenceDataSource shardReference = null;
+        private FeatureManager shardFeatures = null;
+        private final CountingReadFilter countedFilter;
+        private final ReadTransformer preTransformer;
+        private final ReadTransformer postTransformer;
+
+        ShardReaders() {
+            shardReads = createReadsDataSource();
+            try {
+                if ( hasReference() ) {
+                    shardReference = ReferenceDataSource.of(referenceArguments.getReferencePath());
+                }
+                if ( features != null ) {
+                    shardFeatures = new FeatureManager(LocusWalker.this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer,
+                            cloudIndexPrefetchBuffer, referenceArguments.getReferencePath());
+                }
+                countedFilter = makeReadFilter();
+                preTransformer = makePreReadFilterTransformer();
+                postTransformer = makePostReadFilterTransformer();
+            } catch ( RuntimeException | Error e ) {
+                // don't leak the readers opened so far
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Apply the worker to each locus of the shard.
+         *
+         * @return the number of loci processed
+         */
+        long traverseShard( final List<SimpleInterval> shard, final LocusWorker worker ) {
+            shardReads.setTraversalBounds(shard);
+            final Stream<GATKRead> readStream = Utils.stream(shardReads)
+                    .map(preTransformer)
+                    .filter(countedFilter)
+                    .map(postTransformer);
+            final Iterator<AlignmentContext> iterator = makeAlignmentContextIteratorBuilder().build(
+                    readStream.iterator(), getHeaderForReads(), shard, getBestAvailableSequenceDictionary(),
+                    hasReference());
+
+            long numLoci = 0;
+            while ( iterator.hasNext() ) {
+                final AlignmentContext alignmentContext = iterator.next();
+                final SimpleInterval alignmentInterval = new SimpleInterval(alignmentContext);
+                worker.apply(alignmentContext, new ReferenceContext(shardReference, alignmentInterval), new FeatureContext(shardFeatures, alignmentInterval));
+                numLoci++;
+            }
+            return numLoci;
+        }
+
+        @Override
+        public void close() {
+            shardReads.close();
+            if ( shardReference != null ) {
+                shardReference.close();
+            }
+            if ( shardFeatures != null ) {
+                shardFeatures.close();
+            }
+        }
+    }
+
     /**
      * Process an individual AlignmentContext (with optional contextual information). Must be implemented by tool authors.
      * In general, tool authors should simply stream their output from apply(), and maintain as little internal state
@@ -0,0 +1,31 @@
+package org.broadinstitute.hellbender.engine;
+
+/**
+ * Processes the loci of a single interval shard, used by {@link LocusWalker} when traversing with more than one
+ * locus thread.
+ *
+ * A new worker is created for every shard, and {@link #apply} is called on a worker thread for each locus in the
+ * shard, in coordinate order. Implementations should therefore accumulate their results in their own fields
+ * (for example a per-shard collector of counts) rather than in state shared with the tool or with other workers.
+ * Once the whole shard has been processed, {@link #mergeResults} is called on the traversal thread, in the same
+ * order in which the shards were created, so that the worker can merge its results into the tool's accumulators
+ * or write them to the tool's output while keeping the output coordinate-sorted.
+ */
+public interface LocusWorker {
+
+    /**
+     * Process an individual AlignmentContext (with optional contextual information) on a worker thread.
+     *
+     * @param alignmentContext current alignment context
+     * @param referenceContext Reference bases spanning the current locus
+     * @param featureContext Features spanning the current locus
+     * @see LocusWalker#apply(AlignmentContext, ReferenceContext, FeatureContext)
+     */
+    void apply( final AlignmentContext alignmentContext, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Merge the results for this shard into the tool, or emit them. Called once on the traversal thread after all
+     * loci in the shard have been processed, in shard order.
+     */
+    void mergeResults();
+}
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.engine;
 
+import htsjdk.samtools.util.AsyncBufferedIterator;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
@@ -22,12 +23,20 @@ import java.util.*;
  * Shards may be configured to apply custom filters, transformers and downsamplers to
  * the stream of reads returned by {@link #iterator}.
  *
+ * Shards may also be configured (via {@link #setReadPrefetchBufferSize}) to load, transform, filter
+ * and downsample their reads on a background thread, ahead of the consumer of {@link #iterator}.
+ *
  * IMPORTANT: For efficiency, all intervals within each shard are queried simultaneously.
  * This avoids the problem of decompressing the same file regions multiple times for
  * intervals that are close together, and is critical for performance!
  */
 public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GATKRead> {
 
+    /**
+     * Number of read buffers the background prefetch thread may fill ahead of the consumer
+     */
+    private static final int PREFETCH_BUFFER_COUNT = 2;
+
     private final List<SimpleInterval> intervals;
     private final List<SimpleInterval> paddedIntervals;
     private final ReadsDataSource readsSource;
@@ -36,6 +45,8 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
     private ReadFilter readFilter;
     private ReadTransformer postReadFilterTransformer;
     private ReadsDownsampler downsampler;
+    private int readPrefetchBufferSize = 0;
+    private AsyncBufferedIterator<GATKRead> prefetchingIterator;
 
     /**
      * Create a new MultiIntervalLocalReadShard spanning the given intervals, with each interval expanded
@@ -120,14 +131,35 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
         postReadFilterTransformer = transformer;
     }
 
+    /**
+     * Reads in this shard will be loaded, transformed, filtered and downsampled on a background thread, which
+     * stays up to {@link #PREFETCH_BUFFER_COUNT} buffers of {@code bufferSize} reads ahead of the consumer
+     * of {@link #iterator}. This hides decompression and filtering latency behind whatever the consumer does
+     * with the reads.
+     *
+     * Since the background thread runs the configured filter, transformers and downsampler, these must not be
+     * used by any other thread while the shard is being iterated over. The reads source of this shard must not
+     * be queried by any other shard until iteration over this shard is complete.
+     *
+     * @param bufferSize number of reads per prefetch buffer (0 signifies that no prefetching is to be performed)
+     */
+    public void setReadPrefetchBufferSize(final int bufferSize) {
+        Utils.validateArg(bufferSize >= 0, "bufferSize must be >= 0");
+        this.readPrefetchBufferSize = bufferSize;
+    }
+
     /**
      * @return an iterator over reads in this shard, as filtered using the configured read filter
-     *         and downsampled using the configured downsampler; reads are lazily loaded rather than pre-loaded
+     *         and downsampled using the configured downsampler; reads are lazily loaded rather than pre-loaded,
+     *         unless a read prefetch buffer size has been set
      *
      * Note that any read filtering is always performed before any downsampling.
      */
     @Override
     public Iterator<GATKRead> iterator() {
+        // A previous prefetching iterator over this shard would still be using our reads source
+        closePrefetchingIterator();
+
         // Query all intervals in this shard at once. This is critical for performance, to avoid
         // decompressing the same blocks multiple times for intervals that are close together!
         readsSource.setTraversalBounds(paddedIntervals);
@@ -149,7 +181,19 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
             readsIterator = new ReadsDownsamplingIterator(readsIterator, downsampler);
         }
 
+        if ( readPrefetchBufferSize > 0 ) {
+            prefetchingIterator = new AsyncBufferedIterator<>(readsIterator, readPrefetchBufferSize, PREFETCH_BUFFER_COUNT, "ReadShardPrefetch");
+            readsIterator = prefetchingIterator;
+        }
+
         return readsIterator;
     }
+
+    private void closePrefetchingIterator() {
+        if ( prefetchingIterator != null ) {
+            prefetchingIterator.close();
+            prefetchingIterator = null;
+        }
+    }
 }
 
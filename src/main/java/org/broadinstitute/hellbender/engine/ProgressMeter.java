@@ -212,13 +212,36 @@ public final class ProgressMeter {
         Utils.validate( !stopped, "the progress meter has been stopped already");
         ++numRecordsProcessed;
         if ( numRecordsProcessed % recordsBetweenTimeChecks == 0 ) {
-            currentTimeMs = timeFunction.getAsLong();
-            this.currentLocus = currentLocus;
+            checkTime(currentLocus);
+        }
+    }
+
+    /**
+     * Signal to the progress meter that a batch of records has been processed, as if {@link #update(Locatable)}
+     * had been called once per record. Used by traversals that process records in batches on other threads.
+     *
+     * @param currentLocus the genomic location of the last record in the batch or null if it had no location.
+     * @param numRecords number of records in the batch, must be >= 0
+     * @throws IllegalStateException if the meter has not been started yet or has been stopped already
+     */
+    public void update( final Locatable currentLocus, final long numRecords ) {
+        Utils.validate(started, "the progress meter has not been started yet");
+        Utils.validate( !stopped, "the progress meter has been stopped already");
+        Utils.validateArg(numRecords >= 0, "numRecords must be >= 0");
+        final long previousTimeChecks = numRecordsProcessed / recordsBetweenTimeChecks;
+        numRecordsProcessed += numRecords;
+        if ( numRecordsProcessed / recordsBetweenTimeChecks != previousTimeChecks ) {
+            checkTime(currentLocus);
+        }
+    }
+
+    private void checkTime( final Locatable currentLocus ) {
+        currentTimeMs = timeFunction.getAsLong();
+        this.currentLocus = currentLocus;
 
-            if ( secondsSinceLastPrint() >= secondsBetweenUpdates ) {
-                printProgress();
-                lastPrintTimeMs = currentTimeMs;
-            }
+        if ( secondsSinceLastPrint() >= secondsBetweenUpdates ) {
+            printProgress();
+            lastPrintTimeMs = currentTimeMs;
         }
     }
 
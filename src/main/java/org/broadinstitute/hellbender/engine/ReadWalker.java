@@ -1,12 +1,20 @@
 package org.broadinstitute.hellbender.engine;
 
+import org.broadinstitute.barclay.argparser.Advanced;
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.runtime.OrderedWorkerPool;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -23,9 +31,30 @@ import java.util.List;
  *
  * ReadWalker authors must implement the apply() method to process each read, and may optionally implement
  * onTraversalStart() and/or onTraversalSuccess(). See the PrintReadsWithReference walker for an example.
+ *
+ * Tools that process each read independently of the others may also support multi-threaded traversal
+ * (see {@link #readThreads}) by overriding {@link #supportsMultiThreadedReadProcessing()} and {@link #makeReadWorker()}.
  */
 public abstract class ReadWalker extends GATKTool {
 
+    public static final String READ_THREADS_LONG_NAME = "read-threads";
+
+    /**
+     * Number of reads handed to a worker thread at once when {@link #readThreads} is > 1.
+     */
+    static final int READ_BATCH_SIZE = 1_000;
+
+    /**
+     * Number of threads used to process the reads. With more than one thread, the reads are still read on the main
+     * traversal thread, but are handed in batches to a bounded pool of worker threads, each with its own read filter,
+     * read transformers, reference and feature readers, and {@link ReadWorker}. The results of the reads are emitted
+     * on the traversal thread in input order. Only supported by tools that override
+     * {@link #supportsMultiThreadedReadProcessing}.
+     */
+    @Advanced
+    @Argument(fullName = READ_THREADS_LONG_NAME, doc = "Number of threads to use for processing reads concurrently", optional = true, minValue = 1)
+    protected int readThreads = 1;
+
     @Override
     public boolean requiresReads() {
         return true;
@@ -34,6 +63,28 @@ public abstract class ReadWalker extends GATKTool {
     @Override
     public String getProgressMeterRecordLabel() { return "reads"; }
 
+    /**
+     * @return true if this tool can process reads on more than one thread (see {@link #readThreads}),
+     *         in which case it must also override {@link #makeReadWorker} (unless it overrides {@link #traverse} to
+     *         use the threads in its own way). The default implementation returns false.
+     *         Note that the read filter and transformers are then also run on the worker threads, one instance of
+     *         each per thread.
+     */
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return false;
+    }
+
+    /**
+     * Create a new worker that processes reads on its own thread, in place of {@link #apply}. Called once per thread,
+     * on the main traversal thread, after {@link #onTraversalStart}. Only called if
+     * {@link #supportsMultiThreadedReadProcessing} returns true and more than one read thread was requested.
+     *
+     * @return a new worker, owning its own instances of any non-thread-safe state used to process a read
+     */
+    protected ReadWorker makeReadWorker() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support multi-threaded read processing");
+    }
+
     /**
      * This number controls the size of the cache for our FeatureInputs
      * (specifically, the number of additional bases worth of overlapping records to cache when querying feature sources).
@@ -49,6 +100,11 @@ public abstract class ReadWalker extends GATKTool {
     protected final void onStartup() {
         super.onStartup();
 
+        if ( readThreads > 1 && ! supportsMultiThreadedReadProcessing() ) {
+            throw new CommandLineException.BadArgumentValue(READ_THREADS_LONG_NAME, Integer.toString(readThreads),
+                    getClass().getSimpleName() + " does not support multi-threaded read processing");
+        }
+
         setReadTraversalBounds();
     }
 
@@ -82,6 +138,10 @@ public abstract class ReadWalker extends GATKTool {
      */
     @Override
     public void traverse() {
+        if ( readThreads > 1 ) {
+            traverseConcurrently();
+            return;
+        }
         // Process each read in the input stream.
         // Supply reference bases spanning each read, if a reference is available.
         final CountingReadFilter countedFilter = makeReadFilter();
@@ -98,6 +158,83 @@ public abstract class ReadWalker extends GATKTool {
         logger.info(countedFilter.getSummaryLine());
     }
 
+    /**
+     * Multi-threaded traversal: batches of {@link #READ_BATCH_SIZE} reads are transformed, filtered and processed on
+     * {@link #readThreads} threads, and the results of the reads are emitted on this thread in input order.
+     */
+    private void traverseConcurrently() {
+        logger.info("Processing reads using " + readThreads + " threads");
+        final List<ReadProcessor> allProcessors = new ArrayList<>(readThreads);
+        try ( final OrderedWorkerPool<ReadProcessor> workerPool = new OrderedWorkerPool<>("read-worker", readThreads, () -> {
+                    final ReadProcessor processor = new ReadProcessor();
+                    allProcessors.add(processor);
+                    return processor;
+                }, ReadProcessor::close) ) {
+            final Iterator<GATKRead> readIterator = reads.iterator();
+            while ( readIterator.hasNext() ) {
+                final List<GATKRead> batch = new ArrayList<>(READ_BATCH_SIZE);
+                while ( readIterator.hasNext() && batch.size() < READ_BATCH_SIZE ) {
+                    batch.add(readIterator.next());
+                }
+                workerPool.submit(processor -> processor.processBatch(batch));
+            }
+            workerPool.drain();
+        }
+
+        final long filteredCount = allProcessors.stream().mapToLong(processor -> processor.countedFilter.getFilteredCount()).sum();
+        logger.info(String.format("%d read(s) filtered by: %s", filteredCount, allProcessors.get(0).countedFilter.getName()));
+    }
+
+    /**
+     * The read filter, transformers, readers and worker owned by one read processing thread.
+     */
+    private final class ReadProcessor implements AutoCloseable {
+        private final CountingReadFilter countedFilter = makeReadFilter();
+        private final ReadTransformer preTransformer = makePreReadFilterTransformer();
+        private final ReadTransformer postTransformer = makePostReadFilterTransformer();
+        private final ReferenceDataSource threadReference = hasReference() ? ReferenceDataSource.of(referenceArguments.getReferencePath()) : null;
+        private final FeatureManager threadFeatures = features != null ?
+                new FeatureManager(ReadWalker.this, FEATURE_CACHE_LOOKAHEAD, cloudPrefetchBuffer, cloudIndexPrefetchBuffer,
+                        referenceArguments.getReferencePath()) : null;
+        private final ReadWorker worker = Utils.nonNull(makeReadWorker(), "makeReadWorker returned a null worker");
+
+        /**
+         * @return an action that emits the results of the reads in the batch that pass the filter, in order
+         */
+        Runnable processBatch( final List<GATKRead> batch ) {
+            final List<Runnable> readResults = new ArrayList<>(batch.size());
+            SimpleInterval lastReadInterval = null;
+            for ( final GATKRead rawRead : batch ) {
+                final GATKRead transformedRead = preTransformer.apply(rawRead);
+                if ( ! countedFilter.test(transformedRead) ) {
+                    continue;
+                }
+                final GATKRead read = postTransformer.apply(transformedRead);
+                final SimpleInterval readInterval = getReadInterval(read);
+                readResults.add(Utils.nonNull(worker.processRead(read, new ReferenceContext(threadReference, readInterval), new FeatureContext(threadFeatures, readInterval)),
+                        "read worker returned a null result"));
+                lastReadInterval = readInterval;
+            }
+
+            final SimpleInterval batchInterval = lastReadInterval;
+            return () -> {
+                readResults.forEach(Runnable::run);
+                progressMeter.update(batchInterval, readResults.size());
+            };
+        }
+
+        @Override
+        public void close() {
+            worker.close();
+            if ( threadReference != null ) {
+                threadReference.close();
+            }
+            if ( threadFeatures != null ) {
+                threadFeatures.close();
+            }
+        }
+    }
+
     /**
      * Returns an interval for the read.
      * Note: some walkers must be able to work on any read, including those whose coordinates do not form a valid SimpleInterval.
@@ -0,0 +1,36 @@
+package org.broadinstitute.hellbender.engine;
+
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+/**
+ * A per-thread processor of reads, used by {@link ReadWalker} when traversing with more than one read thread.
+ *
+ * Each worker thread owns exactly one worker, so implementations may keep non-thread-safe state as plain fields.
+ * Any state shared with other workers or with the traversal thread (for example an output writer, or counts
+ * accumulated over all reads) must not be touched from {@link #processRead}. Instead, {@link #processRead} returns a
+ * {@link Runnable} that the traversal thread will run later, in the same order in which the reads were read, so
+ * output stays in input order.
+ */
+@FunctionalInterface
+public interface ReadWorker extends AutoCloseable {
+
+    /**
+     * Process an individual read (already transformed and filtered) on a worker thread.
+     *
+     * @param read current read
+     * @param referenceContext Reference bases spanning the current read
+     * @param featureContext Features spanning the current read
+     * @return an action that emits the results for this read; it will be run on the traversal thread, in read order
+     * @see ReadWalker#apply(GATKRead, ReferenceContext, FeatureContext)
+     */
+    Runnable processRead( final GATKRead read, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Release any resources held by this worker. Called on the traversal thread once all reads have been emitted.
+     * The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+        //do nothing
+    }
+}
@@ -17,29 +17,35 @@ import java.util.Iterator;
 public interface ReferenceDataSource extends GATKDataSource<Byte>, AutoCloseable {
 
     /**
-     * Initialize this data source using a fasta file.
+     * Initialize this data source using a fasta file, or a .2bit file.
      *
-     * The provided fasta file must have companion .fai and .dict files.
+     * The provided fasta file must have companion .fai and .dict files. A .2bit file (recognized by its extension)
+     * needs no companion files, and gives a data source that may be queried from several threads at once.
      *
-     * @param fastaPath reference fasta Path
+     * @param fastaPath reference fasta or .2bit Path
      */
     public static ReferenceDataSource of(final Path fastaPath) {
-        return new ReferenceFileSource(fastaPath);
+        return of(fastaPath, false);
     }
 
     /**
-     * Initialize this data source using a fasta file.
+     * Initialize this data source using a fasta file, or a .2bit file.
      *
-     * The provided fasta file must have companion .fai and .dict files.
+     * The provided fasta file must have companion .fai and .dict files. A .2bit file (recognized by its extension)
+     * needs no companion files, and gives a data source that may be queried from several threads at once.
      *
      * If {@code preserveFileBases} is {@code true}, will NOT convert IUPAC bases in the file to `N` and will NOT capitalize lower-case bases.
+     * (A .2bit file has no IUPAC bases other than `N`, and stores its lower-case bases as masked blocks.)
      *
      * NOTE: Most GATK tools do not support data created by setting {@code preserveFileBases} to {@code true}.
      *
-     * @param fastaPath reference fasta Path
+     * @param fastaPath reference fasta or .2bit Path
      * @param preserveAmbiguityCodesAndCapitalization Whether to preserve the original bases in the given reference file path.
      */
     public static ReferenceDataSource of(final Path fastaPath, final boolean preserveAmbiguityCodesAndCapitalization) {
+        if ( fastaPath != null && ReferenceTwoBitSource.isTwoBit(fastaPath) ) {
+            return new ReferenceTwoBitSource(fastaPath, preserveAmbiguityCodesAndCapitalization);
+        }
         return new ReferenceFileSource(fastaPath, preserveAmbiguityCodesAndCapitalization);
     }
 
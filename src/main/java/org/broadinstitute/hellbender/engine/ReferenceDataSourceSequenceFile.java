@@ -0,0 +1,76 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+/**
+ * A {@link ReferenceSequenceFile} view of a {@link ReferenceDataSource}, for code that reads the reference through
+ * htsjdk's interface (such as the assembly-based callers), so that it can read any reference supported by
+ * {@link ReferenceDataSource#of}, including .2bit files.
+ *
+ * Closing this file closes the data source.
+ */
+public final class ReferenceDataSourceSequenceFile implements ReferenceSequenceFile {
+
+    private final ReferenceDataSource dataSource;
+    private int nextSequenceIndex = 0;
+
+    /**
+     * @param dataSource reference data source to read the bases from, closed when this file is closed
+     */
+    public ReferenceDataSourceSequenceFile(final ReferenceDataSource dataSource) {
+        this.dataSource = Utils.nonNull(dataSource);
+    }
+
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return dataSource.getSequenceDictionary();
+    }
+
+    @Override
+    public ReferenceSequence nextSequence() {
+        final SAMSequenceDictionary dictionary = getSequenceDictionary();
+        if ( nextSequenceIndex >= dictionary.size() ) {
+            return null;
+        }
+        return getSequence(dictionary.getSequence(nextSequenceIndex++).getSequenceName());
+    }
+
+    @Override
+    public void reset() {
+        nextSequenceIndex = 0;
+    }
+
+    @Override
+    public boolean isIndexed() {
+        return true;
+    }
+
+    @Override
+    public ReferenceSequence getSequence(final String contig) {
+        final SAMSequenceRecord sequence = getSequenceDictionary().getSequence(contig);
+        if ( sequence == null ) {
+            throw new UserException.MissingContigInSequenceDictionary(contig, getSequenceDictionary());
+        }
+        return getSubsequenceAt(contig, 1, sequence.getSequenceLength());
+    }
+
+    @Override
+    public ReferenceSequence getSubsequenceAt(final String contig, final long start, final long stop) {
+        return dataSource.queryAndPrefetch(contig, start, stop);
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + dataSource + ")";
+    }
+}
@@ -0,0 +1,353 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequence;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Manages queries over reference data stored in the UCSC .2bit format
+ * (see <a href="https://genome.ucsc.edu/FAQ/FAQformat.html#format7">https://genome.ucsc.edu/FAQ/FAQformat.html#format7</a>).
+ *
+ * The packed bases of each sequence are memory-mapped (or, if the file is not on a local file system, read into memory)
+ * when this data source is created, and are decoded directly into the array returned by each query, without going
+ * through a text buffer. Unlike {@link ReferenceFileSource}, this data source holds no mutable state after construction,
+ * so it can be shared and queried concurrently from several threads without synchronization.
+ *
+ * Bases are returned in upper case, with the N blocks of the file returned as 'N'. If case is preserved, the
+ * soft-masked blocks of the file are returned in lower case. The .2bit format cannot represent IUPAC ambiguity codes
+ * other than N.
+ *
+ * The sequence dictionary is built from the sequence names and lengths in the file, in the order of the file.
+ */
+public final class ReferenceTwoBitSource implements ReferenceDataSource {
+
+    public static final String TWO_BIT_EXTENSION = ".2bit";
+
+    private static final int TWO_BIT_SIGNATURE = 0x1A412743;
+
+    // base for each 2-bit code, in the order used by the .2bit format
+    private static final byte[] BASES = {'T', 'C', 'A', 'G'};
+
+    // the 4 bases packed in each possible byte, most significant bits first
+    private static final byte[] UNPACKED_BASES = new byte[256 * 4];
+    static {
+        for ( int packed = 0; packed < 256; packed++ ) {
+            for ( int i = 0; i < 4; i++ ) {
+                UNPACKED_BASES[packed * 4 + i] = BASES[(packed >>> (6 - 2 * i)) & 3];
+            }
+        }
+    }
+
+    /**
+     * A sequence of the .2bit file. Blocks are sorted, non-overlapping half-open 0-based intervals.
+     */
+    private static final class TwoBitSequence {
+        private final String name;
+        private final int index;
+        private final int length;
+        private final int[] nBlockStarts;
+        private final int[] nBlockEnds;
+        private final int[] maskBlockStarts;
+        private final int[] maskBlockEnds;
+        private final ByteBuffer packedBases;   // only ever read with absolute gets, so may be shared by several threads
+
+        private TwoBitSequence(final String name, final int index, final int length,
+                               final int[] nBlockStarts, final int[] nBlockEnds,
+                               final int[] maskBlockStarts, final int[] maskBlockEnds,
+                               final ByteBuffer packedBases) {
+            this.name = name;
+            this.index = index;
+            this.length = length;
+            this.nBlockStarts = nBlockStarts;
+            this.nBlockEnds = nBlockEnds;
+            this.maskBlockStarts = maskBlockStarts;
+            this.maskBlockEnds = maskBlockEnds;
+            this.packedBases = packedBases;
+        }
+
+        private byte getBase(final int offset) {
+            return UNPACKED_BASES[(packedBases.get(offset >>> 2) & 0xFF) * 4 + (offset & 3)];
+        }
+    }
+
+    private final Path twoBitPath;
+    private final boolean preserveCase;
+    private final Map<String, TwoBitSequence> sequences;
+    private final SAMSequenceDictionary sequenceDictionary;
+
+    /**
+     * Initialize this data source using a .2bit file.
+     *
+     * @param twoBitPath reference .2bit Path
+     */
+    public ReferenceTwoBitSource(final Path twoBitPath) {
+        this(twoBitPath, false);
+    }
+
+    /**
+     * Initialize this data source using a .2bit file.
+     *
+     * If {@code preserveCase} is {@code true}, will return the soft-masked bases of the file in lower case.
+     *
+     * @param twoBitPath reference .2bit Path
+     * @param preserveCase Whether to preserve the case of the bases in the given reference file path.
+     */
+    public ReferenceTwoBitSource(final Path twoBitPath, final boolean preserveCase) {
+        this.twoBitPath = Utils.nonNull(twoBitPath);
+        this.preserveCase = preserveCase;
+        if ( !Files.exists(twoBitPath) ) {
+            throw new UserException.CouldNotReadInputFile(twoBitPath, "the reference file does not exist");
+        }
+        try ( final SeekableByteChannel channel = Files.newByteChannel(twoBitPath) ) {
+            final List<TwoBitSequence> sequenceList = readSequences(channel);
+            final Map<String, TwoBitSequence> sequenceMap = new HashMap<>(sequenceList.size() * 2);
+            final List<SAMSequenceRecord> records = new ArrayList<>(sequenceList.size());
+            for ( final TwoBitSequence sequence : sequenceList ) {
+                sequenceMap.put(sequence.name, sequence);
+                records.add(new SAMSequenceRecord(sequence.name, sequence.length));
+            }
+            sequences = Collections.unmodifiableMap(sequenceMap);
+            sequenceDictionary = new SAMSequenceDictionary(records);
+        } catch ( final IOException e ) {
+            throw new UserException.CouldNotReadInputFile(twoBitPath, e);
+        }
+    }
+
+    /**
+     * @return true if the given reference path names a .2bit file
+     */
+    public static boolean isTwoBit(final Path referencePath) {
+        return referencePath.toString().endsWith(TWO_BIT_EXTENSION);
+    }
+
+    private List<TwoBitSequence> readSequences(final SeekableByteChannel channel) throws IOException {
+        final ByteBuffer header = read(channel, 0, 16);
+        final int signature = header.getInt(0);
+        if ( signature != TWO_BIT_SIGNATURE ) {
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if ( header.getInt(0) != TWO_BIT_SIGNATURE ) {
+                throw new UserException.MalformedFile(twoBitPath, "not a .2bit file (bad signature)");
+            }
+        }
+        final ByteOrder byteOrder = header.order();
+        final int version = header.getInt(4);
+        if ( version != 0 && version != 1 ) {
+            throw new UserException.MalformedFile(twoBitPath, "unsupported .2bit version " + version);
+        }
+        final int numSequences = header.getInt(8);
+
+        // the index holds, for each sequence, its name and the offset of its record (64 bits in version 1)
+        final List<String> names = new ArrayList<>(numSequences);
+        final long[] offsets = new long[numSequences];
+        long position = 16;
+        for ( int i = 0; i < numSequences; i++ ) {
+            final int nameLength = read(channel, position, 1).get(0) & 0xFF;
+            final ByteBuffer entry = read(channel, position + 1, nameLength + (version == 0 ? 4 : 8)).order(byteOrder);
+            final byte[] name = new byte[nameLength];
+            entry.get(name);
+            names.add(new String(name, StandardCharsets.US_ASCII));
+            offsets[i] = version == 0 ? entry.getInt() & 0xFFFFFFFFL : entry.getLong();
+            position += 1 + entry.capacity();
+        }
+
+        final List<TwoBitSequence> sequenceList = new ArrayList<>(numSequences);
+        for ( int i = 0; i < numSequences; i++ ) {
+            sequenceList.add(readSequence(channel, names.get(i), i, offsets[i], byteOrder));
+        }
+        return sequenceList;
+    }
+
+    private TwoBitSequence readSequence(final SeekableByteChannel channel, final String name, final int index,
+                                        final long offset, final ByteOrder byteOrder) throws IOException {
+        long position = offset;
+        final ByteBuffer counts = read(channel, position, 8).order(byteOrder);
+        final long length = counts.getInt(0) & 0xFFFFFFFFL;
+        if ( length > Integer.MAX_VALUE ) {
+            throw new UserException.MalformedFile(twoBitPath, "sequence " + name + " is too long (" + length + " bases)");
+        }
+        final int numNBlocks = counts.getInt(4);
+        position += 8;
+        final int[] nBlockStarts = new int[numNBlocks];
+        final int[] nBlockEnds = new int[numNBlocks];
+        position = readBlocks(channel, position, byteOrder, nBlockStarts, nBlockEnds);
+
+        final int numMaskBlocks = read(channel, position, 4).order(byteOrder).getInt(0);
+        position += 4;
+        final int[] maskBlockStarts = new int[numMaskBlocks];
+        final int[] maskBlockEnds = new int[numMaskBlocks];
+        position = readBlocks(channel, position, byteOrder, maskBlockStarts, maskBlockEnds);
+
+        position += 4;  // reserved
+        return new TwoBitSequence(name, index, (int) length, nBlockStarts, nBlockEnds, maskBlockStarts, maskBlockEnds,
+                readPackedBases(channel, position, (int) ((length + 3) / 4)));
+    }
+
+    // maps the packed bases if the channel supports it, and reads them into memory otherwise
+    private ByteBuffer readPackedBases(final SeekableByteChannel channel, final long position, final int size) throws IOException {
+        if ( channel instanceof FileChannel ) {
+            try {
+                return ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, position, size);
+            } catch ( final UnsupportedOperationException e ) {
+                // some file system providers (eg., in-memory file systems) do not support mapping
+            }
+        }
+        return read(channel, position, size);
+    }
+
+    // reads the starts of the blocks, then their sizes, and returns the position following them
+    private long readBlocks(final SeekableByteChannel channel, final long position, final ByteOrder byteOrder,
+                            final int[] starts, final int[] ends) throws IOException {
+        final int numBlocks = starts.length;
+        final ByteBuffer blocks = read(channel, position, 8 * numBlocks).order(byteOrder);
+        for ( int i = 0; i < numBlocks; i++ ) {
+            starts[i] = blocks.getInt(4 * i);
+            ends[i] = starts[i] + blocks.getInt(4 * (numBlocks + i));
+        }
+        return position + 8L * numBlocks;
+    }
+
+    private ByteBuffer read(final SeekableByteChannel channel, final long position, final int size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        channel.position(position);
+        while ( buffer.hasRemaining() ) {
+            if ( channel.read(buffer) < 0 ) {
+                throw new UserException.MalformedFile(twoBitPath, "unexpected end of file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Start an iteration over the entire reference. Not yet supported!
+     *
+     * @return iterator over all bases in this reference
+     */
+    @Override
+    public Iterator<Byte> iterator() {
+        throw new UnsupportedOperationException("Iteration over entire reference not yet implemented");
+    }
+
+    /**
+     * Query a specific interval on this reference, and get back all bases spanning that interval at once.
+     * Call getBases() on the returned ReferenceSequence to get the actual reference bases. See the BaseUtils
+     * class for guidance on how to work with bases in this format.
+     *
+     * @param contig query interval contig
+     * @param start query interval start
+     * @param stop query interval stop (included)
+     * @return a ReferenceSequence containing all bases spanning the query interval, prefetched
+     */
+    @Override
+    public ReferenceSequence queryAndPrefetch( final String contig, final long start, final long stop ) {
+        final TwoBitSequence sequence = getSequence(contig, start, stop);
+        final int from = (int) start - 1;
+        final byte[] bases = new byte[(int) (stop - start + 1)];
+        for ( int i = 0; i < bases.length; i++ ) {
+            bases[i] = sequence.getBase(from + i);
+        }
+        fillBlocks(sequence.nBlockStarts, sequence.nBlockEnds, from, bases, true);
+        if ( preserveCase ) {
+            fillBlocks(sequence.maskBlockStarts, sequence.maskBlockEnds, from, bases, false);
+        }
+        return new ReferenceSequence(contig, sequence.index, bases);
+    }
+
+    /**
+     * Query a specific interval on this reference, and get back an iterator over the bases spanning that interval.
+     * Bases are decoded from the file one at a time, as the iterator advances.
+     *
+     * @param interval query interval
+     * @return iterator over the bases spanning the query interval
+     */
+    @Override
+    public Iterator<Byte> query( final SimpleInterval interval ) {
+        final TwoBitSequence sequence = getSequence(interval.getContig(), interval.getStart(), interval.getEnd());
+        return new Iterator<Byte>() {
+            private int offset = interval.getStart() - 1;
+            private int nBlock = firstBlockEndingAfter(sequence.nBlockEnds, offset);
+            private int maskBlock = firstBlockEndingAfter(sequence.maskBlockEnds, offset);
+
+            @Override
+            public boolean hasNext() {
+                return offset < interval.getEnd();
+            }
+
+            @Override
+            public Byte next() {
+                if ( !hasNext() ) {
+                    throw new NoSuchElementException();
+                }
+                while ( nBlock < sequence.nBlockEnds.length && sequence.nBlockEnds[nBlock] <= offset ) {
+                    nBlock++;
+                }
+                while ( maskBlock < sequence.maskBlockEnds.length && sequence.maskBlockEnds[maskBlock] <= offset ) {
+                    maskBlock++;
+                }
+                byte base = nBlock < sequence.nBlockStarts.length && sequence.nBlockStarts[nBlock] <= offset ? (byte) 'N' : sequence.getBase(offset);
+                if ( preserveCase && maskBlock < sequence.maskBlockStarts.length && sequence.maskBlockStarts[maskBlock] <= offset ) {
+                    base = (byte) Character.toLowerCase(base);
+                }
+                offset++;
+                return base;
+            }
+        };
+    }
+
+    private TwoBitSequence getSequence( final String contig, final long start, final long stop ) {
+        final TwoBitSequence sequence = sequences.get(Utils.nonNull(contig));
+        Utils.validateArg(sequence != null, () -> "Contig " + contig + " not found in reference " + twoBitPath.toUri().toString());
+        Utils.validateArg(start >= 1, () -> String.format("Asking for start %d < 1 on contig %s", start, contig));
+        Utils.validateArg(stop >= start - 1, () -> String.format("Asking for stop<start (%d < %d)", stop, start));
+        Utils.validateArg(stop <= sequence.length, () -> String.format("Asking for stop %d on contig %s but it has only %d bases", stop, contig, sequence.length));
+        return sequence;
+    }
+
+    // index of the first block ending after the given offset (the number of blocks if there is none)
+    private static int firstBlockEndingAfter( final int[] blockEnds, final int offset ) {
+        final int searchResult = Arrays.binarySearch(blockEnds, offset + 1);
+        return searchResult >= 0 ? searchResult : -searchResult - 1;
+    }
+
+    // sets the bases overlapping the given blocks to 'N', or to lower case
+    private static void fillBlocks( final int[] blockStarts, final int[] blockEnds, final int from, final byte[] bases, final boolean toN ) {
+        final int to = from + bases.length;
+        for ( int block = firstBlockEndingAfter(blockEnds, from); block < blockStarts.length && blockStarts[block] < to; block++ ) {
+            final int blockFrom = Math.max(blockStarts[block], from) - from;
+            final int blockTo = Math.min(blockEnds[block], to) - from;
+            for ( int i = blockFrom; i < blockTo; i++ ) {
+                bases[i] = toN ? (byte) 'N' : (byte) Character.toLowerCase(bases[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the sequence dictionary for this reference
+     *
+     * @return SAMSequenceDictionary for this reference
+     */
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return sequenceDictionary;
+    }
+}
@@ -0,0 +1,41 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.reference.ReferenceSequence;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Iterator;
+
+/**
+ * Wraps a {@link ReferenceDataSource} that is not safe for concurrent use (eg., {@link ReferenceFileSource})
+ * so that it can be queried from several threads at once. All queries are prefetched and serialized on
+ * the wrapped data source.
+ *
+ * Closing this data source does NOT close the wrapped data source, which remains owned by its creator.
+ */
+final class SynchronizedReferenceDataSource implements ReferenceDataSource {
+
+    private final ReferenceDataSource wrappedSource;
+
+    SynchronizedReferenceDataSource( final ReferenceDataSource wrappedSource ) {
+        this.wrappedSource = Utils.nonNull(wrappedSource);
+    }
+
+    @Override
+    public synchronized ReferenceSequence queryAndPrefetch( final String contig, final long start, final long stop ) {
+        return wrappedSource.queryAndPrefetch(contig, start, stop);
+    }
+
+    /**
+     * Not supported, since iteration over the whole reference can't be made safe for concurrent use.
+     */
+    @Override
+    public Iterator<Byte> iterator() {
+        throw new UnsupportedOperationException("Iteration over the entire reference is not supported by " + getClass().getSimpleName());
+    }
+
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return wrappedSource.getSequenceDictionary();
+    }
+}
@@ -17,6 +17,7 @@ import org.broadinstitute.hellbender.utils.io.IOUtils;
 import picard.cmdline.programgroups.ReadDataManipulationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadWorker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.BaseUtils;
@@ -302,8 +303,41 @@ public final class ClipReads extends ReadWalker {
         }
     }
 
+    @Override
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
+
+    /**
+     * The reads are clipped on the worker threads, and written and counted in the statistics on the traversal thread.
+     */
+    @Override
+    protected ReadWorker makeReadWorker() {
+        return (read, referenceContext, featureContext) -> {
+            final ReadClipperWithData clipper = clip(read);
+            if ( clipper == null ) {
+                return () -> {};
+            }
+            final GATKRead clippedRead = clipper.clipRead(clippingRepresentation);
+            return () -> accumulate(clipper, clippedRead);
+        };
+    }
+
     @Override
     public void apply( GATKRead read, ReferenceContext ref, FeatureContext featureContext ) {
+        final ReadClipperWithData clipper = clip(read);
+        if ( clipper != null ) {
+            accumulate(clipper, clipper.clipRead(clippingRepresentation));
+        }
+    }
+
+    /**
+     * Determine the clipping operations for a read.
+     *
+     * @param read
+     * @return the clipper for the read, or null if the read is not to be clipped (or written)
+     */
+    private ReadClipperWithData clip( GATKRead read ) {
         if ( onlyDoRead == null || read.getName().equals(onlyDoRead) ) {
             if ( clippingRepresentation == ClippingRepresentation.HARDCLIP_BASES || clippingRepresentation == ClippingRepresentation.REVERT_SOFTCLIPPED_BASES )
                 read = ReadClipper.revertSoftClippedBases(read);
@@ -315,8 +349,9 @@ public final class ClipReads extends ReadWalker {
             clipBadQualityScores(clipper);
             clipCycles(clipper);
             clipSequences(clipper);
-            accumulate(clipper);
+            return clipper;
         }
+        return null;
     }
 
     @Override
@@ -479,11 +514,7 @@ public final class ClipReads extends ReadWalker {
         clipper.setData(data);
     }
 
-    private void accumulate(ReadClipperWithData clipper) {
-        if ( clipper == null )
-            return;
-
-        GATKRead clippedRead = clipper.clipRead(clippingRepresentation);
+    private void accumulate(ReadClipperWithData clipper, GATKRead clippedRead) {
         outputBam.addRead(clippedRead);
 
         accumulator.nTotalReads++;
@@ -7,6 +7,7 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import picard.cmdline.programgroups.ReadDataManipulationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadWorker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.transformers.MisencodedBaseQualityReadTransformer;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
@@ -36,6 +37,20 @@ public final class FixMisencodedBaseQualityReads extends ReadWalker {
         transform = new MisencodedBaseQualityReadTransformer();
     }
 
+    @Override
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
+
+    @Override
+    protected ReadWorker makeReadWorker() {
+        final ReadTransformer workerTransform = new MisencodedBaseQualityReadTransformer();
+        return (read, referenceContext, featureContext) -> {
+            final GATKRead fixedRead = workerTransform.apply(read);
+            return () -> outputWriter.addRead(fixedRead);
+        };
+    }
+
     @Override
     public void apply( GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext ) {
         outputWriter.addRead(transform.apply(read));
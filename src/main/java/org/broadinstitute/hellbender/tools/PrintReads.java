@@ -7,6 +7,7 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import picard.cmdline.programgroups.ReadDataManipulationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadWorker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -96,6 +97,16 @@ public final class PrintReads extends ReadWalker {
         outputWriter = createSAMWriter(IOUtils.getPath(output), true);
     }
 
+    @Override
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
+
+    @Override
+    protected ReadWorker makeReadWorker() {
+        return (read, referenceContext, featureContext) -> () -> outputWriter.addRead(read);
+    }
+
     @Override
     public void apply( GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext ) {
         outputWriter.addRead(read);
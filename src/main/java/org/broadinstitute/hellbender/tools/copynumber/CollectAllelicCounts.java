@@ -12,6 +12,7 @@ import org.broadinstitute.hellbender.cmdline.programgroups.CoverageAnalysisProgr
 import org.broadinstitute.hellbender.engine.AlignmentContext;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.LocusWalker;
+import org.broadinstitute.hellbender.engine.LocusWorker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
@@ -101,6 +102,7 @@ public final class CollectAllelicCounts extends LocusWalker {
     )
     private int minimumBaseQuality = 20;
 
+    private SampleLocatableMetadata metadata;
     private AllelicCountCollector allelicCountCollector;
 
     @Override
@@ -120,7 +122,7 @@ public final class CollectAllelicCounts extends LocusWalker {
 
     @Override
     public void onTraversalStart() {
-        final SampleLocatableMetadata metadata = MetadataUtils.fromHeader(getHeaderForReads(), Metadata.Type.SAMPLE_LOCATABLE);
+        metadata = MetadataUtils.fromHeader(getHeaderForReads(), Metadata.Type.SAMPLE_LOCATABLE);
         final SAMSequenceDictionary sequenceDictionary = getBestAvailableSequenceDictionary();
         if (!CopyNumberArgumentValidationUtils.isSameDictionary(metadata.getSequenceDictionary(), sequenceDictionary)) {
             logger.warn("Sequence dictionary in BAM does not match the master sequence dictionary.");
@@ -129,6 +131,31 @@ public final class CollectAllelicCounts extends LocusWalker {
         logger.info("Collecting allelic counts...");
     }
 
+    @Override
+    protected boolean supportsMultiThreadedLocusTraversal() {
+        return true;
+    }
+
+    /**
+     * Each shard collects its counts separately, and they are appended to the counts of the previous shards in shard
+     * order, so the output is the same as for a single-threaded traversal.
+     */
+    @Override
+    protected LocusWorker makeLocusWorker() {
+        final AllelicCountCollector shardCollector = new AllelicCountCollector(metadata);
+        return new LocusWorker() {
+            @Override
+            public void apply(final AlignmentContext alignmentContext, final ReferenceContext referenceContext, final FeatureContext featureContext) {
+                collectAtLocus(shardCollector, alignmentContext, referenceContext);
+            }
+
+            @Override
+            public void mergeResults() {
+                allelicCountCollector.collectFromCollector(shardCollector);
+            }
+        };
+    }
+
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
         final List<ReadFilter> filters = super.getDefaultReadFilters();
@@ -148,7 +175,11 @@ public final class CollectAllelicCounts extends LocusWalker {
 
     @Override
     public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
+        collectAtLocus(allelicCountCollector, alignmentContext, referenceContext);
+    }
+
+    private void collectAtLocus(final AllelicCountCollector collector, final AlignmentContext alignmentContext, final ReferenceContext referenceContext) {
         final byte refAsByte = referenceContext.getBase();
-        allelicCountCollector.collectAtLocus(Nucleotide.decode(refAsByte), alignmentContext.getBasePileup(), alignmentContext.getLocation(), minimumBaseQuality);
+        collector.collectAtLocus(Nucleotide.decode(refAsByte), alignmentContext.getBasePileup(), alignmentContext.getLocation(), minimumBaseQuality);
     }
 }
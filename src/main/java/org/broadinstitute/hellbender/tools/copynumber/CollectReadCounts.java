@@ -1,10 +1,6 @@
 package org.broadinstitute.hellbender.tools.copynumber;
 
-import com.google.common.collect.HashMultiset;
-import com.google.common.collect.Multiset;
 import htsjdk.samtools.SAMSequenceDictionary;
-import htsjdk.samtools.util.Locatable;
-import htsjdk.samtools.util.OverlapDetector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.barclay.argparser.Argument;
@@ -15,29 +11,29 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.CoverageAnalysisProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
-import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.tools.copynumber.arguments.CopyNumberArgumentValidationUtils;
+import org.broadinstitute.hellbender.tools.copynumber.datacollection.ReadCountCollector;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.HDF5SimpleCountCollection;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.SimpleCountCollection;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.Metadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.MetadataUtils;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
-import org.broadinstitute.hellbender.tools.copynumber.formats.records.SimpleCount;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.IntervalMergingRule;
-import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
-import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.runtime.OrderedWorkerPool;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Collects read counts at specified intervals.  The count for each interval is calculated by counting
@@ -85,6 +81,11 @@ import java.util.stream.Collectors;
  *          -O sample.counts.hdf5
  * </pre>
  *
+ * <p>
+ *     With {@code --read-threads N}, the intervals are split into contiguous shards, which are counted concurrently by
+ *     N threads, each with its own readers; the counts are then merged.  The counts are the same as with a single thread.
+ * </p>
+ *
  * @author Andrey Smirnov &lt;asmirnov@broadinstitute.org&gt;
  * @author Samuel Lee &lt;slee@broadinstitute.org&gt;
  */
@@ -106,6 +107,12 @@ public final class CollectReadCounts extends ReadWalker {
 
     public static final String FORMAT_LONG_NAME = "format";
 
+    /**
+     * Number of shards per thread when running with more than one thread, so that threads that are given shards
+     * with fewer reads are not left idle.
+     */
+    private static final int SHARDS_PER_THREAD = 4;
+
     @Argument(
             doc = "Output file for read counts.",
             fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
@@ -126,11 +133,9 @@ public final class CollectReadCounts extends ReadWalker {
     private SampleLocatableMetadata metadata;
 
     /**
-     * Overlap detector used to determine when read starts overlap with input intervals.
+     * Bins and counts of read starts.
      */
-    private CachedOverlapDetector<SimpleInterval> intervalCachedOverlapDetector;
-
-    private Multiset<SimpleInterval> intervalMultiset = HashMultiset.create();
+    private ReadCountCollector readCountCollector;
 
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
@@ -161,35 +166,89 @@ public final class CollectReadCounts extends ReadWalker {
 
         logger.info("Initializing and validating intervals...");
         final List<SimpleInterval> intervals = intervalArgumentCollection.getIntervals(sequenceDictionary);
-        intervalCachedOverlapDetector = new CachedOverlapDetector<>(intervals);
-
-        //verify again that intervals do not overlap
-        Utils.validateArg(intervals.stream().noneMatch(i -> intervalCachedOverlapDetector.overlapDetector.getOverlaps(i).size() > 1),
-                "Input intervals may not be overlapping.");
+        //this also verifies again that intervals do not overlap
+        readCountCollector = new ReadCountCollector(metadata, intervals);
 
         logger.info("Collecting read counts...");
     }
 
+    /**
+     * Reads are counted on several threads by {@link #traverse}, each reading its own shard of the intervals.
+     */
     @Override
-    public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext) {
-        final SimpleInterval overlappingInterval = intervalCachedOverlapDetector.getOverlap(
-                new SimpleInterval(read.getContig(), read.getStart(), read.getStart()));
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
 
-        //if read doesn't overlap any of the provided intervals, do nothing
-        if (overlappingInterval == null) {
+    @Override
+    public void traverse() {
+        if (readThreads == 1) {
+            super.traverse();
             return;
         }
-        intervalMultiset.add(overlappingInterval);
+
+        final List<SimpleInterval> bins = readCountCollector.getIntervals();
+        final int numShards = Math.min(bins.size(), readThreads * SHARDS_PER_THREAD);
+        logger.info(String.format("Counting reads in %d shards using %d threads", numShards, readThreads));
+        //filters and transformers are created by the pool on this thread, since the plugin descriptors are not thread-safe
+        try (final OrderedWorkerPool<ShardCounter> counters = new OrderedWorkerPool<>("read-counts-worker", readThreads, ShardCounter::new, counter -> {})) {
+            for (int shard = 0; shard < numShards; shard++) {
+                //contiguous ranges of bins of (almost) equal sizes
+                final int firstBin = (int) ((long) bins.size() * shard / numShards);
+                final int endBin = (int) ((long) bins.size() * (shard + 1) / numShards);
+                counters.submit(counter -> {
+                    final ReadCountCollector shardCollector = counter.countShard(firstBin, endBin);
+                    //merged on this thread, in shard order; the counts are integers, so the order does not matter anyway
+                    return () -> readCountCollector.combine(shardCollector);
+                });
+            }
+            counters.drain();
+        }
+    }
+
+    /**
+     * The read filter and transformers used by one counting thread.
+     */
+    private final class ShardCounter {
+        private final CountingReadFilter readFilter = makeReadFilter();
+        private final ReadTransformer preTransformer = makePreReadFilterTransformer();
+        private final ReadTransformer postTransformer = makePostReadFilterTransformer();
+
+        /**
+         * Count the reads whose start lies in the bins with indices in [{@code firstBin}, {@code endBin}), using a new
+         * reads data source.  Reads that overlap these bins but start in another bin are left to the shard of that bin.
+         */
+        ReadCountCollector countShard(final int firstBin, final int endBin) {
+            final ReadCountCollector shardCollector = readCountCollector.createEmptyCollector();
+            try (final ReadsDataSource shardReads = createReadsDataSource()) {
+                shardReads.setTraversalBounds(readCountCollector.getIntervals().subList(firstBin, endBin));
+                final Iterator<GATKRead> readIterator = shardReads.iterator();
+                while (readIterator.hasNext()) {
+                    final GATKRead read = preTransformer.apply(readIterator.next());
+                    if (!readFilter.test(read)) {
+                        continue;
+                    }
+                    final GATKRead transformedRead = postTransformer.apply(read);
+                    final int binIndex = shardCollector.getBinIndex(transformedRead.getContig(), transformedRead.getStart());
+                    if (firstBin <= binIndex && binIndex < endBin) {
+                        shardCollector.incrementCount(binIndex);
+                    }
+                }
+            }
+            return shardCollector;
+        }
+    }
+
+    @Override
+    public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext) {
+        //if read start doesn't overlap any of the provided intervals, do nothing
+        readCountCollector.addRead(read);
     }
 
     @Override
     public Object onTraversalSuccess() {
         logger.info("Writing read counts to " + outputCountsFile);
-        final SimpleCountCollection readCounts = new SimpleCountCollection(
-                metadata,
-                intervalCachedOverlapDetector.overlapDetector.getAll().stream()
-                        .map(i -> new SimpleCount(i, intervalMultiset.count(i)))
-                        .collect(Collectors.toList()));
+        final SimpleCountCollection readCounts = readCountCollector.getReadCounts();
 
         if (format == Format.HDF5) {
             readCounts.writeHDF5(outputCountsFile);
@@ -199,42 +258,4 @@ public final class CollectReadCounts extends ReadWalker {
 
         return "SUCCESS";
     }
-
-    /**
-     * A simple wrapper around {@link OverlapDetector} to provide naive caching and ensure that overlap sets
-     * only contain a single interval.
-     */
-    private final class CachedOverlapDetector<T extends Locatable> {
-        private final OverlapDetector<T> overlapDetector;
-        private T cachedResult;
-
-        CachedOverlapDetector(final List<T> intervals) {
-            Utils.nonEmpty(intervals);
-            this.overlapDetector = OverlapDetector.create(intervals);
-            cachedResult = intervals.get(0);
-        }
-
-        /**
-         * We check the previously cached result first.  Assuming that queries will be made in sorted order,
-         * this may slightly save on lookup time.
-         * @return {@code null} if no interval overlaps {@code locatable}
-         */
-        T getOverlap(final Locatable locatable) {
-            if (IntervalUtils.overlaps(cachedResult, locatable)) {
-                return cachedResult;
-            }
-            final Set<T> overlaps = overlapDetector.getOverlaps(locatable);
-            if (overlaps.size() > 1) {
-                //should not reach here since intervals are checked for overlaps;
-                //performing a redundant check to protect against future code changes
-                throw new GATKException.ShouldNeverReachHereException("Intervals should be non-overlapping, " +
-                        "so at most one interval should intersect with the start of a read.");
-            }
-            final T firstOverlap = overlaps.stream().findFirst().orElse(null);
-            if (firstOverlap != null) {
-                cachedResult = firstOverlap;
-            }
-            return firstOverlap;
-        }
-    }
-}
\ No newline at end of file
+}
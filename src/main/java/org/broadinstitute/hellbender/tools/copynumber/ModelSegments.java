@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableSet;
 import htsjdk.samtools.util.OverlapDetector;
 import org.apache.commons.math3.special.Beta;
 import org.apache.commons.math3.util.FastMath;
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.BetaFeature;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
@@ -257,6 +258,7 @@ public final class ModelSegments extends CommandLineProgram {
     public static final String SMOOTHING_CREDIBLE_INTERVAL_THRESHOLD_ALLELE_FRACTION_LONG_NAME = "smoothing-credible-interval-threshold-allele-fraction";
     public static final String MAXIMUM_NUMBER_OF_SMOOTHING_ITERATIONS_LONG_NAME = "maximum-number-of-smoothing-iterations";
     public static final String NUMBER_OF_SMOOTHING_ITERATIONS_PER_FIT_LONG_NAME = "number-of-smoothing-iterations-per-fit";
+    public static final String NUMBER_OF_MCMC_THREADS_LONG_NAME = "number-of-mcmc-threads";
 
     @Argument(
             doc = "Input file containing denoised copy ratios (output of DenoiseReadCounts).",
@@ -473,6 +475,18 @@ public final class ModelSegments extends CommandLineProgram {
     )
     private int numSmoothingIterationsPerFit = 0;
 
+    @Advanced
+    @Argument(
+            doc = "Number of threads to use for MCMC model fitting.  With more than one thread, the copy-ratio and " +
+                    "allele-fraction models are fit concurrently, and segment-level parameters are sampled concurrently " +
+                    "with independent random-number streams; results then do not depend on the number of threads, " +
+                    "but differ from those obtained with a single thread.",
+            fullName = NUMBER_OF_MCMC_THREADS_LONG_NAME,
+            optional = true,
+            minValue = 1
+    )
+    private int numMCMCThreads = 1;
+
     @Override
     protected Object doWork() {
         validateArguments();
@@ -523,7 +537,8 @@ public final class ModelSegments extends CommandLineProgram {
         final MultidimensionalModeller modeller = new MultidimensionalModeller(
                 multidimensionalSegments, denoisedCopyRatios, hetAllelicCounts, alleleFractionPrior,
                 numSamplesCopyRatio, numBurnInCopyRatio,
-                numSamplesAlleleFraction, numBurnInAlleleFraction);
+                numSamplesAlleleFraction, numBurnInAlleleFraction,
+                numMCMCThreads);
 
         //write initial segments and parameters to file
         writeModeledSegmentsAndParameterFiles(modeller, BEGIN_FIT_FILE_TAG);
@@ -0,0 +1,192 @@
+package org.broadinstitute.hellbender.tools.copynumber.datacollection;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import org.broadinstitute.hellbender.tools.copynumber.formats.collections.SimpleCountCollection;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.SimpleCount;
+import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Collects read counts at specified non-overlapping intervals (bins).  The count for each bin is the number of
+ * read starts that lie in the bin.
+ *
+ * <p>
+ *     Bins are held as sorted primitive arrays of starts and ends, and are looked up by binary search; counts are
+ *     accumulated in an {@code int[]} indexed by bin.  The bin of the previous read is checked first, since reads
+ *     are usually added in coordinate order.
+ * </p>
+ *
+ * <p>
+ *     This class is not thread-safe.  To count reads concurrently, each thread should count into its own collector
+ *     created with {@link #createEmptyCollector()}, which shares the (immutable) bins of this collector; the
+ *     collectors can then be merged with {@link #combine(ReadCountCollector)}.
+ * </p>
+ */
+public final class ReadCountCollector {
+
+    /**
+     * Immutable bins, shared by all collectors created from the same intervals.
+     */
+    private static final class Bins {
+        private final List<SimpleInterval> intervals;   //sorted by the sequence dictionary
+        private final int[] starts;
+        private final int[] ends;
+        private final Map<String, int[]> contigBinRanges; //contig -> {index of first bin, index after last bin}
+
+        private Bins(final List<SimpleInterval> intervals, final SAMSequenceDictionary sequenceDictionary) {
+            Utils.nonEmpty(intervals, "Intervals may not be empty.");
+            final List<SimpleInterval> sortedIntervals = new ArrayList<>(intervals);
+            sortedIntervals.sort(IntervalUtils.getDictionaryOrderComparator(sequenceDictionary));
+            this.intervals = Collections.unmodifiableList(sortedIntervals);
+
+            final int numBins = sortedIntervals.size();
+            starts = new int[numBins];
+            ends = new int[numBins];
+            contigBinRanges = new HashMap<>();
+            for (int binIndex = 0; binIndex < numBins; binIndex++) {
+                final SimpleInterval interval = sortedIntervals.get(binIndex);
+                starts[binIndex] = interval.getStart();
+                ends[binIndex] = interval.getEnd();
+                final int[] binRange = contigBinRanges.computeIfAbsent(interval.getContig(), c -> new int[]{-1, -1});
+                if (binRange[0] == -1) {
+                    binRange[0] = binIndex;
+                } else {
+                    Utils.validateArg(binRange[1] == binIndex,
+                            String.format("Intervals on contig %s are not contiguous after sorting.", interval.getContig()));
+                    Utils.validateArg(ends[binIndex - 1] < starts[binIndex], "Input intervals may not be overlapping.");
+                }
+                binRange[1] = binIndex + 1;
+            }
+        }
+    }
+
+    private final SampleLocatableMetadata metadata;
+    private final Bins bins;
+    private final int[] counts;
+
+    //bin range of the contig of the previous read, and bin of the previous read
+    private String cachedContig = null;
+    private int[] cachedBinRange = null;
+    private int cachedBinIndex = -1;
+
+    /**
+     * @param metadata  metadata of the sample, whose sequence dictionary is used to sort the intervals
+     * @param intervals non-empty list of non-overlapping intervals, in any order
+     */
+    public ReadCountCollector(final SampleLocatableMetadata metadata,
+                              final List<SimpleInterval> intervals) {
+        this(metadata, new Bins(intervals, Utils.nonNull(metadata).getSequenceDictionary()));
+    }
+
+    private ReadCountCollector(final SampleLocatableMetadata metadata,
+                               final Bins bins) {
+        this.metadata = Utils.nonNull(metadata);
+        this.bins = bins;
+        this.counts = new int[bins.starts.length];
+    }
+
+    /**
+     * @return a collector with the same bins as this one, and all counts at zero
+     */
+    public ReadCountCollector createEmptyCollector() {
+        return new ReadCountCollector(metadata, bins);
+    }
+
+    /**
+     * @return the bins, sorted by the sequence dictionary; the i-th interval is the bin with index i
+     */
+    public List<SimpleInterval> getIntervals() {
+        return bins.intervals;
+    }
+
+    /**
+     * @return the index of the bin containing {@code position} on {@code contig}, or -1 if no bin contains it
+     */
+    public int getBinIndex(final String contig, final int position) {
+        Utils.nonNull(contig);
+        if (!contig.equals(cachedContig)) {
+            cachedContig = contig;
+            cachedBinRange = bins.contigBinRanges.get(contig);
+            cachedBinIndex = -1;
+        }
+        if (cachedBinRange == null) {
+            return -1;
+        }
+        if (cachedBinIndex != -1 && bins.starts[cachedBinIndex] <= position && position <= bins.ends[cachedBinIndex]) {
+            return cachedBinIndex;
+        }
+        //index of the last bin starting at or before position
+        final int searchResult = Arrays.binarySearch(bins.starts, cachedBinRange[0], cachedBinRange[1], position);
+        final int binIndex = searchResult >= 0 ? searchResult : -searchResult - 2;
+        if (binIndex < cachedBinRange[0] || position > bins.ends[binIndex]) {
+            return -1;
+        }
+        cachedBinIndex = binIndex;
+        return binIndex;
+    }
+
+    /**
+     * Increment the count of the bin with index {@code binIndex}.
+     */
+    public void incrementCount(final int binIndex) {
+        Utils.validIndex(binIndex, counts.length);
+        counts[binIndex]++;
+    }
+
+    /**
+     * Count the start of {@code read} in the bin containing it, if any.
+     * @return whether a bin contains the start of the read
+     */
+    public boolean addRead(final GATKRead read) {
+        Utils.nonNull(read);
+        final int binIndex = getBinIndex(read.getContig(), read.getStart());
+        if (binIndex == -1) {
+            return false;
+        }
+        counts[binIndex]++;
+        return true;
+    }
+
+    /**
+     * @return the count of the bin with index {@code binIndex}
+     */
+    public int getCount(final int binIndex) {
+        Utils.validIndex(binIndex, counts.length);
+        return counts[binIndex];
+    }
+
+    /**
+     * Add the counts of {@code other}, which must have been created from this collector
+     * (or vice versa) with {@link #createEmptyCollector()}, to the counts of this collector.
+     */
+    public void combine(final ReadCountCollector other) {
+        Utils.nonNull(other);
+        Utils.validateArg(other.bins == bins, "Only collectors with the same bins can be combined.");
+        for (int binIndex = 0; binIndex < counts.length; binIndex++) {
+            counts[binIndex] += other.counts[binIndex];
+        }
+    }
+
+    /**
+     * @return the counts collected so far, sorted by the sequence dictionary
+     */
+    public SimpleCountCollection getReadCounts() {
+        return new SimpleCountCollection(
+                metadata,
+                IntStream.range(0, counts.length)
+                        .mapToObj(i -> new SimpleCount(bins.intervals.get(i), counts[i]))
+                        .collect(Collectors.toList()));
+    }
+}
@@ -13,6 +13,7 @@ import org.broadinstitute.hellbender.utils.mcmc.ParameterSampler;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterizedModel;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -74,6 +75,17 @@ public final class AlleleFractionModeller {
     AlleleFractionModeller(final AllelicCountCollection allelicCounts,
                            final SimpleIntervalCollection segments,
                            final AlleleFractionPrior prior) {
+        this(allelicCounts, segments, prior, null);
+    }
+
+    /**
+     * Constructs an allele-fraction model given allelic counts and segments, whose segment-level parameters are sampled
+     * concurrently in {@code pool} (see {@link SegmentSampling}), or in order if {@code pool} is {@code null}.
+     */
+    AlleleFractionModeller(final AllelicCountCollection allelicCounts,
+                           final SimpleIntervalCollection segments,
+                           final AlleleFractionPrior prior,
+                           final ForkJoinPool pool) {
         Utils.nonNull(allelicCounts);
         Utils.nonNull(segments);
         Utils.validateArg(allelicCounts.getMetadata().getSequenceDictionary().equals(segments.getMetadata().getSequenceDictionary()),
@@ -109,7 +121,7 @@ public final class AlleleFractionModeller {
         final ParameterSampler<Double, AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData> outlierProbabilitySampler =
                 new AlleleFractionSamplers.OutlierProbabilitySampler(MAX_REASONABLE_OUTLIER_PROBABILITY, outlierProbabilitySamplingWidths);
         final ParameterSampler<AlleleFractionState.MinorFractions, AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData> minorFractionsSampler =
-                new AlleleFractionSamplers.MinorFractionsSampler(prior, minorFractionsSliceSamplingWidths);
+                new AlleleFractionSamplers.MinorFractionsSampler(prior, minorFractionsSliceSamplingWidths, pool);
 
         model = new ParameterizedModel.GibbsBuilder<>(initialState, data)
                 .addParameterSampler(AlleleFractionParameter.MEAN_BIAS, meanBiasSampler, Double.class)
@@ -14,6 +14,7 @@ import org.broadinstitute.hellbender.utils.mcmc.ParameterizedModel;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +52,16 @@ public final class CopyRatioModeller {
      */
     CopyRatioModeller(final CopyRatioCollection copyRatios,
                       final SimpleIntervalCollection segments) {
+        this(copyRatios, segments, null);
+    }
+
+    /**
+     * Constructs a copy-ratio model given copy ratios and segments, whose segment-level parameters are sampled
+     * concurrently in {@code pool} (see {@link SegmentSampling}), or in order if {@code pool} is {@code null}.
+     */
+    CopyRatioModeller(final CopyRatioCollection copyRatios,
+                      final SimpleIntervalCollection segments,
+                      final ForkJoinPool pool) {
         Utils.nonNull(copyRatios);
         Utils.nonNull(segments);
         Utils.validateArg(copyRatios.getMetadata().getSequenceDictionary().equals(segments.getMetadata().getSequenceDictionary()),
@@ -89,9 +100,9 @@ public final class CopyRatioModeller {
         final ParameterSampler<Double, CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> outlierProbabilitySampler =
                 new CopyRatioSamplers.OutlierProbabilitySampler(OUTLIER_PROBABILITY_PRIOR_ALPHA, OUTLIER_PROBABILITY_PRIOR_BETA);
         final ParameterSampler<CopyRatioState.SegmentMeans, CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> segmentMeansSampler =
-                new CopyRatioSamplers.SegmentMeansSampler(LOG2_COPY_RATIO_MIN, LOG2_COPY_RATIO_MAX, meanSliceSamplingWidth);
+                new CopyRatioSamplers.SegmentMeansSampler(LOG2_COPY_RATIO_MIN, LOG2_COPY_RATIO_MAX, meanSliceSamplingWidth, pool);
         final ParameterSampler<CopyRatioState.OutlierIndicators, CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> outlierIndicatorsSampler =
-                new CopyRatioSamplers.OutlierIndicatorsSampler(outlierUniformLogLikelihood);
+                new CopyRatioSamplers.OutlierIndicatorsSampler(outlierUniformLogLikelihood, pool);
 
         model = new ParameterizedModel.GibbsBuilder<>(initialState, data)
                 .addParameterSampler(CopyRatioParameter.VARIANCE, varianceSampler, Double.class)
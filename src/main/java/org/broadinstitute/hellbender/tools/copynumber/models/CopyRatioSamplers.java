@@ -11,6 +11,7 @@ import org.broadinstitute.hellbender.utils.mcmc.ParameterSampler;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -106,37 +107,41 @@ final class CopyRatioSamplers {
         private final double meanMin;
         private final double meanMax;
         private final double meanSliceSamplingWidth;
+        private final ForkJoinPool pool;
 
+        /**
+         * @param pool  pool in which segment means are sampled concurrently, or {@code null} to sample them in order
+         */
         SegmentMeansSampler(final double meanMin, 
                             final double meanMax, 
-                            final double meanSliceSamplingWidth) {
+                            final double meanSliceSamplingWidth,
+                            final ForkJoinPool pool) {
             this.meanMin = meanMin;
             this.meanMax = meanMax;
             this.meanSliceSamplingWidth = meanSliceSamplingWidth;
+            this.pool = pool;
         }
 
         @Override
         public CopyRatioState.SegmentMeans sample(final RandomGenerator rng,
                                                   final CopyRatioState state,
                                                   final CopyRatioSegmentedData data) {
-            final List<Double> means = new ArrayList<>(data.getNumSegments());
             final BiFunction<CopyRatioSegmentedData.IndexedCopyRatio, Double, Double> logConditionalPDF = (icr, newMean) ->
                     state.outlierIndicator(icr.getIndex())
                             ? 0.
                             : -normalTerm(icr.getLog2CopyRatioValue(), newMean, state.variance());
-            for (int segmentIndex = 0; segmentIndex < data.getNumSegments(); segmentIndex++) {
+            final List<Double> means = SegmentSampling.sample(rng, data.getNumSegments(), pool, (segmentRng, segmentIndex) -> {
                 final List<CopyRatioSegmentedData.IndexedCopyRatio> indexedCopyRatiosInSegment = data.getIndexedCopyRatiosInSegment(segmentIndex);
                 if (indexedCopyRatiosInSegment.isEmpty()) {
-                    means.add(Double.NaN);
-                } else {
-                    logger.debug(String.format("Sampling mean for segment %d...", segmentIndex));
-                    final MinibatchSliceSampler<CopyRatioSegmentedData.IndexedCopyRatio> sampler = new MinibatchSliceSampler<>(
-                            rng, indexedCopyRatiosInSegment, UNIFORM_LOG_PRIOR, logConditionalPDF,
-                            meanMin, meanMax, meanSliceSamplingWidth,
-                            SEGMENT_MINIBATCH_SIZE, APPROX_THRESHOLD);
-                    means.add(sampler.sample(state.segmentMean(segmentIndex)));
+                    return Double.NaN;
                 }
-            }
+                logger.debug(String.format("Sampling mean for segment %d...", segmentIndex));
+                final MinibatchSliceSampler<CopyRatioSegmentedData.IndexedCopyRatio> sampler = new MinibatchSliceSampler<>(
+                        segmentRng, indexedCopyRatiosInSegment, UNIFORM_LOG_PRIOR, logConditionalPDF,
+                        meanMin, meanMax, meanSliceSamplingWidth,
+                        SEGMENT_MINIBATCH_SIZE, APPROX_THRESHOLD);
+                return sampler.sample(state.segmentMean(segmentIndex));
+            });
             return new CopyRatioState.SegmentMeans(means);
         }
     }
@@ -151,9 +156,15 @@ final class CopyRatioSamplers {
     //(corresponding to the first line in the unnormalized expression above)
     static final class OutlierIndicatorsSampler implements ParameterSampler<CopyRatioState.OutlierIndicators, CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> {
         private final double outlierUniformLogLikelihood;
+        private final ForkJoinPool pool;
 
-        OutlierIndicatorsSampler(final double outlierUniformLogLikelihood) {
+        /**
+         * @param pool  pool in which the indicators of each segment are sampled concurrently, or {@code null} to sample them in order
+         */
+        OutlierIndicatorsSampler(final double outlierUniformLogLikelihood,
+                                 final ForkJoinPool pool) {
             this.outlierUniformLogLikelihood = outlierUniformLogLikelihood;
+            this.pool = pool;
         }
 
         @Override
@@ -167,9 +178,9 @@ final class CopyRatioSamplers {
 //                    FastMath.log(1. - state.outlierProbability()) - 0.5 * FastMath.log(2 * Math.PI * state.variance());
             final double notOutlierUnnormalizedLogProbabilityPrefactor =
                     FastMath.log((1. - state.outlierProbability()) / FastMath.sqrt(2 * Math.PI * state.variance()));
-            final List<Boolean> indicators = new ArrayList<>(data.getNumPoints());
-            for (int segmentIndex = 0; segmentIndex < data.getNumSegments(); segmentIndex++) {
+            final List<List<Boolean>> indicatorsPerSegment = SegmentSampling.sample(rng, data.getNumSegments(), pool, (segmentRng, segmentIndex) -> {
                 final List<CopyRatioSegmentedData.IndexedCopyRatio> indexedCopyRatiosInSegment = data.getIndexedCopyRatiosInSegment(segmentIndex);
+                final List<Boolean> segmentIndicators = new ArrayList<>(indexedCopyRatiosInSegment.size());
                 for (final CopyRatioSegmentedData.IndexedCopyRatio indexedCopyRatio : indexedCopyRatiosInSegment) {
                     final double notOutlierUnnormalizedLogProbability =
                             notOutlierUnnormalizedLogProbabilityPrefactor
@@ -177,9 +188,12 @@ final class CopyRatioSamplers {
                     final double conditionalProbability =
                             FastMath.exp(outlierUnnormalizedLogProbability -
                                     MathUtils.logSumLog(outlierUnnormalizedLogProbability, notOutlierUnnormalizedLogProbability));
-                    indicators.add(rng.nextDouble() < conditionalProbability);
+                    segmentIndicators.add(segmentRng.nextDouble() < conditionalProbability);
                 }
-            }
+                return segmentIndicators;
+            });
+            final List<Boolean> indicators = new ArrayList<>(data.getNumPoints());
+            indicatorsPerSegment.forEach(indicators::addAll);
             return new CopyRatioState.OutlierIndicators(indicators);
         }
     }
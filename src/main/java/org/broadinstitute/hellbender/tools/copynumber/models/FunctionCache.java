@@ -5,24 +5,30 @@ import java.util.Map;
 import java.util.function.Function;
 
 /**
+ * Caches the values of a function.  Each thread has its own cache, so that caches held in static fields can be used
+ * by models that are sampled concurrently.
+ *
  * @author Samuel Lee &lt;slee@broadinstitute.org&gt;
  */
-final class FunctionCache<DATA> extends LinkedHashMap<DATA, Double> {
-    private static final long serialVersionUID = 19841647L;
+final class FunctionCache<DATA> {
     private static final int MAX_SIZE = 100_000;
 
     private final Function<DATA, Double> mappingFunction;
+    private final ThreadLocal<Map<DATA, Double>> cache = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<DATA, Double>() {
+                private static final long serialVersionUID = 19841647L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<DATA, Double> eldest) {
+                    return size() >= MAX_SIZE;
+                }
+            });
 
     FunctionCache(final Function<DATA, Double> mappingFunction) {
         this.mappingFunction = mappingFunction;
     }
 
     Double computeIfAbsent(final DATA key) {
-        return super.computeIfAbsent(key, mappingFunction);
-    }
-
-    @Override
-    protected boolean removeEldestEntry(final Map.Entry<DATA, Double> eldest) {
-        return size() >= MAX_SIZE;
+        return cache.get().computeIfAbsent(key, mappingFunction);
     }
 }
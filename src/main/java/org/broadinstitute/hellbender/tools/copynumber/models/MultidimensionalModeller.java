@@ -17,6 +17,8 @@ import org.broadinstitute.hellbender.utils.param.ParamUtils;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -48,6 +50,7 @@ public final class MultidimensionalModeller {
     private final int numBurnInCopyRatio;
     private final int numSamplesAlleleFraction;
     private final int numBurnInAlleleFraction;
+    private final int numThreads;
 
     /**
      * Constructs a copy-ratio and allele-fraction modeller, specifying number of total samples
@@ -62,6 +65,28 @@ public final class MultidimensionalModeller {
                                     final int numBurnInCopyRatio,
                                     final int numSamplesAlleleFraction,
                                     final int numBurnInAlleleFraction) {
+        this(multidimensionalSegments, denoisedCopyRatios, allelicCounts, alleleFractionPrior,
+                numSamplesCopyRatio, numBurnInCopyRatio, numSamplesAlleleFraction, numBurnInAlleleFraction, 1);
+    }
+
+    /**
+     * Constructs a copy-ratio and allele-fraction modeller, specifying number of total samples
+     * and number of burn-in samples for Markov-Chain Monte Carlo model fitting.
+     * An initial model fit is performed.
+     * If {@code numThreads} is greater than one, the copy-ratio and allele-fraction chains are run concurrently, and
+     * the segment-level parameters of each chain are sampled concurrently (see {@link SegmentSampling});
+     * the results then do not depend on the number of threads, but differ from those obtained with a single thread.
+     */
+    public MultidimensionalModeller(final MultidimensionalSegmentCollection multidimensionalSegments,
+                                    final CopyRatioCollection denoisedCopyRatios,
+                                    final AllelicCountCollection allelicCounts,
+                                    final AlleleFractionPrior alleleFractionPrior,
+                                    final int numSamplesCopyRatio,
+                                    final int numBurnInCopyRatio,
+                                    final int numSamplesAlleleFraction,
+                                    final int numBurnInAlleleFraction,
+                                    final int numThreads) {
+        ParamUtils.isPositive(numThreads, "Number of threads must be positive.");
         Utils.validateArg(Stream.of(
                 Utils.nonNull(multidimensionalSegments).getMetadata(),
                 Utils.nonNull(denoisedCopyRatios).getMetadata(),
@@ -81,6 +106,7 @@ public final class MultidimensionalModeller {
         this.numBurnInCopyRatio = numBurnInCopyRatio;
         this.numSamplesAlleleFraction = numSamplesAlleleFraction;
         this.numBurnInAlleleFraction = numBurnInAlleleFraction;
+        this.numThreads = numThreads;
         logger.info("Fitting initial model...");
         fitModel();
     }
@@ -95,12 +121,33 @@ public final class MultidimensionalModeller {
      */
     private void fitModel() {
         //perform MCMC to generate posterior samples
-        logger.info("Fitting copy-ratio model...");
-        copyRatioModeller = new CopyRatioModeller(denoisedCopyRatios, currentSegments);
-        copyRatioModeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio);
-        logger.info("Fitting allele-fraction model...");
-        alleleFractionModeller = new AlleleFractionModeller(allelicCounts, currentSegments, alleleFractionPrior);
-        alleleFractionModeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction);
+        if (numThreads == 1) {
+            logger.info("Fitting copy-ratio model...");
+            copyRatioModeller = new CopyRatioModeller(denoisedCopyRatios, currentSegments);
+            copyRatioModeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio);
+            logger.info("Fitting allele-fraction model...");
+            alleleFractionModeller = new AlleleFractionModeller(allelicCounts, currentSegments, alleleFractionPrior);
+            alleleFractionModeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction);
+        } else {
+            logger.info(String.format("Fitting copy-ratio and allele-fraction models using %d threads...", numThreads));
+            final ForkJoinPool pool = new ForkJoinPool(numThreads);
+            try {
+                final ForkJoinTask<CopyRatioModeller> copyRatioFit = pool.submit(() -> {
+                    final CopyRatioModeller modeller = new CopyRatioModeller(denoisedCopyRatios, currentSegments, pool);
+                    modeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio);
+                    return modeller;
+                });
+                final ForkJoinTask<AlleleFractionModeller> alleleFractionFit = pool.submit(() -> {
+                    final AlleleFractionModeller modeller = new AlleleFractionModeller(allelicCounts, currentSegments, alleleFractionPrior, pool);
+                    modeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction);
+                    return modeller;
+                });
+                copyRatioModeller = copyRatioFit.join();
+                alleleFractionModeller = alleleFractionFit.join();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
 
         //update list of ModeledSegment with new PosteriorSummaries
         modeledSegments.clear();
@@ -0,0 +1,59 @@
+package org.broadinstitute.hellbender.tools.copynumber.models;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Samples segment-level quantities, which are conditionally independent given the global parameters of a model.
+ *
+ * <p>
+ *     Without a pool, segments are sampled in order using the random number generator of the chain.
+ *     With a pool, segments are sampled concurrently, each using its own random number generator, seeded from a single
+ *     draw from the generator of the chain and the index of the segment.  The samples then do not depend on the
+ *     number of threads or on the order in which segments are sampled.
+ * </p>
+ */
+final class SegmentSampling {
+    //odd constant used to spread the seeds of consecutive segments (the golden ratio, as in SplittableRandom)
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private SegmentSampling() {}
+
+    /**
+     * @param rng               random number generator of the chain
+     * @param numSegments       number of segments
+     * @param pool              pool in which to sample segments concurrently, or {@code null} to sample them in order
+     * @param segmentSampler    samples the quantity of the segment with the given index, using the given generator
+     * @return                  the sampled quantities of all segments, in order
+     */
+    static <T> List<T> sample(final RandomGenerator rng,
+                              final int numSegments,
+                              final ForkJoinPool pool,
+                              final BiFunction<RandomGenerator, Integer, T> segmentSampler) {
+        Utils.nonNull(rng);
+        Utils.nonNull(segmentSampler);
+        if (pool == null) {
+            final List<T> samples = new ArrayList<>(numSegments);
+            for (int segmentIndex = 0; segmentIndex < numSegments; segmentIndex++) {
+                samples.add(segmentSampler.apply(rng, segmentIndex));
+            }
+            return samples;
+        }
+        final long seed = rng.nextLong();
+        return pool.submit(() -> IntStream.range(0, numSegments).parallel()
+                .mapToObj(segmentIndex -> segmentSampler.apply(
+                        RandomGeneratorFactory.createRandomGenerator(new Random(seed + segmentIndex * SEED_INCREMENT)),
+                        segmentIndex))
+                .collect(Collectors.toList()))
+                .join();
+    }
+}
@@ -9,8 +9,6 @@ import org.apache.commons.math3.random.RandomGeneratorFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.tools.copynumber.utils.optimization.PersistenceOptimizer;
-import org.broadinstitute.hellbender.utils.IndexRange;
-import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
@@ -132,17 +130,16 @@ public final class KernelSegmenter<DATA> {
         final RandomGenerator rng = RandomGeneratorFactory.createRandomGenerator(new Random(RANDOM_SEED));
 
         logger.debug("Calculating low-rank approximation to kernel matrix...");
-        final RealMatrix reducedObservationMatrix = calculateReducedObservationMatrix(rng, data, kernel, kernelApproximationDimension);
-        final double[] kernelApproximationDiagonal = calculateKernelApproximationDiagonal(reducedObservationMatrix);
+        final SegmentCostCalculator segmentCostCalculator = calculateKernelApproximation(rng, data, kernel, kernelApproximationDimension);
 
         logger.debug(String.format("Finding changepoint candidates for all window sizes %s...", windowSizes.toString()));
         final List<Integer> changepointCandidates = findChangepointCandidates(
-                data, reducedObservationMatrix, kernelApproximationDiagonal, maxNumChangepoints, windowSizes);
+                data, segmentCostCalculator, maxNumChangepoints, windowSizes);
 
         logger.debug("Performing backward model selection on changepoint candidates...");
         return selectChangepoints(
                 changepointCandidates, maxNumChangepoints, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor,
-                reducedObservationMatrix, kernelApproximationDiagonal).stream()
+                segmentCostCalculator).stream()
                 .sorted((a, b) -> changepointSortOrder.equals(ChangepointSortOrder.INDEX) ? Integer.compare(a, b) : 0)    //if BACKWARD_SELECTION, simply retain original order from backward model selection
                 .collect(Collectors.toList());
     }
@@ -162,35 +159,94 @@ public final class KernelSegmenter<DATA> {
 
         private Segment(final int start,
                         final int end,
-                        final RealMatrix reducedObservationMatrix,
-                        final double[] kernelApproximationDiagonal) {
-            this(start, end, calculateSegmentCost(start, end, reducedObservationMatrix, kernelApproximationDiagonal).C);
+                        final SegmentCostCalculator segmentCostCalculator) {
+            this(start, end, segmentCostCalculator.calculateSegmentCost(start, end));
         }
     }
 
-    //represents some quantities used to calculate segment costs iteratively
-    private static final class Cost {
-        private final double D;     //diagonal term
-        private final double[] W;   //intermediate quantity for calculating off-diagonal terms
-        private final double V;     //intermediate quantity for calculating off-diagonal terms
-        private final double C;     //total cost
-
-        private Cost(final double D,
-                     final double[] W,
-                     final double V,
-                     final double C) {
-            this.D = D;
-            this.W = W;
-            this.V = V;
-            this.C = C;
+    /**
+     * Calculates the cost of a segment, which is defined by Eq. 11 of
+     * <a href="https://hal.inria.fr/hal-01413230/document">https://hal.inria.fr/hal-01413230/document</a>
+     * (except we use the low-rank approximation to the kernel, as described in Sec. 3.2, ibid).
+     * Writing Z for the N x p reduced observation matrix (see the text preceding Eq. 14, ibid),
+     * the cost of a segment containing n points is D - |W|<sup>2</sup> / n, where D is the sum of the
+     * diagonal terms sum(Z_ij * Z_ij, j = 0,..., p - 1) of the approximate kernel matrix and W is the sum of the rows of Z
+     * over the points in the segment.  We store the cumulative sums of both over all points,
+     * so that the cost of any segment can be calculated in O(p) time, independent of its length, and without allocation.
+     * Z itself is not stored; each of its rows is calculated in turn, as the product of the corresponding row of
+     * the N x p kernel matrix between the data and the subsampled data with the p x p matrix U S<sup>-1/2</sup>
+     * obtained from the SVD of the kernel matrix of the subsampled data.
+     */
+    private static final class SegmentCostCalculator {
+        private final int N;                        //number of data points
+        private final int p;                        //dimension of the low-rank approximation of the kernel matrix
+        private final double[] cumulativeZ;         //(N + 1) x p, row-major; row k is the sum of the first k rows of Z
+        private final double[] cumulativeDiagonal;  //element k is the sum of the first k diagonal terms
+
+        private <DATA> SegmentCostCalculator(final List<DATA> data,
+                                             final List<DATA> dataSubsample,
+                                             final BiFunction<DATA, DATA, Double> kernel,
+                                             final double[][] subKernelUMatrix) {
+            N = data.size();
+            p = dataSubsample.size();
+            cumulativeZ = new double[(N + 1) * p];
+            cumulativeDiagonal = new double[N + 1];
+            final double[] ZRow = new double[p];
+            for (int i = 0; i < N; i++) {
+                Arrays.fill(ZRow, 0.);
+                for (int k = 0; k < p; k++) {
+                    final double kernelValue = kernel.apply(data.get(i), dataSubsample.get(k));
+                    final double[] subKernelURow = subKernelUMatrix[k];
+                    for (int j = 0; j < p; j++) {
+                        ZRow[j] += kernelValue * subKernelURow[j];
+                    }
+                }
+                double diagonal = 0.;
+                for (int j = 0; j < p; j++) {
+                    final double z = ZRow[j];
+                    cumulativeZ[(i + 1) * p + j] = cumulativeZ[i * p + j] + z;
+                    diagonal += z * z;
+                }
+                cumulativeDiagonal[i + 1] = cumulativeDiagonal[i] + diagonal;
+            }
+        }
+
+        /**
+         * @param start inclusive start index of segment
+         * @param end   inclusive end index of segment; we wrap around to beginning of data if start > end
+         */
+        private double calculateSegmentCost(final int start,
+                                            final int end) {
+            return calculateSegmentCostFromLength(start, start <= end ? end - start + 1 : N - start + end + 1);
+        }
+
+        /**
+         * @param start     inclusive start index of segment
+         * @param numPoints number of points in segment, wrapping around to beginning of data if necessary
+         */
+        private double calculateSegmentCostFromLength(final int start,
+                                                      final int numPoints) {
+            final int numWraps = numPoints / N;
+            final int end = start + numPoints % N;      //exclusive, wraps around to beginning of data if end > N
+            final int endWrapped = end > N ? end - N : end;
+            final int wrapCount = end > N ? numWraps + 1 : numWraps;
+            final double D = wrapCount * cumulativeDiagonal[N] + cumulativeDiagonal[endWrapped] - cumulativeDiagonal[start];
+            double V = 0.;
+            for (int j = 0; j < p; j++) {
+                final double W = wrapCount * cumulativeZ[N * p + j] + cumulativeZ[endWrapped * p + j] - cumulativeZ[start * p + j];
+                V += W * W;
+            }
+            return D - V / numPoints;
         }
     }
 
-    //calculates the N x p reduced observation matrix, defined as Z in equation preceding Eq. 14 in https://hal.inria.fr/hal-01413230/document
-    private static <DATA> RealMatrix calculateReducedObservationMatrix(final RandomGenerator rng,
-                                                                       final List<DATA> data,
-                                                                       final BiFunction<DATA, DATA, Double> kernel,
-                                                                       final int kernelApproximationDimension) {
+    //calculates the low-rank approximation to the kernel, given by the N x p reduced observation matrix,
+    //defined as Z in equation preceding Eq. 14 in https://hal.inria.fr/hal-01413230/document,
+    //and returns the cumulative sums needed to calculate segment costs
+    private static <DATA> SegmentCostCalculator calculateKernelApproximation(final RandomGenerator rng,
+                                                                             final List<DATA> data,
+                                                                             final BiFunction<DATA, DATA, Double> kernel,
+                                                                             final int kernelApproximationDimension) {
         if (kernelApproximationDimension > data.size()) {
             logger.warn(String.format("Specified dimension of the kernel approximation (%d) exceeds the number of data points (%d) to segment; " +
                     "using all data points to calculate kernel matrix.", kernelApproximationDimension, data.size()));
@@ -229,27 +285,12 @@ public final class KernelSegmenter<DATA> {
                 return svd.getU().getEntry(i, j) * invSqrtSingularValues[j];
             }
         });
-        final RealMatrix reducedKernelMatrix = new Array2DRowRealMatrix(data.size(), numSubsample);
-        reducedKernelMatrix.walkInOptimizedOrder(new DefaultRealMatrixChangingVisitor() {
-            @Override
-            public double visit(int i, int j, double value) {
-                return kernel.apply(data.get(i), dataSubsample.get(j));
-            }
-        });
-        return reducedKernelMatrix.multiply(subKernelUMatrix);
-    }
-
-    //for N x p matrix Z_ij, returns the N-dimensional vector sum(Z_ij * Z_ij, j = 0,..., p - 1),
-    //which are the diagonal elements K_ii of the approximate kernel matrix
-    private static double[] calculateKernelApproximationDiagonal(final RealMatrix reducedObservationMatrix) {
-        return new IndexRange(0, reducedObservationMatrix.getRowDimension())
-                .mapToDouble(i -> MathUtils.square(reducedObservationMatrix.getRowVector(i).getNorm()));
+        return new SegmentCostCalculator(data, dataSubsample, kernel, subKernelUMatrix.getData());
     }
 
     //finds indices of changepoint candidates from all window sizes
     private static <DATA> List<Integer> findChangepointCandidates(final List<DATA> data,
-                                                                  final RealMatrix reducedObservationMatrix,
-                                                                  final double[] kernelApproximationDiagonal,
+                                                                  final SegmentCostCalculator segmentCostCalculator,
                                                                   final int maxNumChangepoints,
                                                                   final List<Integer> windowSizes) {
         final List<Integer> changepointCandidates = new ArrayList<>(windowSizes.size() * maxNumChangepoints);
@@ -265,7 +306,7 @@ public final class KernelSegmenter<DATA> {
                         2 * windowSize, data.size()));
                 continue;
             }
-            final double[] windowCosts = calculateWindowCosts(reducedObservationMatrix, kernelApproximationDiagonal, windowSize);
+            final double[] windowCosts = calculateWindowCosts(segmentCostCalculator, windowSize);
 
             logger.debug(String.format("Finding local minima of local changepoint costs for window size %d...", windowSize));
             final List<Integer> windowCostLocalMinima = new ArrayList<>(new PersistenceOptimizer(windowCosts).getMinimaIndices());
@@ -287,12 +328,11 @@ public final class KernelSegmenter<DATA> {
                                                     final int maxNumChangepoints,
                                                     final double numChangepointsPenaltyLinearFactor,
                                                     final double numChangepointsPenaltyLogLinearFactor,
-                                                    final RealMatrix reducedObservationMatrix,
-                                                    final double[] kernelApproximationDiagonal) {
+                                                    final SegmentCostCalculator segmentCostCalculator) {
         final List<Integer> changepoints = new ArrayList<>(changepointCandidates.size());
 
         //calculate penalties as a function of the number of changepoints
-        final int numData = reducedObservationMatrix.getRowDimension();
+        final int numData = segmentCostCalculator.N;
         final List<Double> changepointPenalties = IntStream.range(0, maxNumChangepoints + 1)
                 .mapToObj(numChangepoints -> calculateChangepointPenalty(
                         numChangepoints, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, numData))
@@ -306,14 +346,14 @@ public final class KernelSegmenter<DATA> {
         candidateEnds.add(numData - 1);
         final int numSegments = candidateStarts.size();
         final List<Segment> segments = IntStream.range(0, numSegments)
-                .mapToObj(i -> new Segment(candidateStarts.get(i), candidateEnds.get(i), reducedObservationMatrix, kernelApproximationDiagonal))
+                .mapToObj(i -> new Segment(candidateStarts.get(i), candidateEnds.get(i), segmentCostCalculator))
                 .collect(Collectors.toList());
         final List<Double> totalSegmentationCosts = new ArrayList<>(Collections.singletonList(segments.stream().mapToDouble(s -> s.cost).sum()));
         final List<Double> costsForSegmentPairs = IntStream.range(0, numSegments - 1)
                 .mapToObj(i -> segments.get(i).cost + segments.get(i + 1).cost)
                 .collect(Collectors.toList());  //sum of the costs for the segments in each adjacent pair
         final List<Double> costsForMergedSegmentPairs = IntStream.range(0, numSegments - 1)
-                .mapToObj(i -> new Segment(candidateStarts.get(i), candidateEnds.get(i + 1), reducedObservationMatrix, kernelApproximationDiagonal).cost)
+                .mapToObj(i -> new Segment(candidateStarts.get(i), candidateEnds.get(i + 1), segmentCostCalculator).cost)
                 .collect(Collectors.toList());  //cost of each adjacent pair when considered as a single segment
         final List<Double> costsForMergingSegmentPairs = IntStream.range(0, numSegments - 1)
                 .mapToObj(i -> costsForSegmentPairs.get(i) - costsForMergedSegmentPairs.get(i))
@@ -339,12 +379,12 @@ public final class KernelSegmenter<DATA> {
             costsForMergingSegmentPairs.remove(indexOfLeftSegmentToMerge);
             if (indexOfLeftSegmentToMerge > 0) {                    //if segment pair that was merged was not the first pair, update segment-pair quantities using segment to left
                 costsForSegmentPairs.set(indexOfLeftSegmentToMerge - 1, segments.get(indexOfLeftSegmentToMerge - 1).cost + segments.get(indexOfLeftSegmentToMerge).cost);
-                costsForMergedSegmentPairs.set(indexOfLeftSegmentToMerge - 1, new Segment(segments.get(indexOfLeftSegmentToMerge - 1).start, newEnd, reducedObservationMatrix, kernelApproximationDiagonal).cost);
+                costsForMergedSegmentPairs.set(indexOfLeftSegmentToMerge - 1, new Segment(segments.get(indexOfLeftSegmentToMerge - 1).start, newEnd, segmentCostCalculator).cost);
                 costsForMergingSegmentPairs.set(indexOfLeftSegmentToMerge - 1, costsForSegmentPairs.get(indexOfLeftSegmentToMerge - 1) - costsForMergedSegmentPairs.get(indexOfLeftSegmentToMerge - 1));
             }
             if (indexOfLeftSegmentToMerge < segments.size() - 1) {  //if segment pair that was merged was not the last pair, update segment-pair quantities using segment to right
                 costsForSegmentPairs.set(indexOfLeftSegmentToMerge, segments.get(indexOfLeftSegmentToMerge).cost + segments.get(indexOfLeftSegmentToMerge + 1).cost);
-                costsForMergedSegmentPairs.set(indexOfLeftSegmentToMerge, new Segment(newStart, segments.get(indexOfLeftSegmentToMerge + 1).end, reducedObservationMatrix, kernelApproximationDiagonal).cost);
+                costsForMergedSegmentPairs.set(indexOfLeftSegmentToMerge, new Segment(newStart, segments.get(indexOfLeftSegmentToMerge + 1).end, segmentCostCalculator).cost);
                 costsForMergingSegmentPairs.set(indexOfLeftSegmentToMerge, costsForSegmentPairs.get(indexOfLeftSegmentToMerge) - costsForMergedSegmentPairs.get(indexOfLeftSegmentToMerge));
             }
 
@@ -373,170 +413,24 @@ public final class KernelSegmenter<DATA> {
     }
 
     /**
-     * Calculates the cost of a segment.  This is defined by Eq. 11 of
-     * <a href="https://hal.inria.fr/hal-01413230/document">https://hal.inria.fr/hal-01413230/document</a>
-     * (except we use the low-rank approximation to the kernel, as described in Sec. 3.2, ibid).
-     * Various recurrence relations are used to calculate costs iteratively.
-     * @param start inclusive start index of segment
-     * @param end   inclusive end index of segment
-     * @param reducedObservationMatrix      N x p matrix of projected observations, where N is the number of data points
-     *                                      and p is the dimension of the low-rank approximation of the kernel matrix;
-     *                                      this is the Z matrix described in the text preceding Eq. 14, ibid
-     * @param kernelApproximationDiagonal   N diagonal terms of the low-rank approximation to the kernel matrix
-     */
-    private static Cost calculateSegmentCost(final int start,
-                                             final int end,
-                                             final RealMatrix reducedObservationMatrix,
-                                             final double[] kernelApproximationDiagonal) {
-        final int N = reducedObservationMatrix.getRowDimension();
-        final int p = reducedObservationMatrix.getColumnDimension();
-
-        //initialize quantities for recurrence
-        double D = kernelApproximationDiagonal[start];
-        final double[] W = Arrays.copyOf(reducedObservationMatrix.getRow(start), p);
-        double V = Arrays.stream(W).map(w -> w * w).sum();
-
-        //generate indices for iteration; we need to wrap around to beginning of data if start > end
-        final List<Integer> indices = start <= end 
-                ? IntStream.range(start + 1, end + 1).boxed().collect(Collectors.toList()) 
-                : IntStream.concat(IntStream.range(start + 1, N), IntStream.range(0, end + 1)).boxed().collect(Collectors.toList());
-
-        //use recurrence relations to iteratively calculate cost
-        for (final int tauPrime : indices) {
-            D += kernelApproximationDiagonal[tauPrime];
-            double ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(tauPrime, j) * W[j];
-                W[j] += reducedObservationMatrix.getEntry(tauPrime, j);
-            }
-            V += 2. * ZdotW + kernelApproximationDiagonal[tauPrime];
-        }
-        final double C = D - V / (indices.size() + 1);
-
-        return new Cost(D, W, V, C);
-    }
-
-    /**
-     * Calculates the local costs at each point for a given window size <i>w</i>.  Using Eq. 11 of
-     * <a href="https://hal.inria.fr/hal-01413230/document">https://hal.inria.fr/hal-01413230/document</a>
-     * (except we use the low-rank approximation to the kernel, as described in Sec. 3.2, ibid), for each point
+     * Calculates the local costs at each point for a given window size <i>w</i>.  For each point
      * indexed by <i>i</i>, we calculate the cost of it being a changepoint with two flanking segments that
      * contain the points with indices <i>[i - w + 1, i]</i> and <i>[i + 1, i + w]</i>, respectively, and
-     * subtract the cost of a single segment containing all of these points.
-     * Various recurrence relations are used to calculate costs iteratively.
-     * @param reducedObservationMatrix      N x p matrix of projected observations, where N is the number of data points
-     *                                      and p is the dimension of the low-rank approximation of the kernel matrix;
-     *                                      this is the Z matrix described in the text preceding Eq. 14, ibid
-     * @param kernelApproximationDiagonal   N diagonal terms of the low-rank approximation to the kernel matrix
-     * @param windowSize                    number of points to include in either flanking segment when calculating cost
+     * subtract the cost of a single segment containing all of these points.  Segments wrap around the ends of the data.
+     * @param segmentCostCalculator calculates the cost of each segment
+     * @param windowSize            number of points to include in either flanking segment when calculating cost
      */
-    private static double[] calculateWindowCosts(final RealMatrix reducedObservationMatrix,
-                                                 final double[] kernelApproximationDiagonal,
+    private static double[] calculateWindowCosts(final SegmentCostCalculator segmentCostCalculator,
                                                  final int windowSize) {
-        final int N = reducedObservationMatrix.getRowDimension();
-        final int p = reducedObservationMatrix.getColumnDimension();
-
-        //initialize indices of the boundaries of the two flanking segments, wrapping around to beginning of data if necessary
-        int center = 0;
-        int start = (center - windowSize + 1 + N) % N;
-        int end = (center + windowSize) % N;
-
-        //initialize costs of flanking segments and total segment
-        final Cost leftCost = calculateSegmentCost(start, center, reducedObservationMatrix, kernelApproximationDiagonal);
-        final Cost rightCost = calculateSegmentCost(center + 1, end, reducedObservationMatrix, kernelApproximationDiagonal);
-        final Cost totalCost = calculateSegmentCost(start, end, reducedObservationMatrix, kernelApproximationDiagonal);
-
-        //initialize quantities for recurrence
-        double leftD = leftCost.D;
-        final double[] leftW = Arrays.copyOf(leftCost.W, p);
-        double leftV = leftCost.V;
-        double leftC = leftCost.C;
-
-        double rightD = rightCost.D;
-        final double[] rightW = Arrays.copyOf(rightCost.W, p);
-        double rightV = rightCost.V;
-        double rightC = rightCost.C;
-
-        double totalD = totalCost.D;
-        final double[] totalW = Arrays.copyOf(totalCost.W, p);
-        double totalV = totalCost.V;
-        double totalC = totalCost.C;
-
+        final int N = segmentCostCalculator.N;
         final double[] windowCosts = new double[N];
-        windowCosts[center] = leftC + rightC - totalC;
-
-        double ZdotW;
-        final double windowSizeReciprocal = 1. / windowSize;
-
-        //slide segments along data and use recurrence relations to iteratively update costs
-        for (center = 0; center < N; center++) {
-            final int centerNext = (center + 1) % N;
-            final int endNext = (end + 1) % N;
-
-            //update quantities in left segment
-            leftD -= kernelApproximationDiagonal[start];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(start, j) * leftW[j];
-                leftW[j] -= reducedObservationMatrix.getEntry(start, j);
-            }
-            leftV += -2. * ZdotW + kernelApproximationDiagonal[start];
-
-            leftD += kernelApproximationDiagonal[centerNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(centerNext, j) * leftW[j];
-                leftW[j] += reducedObservationMatrix.getEntry(centerNext, j);
-            }
-            leftV += 2. * ZdotW + kernelApproximationDiagonal[centerNext];
-
-            leftC = leftD - leftV * windowSizeReciprocal;
-
-            //update quantities in right segment
-            rightD -= kernelApproximationDiagonal[centerNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(centerNext, j) * rightW[j];
-                rightW[j] -= reducedObservationMatrix.getEntry(centerNext, j);
-            }
-            rightV += -2. * ZdotW + kernelApproximationDiagonal[centerNext];
-
-            rightD += kernelApproximationDiagonal[endNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(endNext, j) * rightW[j];
-                rightW[j] += reducedObservationMatrix.getEntry(endNext, j);
-            }
-            rightV += 2. * ZdotW + kernelApproximationDiagonal[endNext];
-
-            rightC = rightD - rightV * windowSizeReciprocal;
-
-            //update quantities in total segment
-            totalD -= kernelApproximationDiagonal[start];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(start, j) * totalW[j];
-                totalW[j] -= reducedObservationMatrix.getEntry(start, j);
-            }
-            totalV += -2. * ZdotW + kernelApproximationDiagonal[start];
-
-            totalD += kernelApproximationDiagonal[endNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(endNext, j) * totalW[j];
-                totalW[j] += reducedObservationMatrix.getEntry(endNext, j);
-            }
-            totalV += 2. * ZdotW + kernelApproximationDiagonal[endNext];
-
-            totalC = totalD - 0.5 * totalV * windowSizeReciprocal;
-
-            //record cost of changepoint at this position
-            windowCosts[centerNext] = leftC + rightC - totalC;
-
-            //slide windows
-            start = (start + 1) % N;
-            end = endNext;
+        for (int center = 0; center < N; center++) {
+            final int start = (center - windowSize + 1 + N) % N;
+            final double leftC = segmentCostCalculator.calculateSegmentCostFromLength(start, windowSize);
+            final double rightC = segmentCostCalculator.calculateSegmentCostFromLength((center + 1) % N, windowSize);
+            final double totalC = segmentCostCalculator.calculateSegmentCostFromLength(start, 2 * windowSize);
+            windowCosts[center] = leftC + rightC - totalC;
         }
         return windowCosts;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import htsjdk.tribble.AbstractFeatureReader;
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.BetaFeature;
+import org.broadinstitute.barclay.argparser.CommandLineException;
+import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
+import org.broadinstitute.barclay.help.DocumentedFeature;
+import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
+import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptStore;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfCodec;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfFeature;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfGeneFeature;
+import picard.cmdline.programgroups.VariantEvaluationProgramGroup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Compiles the GENCODE GTF file and the GENCODE transcript FASTA file of a {@link Funcotator} GENCODE data source into
+ * a single memory-mapped GENCODE transcript store (see {@link GencodeTranscriptStore}).
+ *
+ * <p>
+ *     The store holds all genes, transcripts, exons, CDS regions, etc. of the GTF file, and the sequences and CDS / UTR
+ *     coordinates of all transcripts of the FASTA file, with an index of the genes by position and of the transcripts by ID.
+ *     To use it, set the {@code src_file} of the data source configuration file to the store.  Funcotator then maps the
+ *     store instead of indexing the GTF file and loading the transcript FASTA file, and queries genes and coding sequences
+ *     directly from it, which makes startup faster and uses less heap.  The annotations are the same.
+ * </p>
+ *
+ * <h3>Usage example</h3>
+ * <pre>
+ *   gatk CreateGencodeTranscriptStore \
+ *     -I gencode.v19.annotation.gtf \
+ *     --transcript-fasta gencode.v19.pc_transcripts.fasta \
+ *     -O gencode.v19.annotation.gtstore
+ * </pre>
+ */
+@CommandLineProgramProperties(
+        summary = "Compiles the GENCODE GTF file and transcript FASTA file of a Funcotator data source into a memory-mapped GENCODE transcript store, which Funcotator queries directly.",
+        oneLineSummary = "Compiles a Funcotator GENCODE data source into a memory-mapped GENCODE transcript store.",
+        programGroup = VariantEvaluationProgramGroup.class
+)
+@DocumentedFeature
+@BetaFeature
+public final class CreateGencodeTranscriptStore extends CommandLineProgram {
+
+    private static final Logger logger = LogManager.getLogger(CreateGencodeTranscriptStore.class);
+
+    public static final String TRANSCRIPT_FASTA_LONG_NAME = "transcript-fasta";
+
+    @Argument(
+            shortName = StandardArgumentDefinitions.INPUT_SHORT_NAME,
+            fullName  = StandardArgumentDefinitions.INPUT_LONG_NAME,
+            doc = "GENCODE GTF file of the data source.")
+    private File inputFile;
+
+    @Argument(
+            fullName  = TRANSCRIPT_FASTA_LONG_NAME,
+            doc = "GENCODE transcript FASTA file of the data source (the gencode_fasta_path of its configuration file), with its index and sequence dictionary.")
+    private File transcriptFastaFile;
+
+    @Argument(
+            shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME,
+            fullName  = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
+            doc = "GENCODE transcript store to create.  Must end with " + GencodeTranscriptStore.GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION + ".")
+    private File outputFile;
+
+    @Override
+    protected Object doWork() {
+        final GencodeGtfCodec gtfCodec = new GencodeGtfCodec();
+        if ( !gtfCodec.canDecode(inputFile.getAbsolutePath()) ) {
+            throw new UserException.CouldNotReadInputFile(inputFile, "it is not a valid GENCODE GTF file");
+        }
+        if ( !GencodeTranscriptStore.isGencodeTranscriptStore(outputFile.toPath()) ) {
+            throw new CommandLineException.BadArgumentValue(StandardArgumentDefinitions.OUTPUT_LONG_NAME, outputFile.getPath(),
+                    "The GENCODE transcript store name must end with " + GencodeTranscriptStore.GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION);
+        }
+
+        final long numGenes;
+        try ( final FeatureReader<GencodeGtfFeature> reader = AbstractFeatureReader.getFeatureReader(inputFile.getAbsolutePath(), gtfCodec, false);
+              final CloseableTribbleIterator<GencodeGtfFeature> features = reader.iterator();
+              final ReferenceDataSource transcriptFasta = ReferenceDataSource.of(transcriptFastaFile.toPath()) ) {
+
+            // The GENCODE GTF codec only produces genes:
+            final Iterator<GencodeGtfGeneFeature> genes = new Iterator<GencodeGtfGeneFeature>() {
+                @Override
+                public boolean hasNext() {
+                    return features.hasNext();
+                }
+
+                @Override
+                public GencodeGtfGeneFeature next() {
+                    return (GencodeGtfGeneFeature) features.next();
+                }
+            };
+            numGenes = GencodeTranscriptStore.write(outputFile.toPath(), genes, transcriptFasta);
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotReadInputFile(inputFile, ex);
+        }
+        logger.info("Wrote " + numGenes + " genes to " + outputFile.getAbsolutePath());
+
+        return outputFile.getAbsolutePath();
+    }
+}
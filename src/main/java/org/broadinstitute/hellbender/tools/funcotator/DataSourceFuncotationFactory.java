@@ -55,6 +55,11 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
      */
     protected final FeatureInput<? extends Feature> mainSourceFileAsFeatureInput;
 
+    /**
+     * Cache of the {@link Funcotation}s created by this {@link DataSourceFuncotationFactory}.
+     */
+    private FuncotationCache funcotationCache = new FuncotationCache(FuncotatorArgumentDefinitions.FUNCOTATION_CACHE_SIZE_DEFAULT_VALUE);
+
     @VisibleForTesting
     public FeatureInput<? extends Feature> getMainSourceFileAsFeatureInput() {
         return mainSourceFileAsFeatureInput;
@@ -102,10 +107,42 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
         return getName() + " " + getVersion();
     }
 
+    /**
+     * Replace the cache of the {@link Funcotation}s created by this {@link DataSourceFuncotationFactory} with an empty
+     * cache of the given size.
+     * @param maxEntries The maximum number of entries to cache.  If {@code 0}, no {@link Funcotation}s are cached.
+     */
+    public void setFuncotationCacheSize(final int maxEntries) {
+        funcotationCache = new FuncotationCache(maxEntries);
+    }
+
+    /**
+     * @return The cache of the {@link Funcotation}s created by this {@link DataSourceFuncotationFactory}.
+     */
+    @VisibleForTesting
+    public FuncotationCache getFuncotationCache() {
+        return funcotationCache;
+    }
+
+    /**
+     * Whether the {@link Funcotation}s created by this {@link DataSourceFuncotationFactory} depend on the
+     * {@link GencodeFuncotation}s given to {@link #createFuncotationsFromFeatures}.  If not, the funcotations cached for
+     * one transcript are reused for all other transcripts of the same variant.
+     * @return {@code true} if the given {@link GencodeFuncotation}s are used to create funcotations; {@code false} otherwise.
+     */
+    protected boolean dependsOnGencodeFuncotations() {
+        return true;
+    }
+
     /**
      * Perform cleanup tasks for this {@link DataSourceFuncotationFactory}.
+     * Subclasses that override this method must call it.
      */
-    public void close() {}
+    public void close() {
+        if ( funcotationCache.getHits() + funcotationCache.getMisses() != 0 ) {
+            logger.info(getInfoString() + " " + funcotationCache.getInfoString());
+        }
+    }
 
     /**
      * Apply the override values in {@link DataSourceFuncotationFactory#annotationOverrideMap} to every
@@ -140,6 +177,16 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
      */
     public abstract LinkedHashSet<String> getSupportedFuncotationFields();
 
+    /**
+     * Create a {@link DataSourceFuncotationFactory} that creates the same {@link Funcotation}s as this one, for use on
+     * another thread.  The copy shares the data this factory has loaded from its data source, which is not modified
+     * after construction, but has its own readers and its own {@link FuncotationCache}.
+     * The copy has the same {@link #getMainSourceFileAsFeatureInput()}, so it must only be given features that were
+     * already queried (see {@link #createFuncotationsFromFeatures}).
+     * @return A new {@link DataSourceFuncotationFactory} for the same data source as this one.
+     */
+    public abstract DataSourceFuncotationFactory copyForAnotherThread();
+
     /**
      * Creates a {@link List} of {@link Funcotation} for the given {@code variant}, {@code referenceContext}, and {@code featureContext}.
      * Accounts for override values passed into the constructor as well.
@@ -170,7 +217,35 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
         Utils.nonNull(featureContext);
 
         // Query this funcotation factory to get the list of overlapping features.
-        final List<Feature> featureList = queryFeaturesFromFeatureContext(featureContext);
+        return createFuncotationsFromFeatures(variant, referenceContext, queryFeaturesFromFeatureContext(featureContext), gencodeFuncotations);
+    }
+
+    /**
+     * Creates a {@link List} of {@link Funcotation} for the given {@code variant}, {@code referenceContext}, and {@code gencodeFuncotations},
+     * given the features this {@link DataSourceFuncotationFactory} would have queried from the {@link FeatureContext} of the variant.
+     * This allows the features to be queried on one thread (as the feature data sources are not thread-safe) and the funcotations to be created on another.
+     * Accounts for override values passed into the constructor as well.
+     * The funcotations are cached (see {@link FuncotationCache}), so that variants with the same position and alleles as a
+     * recently annotated variant are not annotated again.  The returned funcotations may therefore be shared and must not be modified.
+     * @param variant {@link VariantContext} to annotate.  Never {@code null}.
+     * @param referenceContext {@link ReferenceContext} corresponding to the given {@code variant}.  Never {@code null}.
+     * @param featureList {@link List} of {@link Feature} returned by {@link #queryFeaturesFromFeatureContext} for the {@link FeatureContext} of the given {@code variant}.  Never {@code null}.
+     * @param gencodeFuncotations {@link List} of {@link GencodeFuncotation} that have already been created for the given {@code variant}.
+     *   {@code null} is acceptable if there are no corresponding gencode funcotations.
+     * @return {@link List} of {@link Funcotation} given the {@code variant}, {@code referenceContext}, and {@code featureList}.  This should never be empty.
+     */
+    public List<Funcotation> createFuncotationsFromFeatures(final VariantContext variant, final ReferenceContext referenceContext, final List<Feature> featureList, final List<GencodeFuncotation> gencodeFuncotations) {
+
+        Utils.nonNull(variant);
+        Utils.nonNull(referenceContext);
+        Utils.nonNull(featureList);
+
+        return funcotationCache.get(variant, referenceContext, featureList,
+                dependsOnGencodeFuncotations() ? gencodeFuncotations : null,
+                () -> createUncachedFuncotationsFromFeatures(variant, referenceContext, featureList, gencodeFuncotations));
+    }
+
+    private List<Funcotation> createUncachedFuncotationsFromFeatures(final VariantContext variant, final ReferenceContext referenceContext, final List<Feature> featureList, final List<GencodeFuncotation> gencodeFuncotations) {
 
         final List<Funcotation> outputFuncotations;
 
@@ -0,0 +1,216 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import htsjdk.tribble.Feature;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotation;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, least-recently-used cache of the {@link Funcotation}s created by a single {@link DataSourceFuncotationFactory}.
+ *
+ * Entries are keyed on the position and alleles of the variant, the window of the reference context, and the features
+ * (and, if the factory needs them, the {@link GencodeFuncotation}s) from which the funcotations were created.  Features
+ * and {@link GencodeFuncotation}s are compared by reference: the feature caches of the engine hand out the same feature
+ * objects for repeated queries of the same site, so variants that repeat the same site and alleles (e.g. in multi-sample
+ * or split multi-allelic VCFs) are annotated only once.
+ *
+ * This class is not thread-safe.  Each {@link DataSourceFuncotationFactory} has its own cache.
+ */
+public final class FuncotationCache {
+
+    private final int maxEntries;
+
+    private final Map<Key, List<Funcotation>> cache;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param maxEntries The maximum number of entries to keep in this cache before evicting the least recently used one.
+     *                   If {@code 0}, nothing is cached.  Must be {@code >= 0}.
+     */
+    public FuncotationCache(final int maxEntries) {
+        Utils.validateArg(maxEntries >= 0, "The maximum number of cache entries must be >= 0: " + maxEntries);
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<Key, List<Funcotation>>(Math.min(maxEntries, 1024), 0.75f, true) {
+            static final long serialVersionUID = 55337L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, List<Funcotation>> eldest) {
+                return size() > FuncotationCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the funcotations cached for the given inputs, creating (and caching) them with {@code funcotationCreator} if
+     * they are not in this cache.
+     * @param variant {@link VariantContext} being annotated.  Never {@code null}.
+     * @param referenceContext {@link ReferenceContext} of the {@code variant}.  Never {@code null}.
+     * @param featureList {@link List} of {@link Feature}s from which the funcotations are created.  Never {@code null}.
+     * @param gencodeFuncotations {@link List} of {@link GencodeFuncotation}s from which the funcotations are created.
+     *                            {@code null} if the funcotations do not depend on any {@link GencodeFuncotation}.
+     * @param funcotationCreator Creates the funcotations if they are not in this cache.  Never {@code null}.
+     * @return The (possibly cached) funcotations for the given inputs.
+     */
+    public List<Funcotation> get(final VariantContext variant,
+                                 final ReferenceContext referenceContext,
+                                 final List<Feature> featureList,
+                                 final List<GencodeFuncotation> gencodeFuncotations,
+                                 final Supplier<List<Funcotation>> funcotationCreator) {
+        Utils.nonNull(funcotationCreator);
+
+        if ( maxEntries == 0 ) {
+            ++misses;
+            return funcotationCreator.get();
+        }
+
+        final Key key = new Key(variant, referenceContext, featureList, gencodeFuncotations);
+        final List<Funcotation> cachedFuncotations = cache.get(key);
+        if ( cachedFuncotations != null ) {
+            ++hits;
+            return cachedFuncotations;
+        }
+
+        ++misses;
+        final List<Funcotation> funcotations = funcotationCreator.get();
+        cache.put(key, funcotations);
+        return funcotations;
+    }
+
+    /**
+     * @return The maximum number of entries in this cache.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return The number of entries currently in this cache.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return The number of lookups that were answered from this cache.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups for which the funcotations had to be created.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The fraction of lookups that were answered from this cache, or {@code 0} if there were no lookups.
+     */
+    public double getHitRate() {
+        final long total = hits + misses;
+        return total == 0 ? 0 : ((double) hits) / total;
+    }
+
+    /**
+     * @return A {@link String} summarizing the hits and misses of this cache.
+     */
+    public String getInfoString() {
+        return String.format("cache hits/total: %d/%d (%.2f%%, max entries: %d)", hits, hits + misses, 100 * getHitRate(), maxEntries);
+    }
+
+    //==================================================================================================================
+
+    /**
+     * Compact key of a {@link FuncotationCache} entry.  The hash code is computed once, on construction.
+     */
+    private static final class Key {
+        private final String contig;
+        private final int start;
+        private final int end;
+        private final List<Allele> alleles;
+        private final SimpleInterval referenceWindow;
+        private final Feature[] features;
+        private final Object[] gencodeFuncotations;
+        private final int hashCode;
+
+        Key(final VariantContext variant,
+            final ReferenceContext referenceContext,
+            final List<Feature> featureList,
+            final List<GencodeFuncotation> gencodeFuncotations) {
+            contig = variant.getContig();
+            start = variant.getStart();
+            end = variant.getEnd();
+            alleles = variant.getAlleles();
+            referenceWindow = referenceContext.hasBackingDataSource() ? referenceContext.getWindow() : null;
+            features = featureList.toArray(new Feature[0]);
+            this.gencodeFuncotations = gencodeFuncotations == null ? null : gencodeFuncotations.toArray();
+
+            int hash = Objects.hash(contig, start, end, alleles, referenceWindow);
+            hash = 31 * hash + identityHashCode(features);
+            hash = 31 * hash + identityHashCode(this.gencodeFuncotations);
+            hashCode = hash;
+        }
+
+        private static int identityHashCode(final Object[] objects) {
+            if ( objects == null ) {
+                return 0;
+            }
+            int hash = 1;
+            for ( final Object o : objects ) {
+                hash = 31 * hash + System.identityHashCode(o);
+            }
+            return hash;
+        }
+
+        private static boolean identityEquals(final Object[] a, final Object[] b) {
+            if ( a == b ) {
+                return true;
+            }
+            if ( a == null || b == null || a.length != b.length ) {
+                return false;
+            }
+            for ( int i = 0; i < a.length; i++ ) {
+                if ( a[i] != b[i] ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof Key) ) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return hashCode == that.hashCode &&
+                    start == that.start &&
+                    end == that.end &&
+                    contig.equals(that.contig) &&
+                    alleles.equals(that.alleles) &&
+                    Objects.equals(referenceWindow, that.referenceWindow) &&
+                    identityEquals(features, that.features) &&
+                    identityEquals(gencodeFuncotations, that.gencodeFuncotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.broadinstitute.hellbender.tools.funcotator;
 
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.tribble.Feature;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 import org.apache.logging.log4j.LogManager;
@@ -14,9 +15,11 @@ import org.broadinstitute.hellbender.engine.*;
 import org.broadinstitute.hellbender.engine.filters.CountingVariantFilter;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.DataSourceUtils;
+import org.broadinstitute.hellbender.tools.funcotator.metadata.FuncotationMetadata;
 import org.broadinstitute.hellbender.tools.funcotator.metadata.VcfFuncotationMetadata;
 import org.broadinstitute.hellbender.transformers.VariantTransformer;
 import org.broadinstitute.hellbender.utils.SequenceDictionaryUtils;
+import org.broadinstitute.hellbender.utils.runtime.OrderedWorkerPool;
 import picard.cmdline.programgroups.VariantEvaluationProgramGroup;
 
 import java.nio.file.Path;
@@ -168,6 +171,11 @@ import java.util.*;
  *   --ref-version hg19
  * </pre>
  *
+ * <p>
+ *     With {@code --variant-threads N}, variants are annotated in batches by N threads, each with its own instances of the
+ *     data sources.  The annotated variants are written in the same order as with a single thread.
+ * </p>
+ *
  * <h3>Notes</h3>
  * <ul>
  *     <li>This is a beta tool, and as such may generate errors or warnings.</li>
@@ -188,6 +196,11 @@ import java.util.*;
 public class Funcotator extends VariantWalker {
     private static final Logger logger = LogManager.getLogger(Funcotator.class);
 
+    /**
+     * Number of variants handed to a thread at once when running with more than one thread.
+     */
+    private static final int VARIANTS_PER_BATCH = 100;
+
     //==================================================================================================================
     // Arguments:
 
@@ -200,6 +213,12 @@ public class Funcotator extends VariantWalker {
 
     private FuncotatorEngine funcotatorEngine;
 
+    // when running with more than one thread: a pool of workers, each with its own engine (and data sources) and
+    // reference.  Batches are written out in the order in which they were submitted, i.e. in input order.
+    private OrderedWorkerPool<FuncotatorWorker> workerPool;
+    private final List<FuncotatorEngine> workerEngines = new ArrayList<>();
+    private List<VariantToAnnotate> currentBatch = new ArrayList<>(VARIANTS_PER_BATCH);
+
     //==================================================================================================================
 
     /**
@@ -256,15 +275,22 @@ public class Funcotator extends VariantWalker {
 
         logger.info("Initializing Funcotator Engine...");
         // Create our engine to do our work and drive this Funcotation train!
+        final FuncotationMetadata inputMetadata = VcfFuncotationMetadata.create(
+                new ArrayList<>(vcfHeader.getInfoHeaderLines())
+        );
         funcotatorEngine = new FuncotatorEngine(
                 funcotatorArgs,
                 getSequenceDictionaryForDrivingVariants(),
-                VcfFuncotationMetadata.create(
-                    new ArrayList<>(vcfHeader.getInfoHeaderLines())
-                ),
+                inputMetadata,
                 dataSourceFuncotationFactories
         );
 
+        if ( funcotatorArgs.variantThreads > 1 ) {
+            logger.info("Annotating variants using " + funcotatorArgs.variantThreads + " threads");
+            workerPool = new OrderedWorkerPool<>("funcotator-worker", funcotatorArgs.variantThreads,
+                    () -> new FuncotatorWorker(inputMetadata), FuncotatorWorker::close);
+        }
+
         // Create our output renderer:
         logger.info("Creating a " + funcotatorArgs.outputFormatType + " file for output: " + funcotatorArgs.outputFile.toURI());
         outputRenderer = funcotatorEngine.createOutputRenderer(
@@ -320,16 +346,31 @@ public class Funcotator extends VariantWalker {
         // This is necessary because of the variant transformation that gets applied in VariantWalkerBase::apply.
         final ReferenceContext correctReferenceContext = funcotatorEngine.getCorrectReferenceContext(variant, referenceContext);
 
-        // Place the variant on our queue to be funcotated:
-        enqueueAndHandleVariant(variant, correctReferenceContext, featureContext);
+        if ( funcotatorArgs.variantThreads == 1 ) {
+            // Place the variant on our queue to be funcotated:
+            enqueueAndHandleVariant(variant, correctReferenceContext, featureContext);
+            return;
+        }
+
+        // the features are queried here since the feature data sources are not thread-safe
+        currentBatch.add(new VariantToAnnotate(variant, correctReferenceContext, funcotatorEngine.queryFeaturesForVariant(featureContext)));
+        if ( currentBatch.size() >= VARIANTS_PER_BATCH ) {
+            submitCurrentBatch();
+        }
     }
 
     @Override
     public Object onTraversalSuccess() {
+        if ( funcotatorArgs.variantThreads > 1 ) {
+            if ( ! currentBatch.isEmpty() ) {
+                submitCurrentBatch();
+            }
+            workerPool.drain();
+        }
 
         // If we only saw IGRs, we most likely have a configuration issue.
         // Make sure the user knows this by making a HUGE stink about it.
-        if ( funcotatorEngine.onlyProducedIGRs() ) {
+        if ( funcotatorEngine.onlyProducedIGRs() && workerEngines.stream().allMatch(FuncotatorEngine::onlyProducedIGRs) ) {
             logger.warn("================================================================================");
             logger.warn("\u001B[43m     _  _  _   __        __               _                   _  _  _           ");
             logger.warn("    | || || |  \\ \\      / /_ _ _ __ _ __ (_)_ __   __ _      | || || |        ");
@@ -348,6 +389,10 @@ public class Funcotator extends VariantWalker {
 
     @Override
     public void closeTool() {
+        if ( workerPool != null ) {
+            workerPool.close();
+        }
+
         if ( funcotatorEngine != null) {
             funcotatorEngine.close();
         }
@@ -373,4 +418,75 @@ public class Funcotator extends VariantWalker {
         // At this point there is only one transcript ID in the funcotation map if canonical or best effect are selected
         outputRenderer.write(variant, funcotationMap);
     }
+
+    /**
+     * Hand the current batch of variants to the worker pool, to be written out once it has been annotated.
+     */
+    private void submitCurrentBatch() {
+        final List<VariantToAnnotate> batch = currentBatch;
+        workerPool.submit(worker -> {
+            batch.forEach(worker::annotate);
+            return () -> batch.forEach(variantToAnnotate -> outputRenderer.write(variantToAnnotate.variant, variantToAnnotate.funcotationMap));
+        });
+        currentBatch = new ArrayList<>(VARIANTS_PER_BATCH);
+    }
+
+    /**
+     * The engine and reference used to annotate variants on one worker thread.
+     */
+    private final class FuncotatorWorker {
+        private final FuncotatorEngine engine;
+        private final ReferenceDataSource reference;
+
+        private FuncotatorWorker( final FuncotationMetadata inputMetadata ) {
+            // The data sources are not thread-safe, so each thread gets its own copies of them, which share the
+            // data loaded by the first set of data sources (e.g. the transcript map of GENCODE).  Features are still
+            // queried through the FeatureInputs registered by the first set of data sources, on the traversal thread.
+            final List<DataSourceFuncotationFactory> workerFactories = new ArrayList<>(funcotatorEngine.getFuncotationFactories().size());
+            for ( final DataSourceFuncotationFactory factory : funcotatorEngine.getFuncotationFactories() ) {
+                workerFactories.add(factory.copyForAnotherThread());
+            }
+            engine = new FuncotatorEngine(
+                    funcotatorArgs,
+                    getSequenceDictionaryForDrivingVariants(),
+                    inputMetadata,
+                    workerFactories
+            );
+            workerEngines.add(engine);
+            reference = ReferenceDataSource.of(referenceArguments.getReferencePath());
+        }
+
+        private void annotate( final VariantToAnnotate variantToAnnotate ) {
+            variantToAnnotate.annotate(engine, reference);
+        }
+
+        private void close() {
+            engine.close();
+            reference.close();
+        }
+    }
+
+    /**
+     * A variant along with the features queried for it on the traversal thread, and its {@link FuncotationMap} once
+     * it has been annotated by a worker thread.
+     */
+    private static final class VariantToAnnotate {
+        private final VariantContext variant;
+        private final ReferenceContext referenceContext;
+        private List<List<Feature>> features;
+        private FuncotationMap funcotationMap;
+
+        private VariantToAnnotate( final VariantContext variant, final ReferenceContext referenceContext, final List<List<Feature>> features ) {
+            this.variant = variant;
+            this.referenceContext = referenceContext;
+            this.features = features;
+        }
+
+        private void annotate( final FuncotatorEngine engine, final ReferenceDataSource reference ) {
+            // the reference data sources are not thread-safe either, so the bases are read from the reference of this thread
+            final ReferenceContext workerReferenceContext = new ReferenceContext(reference, referenceContext.getInterval(), referenceContext.getWindow());
+            funcotationMap = engine.createFuncotationMapForVariantFromFeatures(variant, workerReferenceContext, features);
+            features = null;
+        }
+    }
 }
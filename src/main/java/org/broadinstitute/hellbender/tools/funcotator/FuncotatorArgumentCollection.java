@@ -122,4 +122,27 @@ public class FuncotatorArgumentCollection implements Serializable {
             doc = "Fields that should not be rendered in the final output.  Only exact name matches will be excluded."
     )
     public Set<String> excludedFields = new HashSet<>();
+
+    /**
+     * Number of threads used to annotate variants.  Each thread has its own instances of the data sources, so memory
+     * usage for data sources held in memory (e.g. simpleXSV tables) grows linearly with the number of threads.
+     * The output is written in the same order as with a single thread.
+     */
+    @Advanced
+    @Argument(
+            fullName = FuncotatorArgumentDefinitions.VARIANT_THREADS_LONG_NAME,
+            optional = true,
+            minValue = 1,
+            doc = "Number of threads to use for annotating variants concurrently"
+    )
+    public int variantThreads = 1;
+
+    @Advanced
+    @Argument(
+            fullName = FuncotatorArgumentDefinitions.FUNCOTATION_CACHE_SIZE_LONG_NAME,
+            optional = true,
+            minValue = 0,
+            doc = "Number of variant sites whose annotations are cached by each data source.  Variants that repeat the position and alleles of a cached site are not annotated again.  0 disables the cache."
+    )
+    public int funcotationCacheSize = FuncotatorArgumentDefinitions.FUNCOTATION_CACHE_SIZE_DEFAULT_VALUE;
 }
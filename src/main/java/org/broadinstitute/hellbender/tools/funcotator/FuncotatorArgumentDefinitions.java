@@ -66,6 +66,11 @@ public class FuncotatorArgumentDefinitions {
 
     public static final String FORCE_B37_TO_HG19_REFERENCE_CONTIG_CONVERSION = "force-b37-to-hg19-reference-contig-conversion";
 
+    public static final String VARIANT_THREADS_LONG_NAME = "variant-threads";
+
+    public static final String FUNCOTATION_CACHE_SIZE_LONG_NAME = "funcotation-cache-size";
+    public static final int FUNCOTATION_CACHE_SIZE_DEFAULT_VALUE = 100;
+
     // ------------------------------------------------------------
     // Helper Types:
 
@@ -133,11 +138,16 @@ public class FuncotatorArgumentDefinitions {
         },
 
         /**
-         * This value indicates a GENCODE GTF data file.
+         * This value indicates a GENCODE GTF data file, or a GENCODE transcript store created from it (see {@link org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptStore}).
          */
         GENCODE("gencode") {
             @Override
             public void assertConfigFilePropertiesAreValid(final Properties configFileProperties, final Path configFilePath) {
+                // A GENCODE transcript store already contains the transcript sequences:
+                if ( DataSourceUtils.isGencodeTranscriptStoreDataSource(configFileProperties, configFilePath) ) {
+                    return;
+                }
+
                 DataSourceUtils.assertConfigPropertiesContainsKey(DataSourceUtils.CONFIG_FILE_FIELD_NAME_GENCODE_FASTA_PATH, configFileProperties, configFilePath);
 
                 // Assert that the path is good:
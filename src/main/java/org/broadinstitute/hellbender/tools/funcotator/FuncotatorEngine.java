@@ -1,6 +1,7 @@
 package org.broadinstitute.hellbender.tools.funcotator;
 
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.tribble.Feature;
 import htsjdk.tribble.util.ParsingUtils;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
@@ -98,6 +99,10 @@ public final class FuncotatorEngine implements AutoCloseable {
         // create their annotations.   This sorting enables such dependencies.
         dataSourceFactories.sort(DataSourceUtils::datasourceComparator);
 
+        for ( final DataSourceFuncotationFactory factory : dataSourceFactories ) {
+            factory.setFuncotationCacheSize(funcotatorArgs.funcotationCacheSize);
+        }
+
         // Determine whether we have to convert given variants from B37 to HG19:
         mustConvertInputContigsToHg19 = determineReferenceAndDatasourceCompatibility();
     }
@@ -125,6 +130,44 @@ public final class FuncotatorEngine implements AutoCloseable {
         Utils.nonNull(referenceContext);
         Utils.nonNull(featureContext);
 
+        return createFuncotationMapForVariantFromFeatures(variantContext, referenceContext, queryFeaturesForVariant(featureContext));
+    }
+
+    /**
+     * Queries the features that each of the {@link DataSourceFuncotationFactory}s of this {@link FuncotatorEngine} uses to annotate a variant.
+     * This must be done on the thread that owns the feature data sources of the tool, since they are not thread-safe.
+     *
+     * @param featureContext {@link FeatureContext} corresponding to the variant to annotate.  Never {@code null}.
+     * @return A {@link List} of the features for each factory, in the order of {@link #getFuncotationFactories()}.
+     */
+    public List<List<Feature>> queryFeaturesForVariant(final FeatureContext featureContext) {
+        Utils.nonNull(featureContext);
+
+        final List<List<Feature>> featuresByFactory = new ArrayList<>(dataSourceFactories.size());
+        for ( final DataSourceFuncotationFactory funcotationFactory : dataSourceFactories ) {
+            featuresByFactory.add(funcotationFactory.queryFeaturesFromFeatureContext(featureContext));
+        }
+        return featuresByFactory;
+    }
+
+    /**
+     * Creates a {@link FuncotationMap} for the given {@code variantContext} from the features already queried for it by
+     * {@link #queryFeaturesForVariant}, possibly by another {@link FuncotatorEngine} for the same data sources.
+     *
+     * @param variantContext   {@link VariantContext} to annotate.  Never {@code null}.
+     * @param referenceContext {@link ReferenceContext} corresponding to the given {@code variantContext}.  Never {@code null}.
+     * @param featuresByFactory The features for each factory, in the order of {@link #getFuncotationFactories()}.  Never {@code null}.
+     * @return an instance of FuncotationMap that maps transcript IDs to lists of funcotations for the given variantContext context.
+     */
+    public FuncotationMap createFuncotationMapForVariantFromFeatures(final VariantContext variantContext,
+                                                                     final ReferenceContext referenceContext,
+                                                                     final List<List<Feature>> featuresByFactory) {
+
+        Utils.nonNull(variantContext);
+        Utils.nonNull(referenceContext);
+        Utils.nonNull(featuresByFactory);
+        Utils.validateArg(featuresByFactory.size() == dataSourceFactories.size(), "There must be one list of features per data source.");
+
         //==============================================================================================================
         // First create only the transcript (Gencode) funcotations:
 
@@ -132,18 +175,19 @@ public final class FuncotatorEngine implements AutoCloseable {
             logger.warn("Attempting to annotate with more than one GENCODE datasource.  If these have overlapping transcript IDs, errors may occur.");
         }
 
-        final List<GencodeFuncotation> transcriptFuncotations = retrieveGencodeFuncotationFactoryStream()
-                .map(gf -> gf.createFuncotations(variantContext, referenceContext, featureContext))
-                .flatMap(List::stream)
-                .map(f -> {
-                        final GencodeFuncotation gf = (GencodeFuncotation) f;
-                        if (onlyProducedIGRs && (gf.getVariantClassification() != GencodeFuncotation.VariantClassification.IGR)) {
-                            onlyProducedIGRs = false;
-                        }
-                        return gf;
+        final List<GencodeFuncotation> transcriptFuncotations = new ArrayList<>();
+        for ( int i = 0; i < dataSourceFactories.size(); i++ ) {
+            final DataSourceFuncotationFactory funcotationFactory = dataSourceFactories.get(i);
+            if (funcotationFactory.getType().equals(FuncotatorArgumentDefinitions.DataSourceType.GENCODE)) {
+                for ( final Funcotation f : funcotationFactory.createFuncotationsFromFeatures(variantContext, referenceContext, featuresByFactory.get(i), null) ) {
+                    final GencodeFuncotation gf = (GencodeFuncotation) f;
+                    if (onlyProducedIGRs && (gf.getVariantClassification() != GencodeFuncotation.VariantClassification.IGR)) {
+                        onlyProducedIGRs = false;
                     }
-                )
-                .collect(Collectors.toList());
+                    transcriptFuncotations.add(gf);
+                }
+            }
+        }
 
         //==============================================================================================================
         // Create the funcotations for non-Gencode data sources:
@@ -152,15 +196,16 @@ public final class FuncotatorEngine implements AutoCloseable {
         final FuncotationMap funcotationMap = FuncotationMap.createFromGencodeFuncotations(transcriptFuncotations);
 
         // Perform the rest of the annotation.  Note that this code manually excludes the Gencode Funcotations.
-        for (final DataSourceFuncotationFactory funcotationFactory : dataSourceFactories ) {
+        for ( int i = 0; i < dataSourceFactories.size(); i++ ) {
+            final DataSourceFuncotationFactory funcotationFactory = dataSourceFactories.get(i);
 
             // Note that this guarantees that we do not add GencodeFuncotations a second time.
             if (!funcotationFactory.getType().equals(FuncotatorArgumentDefinitions.DataSourceType.GENCODE)) {
                 final List<String> txIds = funcotationMap.getTranscriptList();
 
                 for (final String txId: txIds) {
-                    funcotationMap.add(txId, funcotationFactory.createFuncotations(variantContext, referenceContext,
-                            featureContext, funcotationMap.getGencodeFuncotations(txId)));
+                    funcotationMap.add(txId, funcotationFactory.createFuncotationsFromFeatures(variantContext, referenceContext,
+                            featuresByFactory.get(i), funcotationMap.getGencodeFuncotations(txId)));
                 }
             }
         }
@@ -11,6 +11,7 @@ import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.funcotator.*;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.cosmic.CosmicFuncotationFactory;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotationFactory;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptStore;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.vcf.VcfFuncotationFactory;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.xsv.LocatableXsvFuncotationFactory;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.xsv.SimpleKeyXsvFuncotationFactory;
@@ -283,9 +284,16 @@ final public class DataSourceUtils {
                     funcotationFactory = DataSourceUtils.createCosmicDataSource(path, properties, annotationOverridesMap);
                     break;
                 case GENCODE:
-                    featureInput = createAndRegisterFeatureInputs(path, properties, gatkToolInstance, lookaheadFeatureCachingInBp, GencodeGtfFeature.class, false);
-                    funcotationFactory = DataSourceUtils.createGencodeDataSource(path, properties, annotationOverridesMap, transcriptSelectionMode,
-                            userTranscriptIdSet, featureInput, flankSettings);
+                    // A GENCODE transcript store is queried directly, not as a feature input:
+                    if ( isGencodeTranscriptStoreDataSource(properties, path) ) {
+                        funcotationFactory = DataSourceUtils.createGencodeTranscriptStoreDataSource(path, properties, annotationOverridesMap, transcriptSelectionMode,
+                                userTranscriptIdSet, flankSettings);
+                    }
+                    else {
+                        featureInput = createAndRegisterFeatureInputs(path, properties, gatkToolInstance, lookaheadFeatureCachingInBp, GencodeGtfFeature.class, false);
+                        funcotationFactory = DataSourceUtils.createGencodeDataSource(path, properties, annotationOverridesMap, transcriptSelectionMode,
+                                userTranscriptIdSet, featureInput, flankSettings);
+                    }
                     break;
                 case VCF:
                     featureInput = createAndRegisterFeatureInputs(path, properties, gatkToolInstance, lookaheadFeatureCachingInBp, VariantContext.class, false);
@@ -513,6 +521,61 @@ final public class DataSourceUtils {
             );
     }
 
+    /**
+     * @param dataSourceProperties {@link Properties} consisting of the contents of the config file for a GENCODE data source.  Must not be {@code null}.
+     * @param configFilePath {@link Path} to the config file for the data source.  Must not be {@code null}.
+     * @return {@code true} if the source file of the data source is a {@link GencodeTranscriptStore}; {@code false} if it is a GENCODE GTF file.
+     */
+    public static boolean isGencodeTranscriptStoreDataSource(final Properties dataSourceProperties, final Path configFilePath) {
+        Utils.nonNull(dataSourceProperties);
+        Utils.nonNull(configFilePath);
+        return GencodeTranscriptStore.isGencodeTranscriptStore(
+                resolveFilePathStringFromKnownPath(dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_SRC_FILE), configFilePath));
+    }
+
+    /**
+     * Create a {@link GencodeFuncotationFactory} backed by a {@link GencodeTranscriptStore} from filesystem resources and field overrides.
+     * @param dataSourceFile {@link Path} to the data source file.  Must not be {@code null}.
+     * @param dataSourceProperties {@link Properties} consisting of the contents of the config file for the data source.  Must not be {@code null}.
+     * @param annotationOverridesMap {@link LinkedHashMap}{@code <String->String>} containing any annotation overrides to be included in the resulting data source.  Must not be {@code null}.
+     * @param transcriptSelectionMode {@link TranscriptSelectionMode} to use when choosing the transcript for detailed reporting.  Must not be {@code null}.
+     * @param userTranscriptIdSet {@link Set} of {@link String}s containing transcript IDs of interest to be selected for first.  Must not be {@code null}.
+     * @param flankSettings Settings object containing our 5'/3' flank sizes
+     * @return A new {@link GencodeFuncotationFactory} based on the given data source file information, field overrides map, and transcript information.
+     */
+    private static GencodeFuncotationFactory createGencodeTranscriptStoreDataSource(final Path dataSourceFile,
+                                                                                    final Properties dataSourceProperties,
+                                                                                    final LinkedHashMap<String, String> annotationOverridesMap,
+                                                                                    final TranscriptSelectionMode transcriptSelectionMode,
+                                                                                    final Set<String> userTranscriptIdSet,
+                                                                                    final FlankSettings flankSettings) {
+
+        Utils.nonNull(dataSourceFile);
+        Utils.nonNull(dataSourceProperties);
+        Utils.nonNull(annotationOverridesMap);
+        Utils.nonNull(transcriptSelectionMode);
+        Utils.nonNull(userTranscriptIdSet);
+        Utils.nonNull(flankSettings);
+
+        // Get some metadata:
+        final String srcFile   = dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_SRC_FILE);
+        final String version   = dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_VERSION);
+        final String name      = dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_NAME);
+        final boolean isB37    = getIsB37PropertyValue(dataSourceProperties);
+
+        // Create our gencode factory:
+        return new GencodeFuncotationFactory(
+                GencodeTranscriptStore.open(resolveFilePathStringFromKnownPath( srcFile, dataSourceFile )),
+                version,
+                name,
+                transcriptSelectionMode,
+                userTranscriptIdSet,
+                annotationOverridesMap,
+                flankSettings,
+                isB37
+            );
+    }
+
     /**
      * Create a {@link VcfFuncotationFactory} from filesystem resources and field overrides.
      * @param dataSourceFile {@link Path} to the data source file.  Must not be {@code null}.
@@ -149,6 +149,33 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
         this.dataSourceIsB37 = isDataSourceB37;
 
         // Connect to the DB:
+        dbConnection = openDbConnection(this.pathToCosmicDb);
+
+        // Get the supported fields:
+        supportedFields = new LinkedHashSet<>(1);
+        supportedFields.add(name + "_overlapping_mutations");
+
+        // Initialize our annotation overrides:
+        initializeAnnotationOverrides(annotationOverridesMap);
+    }
+
+    /**
+     * Create a {@link CosmicFuncotationFactory} for the (already localized) database of the given
+     * {@link CosmicFuncotationFactory}, with its own connection to it.
+     * @param other The {@link CosmicFuncotationFactory} to copy.
+     */
+    private CosmicFuncotationFactory(final CosmicFuncotationFactory other) {
+        pathToCosmicDb = other.pathToCosmicDb;
+        version = other.version;
+        dataSourceIsB37 = other.dataSourceIsB37;
+
+        dbConnection = openDbConnection(pathToCosmicDb);
+
+        supportedFields = other.supportedFields;
+        annotationOverrideMap = other.annotationOverrideMap;
+    }
+
+    private static Connection openDbConnection(final Path pathToCosmicDb) {
         try {
             Class.forName("org.sqlite.JDBC");
 
@@ -157,23 +184,17 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
             // We only want to read from the DB:
             config.setReadOnly(true);
 
-            logger.debug("Connecting to SQLite database at: " + this.pathToCosmicDb.toUri().toString());
-            dbConnection = DriverManager.getConnection("jdbc:sqlite:" + this.pathToCosmicDb.toUri().toString(), config.toProperties());
+            logger.debug("Connecting to SQLite database at: " + pathToCosmicDb.toUri().toString());
+            final Connection dbConnection = DriverManager.getConnection("jdbc:sqlite:" + pathToCosmicDb.toUri().toString(), config.toProperties());
             logger.debug("Connected to SQLite database!");
+            return dbConnection;
         }
         catch (final SQLException ex) {
-            throw new UserException("Unable to open SQLite DB for COSMIC at: " + this.pathToCosmicDb.toUri().toString(), ex);
+            throw new UserException("Unable to open SQLite DB for COSMIC at: " + pathToCosmicDb.toUri().toString(), ex);
         }
         catch (final ClassNotFoundException ex) {
             throw new UserException("Cannot load SQLite Java Package!", ex);
         }
-
-        // Get the supported fields:
-        supportedFields = new LinkedHashSet<>(1);
-        supportedFields.add(name + "_overlapping_mutations");
-
-        // Initialize our annotation overrides:
-        initializeAnnotationOverrides(annotationOverridesMap);
     }
 
     //==================================================================================================================
@@ -187,6 +208,7 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
 
     @Override
     public void close() {
+        super.close();
         if (dbConnection != null) {
             try {
                 dbConnection.close();
@@ -197,6 +219,11 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
         }
     }
 
+    @Override
+    public CosmicFuncotationFactory copyForAnotherThread() {
+        return new CosmicFuncotationFactory(this);
+    }
+
     @Override
     public String getName() {
         return name;
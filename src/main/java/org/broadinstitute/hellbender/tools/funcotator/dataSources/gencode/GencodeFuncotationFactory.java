@@ -148,15 +148,15 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     private final String name;
 
     /**
-     * ReferenceSequenceFile for the transcript reference file.
+     * The sequences of the transcripts of this Gencode data source, from the transcript FASTA file or from the {@link #transcriptStore}.
      */
-    private final ReferenceDataSource transcriptFastaReferenceDataSource;
+    private final TranscriptSequenceSource transcriptSequences;
 
     /**
-     * Map between transcript IDs and the IDs from the FASTA file to look up the transcript.
-     * This is necessary because of the way the FASTA file contigs are named.
+     * The {@link GencodeTranscriptStore} from which genes are queried, or {@code null} if they are queried from the
+     * {@link #mainSourceFileAsFeatureInput} of this {@link GencodeFuncotationFactory}.
      */
-    private final Map<String, MappedTranscriptIdInfo> transcriptIdMap;
+    private final GencodeTranscriptStore transcriptStore;
 
     /**
      * The mode to select the "best" transcript (i.e. the transcript with detailed information) from the list of
@@ -175,15 +175,12 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     private final Set<String> userRequestedTranscripts;
 
     /**
-     * The {@link Path} from which we will read the sequences for the coding regions in given transcripts.
+     * The ncbiBuildVersion for this {@link GencodeFuncotationFactory}, or {@code null} if it is unknown.
+     * Note: This is resolved when the data source is initialized (rather than from the first {@link GencodeGtfFeature}
+     * received), so that it is also set on the IGRs annotated before any gene, and is shared by the copies of this
+     * factory made for other threads.
      */
-    private final Path gencodeTranscriptFastaFile;
-
-    /**
-     * The ncbiBuildVersion for this {@link GencodeFuncotationFactory}.
-     * Note: This is lazily cached.  It will be cached when first {@link GencodeGtfFeature} is received.
-     */
-    private String ncbiBuildVersion = null;
+    private final String ncbiBuildVersion;
 
     /**
      * Comparator to be used when sorting {@link Funcotation}s created by this {@link GencodeFuncotationFactory}.
@@ -266,16 +263,53 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
                                      final FlankSettings flankSettings,
                                      final boolean isDataSourceB37) {
 
-        super(mainFeatureInput);
-
         // Set up our local transcript fasta file.
         // We must localize it (if not on disk) to make read times fast enough to be manageable:
-        gencodeTranscriptFastaFile = localizeGencodeTranscriptFastaFile( gencodeTranscriptFastaFilePath );
-        this.flankSettings = flankSettings;
+        this(new TranscriptFastaSequenceSource(localizeGencodeTranscriptFastaFile(gencodeTranscriptFastaFilePath)),
+                null, version, name, transcriptSelectionMode, userRequestedTranscripts, annotationOverrides, mainFeatureInput, flankSettings, isDataSourceB37);
+    }
 
-        // Initialize our transcript data source and ID map:
-        transcriptFastaReferenceDataSource = ReferenceDataSource.of(gencodeTranscriptFastaFile);
-        transcriptIdMap = createTranscriptIdMap(transcriptFastaReferenceDataSource);
+    /**
+     * Create a {@link GencodeFuncotationFactory} that queries its genes and transcript sequences from a {@link GencodeTranscriptStore}
+     * instead of a GENCODE GTF file and transcript FASTA file.
+     *
+     * @param transcriptStore The {@link GencodeTranscriptStore} from which {@link Funcotation}s will be created.
+     * @param version The version {@link String} of Gencode from which {@link Funcotation}s will be made.
+     * @param name A {@link String} containing the name of this {@link GencodeFuncotationFactory}.
+     * @param transcriptSelectionMode The {@link TranscriptSelectionMode} by which representative/verbose transcripts will be chosen for overlapping variants.
+     * @param userRequestedTranscripts A {@link Set<String>} containing Gencode TranscriptIDs that the user requests to be annotated with priority over all other transcripts for overlapping variants.
+     * @param annotationOverrides A {@link LinkedHashMap<String, String>} containing user-specified overrides for specific {@link Funcotation}s.
+     * @param flankSettings Settings object containing our 5'/3' flank sizes
+     * @param isDataSourceB37 If {@code true}, indicates that the data source behind this {@link GencodeFuncotationFactory} contains B37 data.
+     */
+    public GencodeFuncotationFactory(final GencodeTranscriptStore transcriptStore,
+                                     final String version,
+                                     final String name,
+                                     final TranscriptSelectionMode transcriptSelectionMode,
+                                     final Set<String> userRequestedTranscripts,
+                                     final LinkedHashMap<String, String> annotationOverrides,
+                                     final FlankSettings flankSettings,
+                                     final boolean isDataSourceB37) {
+        this(Utils.nonNull(transcriptStore), transcriptStore, version, name, transcriptSelectionMode, userRequestedTranscripts,
+                annotationOverrides, null, flankSettings, isDataSourceB37);
+    }
+
+    private GencodeFuncotationFactory(final TranscriptSequenceSource transcriptSequences,
+                                      final GencodeTranscriptStore transcriptStore,
+                                      final String version,
+                                      final String name,
+                                      final TranscriptSelectionMode transcriptSelectionMode,
+                                      final Set<String> userRequestedTranscripts,
+                                      final LinkedHashMap<String, String> annotationOverrides,
+                                      final FeatureInput<? extends Feature> mainFeatureInput,
+                                      final FlankSettings flankSettings,
+                                      final boolean isDataSourceB37) {
+
+        super(mainFeatureInput);
+
+        this.transcriptSequences = transcriptSequences;
+        this.transcriptStore = transcriptStore;
+        this.flankSettings = flankSettings;
 
         this.transcriptSelectionMode = transcriptSelectionMode;
 
@@ -285,6 +319,14 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
         this.dataSourceIsB37 = isDataSourceB37;
 
+        // Get the ncbiBuildVersion of all the genes of this data source:
+        if ( transcriptStore != null ) {
+            ncbiBuildVersion = transcriptStore.getUcscGenomeVersion().isEmpty() ? null : transcriptStore.getUcscGenomeVersion();
+        }
+        else {
+            ncbiBuildVersion = GencodeGtfCodec.readUcscGenomeVersion(IOUtils.getPath(mainFeatureInput.getFeaturePath()));
+        }
+
         // Go through each requested transcript and remove the version numbers from them if they exist:
         this.userRequestedTranscripts = new HashSet<>();
         for ( final String transcript : userRequestedTranscripts ) {
@@ -298,7 +340,30 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
         initializeAnnotationOverrides( annotationOverrides );
     }
 
-    private Path localizeGencodeTranscriptFastaFile( final Path gencodeTranscriptFastaFilePath ) {
+    /**
+     * Create a {@link GencodeFuncotationFactory} that shares the transcripts and settings of the given
+     * {@link GencodeFuncotationFactory}, with its own reader for the (already localized) transcript FASTA file if it has one.
+     * @param other The {@link GencodeFuncotationFactory} to copy.
+     */
+    private GencodeFuncotationFactory(final GencodeFuncotationFactory other) {
+        super(other.mainSourceFileAsFeatureInput);
+
+        flankSettings = other.flankSettings;
+
+        transcriptSequences = other.transcriptSequences.copyForAnotherThread();
+        transcriptStore = other.transcriptStore;
+
+        transcriptSelectionMode = other.transcriptSelectionMode;
+        version = other.version;
+        name = other.name;
+        ncbiBuildVersion = other.ncbiBuildVersion;
+        dataSourceIsB37 = other.dataSourceIsB37;
+        userRequestedTranscripts = other.userRequestedTranscripts;
+        gencodeFuncotationComparator = other.gencodeFuncotationComparator;
+        annotationOverrideMap = other.annotationOverrideMap;
+    }
+
+    private static Path localizeGencodeTranscriptFastaFile( final Path gencodeTranscriptFastaFilePath ) {
 
         // Is the path local or in the cloud:
         if ( gencodeTranscriptFastaFilePath.getFileSystem().equals(FileSystems.getDefault()) ) {
@@ -353,7 +418,13 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
     @Override
     public void close() {
-        transcriptFastaReferenceDataSource.close();
+        super.close();
+        transcriptSequences.close();
+    }
+
+    @Override
+    public GencodeFuncotationFactory copyForAnotherThread() {
+        return new GencodeFuncotationFactory(this);
     }
 
     @Override
@@ -497,6 +568,8 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
      * We override this method to request extra padding around queries on our FeatureContext to take into account
      * the 5' and 3' flank sizes in our {@link #flankSettings}. We use the max of these two values as our
      * query padding.
+     * If this {@link GencodeFuncotationFactory} has a {@link GencodeTranscriptStore}, the same padded interval is queried
+     * from the store instead.
      *
      * @param featureContext the FeatureContext to query
      * @return Features from our FeatureInput {@link #mainSourceFileAsFeatureInput} queried from the FeatureContext
@@ -505,6 +578,15 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     protected List<Feature> queryFeaturesFromFeatureContext( FeatureContext featureContext ) {
         final int queryPadding = Math.max(flankSettings.fivePrimeFlankSize, flankSettings.threePrimeFlankSize);
 
+        if ( transcriptStore != null ) {
+            final SimpleInterval interval = featureContext.getInterval();
+            if ( interval == null ) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(transcriptStore.getOverlappingGenes(
+                    new SimpleInterval(interval.getContig(), Math.max(interval.getStart() - queryPadding, 1), Math.addExact(interval.getEnd(), queryPadding))));
+        }
+
         @SuppressWarnings("unchecked")
         final List<Feature> queryResults = (List<Feature>)featureContext.getValues(mainSourceFileAsFeatureInput, queryPadding, queryPadding);
 
@@ -561,7 +643,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
      * @param sequence The {@link SAMSequenceRecord} from which to create the {@link MappedTranscriptIdInfo}.
      * @return A populated {@link MappedTranscriptIdInfo} object based on the given {@link SAMSequenceRecord}.
      */
-    private static MappedTranscriptIdInfo createMappedTranscriptIdInfo( final SAMSequenceRecord sequence ) {
+    static MappedTranscriptIdInfo createMappedTranscriptIdInfo( final SAMSequenceRecord sequence ) {
 
         final MappedTranscriptIdInfo transcriptIdInfo = new MappedTranscriptIdInfo();
 
@@ -615,13 +697,11 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
      * @param transcriptId The ID of the transcript to get from the FASTA file.
      * @param transcriptIdMap A map from transcriptId to MappedTranscriptIdInfo, which tells us how to pull information for the given {@code transcriptId} out of the given {@code transcriptFastaReferenceDataSource}.
      * @param transcriptFastaReferenceDataSource A {@link ReferenceDataSource} for the GENCODE transcript FASTA file.
-     * @param transcriptTailPaddingBaseString Bases to add to the end of the transcript base string to enable processing variants that overrrun the end of the transcript.
      * @return The coding sequence for the given {@code transcriptId} as represented in the GENCODE transcript FASTA file.
      */
     private static String getCodingSequenceFromTranscriptFasta( final String transcriptId,
                                                                 final Map<String, MappedTranscriptIdInfo> transcriptIdMap,
-                                                                final ReferenceDataSource transcriptFastaReferenceDataSource,
-                                                                final String transcriptTailPaddingBaseString) {
+                                                                final ReferenceDataSource transcriptFastaReferenceDataSource) {
 
         final MappedTranscriptIdInfo transcriptMapIdAndMetadata = transcriptIdMap.get(transcriptId);
 
@@ -635,7 +715,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
                 transcriptMapIdAndMetadata.codingSequenceEnd
         );
 
-        return transcriptFastaReferenceDataSource.queryAndPrefetch( transcriptInterval ).getBaseString() + transcriptTailPaddingBaseString;
+        return transcriptFastaReferenceDataSource.queryAndPrefetch( transcriptInterval ).getBaseString();
     }
 
     /**
@@ -713,11 +793,6 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
         final List<GencodeFuncotation> outputFuncotations = new ArrayList<>();
 
-        // Cache the ncbiBuildVersion:
-        if ( ncbiBuildVersion == null ) {
-            ncbiBuildVersion = gtfFeature.getUcscGenomeVersion();
-        }
-
         final List<GencodeGtfTranscriptFeature> basicTranscripts = gtfFeature.getTranscripts().stream()
                 .filter(GencodeFuncotationFactory::isBasic).collect(Collectors.toList());
 
@@ -1072,7 +1147,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
         // Set up our SequenceComparison object so we can calculate some useful fields more easily
         // These fields can all be set without knowing the alternate allele:
-        final SequenceComparison sequenceComparison = createSequenceComparison(variant, altAllele, reference, transcript, exonPositionList, transcriptIdMap, transcriptFastaReferenceDataSource, true);
+        final SequenceComparison sequenceComparison = createSequenceComparison(variant, altAllele, reference, transcript, exonPositionList, transcriptSequences, true);
 
         // Set our transcript positions:
         setTranscriptPosition(variant, altAllele, sequenceComparison.getTranscriptAlleleStart(), gencodeFuncotationBuilder);
@@ -1142,11 +1217,13 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     @VisibleForTesting
     static List<? extends Locatable> getSortedCdsAndStartStopPositions(final GencodeGtfTranscriptFeature transcript) {
 
-        // Sort by exon number first:
-        transcript.getExons().sort((lhs, rhs) -> lhs.getExonNumber() < rhs.getExonNumber() ? -1 : (lhs.getExonNumber() > rhs.getExonNumber() ) ? 1 : 0 );
+        // Sort by exon number first.
+        // A copy is sorted, since the same transcript may be annotated by other threads at the same time:
+        final List<GencodeGtfExonFeature> sortedExons = new ArrayList<>(transcript.getExons());
+        sortedExons.sort((lhs, rhs) -> lhs.getExonNumber() < rhs.getExonNumber() ? -1 : (lhs.getExonNumber() > rhs.getExonNumber() ) ? 1 : 0 );
 
-        final List<Locatable> regionList = new ArrayList<>(transcript.getExons().size());
-        for ( final GencodeGtfExonFeature exon : transcript.getExons() ) {
+        final List<Locatable> regionList = new ArrayList<>(sortedExons.size());
+        for ( final GencodeGtfExonFeature exon : sortedExons ) {
 
             // Add in a CDS region:
             if ( exon.getCds() != null ) {
@@ -1442,14 +1519,14 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
             // Now we can check for de novo starts:
 
             // Only try to get the sequence if our transcript occurs in the FASTA file:
-            if ( transcriptIdMap.containsKey(transcript.getTranscriptId()) ) {
+            if ( transcriptSequences.containsTranscript(transcript.getTranscriptId()) ) {
 
                 // Get the 5' UTR sequence here.
                 // Note: We grab 3 extra bases at the end (from the coding sequence) so that we can check for denovo starts
                 //       even if the variant occurs in the last base of the UTR.
                 final int numExtraTrailingBases = variant.getReference().length() < defaultNumTrailingBasesForUtrAnnotationSequenceConstruction ? defaultNumTrailingBasesForUtrAnnotationSequenceConstruction : variant.getReference().length() + 1;
                 final String fivePrimeUtrCodingSequence =
-                        getFivePrimeUtrSequenceFromTranscriptFasta( transcript.getTranscriptId(), transcriptIdMap, transcriptFastaReferenceDataSource, numExtraTrailingBases);
+                        transcriptSequences.getFivePrimeUtrSequence( transcript.getTranscriptId(), numExtraTrailingBases);
 
                 // Get our start position in our coding sequence:
                 final int codingStartPos = FuncotatorUtils.getStartPositionInTranscript(variant, transcript.getExons(), strand);
@@ -1719,8 +1796,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
      * @param reference The {@link ReferenceContext} for the current sample set.
      * @param transcript The {@link GencodeGtfTranscriptFeature} for the current gene feature / alt allele.
      * @param exonPositionList A {@link List} of {@link htsjdk.samtools.util.Locatable} objects representing exon positions in the transcript.
-     * @param transcriptIdMap The {@link Map} of TranscriptID to {@link MappedTranscriptIdInfo} for all transcripts in the current Gencode data source.
-     * @param transcriptFastaReferenceDataSource The {@link ReferenceDataSource} of the transcript FASTA file containing the sequence information for all Transcripts in the current Gencode data source.
+     * @param transcriptSequences The {@link TranscriptSequenceSource} containing the sequence information for all Transcripts in the current Gencode data source.
      * @param processSequenceInformation If {@code true} will attempt to process and create sequence information for the given {@code variant}.
      * @return A populated {@link org.broadinstitute.hellbender.tools.funcotator.SequenceComparison} object.
      */
@@ -1730,8 +1806,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
                                                        final ReferenceContext reference,
                                                        final GencodeGtfTranscriptFeature transcript,
                                                        final List<? extends htsjdk.samtools.util.Locatable> exonPositionList,
-                                                       final Map<String, MappedTranscriptIdInfo> transcriptIdMap,
-                                                       final ReferenceDataSource transcriptFastaReferenceDataSource,
+                                                       final TranscriptSequenceSource transcriptSequences,
                                                        final boolean processSequenceInformation) {
 
         // TODO: Somewhere down the line we should adjust the positions at creation-time to account for the leading bases in VCF input files.  (issue 5349 - https://github.com/broadinstitute/gatk/issues/5349)
@@ -1833,18 +1908,13 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
         // Get the coding sequence for the transcript if we have a transcript sequence for this variant:
 
         if ( processSequenceInformation ) {
-            if ( transcriptIdMap.containsKey(transcript.getTranscriptId()) ) {
+            if ( transcriptSequences.containsTranscript(transcript.getTranscriptId()) ) {
 
                 // Get padding bases just in case this variant is an indel and trails off the end of our transcript:
                 final String transcriptTailPaddingBaseString = getTranscriptEndPaddingBases(variant, altAllele, exonPositionList, reference);
 
                 // NOTE: This can't be null because of the Funcotator input args.
-                final String rawCodingSequence = getCodingSequenceFromTranscriptFasta(
-                        transcript.getTranscriptId(),
-                        transcriptIdMap,
-                        transcriptFastaReferenceDataSource,
-                        transcriptTailPaddingBaseString
-                );
+                final String rawCodingSequence = transcriptSequences.getCodingSequence(transcript.getTranscriptId()) + transcriptTailPaddingBaseString;
 
                 // Now that we have our transcript sequence, we must make sure that our reference allele is in it
                 // correctly.
@@ -2289,9 +2359,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
             funcotationBuilder.setGenomeChange(getGenomeChangeString(variant, altAllele));
         }
 
-        // If we have a cached value for the ncbiBuildVersion, we should add it:
-        // NOTE: This will only be true if we have previously annotated a non-IGR variant.
-        // TODO: This is issue #4404
+        // If we know the ncbiBuildVersion, we should add it:
         if ( ncbiBuildVersion != null ) {
             funcotationBuilder.setNcbiBuild( ncbiBuildVersion );
         }
@@ -2347,9 +2415,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
                 .setNcbiBuild(gtfFeature.getUcscGenomeVersion())
                 .setGeneTranscriptType(gtfFeature.getTranscriptType());
 
-        // If we have a cached value for the ncbiBuildVersion, we should add it:
-        // NOTE: This will only be true if we have previously annotated a non-IGR variant.
-        // TODO: This is issue #4404
+        // If we know the ncbiBuildVersion, we should add it:
         if ( ncbiBuildVersion != null ) {
             funcotationBuilder.setNcbiBuild( ncbiBuildVersion );
         }
@@ -2401,9 +2467,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
         funcotationBuilder.setHugoSymbol( annotationTranscript.getGeneName() );
 
-        // If we have a cached value for the ncbiBuildVersion, we should add it:
-        // NOTE: This will only be true if we have previously annotated a non-IGR variant.
-        // TODO: This is issue #4404
+        // If we know the ncbiBuildVersion, we should add it:
         if ( ncbiBuildVersion != null ) {
             funcotationBuilder.setNcbiBuild( ncbiBuildVersion );
         }
@@ -2467,9 +2531,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
         funcotationBuilder.setHugoSymbol( annotationTranscript.getGeneName() );
 
-        // If we have a cached value for the ncbiBuildVersion, we should add it:
-        // NOTE: This will only be true if we have previously annotated a non-IGR variant.
-        // TODO: This is issue #4404
+        // If we know the ncbiBuildVersion, we should add it:
         if ( ncbiBuildVersion != null ) {
             funcotationBuilder.setNcbiBuild( ncbiBuildVersion );
         }
@@ -2631,6 +2693,69 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     //==================================================================================================================
     // Helper Data Types:
 
+    /**
+     * A {@link TranscriptSequenceSource} reading the transcript sequences from a GENCODE transcript FASTA file.
+     */
+    @VisibleForTesting
+    static final class TranscriptFastaSequenceSource implements TranscriptSequenceSource {
+        private final Path transcriptFastaFile;
+        private final ReferenceDataSource transcriptFastaReferenceDataSource;
+        private final Map<String, MappedTranscriptIdInfo> transcriptIdMap;
+
+        /**
+         * @param transcriptFastaFile {@link Path} to the (local) GENCODE transcript FASTA file.
+         */
+        TranscriptFastaSequenceSource(final Path transcriptFastaFile) {
+            this(transcriptFastaFile, ReferenceDataSource.of(transcriptFastaFile), null);
+        }
+
+        /**
+         * @param transcriptFastaReferenceDataSource {@link ReferenceDataSource} for the GENCODE transcript FASTA file.
+         *                                           This {@link TranscriptSequenceSource} cannot be copied for another thread.
+         */
+        @VisibleForTesting
+        TranscriptFastaSequenceSource(final ReferenceDataSource transcriptFastaReferenceDataSource) {
+            this(null, transcriptFastaReferenceDataSource, null);
+        }
+
+        private TranscriptFastaSequenceSource(final Path transcriptFastaFile,
+                                              final ReferenceDataSource transcriptFastaReferenceDataSource,
+                                              final Map<String, MappedTranscriptIdInfo> transcriptIdMap) {
+            this.transcriptFastaFile = transcriptFastaFile;
+            this.transcriptFastaReferenceDataSource = transcriptFastaReferenceDataSource;
+            this.transcriptIdMap = transcriptIdMap != null ? transcriptIdMap : createTranscriptIdMap(transcriptFastaReferenceDataSource);
+        }
+
+        @Override
+        public boolean containsTranscript(final String transcriptId) {
+            return transcriptIdMap.containsKey(transcriptId);
+        }
+
+        @Override
+        public String getCodingSequence(final String transcriptId) {
+            return getCodingSequenceFromTranscriptFasta(transcriptId, transcriptIdMap, transcriptFastaReferenceDataSource);
+        }
+
+        @Override
+        public String getFivePrimeUtrSequence(final String transcriptId, final int extraBases) {
+            return getFivePrimeUtrSequenceFromTranscriptFasta(transcriptId, transcriptIdMap, transcriptFastaReferenceDataSource, extraBases);
+        }
+
+        /**
+         * The {@link ReferenceDataSource} is not thread-safe, so the copy shares the transcript ID map but has its own reader.
+         */
+        @Override
+        public TranscriptFastaSequenceSource copyForAnotherThread() {
+            Utils.validate(transcriptFastaFile != null, "Cannot copy a transcript sequence source created from a ReferenceDataSource");
+            return new TranscriptFastaSequenceSource(transcriptFastaFile, ReferenceDataSource.of(transcriptFastaFile), transcriptIdMap);
+        }
+
+        @Override
+        public void close() {
+            transcriptFastaReferenceDataSource.close();
+        }
+    }
+
     /**
      * A simple data object class to hold information about the transcripts in the
      * GENCODE transcript FASTA file.
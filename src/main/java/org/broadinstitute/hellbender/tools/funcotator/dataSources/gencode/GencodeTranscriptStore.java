@@ -0,0 +1,555 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode;
+
+import com.google.common.primitives.UnsignedBytes;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.util.Locatable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfBinaryEncoding;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfGeneFeature;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.nio.NioFileCopierWithProgressMeter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A memory-mapped GENCODE transcript store: the genes of a GENCODE GTF file, with all of their transcripts, exons, CDS
+ * regions, etc., and the sequences, CDS and UTR coordinates of the transcripts in the GENCODE transcript FASTA file
+ * of the same data source, in a single pre-indexed binary file (see {@code CreateGencodeTranscriptStore}).
+ *
+ * Opening a store does not parse any GTF or FASTA text, or load any genes or transcripts: the file is memory-mapped,
+ * and only a small index of its contigs is read.  Genes are looked up in the mapped gene index of their contig and
+ * decoded (see {@link GencodeGtfBinaryEncoding}) only when a query overlaps them, and transcript sequences are looked
+ * up in the mapped transcript table, which is sorted by transcript ID.  Apart from a small cache of recently decoded
+ * genes, a store keeps nothing on the heap, and a single store can be queried by any number of threads.
+ *
+ * A store holds exactly the same genes as the GTF file, and the same transcript sequences as the transcript FASTA file
+ * (as read by {@link ReferenceDataSource}), so a GENCODE data source gives the same annotations with either.
+ *
+ * The file format is, with all numbers big-endian and all offsets from the start of the file:
+ * <ul>
+ *     <li>header: {@link #MAGIC}, {@link #FORMAT_VERSION}, {@link GencodeGtfBinaryEncoding#SCHEMA_FINGERPRINT}, the offsets
+ *     of the transcript sequence table, the transcript ID table and the contig index, and the UCSC genome version of the genes</li>
+ *     <li>gene records, in the order of the GTF file, encoded by {@link GencodeGtfBinaryEncoding}</li>
+ *     <li>transcript sequences and transcript IDs, as ASCII and UTF-8 bytes</li>
+ *     <li>transcript sequence table: the number of transcript sequences, then for each one its sequence offset and
+ *     length, and its CDS and 5' UTR coordinates (0 if there is no 5' UTR)</li>
+ *     <li>transcript ID table: the number of IDs, then for each ID (sorted by their bytes) its offset and length, and the
+ *     index of its transcript sequence</li>
+ *     <li>contig index: the number of contigs, then for each contig its name, its number of genes, the length of its
+ *     longest gene, and the start, end and record offset of each gene, sorted by start</li>
+ * </ul>
+ * Offsets are 32-bit, so a store is limited to 2GB, which is several times the size of a store of a complete GENCODE release.
+ */
+public final class GencodeTranscriptStore implements TranscriptSequenceSource {
+
+    private static final Logger logger = LogManager.getLogger(GencodeTranscriptStore.class);
+
+    public static final String GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION = ".gtstore";
+
+    private static final byte[] MAGIC = {'G', 'T', 'S', 'T'};
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_OFFSETS_POSITION = MAGIC.length + 2 * Integer.BYTES;
+
+    private static final int TRANSCRIPT_ENTRY_SIZE = 6 * Integer.BYTES;
+    private static final int TRANSCRIPT_ID_ENTRY_SIZE = 3 * Integer.BYTES;
+    private static final int GENE_ENTRY_SIZE = 3 * Integer.BYTES;
+
+    private static final int DECODED_GENE_CACHE_SIZE = 128;
+
+    private final Path storePath;
+
+    private final ByteBuffer buffer;
+
+    private final String ucscGenomeVersion;
+
+    private final int transcriptsOffset;
+
+    private final int transcriptIdsOffset;
+    private final int numTranscriptIds;
+
+    private final Map<String, ContigIndex> contigIndices;
+
+    /**
+     * Recently decoded genes, by record offset.  Repeated queries for the same genes return the same
+     * {@link GencodeGtfGeneFeature} instances (as with a cached feature file), so that they are not decoded again and
+     * the {@link org.broadinstitute.hellbender.tools.funcotator.FuncotationCache} recognizes them.
+     */
+    private final Map<Integer, GencodeGtfGeneFeature> decodedGeneCache = new LinkedHashMap<Integer, GencodeGtfGeneFeature>(DECODED_GENE_CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, GencodeGtfGeneFeature> eldest) {
+            return size() > DECODED_GENE_CACHE_SIZE;
+        }
+    };
+
+    private GencodeTranscriptStore(final Path storePath, final ByteBuffer buffer) {
+        this.storePath = storePath;
+        this.buffer = buffer;
+
+        final byte[] magic = new byte[MAGIC.length];
+        final ByteBuffer header = buffer.duplicate();
+        header.get(magic);
+        if ( !Arrays.equals(magic, MAGIC) ) {
+            throw new UserException.MalformedFile(storePath, "Not a GENCODE transcript store (bad magic number)");
+        }
+        final int formatVersion = header.getInt();
+        final int schemaFingerprint = header.getInt();
+        if ( formatVersion != FORMAT_VERSION || schemaFingerprint != GencodeGtfBinaryEncoding.SCHEMA_FINGERPRINT ) {
+            throw new UserException.MalformedFile(storePath, "GENCODE transcript store was written by an incompatible version of this program " +
+                    "(format " + formatVersion + ", schema " + schemaFingerprint + ").  Please re-create it with CreateGencodeTranscriptStore.");
+        }
+        transcriptsOffset = header.getInt();
+        transcriptIdsOffset = header.getInt();
+        final int contigIndexOffset = header.getInt();
+
+        try {
+            ucscGenomeVersion = new DataInputStream(new ByteBufferInputStream(header)).readUTF();
+
+            numTranscriptIds = buffer.getInt(transcriptIdsOffset);
+
+            final ByteBuffer contigIndex = buffer.duplicate();
+            contigIndex.position(contigIndexOffset);
+            final DataInputStream in = new DataInputStream(new ByteBufferInputStream(contigIndex));
+            final int numContigs = in.readInt();
+            contigIndices = new HashMap<>(numContigs * 2);
+            for ( int i = 0; i < numContigs; ++i ) {
+                final String contig = in.readUTF();
+                final int numGenes = in.readInt();
+                final int maxGeneLength = in.readInt();
+                contigIndices.put(contig, new ContigIndex(contigIndex.position(), numGenes, maxGeneLength));
+                contigIndex.position(contigIndex.position() + numGenes * GENE_ENTRY_SIZE);
+            }
+        }
+        catch (final IOException ex) {
+            throw new UserException.MalformedFile(storePath, "Could not read the index of the GENCODE transcript store", ex);
+        }
+    }
+
+    /**
+     * Open and memory-map a GENCODE transcript store.  If the store is not on the local file system, it is first
+     * copied to a local temporary file.
+     * @param storePath {@link Path} to the GENCODE transcript store.  Must not be {@code null}.
+     * @return The opened {@link GencodeTranscriptStore}.
+     */
+    public static GencodeTranscriptStore open(final Path storePath) {
+        Utils.nonNull(storePath);
+
+        final Path localStorePath;
+        if ( storePath.getFileSystem().equals(FileSystems.getDefault()) ) {
+            localStorePath = storePath;
+        }
+        else {
+            logger.info("Localizing GENCODE transcript store for memory-mapping...");
+            localStorePath = IOUtils.createTempPath("gencodeTranscriptStore", GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION);
+            NioFileCopierWithProgressMeter.create(storePath, localStorePath, true).initiateCopy();
+        }
+
+        // The mapping stays valid after the channel is closed:
+        try ( final FileChannel channel = FileChannel.open(localStorePath, StandardOpenOption.READ) ) {
+            if ( channel.size() > Integer.MAX_VALUE ) {
+                throw new UserException.CouldNotReadInputFile(storePath, "GENCODE transcript stores larger than 2GB are not supported");
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GencodeTranscriptStore(storePath, buffer);
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotReadInputFile(storePath, ex);
+        }
+    }
+
+    /**
+     * @param path {@link Path} to a file.  Must not be {@code null}.
+     * @return {@code true} if the given file is named like a GENCODE transcript store; {@code false} otherwise.
+     */
+    public static boolean isGencodeTranscriptStore(final Path path) {
+        Utils.nonNull(path);
+        return path.getFileName() != null && path.getFileName().toString().toLowerCase().endsWith(GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION);
+    }
+
+    /**
+     * Write a GENCODE transcript store.
+     * @param storePath {@link Path} of the GENCODE transcript store to create.  Must not be {@code null}.
+     * @param genes The genes decoded from a GENCODE GTF file, in the order of that file.  Must not be {@code null}.
+     * @param transcriptFasta {@link ReferenceDataSource} for the GENCODE transcript FASTA file of the same data source.  Must not be {@code null}.
+     * @return The number of genes written.
+     */
+    public static long write(final Path storePath, final Iterator<GencodeGtfGeneFeature> genes, final ReferenceDataSource transcriptFasta) {
+        Utils.nonNull(storePath);
+        Utils.nonNull(genes);
+        Utils.nonNull(transcriptFasta);
+
+        try ( final FileChannel channel = FileChannel.open(storePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE) ) {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            // The first gene gives the UCSC genome version of all genes, so it is read before the header is written:
+            final GencodeGtfGeneFeature firstGene = genes.hasNext() ? genes.next() : null;
+
+            out.write(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(GencodeGtfBinaryEncoding.SCHEMA_FINGERPRINT);
+            // Placeholders for the section offsets, which are filled in at the end:
+            for ( int i = 0; i < 3; ++i ) {
+                out.writeInt(0);
+            }
+            out.writeUTF(firstGene == null || firstGene.getUcscGenomeVersion() == null ? "" : firstGene.getUcscGenomeVersion());
+
+            // Gene records:
+            final Map<String, List<int[]>> geneEntriesByContig = new LinkedHashMap<>();
+            long numGenes = 0;
+            for ( GencodeGtfGeneFeature gene = firstGene; gene != null; gene = genes.hasNext() ? genes.next() : null ) {
+                geneEntriesByContig.computeIfAbsent(gene.getContig(), contig -> new ArrayList<>())
+                        .add(new int[] {gene.getStart(), gene.getEnd(), checkOffset(out.size(), storePath)});
+                GencodeGtfBinaryEncoding.writeGene(out, gene);
+                ++numGenes;
+            }
+
+            // Transcript sequences, and the transcript IDs that map to them.
+            // As in the GENCODE transcript FASTA file, an ID that appears in the names of several transcripts maps to the last one:
+            final List<int[]> transcriptEntries = new ArrayList<>();
+            final Map<String, Integer> transcriptIndicesById = new HashMap<>();
+            for ( final SAMSequenceRecord sequence : transcriptFasta.getSequenceDictionary().getSequences() ) {
+                final GencodeFuncotationFactory.MappedTranscriptIdInfo transcriptInfo = GencodeFuncotationFactory.createMappedTranscriptIdInfo(sequence);
+
+                final int sequenceOffset = checkOffset(out.size(), storePath);
+                if ( sequence.getSequenceLength() > 0 ) {
+                    out.write(transcriptFasta.queryAndPrefetch(sequence.getSequenceName(), 1, sequence.getSequenceLength()).getBases());
+                }
+                transcriptEntries.add(new int[] {
+                        sequenceOffset,
+                        sequence.getSequenceLength(),
+                        transcriptInfo.codingSequenceStart,
+                        transcriptInfo.codingSequenceEnd,
+                        transcriptInfo.has5pUtr ? transcriptInfo.fivePrimeUtrStart : 0,
+                        transcriptInfo.has5pUtr ? transcriptInfo.fivePrimeUtrEnd : 0
+                });
+
+                for ( final String transcriptId : Utils.split(sequence.getSequenceName(), "|") ) {
+                    transcriptIndicesById.put(transcriptId, transcriptEntries.size() - 1);
+                }
+            }
+
+            final List<byte[]> transcriptIds = new ArrayList<>(transcriptIndicesById.size());
+            for ( final String transcriptId : transcriptIndicesById.keySet() ) {
+                transcriptIds.add(transcriptId.getBytes(StandardCharsets.UTF_8));
+            }
+            transcriptIds.sort(UnsignedBytes.lexicographicalComparator());
+            final int[] transcriptIdOffsets = new int[transcriptIds.size()];
+            for ( int i = 0; i < transcriptIds.size(); ++i ) {
+                transcriptIdOffsets[i] = checkOffset(out.size(), storePath);
+                out.write(transcriptIds.get(i));
+            }
+
+            // Transcript sequence table:
+            final int transcriptsOffset = checkOffset(out.size(), storePath);
+            out.writeInt(transcriptEntries.size());
+            for ( final int[] transcriptEntry : transcriptEntries ) {
+                for ( final int value : transcriptEntry ) {
+                    out.writeInt(value);
+                }
+            }
+
+            // Transcript ID table:
+            final int transcriptIdsOffset = checkOffset(out.size(), storePath);
+            out.writeInt(transcriptIds.size());
+            for ( int i = 0; i < transcriptIds.size(); ++i ) {
+                out.writeInt(transcriptIdOffsets[i]);
+                out.writeInt(transcriptIds.get(i).length);
+                out.writeInt(transcriptIndicesById.get(new String(transcriptIds.get(i), StandardCharsets.UTF_8)));
+            }
+
+            // Contig index (the sort is stable, so genes with the same start stay in the order of the GTF file):
+            final int contigIndexOffset = checkOffset(out.size(), storePath);
+            out.writeInt(geneEntriesByContig.size());
+            for ( final Map.Entry<String, List<int[]>> contigGeneEntries : geneEntriesByContig.entrySet() ) {
+                final List<int[]> geneEntries = contigGeneEntries.getValue();
+                geneEntries.sort(Comparator.comparingInt(geneEntry -> geneEntry[0]));
+
+                out.writeUTF(contigGeneEntries.getKey());
+                out.writeInt(geneEntries.size());
+                out.writeInt(geneEntries.stream().mapToInt(geneEntry -> geneEntry[1] - geneEntry[0] + 1).max().orElse(0));
+                for ( final int[] geneEntry : geneEntries ) {
+                    out.writeInt(geneEntry[0]);
+                    out.writeInt(geneEntry[1]);
+                    out.writeInt(geneEntry[2]);
+                }
+            }
+            checkOffset(out.size(), storePath);
+            out.flush();
+
+            final ByteBuffer offsets = ByteBuffer.allocate(3 * Integer.BYTES);
+            offsets.putInt(transcriptsOffset).putInt(transcriptIdsOffset).putInt(contigIndexOffset).flip();
+            channel.write(offsets, HEADER_OFFSETS_POSITION);
+
+            return numGenes;
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotCreateOutputFile(storePath.toUri().toString(), "could not write GENCODE transcript store", ex);
+        }
+    }
+
+    private static int checkOffset(final int size, final Path storePath) {
+        // DataOutputStream.size() stops at Integer.MAX_VALUE:
+        if ( size == Integer.MAX_VALUE ) {
+            throw new UserException.CouldNotCreateOutputFile(storePath.toUri().toString(), "GENCODE transcript stores larger than 2GB are not supported");
+        }
+        return size;
+    }
+
+    /**
+     * @return The UCSC genome version of the genes in this store.
+     */
+    public String getUcscGenomeVersion() {
+        return ucscGenomeVersion;
+    }
+
+    /**
+     * @return The contigs on which this store has genes.
+     */
+    public Set<String> getContigs() {
+        return Collections.unmodifiableSet(contigIndices.keySet());
+    }
+
+    /**
+     * Get the genes overlapping the given interval.
+     * @param interval The interval to query.  Must not be {@code null}.
+     * @return The genes overlapping {@code interval}, in the order of the GENCODE GTF file from which this store was created.
+     */
+    public List<GencodeGtfGeneFeature> getOverlappingGenes(final Locatable interval) {
+        Utils.nonNull(interval);
+
+        final ContigIndex contigIndex = contigIndices.get(interval.getContig());
+        if ( contigIndex == null ) {
+            return Collections.emptyList();
+        }
+
+        // Find the last gene starting before the end of the interval, then go back until no earlier gene can reach
+        // the start of the interval:
+        int low = 0;
+        int high = contigIndex.numGenes;
+        while ( low < high ) {
+            final int mid = (low + high) >>> 1;
+            if ( contigIndex.getGeneStart(mid) <= interval.getEnd() ) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+
+        final List<Integer> recordOffsets = new ArrayList<>();
+        for ( int i = low - 1; i >= 0 && (long) contigIndex.getGeneStart(i) + contigIndex.maxGeneLength > interval.getStart(); --i ) {
+            if ( contigIndex.getGeneEnd(i) >= interval.getStart() ) {
+                recordOffsets.add(contigIndex.getGeneRecordOffset(i));
+            }
+        }
+
+        // Record offsets are in the order of the GTF file:
+        Collections.sort(recordOffsets);
+        final List<GencodeGtfGeneFeature> genes = new ArrayList<>(recordOffsets.size());
+        for ( final int recordOffset : recordOffsets ) {
+            genes.add(getGene(recordOffset));
+        }
+        return genes;
+    }
+
+    private GencodeGtfGeneFeature getGene(final int recordOffset) {
+        synchronized ( decodedGeneCache ) {
+            final GencodeGtfGeneFeature cachedGene = decodedGeneCache.get(recordOffset);
+            if ( cachedGene != null ) {
+                return cachedGene;
+            }
+        }
+
+        final ByteBuffer record = buffer.duplicate();
+        record.position(recordOffset);
+        final GencodeGtfGeneFeature gene;
+        try {
+            gene = GencodeGtfBinaryEncoding.readGene(new DataInputStream(new ByteBufferInputStream(record)), ucscGenomeVersion);
+        }
+        catch (final IOException ex) {
+            throw new UserException.MalformedFile(storePath, "Could not decode gene at offset " + recordOffset, ex);
+        }
+
+        synchronized ( decodedGeneCache ) {
+            // Another thread may have decoded the same gene in the meantime, and its instance must win:
+            return decodedGeneCache.computeIfAbsent(recordOffset, offset -> gene);
+        }
+    }
+
+    @Override
+    public boolean containsTranscript(final String transcriptId) {
+        return findTranscript(transcriptId) >= 0;
+    }
+
+    @Override
+    public String getCodingSequence(final String transcriptId) {
+        final int transcriptEntryOffset = getTranscriptEntryOffset(transcriptId, "coding sequence");
+        return getSequence(transcriptId, transcriptEntryOffset, buffer.getInt(transcriptEntryOffset + 2 * Integer.BYTES), buffer.getInt(transcriptEntryOffset + 3 * Integer.BYTES));
+    }
+
+    @Override
+    public String getFivePrimeUtrSequence(final String transcriptId, final int extraBases) {
+        final int transcriptEntryOffset = getTranscriptEntryOffset(transcriptId, "5'UTR");
+        final int fivePrimeUtrStart = buffer.getInt(transcriptEntryOffset + 4 * Integer.BYTES);
+        if ( fivePrimeUtrStart == 0 ) {
+            return "";
+        }
+        return getSequence(transcriptId, transcriptEntryOffset, fivePrimeUtrStart, buffer.getInt(transcriptEntryOffset + 5 * Integer.BYTES) + extraBases);
+    }
+
+    /**
+     * A store is thread-safe, so it is shared rather than copied.
+     */
+    @Override
+    public GencodeTranscriptStore copyForAnotherThread() {
+        return this;
+    }
+
+    /**
+     * The store is unmapped when it is garbage collected, there is nothing to close.
+     */
+    @Override
+    public void close() {}
+
+    private int getTranscriptEntryOffset(final String transcriptId, final String sequenceDescription) {
+        final int transcriptIndex = findTranscript(transcriptId);
+        if ( transcriptIndex < 0 ) {
+            throw new UserException.BadInput( "Unable to find the given Transcript ID in our transcript list for our " + sequenceDescription + " (not in given GENCODE transcript store): " + transcriptId );
+        }
+        return transcriptsOffset + Integer.BYTES + transcriptIndex * TRANSCRIPT_ENTRY_SIZE;
+    }
+
+    /**
+     * @return The bases from {@code start} to {@code end} (1-based, inclusive) of the sequence of the given transcript.
+     */
+    private String getSequence(final String transcriptId, final int transcriptEntryOffset, final int start, final int end) {
+        final int sequenceOffset = buffer.getInt(transcriptEntryOffset);
+        final int sequenceLength = buffer.getInt(transcriptEntryOffset + Integer.BYTES);
+        if ( start < 1 || end > sequenceLength || end < start - 1 ) {
+            throw new UserException.MalformedFile(storePath, "Bases " + start + "-" + end + " are out of the bounds of the sequence of transcript " +
+                    transcriptId + " (" + sequenceLength + " bases)");
+        }
+
+        final byte[] bases = new byte[end - start + 1];
+        final ByteBuffer sequence = buffer.duplicate();
+        sequence.position(sequenceOffset + start - 1);
+        sequence.get(bases);
+        return new String(bases, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Binary search of the transcript ID table.
+     * @return The index of the transcript sequence of the given transcript ID, or {@code -1} if there is none.
+     */
+    private int findTranscript(final String transcriptId) {
+        Utils.nonNull(transcriptId);
+        final byte[] key = transcriptId.getBytes(StandardCharsets.UTF_8);
+
+        int low = 0;
+        int high = numTranscriptIds - 1;
+        while ( low <= high ) {
+            final int mid = (low + high) >>> 1;
+            final int entryOffset = transcriptIdsOffset + Integer.BYTES + mid * TRANSCRIPT_ID_ENTRY_SIZE;
+            final int comparison = compareToKey(buffer.getInt(entryOffset), buffer.getInt(entryOffset + Integer.BYTES), key);
+            if ( comparison < 0 ) {
+                low = mid + 1;
+            }
+            else if ( comparison > 0 ) {
+                high = mid - 1;
+            }
+            else {
+                return buffer.getInt(entryOffset + 2 * Integer.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare the given bytes of the store to the given key, in the (unsigned lexicographic) order of the transcript ID table.
+     */
+    private int compareToKey(final int offset, final int length, final byte[] key) {
+        final int commonLength = Math.min(length, key.length);
+        for ( int i = 0; i < commonLength; ++i ) {
+            final int comparison = UnsignedBytes.compare(buffer.get(offset + i), key[i]);
+            if ( comparison != 0 ) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * The location of the gene index of a contig in the store.
+     */
+    private final class ContigIndex {
+        private final int entriesOffset;
+        private final int numGenes;
+        private final int maxGeneLength;
+
+        private ContigIndex(final int entriesOffset, final int numGenes, final int maxGeneLength) {
+            this.entriesOffset = entriesOffset;
+            this.numGenes = numGenes;
+            this.maxGeneLength = maxGeneLength;
+        }
+
+        private int getGeneStart(final int i) {
+            return buffer.getInt(entriesOffset + i * GENE_ENTRY_SIZE);
+        }
+
+        private int getGeneEnd(final int i) {
+            return buffer.getInt(entriesOffset + i * GENE_ENTRY_SIZE + Integer.BYTES);
+        }
+
+        private int getGeneRecordOffset(final int i) {
+            return buffer.getInt(entriesOffset + i * GENE_ENTRY_SIZE + 2 * Integer.BYTES);
+        }
+    }
+
+    /**
+     * An {@link InputStream} reading from the current position of a {@link ByteBuffer}.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if ( length == 0 ) {
+                return 0;
+            }
+            if ( !buffer.hasRemaining() ) {
+                return -1;
+            }
+            final int numRead = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, numRead);
+            return numRead;
+        }
+    }
+}
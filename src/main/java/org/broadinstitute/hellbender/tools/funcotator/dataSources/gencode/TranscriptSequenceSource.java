@@ -0,0 +1,45 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode;
+
+import java.io.Closeable;
+
+/**
+ * Source of the sequences of the transcripts of a GENCODE data source, as given by the GENCODE transcript FASTA file
+ * of the data source.
+ *
+ * A transcript can be looked up by any of the '|'-separated fields of its name in the transcript FASTA file, which
+ * include its transcript ID.
+ */
+interface TranscriptSequenceSource extends Closeable {
+
+    /**
+     * @param transcriptId The ID of a transcript.
+     * @return {@code true} if the sequence of the given transcript is known; {@code false} otherwise.
+     */
+    boolean containsTranscript(final String transcriptId);
+
+    /**
+     * Get the coding sequence of the given transcript, without any UTRs.
+     * Throws a {@link org.broadinstitute.hellbender.exceptions.UserException.BadInput} if the transcript is unknown.
+     * @param transcriptId The ID of the transcript.
+     * @return The coding sequence of the transcript.
+     */
+    String getCodingSequence(final String transcriptId);
+
+    /**
+     * Get the 5' UTR sequence of the given transcript, without the coding sequence or the 3' UTR.
+     * Throws a {@link org.broadinstitute.hellbender.exceptions.UserException.BadInput} if the transcript is unknown.
+     * @param transcriptId The ID of the transcript.
+     * @param extraBases The number of extra bases from the coding region to include after the 5' UTR.
+     * @return The 5' UTR sequence of the transcript, or an empty {@link String} if it has no 5' UTR.
+     */
+    String getFivePrimeUtrSequence(final String transcriptId, final int extraBases);
+
+    /**
+     * @return A {@link TranscriptSequenceSource} with the same transcripts as this one, which can be used at the same
+     *         time as this one by another thread.  May be this {@link TranscriptSequenceSource} if it is thread-safe.
+     */
+    TranscriptSequenceSource copyForAnotherThread();
+
+    @Override
+    void close();
+}
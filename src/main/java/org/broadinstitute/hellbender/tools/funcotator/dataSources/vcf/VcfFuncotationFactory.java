@@ -5,7 +5,6 @@ import htsjdk.tribble.Feature;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.*;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
@@ -71,11 +70,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
      */
     private final FuncotationMetadata supportedFieldMetadata;
 
-    /**
-     * Cache for speed.  Please note that the cache is done on the reference.
-     */
-    private final LRUCache<Triple<VariantContext, ReferenceContext, List<Feature>>, List<Funcotation>> cache = new LRUCache<>();
-
     /**
      * If the VCF has multiple lines with the same position, ref, and alt.
      */
@@ -87,11 +81,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
      */
     private static final String ID_FIELD_NAME = "ID";
 
-    @VisibleForTesting
-    int cacheHits = 0;
-    @VisibleForTesting
-    int cacheMisses = 0;
-
     //==================================================================================================================
     // Constructors:
 
@@ -200,6 +189,26 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
         }
     }
 
+    /**
+     * Create a {@link VcfFuncotationFactory} that shares the supported fields and metadata of the given
+     * {@link VcfFuncotationFactory}, rather than reading them from its VCF header again.
+     * @param other The {@link VcfFuncotationFactory} to copy.
+     */
+    private VcfFuncotationFactory(final VcfFuncotationFactory other) {
+        super(other.mainSourceFileAsFeatureInput);
+
+        name = other.name;
+        version = other.version;
+        sourceFilePath = other.sourceFilePath;
+        dataSourceIsB37 = other.dataSourceIsB37;
+
+        supportedFieldNamesAndDefaults = other.supportedFieldNamesAndDefaults;
+        supportedFieldNames = other.supportedFieldNames;
+        supportedFieldMetadata = other.supportedFieldMetadata;
+
+        annotationOverrideMap = other.annotationOverrideMap;
+    }
+
     //==================================================================================================================
     // Override Methods:
 
@@ -208,6 +217,11 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
         return VariantContext.class;
     }
 
+    @Override
+    public VcfFuncotationFactory copyForAnotherThread() {
+        return new VcfFuncotationFactory(this);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -245,14 +259,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
 
         final List<Funcotation> outputFuncotations = new ArrayList<>();
 
-        // TODO: Caching logic can be refactored and shared in other funcotation factories:  https://github.com/broadinstitute/gatk/issues/4974
-        final Triple<VariantContext, ReferenceContext, List<Feature>> cacheKey = createCacheKey(variant, referenceContext, featureList);
-        final List<Funcotation> cacheResult = cache.get(cacheKey);
-        if (cacheResult != null) {
-            cacheHits++;
-            return cacheResult;
-        }
-
         // Only create annotations if we have data to annotate:
         if ( supportedFieldNames.size() != 0 ) {
 
@@ -295,8 +301,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
             }
             variant.getAlternateAlleles().forEach(a -> outputFuncotations.add(outputOrderedMap.computeIfAbsent(a, allele -> createDefaultFuncotation(allele))));
         }
-        cacheMisses++;
-        cache.put(cacheKey, outputFuncotations);
 
         // The output number of funcotations should equal to the variant.getAlternateAlleles().size()
         return outputFuncotations;
@@ -421,6 +425,11 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
         return createFuncotationsOnVariant(variant, referenceContext, featureList);
     }
 
+    @Override
+    protected boolean dependsOnGencodeFuncotations() {
+        return false;
+    }
+
 
     //==================================================================================================================
     // Static Methods:
@@ -487,31 +496,4 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
     static String createFinalFieldName(final String funcotationFactoryName, final String fieldName) {
         return funcotationFactoryName + "_" + fieldName;
     }
-
-    private Triple<VariantContext, ReferenceContext, List<Feature>> createCacheKey(final VariantContext variant, final ReferenceContext referenceContext, final List<Feature> featureList) {
-        return Triple.of(variant, referenceContext, featureList);
-    }
-
-    @Override
-    public void close() {
-        logger.info(getName() + " " + getVersion() + " cache hits/total: " + cacheHits + "/" + (cacheMisses + cacheHits));
-    }
-
-    //==================================================================================================================
-    // Helper Data Types:
-
-    // Modifed from https://docs.oracle.com/javase/7/docs/api/java/util/LinkedHashMap.html#removeEldestEntry(java.util.Map.Entry)
-    class LRUCache<K, V> extends LinkedHashMap<K, V> {
-        static final long serialVersionUID = 55337L;
-        @VisibleForTesting
-        static final int MAX_ENTRIES = 20;
-        public LRUCache() {
-            super(MAX_ENTRIES);
-        }
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-            return size() > MAX_ENTRIES;
-        }
-    }
 }
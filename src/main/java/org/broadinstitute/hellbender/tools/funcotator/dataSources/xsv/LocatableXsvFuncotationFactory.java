@@ -106,6 +106,26 @@ public class LocatableXsvFuncotationFactory extends DataSourceFuncotationFactory
         this.dataSourceIsB37 = isDataSourceB37;
     }
 
+    /**
+     * Create a {@link LocatableXsvFuncotationFactory} that shares the supported fields of the given
+     * {@link LocatableXsvFuncotationFactory}, rather than reading them from its file again.
+     * @param other The {@link LocatableXsvFuncotationFactory} to copy.
+     */
+    private LocatableXsvFuncotationFactory(final LocatableXsvFuncotationFactory other) {
+        super(other.mainSourceFileAsFeatureInput);
+
+        name = other.name;
+        version = other.version;
+        dataSourceIsB37 = other.dataSourceIsB37;
+
+        // copied, since it is trimmed when the supported fields are set:
+        annotationOverrideMap = new LinkedHashMap<>(other.annotationOverrideMap);
+
+        supportedFieldNames = other.supportedFieldNames;
+        supportedFieldNameList = other.supportedFieldNameList;
+        emptyFieldList = other.emptyFieldList;
+    }
+
     //==================================================================================================================
     // Override Methods:
 
@@ -114,6 +134,11 @@ public class LocatableXsvFuncotationFactory extends DataSourceFuncotationFactory
         return XsvTableFeature.class;
     }
 
+    @Override
+    public LocatableXsvFuncotationFactory copyForAnotherThread() {
+        return new LocatableXsvFuncotationFactory(this);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -185,6 +210,11 @@ public class LocatableXsvFuncotationFactory extends DataSourceFuncotationFactory
         return createFuncotationsOnVariant(variant, referenceContext, featureList);
     }
 
+    @Override
+    protected boolean dependsOnGencodeFuncotations() {
+        return false;
+    }
+
     @Override
     public FuncotatorArgumentDefinitions.DataSourceType getType() {
         return FuncotatorArgumentDefinitions.DataSourceType.LOCATABLE_XSV;
@@ -163,6 +163,28 @@ public class SimpleKeyXsvFuncotationFactory extends DataSourceFuncotationFactory
         initializeAnnotationOverrides( annotationOverrides );
     }
 
+    /**
+     * Create a {@link SimpleKeyXsvFuncotationFactory} that shares the annotations read by the given
+     * {@link SimpleKeyXsvFuncotationFactory}, rather than reading them from its file again.
+     * @param other The {@link SimpleKeyXsvFuncotationFactory} to copy.
+     */
+    private SimpleKeyXsvFuncotationFactory(final SimpleKeyXsvFuncotationFactory other) {
+        name = other.name;
+        delimiter = other.delimiter;
+        xsvInputPath = other.xsvInputPath;
+        version = other.version;
+        keyColumn = other.keyColumn;
+        keyType = other.keyType;
+        numHeaderLinesToIgnore = other.numHeaderLinesToIgnore;
+        dataSourceIsB37 = other.dataSourceIsB37;
+
+        annotationColumnNames = other.annotationColumnNames;
+        emptyAnnotationList = other.emptyAnnotationList;
+        annotationMap = other.annotationMap;
+
+        annotationOverrideMap = other.annotationOverrideMap;
+    }
+
     //==================================================================================================================
     // Override Methods:
 
@@ -172,6 +194,11 @@ public class SimpleKeyXsvFuncotationFactory extends DataSourceFuncotationFactory
         return Feature.class;
     }
 
+    @Override
+    public SimpleKeyXsvFuncotationFactory copyForAnotherThread() {
+        return new SimpleKeyXsvFuncotationFactory(this);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -285,10 +285,10 @@ public final class FindBreakpointEvidenceSpark extends GATKSparkTool {
                                         params.externalEvidenceWeight, params.externalEvidenceUncertainty);
         log("External evidence retrieved.", logger);
 
-        final SVIntervalTree<SVInterval> highCoverageSubintervalTree =
+        final ImmutableSVIntervalTree<SVInterval> highCoverageSubintervalTree =
                 findGenomewideHighCoverageIntervalsToIgnore(params, readMetadata, ctx, header, unfilteredReads, filter, logger, broadcastMetadata);
 
-        final Broadcast<SVIntervalTree<SVInterval>> broadcastHighCoverageSubIntervals = ctx.broadcast(highCoverageSubintervalTree);
+        final Broadcast<ImmutableSVIntervalTree<SVInterval>> broadcastHighCoverageSubIntervals = ctx.broadcast(highCoverageSubintervalTree);
 
         final Broadcast<List<List<BreakpointEvidence>>> broadcastExternalEvidence = ctx.broadcast(externalEvidence);
         final Tuple2<List<SVInterval>, List<EvidenceTargetLink>> intervalsAndEvidenceTargetLinks =
@@ -341,14 +341,14 @@ public final class FindBreakpointEvidenceSpark extends GATKSparkTool {
         return new EvidenceScanResults(readMetadata, intervals, intervalsAndEvidenceTargetLinks._2(), qNamesMultiMap);
     }
 
-    static SVIntervalTree<SVInterval> findGenomewideHighCoverageIntervalsToIgnore(final FindBreakpointEvidenceSparkArgumentCollection params,
-                                                                                  final ReadMetadata readMetadata,
-                                                                                  final JavaSparkContext ctx,
-                                                                                  final SAMFileHeader header,
-                                                                                  final JavaRDD<GATKRead> unfilteredReads,
-                                                                                  final SVReadFilter filter,
-                                                                                  final Logger logger,
-                                                                                  final Broadcast<ReadMetadata> broadcastMetadata) {
+    static ImmutableSVIntervalTree<SVInterval> findGenomewideHighCoverageIntervalsToIgnore(final FindBreakpointEvidenceSparkArgumentCollection params,
+                                                                                           final ReadMetadata readMetadata,
+                                                                                           final JavaSparkContext ctx,
+                                                                                           final SAMFileHeader header,
+                                                                                           final JavaRDD<GATKRead> unfilteredReads,
+                                                                                           final SVReadFilter filter,
+                                                                                           final Logger logger,
+                                                                                           final Broadcast<ReadMetadata> broadcastMetadata) {
         final int capacity = header.getSequenceDictionary().getSequences().stream()
                 .mapToInt(seqRec -> (seqRec.getSequenceLength() + DEPTH_WINDOW_SIZE - 1)/DEPTH_WINDOW_SIZE).sum();
         final List<SVInterval> depthIntervals = new ArrayList<>(capacity);
@@ -362,10 +362,7 @@ public final class FindBreakpointEvidenceSpark extends GATKSparkTool {
 
         final List<SVInterval> highCoverageSubintervals = findHighCoverageSubintervalsAndLog(
                 params, ctx, broadcastMetadata, depthIntervals, unfilteredReads, filter, logger);
-        final SVIntervalTree<SVInterval> highCoverageSubintervalTree = new SVIntervalTree<>();
-        highCoverageSubintervals.forEach(i -> highCoverageSubintervalTree.put(i, i));
-
-        return highCoverageSubintervalTree;
+        return ImmutableSVIntervalTree.ofIntervals(highCoverageSubintervals);
     }
 
     static final class EvidenceScanResults {
@@ -951,7 +948,7 @@ public final class FindBreakpointEvidenceSpark extends GATKSparkTool {
             final List<SVInterval> intervals,
             final JavaRDD<GATKRead> unfilteredReads,
             final SVReadFilter filter,
-            final Broadcast<SVIntervalTree<SVInterval>> broadcastHighCoverageSubIntervals) {
+            final Broadcast<ImmutableSVIntervalTree<SVInterval>> broadcastHighCoverageSubIntervals) {
         final Broadcast<List<SVInterval>> broadcastIntervals = ctx.broadcast(intervals);
         final List<QNameAndInterval> qNameAndIntervalList =
                 unfilteredReads
@@ -981,7 +978,7 @@ public final class FindBreakpointEvidenceSpark extends GATKSparkTool {
             final SAMFileHeader header,
             final JavaRDD<GATKRead> unfilteredReads,
             final SVReadFilter filter,
-            final Logger logger, final Broadcast<SVIntervalTree<SVInterval>> highCoverageSubintervalTree) {
+            final Logger logger, final Broadcast<ImmutableSVIntervalTree<SVInterval>> highCoverageSubintervalTree) {
         // find all breakpoint evidence, then filter for pile-ups
         final int nContigs = header.getSequenceDictionary().getSequences().size();
         final int allowedOverhang = params.allowedShortFragmentOverhang;
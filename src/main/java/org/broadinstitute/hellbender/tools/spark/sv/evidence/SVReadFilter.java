@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.spark.sv.evidence;
 
+import org.broadinstitute.hellbender.tools.spark.sv.utils.ImmutableSVIntervalTree;
 import org.broadinstitute.hellbender.tools.spark.sv.utils.SVInterval;
 import org.broadinstitute.hellbender.tools.spark.sv.utils.SVIntervalTree;
 import org.broadinstitute.hellbender.tools.spark.sv.StructuralVariationDiscoveryArgumentCollection.FindBreakpointEvidenceSparkArgumentCollection;
@@ -65,7 +66,7 @@ public class SVReadFilter implements Serializable {
                 read.getStart() - allowedShortFragmentOverhang <= read.getMateStart();
     }
 
-    public boolean containedInRegionToIgnore(final SVInterval interval, final SVIntervalTree<SVInterval> regionsToIgnore) {
+    public boolean containedInRegionToIgnore(final SVInterval interval, final ImmutableSVIntervalTree<SVInterval> regionsToIgnore) {
         final Iterator<SVIntervalTree.Entry<SVInterval>> overlappers = regionsToIgnore.overlappers(interval);
         while (overlappers.hasNext()) {
             SVIntervalTree.Entry<SVInterval> depthFilteredInterval = overlappers.next();
@@ -0,0 +1,587 @@
+package org.broadinstitute.hellbender.tools.spark.sv.utils;
+
+import com.esotericsoftware.kryo.DefaultSerializer;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable interval tree with the same query API as {@link SVIntervalTree}, built once from a set of intervals.
+ * Intervals are kept in sorted order first by start value and then by end value, as in {@link SVIntervalTree}.
+ * <p>
+ * There are no node objects:  the intervals are held in sorted arrays of contigs, starts, and ends, and the tree is
+ * implicit in the array indices.  The entries with even indices are the leaves, an entry whose index has k trailing
+ * one-bits sits at level k of the tree, and its children are the entries at index &plusmn; 2<sup>k-1</sup>.  Each
+ * entry is augmented with the index of the entry in its sub-tree having the greatest endpoint, which lets overlap
+ * queries skip sub-trees that end too early.  (This is the layout used by cgranges.)  Queries therefore touch a few
+ * int arrays rather than chasing pointers, and the tree serializes compactly, which makes it suitable for
+ * broadcasting large sets of intervals.
+ * <p>
+ * Thread-safe, since it cannot be modified.  Entries are created on demand, and their setValue method throws.
+ */
+@DefaultSerializer(ImmutableSVIntervalTree.Serializer.class)
+public final class ImmutableSVIntervalTree<V> implements Iterable<SVIntervalTree.Entry<V>> {
+    // sub-trees at or below this level are scanned linearly by overlap queries
+    private static final int SCAN_LEVEL = 3;
+
+    private final int[] contigs;
+    private final int[] starts;
+    private final int[] ends;
+    private final Object[] values; // null if each value is the interval itself
+    private final int[] maxEndIndices; // index of the entry with the greatest endpoint in the sub-tree of each entry
+    private final int maxLevel;
+
+    /**
+     * Copy the entries of an SVIntervalTree.
+     */
+    public ImmutableSVIntervalTree( final SVIntervalTree<V> tree ) {
+        Utils.nonNull(tree, "tree may not be null");
+        final int size = tree.size();
+        contigs = new int[size];
+        starts = new int[size];
+        ends = new int[size];
+        final Object[] treeValues = new Object[size];
+        boolean valuesAreIntervals = true;
+        int idx = 0;
+        for ( final SVIntervalTree.Entry<V> entry : tree ) {
+            final SVInterval interval = entry.getInterval();
+            contigs[idx] = interval.getContig();
+            starts[idx] = interval.getStart();
+            ends[idx] = interval.getEnd();
+            treeValues[idx] = entry.getValue();
+            valuesAreIntervals = valuesAreIntervals && interval.equals(treeValues[idx]);
+            idx += 1;
+        }
+        values = valuesAreIntervals ? null : treeValues;
+        maxEndIndices = new int[size];
+        maxLevel = buildIndex();
+    }
+
+    private ImmutableSVIntervalTree( final int[] contigs, final int[] starts, final int[] ends, final Object[] values ) {
+        this.contigs = contigs;
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        maxEndIndices = new int[contigs.length];
+        maxLevel = buildIndex();
+    }
+
+    /**
+     * Build a tree in which each interval is associated with itself, as a set of intervals.
+     * Duplicate intervals are ignored.
+     */
+    public static ImmutableSVIntervalTree<SVInterval> ofIntervals( final Collection<SVInterval> intervals ) {
+        Utils.nonNull(intervals, "intervals may not be null");
+        final List<SVInterval> sortedIntervals = new ArrayList<>(intervals);
+        sortedIntervals.sort(SVInterval::compareTo);
+        final int[] contigs = new int[sortedIntervals.size()];
+        final int[] starts = new int[sortedIntervals.size()];
+        final int[] ends = new int[sortedIntervals.size()];
+        int size = 0;
+        for ( final SVInterval interval : sortedIntervals ) {
+            Utils.nonNull(interval, "intervals may not contain null");
+            if ( size > 0 && contigs[size - 1] == interval.getContig() &&
+                    starts[size - 1] == interval.getStart() && ends[size - 1] == interval.getEnd() ) {
+                continue;
+            }
+            contigs[size] = interval.getContig();
+            starts[size] = interval.getStart();
+            ends[size] = interval.getEnd();
+            size += 1;
+        }
+        if ( size < sortedIntervals.size() ) {
+            return new ImmutableSVIntervalTree<>(trim(contigs, size), trim(starts, size), trim(ends, size), null);
+        }
+        return new ImmutableSVIntervalTree<>(contigs, starts, ends, null);
+    }
+
+    private static int[] trim( final int[] array, final int size ) {
+        final int[] result = new int[size];
+        System.arraycopy(array, 0, result, 0, size);
+        return result;
+    }
+
+    private ImmutableSVIntervalTree( final Kryo kryo, final Input input ) {
+        final int size = input.readInt();
+        contigs = new int[size];
+        starts = new int[size];
+        ends = new int[size];
+        int contig = 0;
+        int start = 0;
+        for ( int idx = 0; idx != size; ++idx ) {
+            final int contigDelta = input.readVarInt(true);
+            contig += contigDelta;
+            start = contigDelta == 0 && idx > 0 ? start + input.readVarInt(true) : input.readVarInt(false);
+            contigs[idx] = contig;
+            starts[idx] = start;
+            ends[idx] = start + input.readVarInt(false);
+        }
+        if ( input.readBoolean() ) {
+            values = null;
+        } else {
+            values = new Object[size];
+            for ( int idx = 0; idx != size; ++idx ) {
+                values[idx] = kryo.readClassAndObject(input);
+            }
+        }
+        maxEndIndices = new int[size];
+        maxLevel = buildIndex();
+    }
+
+    private void serialize( final Kryo kryo, final Output output ) {
+        final int size = size();
+        output.writeInt(size);
+        // contigs and starts are sorted, so they're written as (mostly small) differences from the previous entry
+        for ( int idx = 0; idx != size; ++idx ) {
+            final int contigDelta = idx == 0 ? contigs[idx] : contigs[idx] - contigs[idx - 1];
+            output.writeVarInt(contigDelta, true);
+            if ( contigDelta == 0 && idx > 0 ) {
+                output.writeVarInt(starts[idx] - starts[idx - 1], true);
+            } else {
+                output.writeVarInt(starts[idx], false);
+            }
+            output.writeVarInt(ends[idx] - starts[idx], false);
+        }
+        output.writeBoolean(values == null);
+        if ( values != null ) {
+            for ( final Object value : values ) {
+                kryo.writeClassAndObject(output, value);
+            }
+        }
+    }
+
+    /**
+     * Return the number of intervals in the tree.
+     *
+     * @return The number of intervals.
+     */
+    public int size() {
+        return contigs.length;
+    }
+
+    /**
+     * Find an interval.
+     *
+     * @param interval The interval sought.
+     * @return The Entry that represents that interval, or null.
+     */
+    public SVIntervalTree.Entry<V> find( final SVInterval interval ) {
+        final int idx = getIndex(interval);
+        return idx < 0 ? null : new IndexedEntry(idx);
+    }
+
+    /**
+     * Find the nth interval in the tree.
+     *
+     * @param idx The rank of the interval sought (from 0 to size()-1).
+     * @return The Entry that represents the nth interval, or null if there is none.
+     */
+    public SVIntervalTree.Entry<V> findByIndex( final int idx ) {
+        return entryOrNull(idx);
+    }
+
+    /**
+     * Find the rank of the specified interval.  If the specified interval is not in the
+     * tree, then -1 is returned.
+     *
+     * @param interval The interval for which the index is sought.
+     * @return The rank of that interval, or -1.
+     */
+    public int getIndex( final SVInterval interval ) {
+        final int idx = lowerBound(interval);
+        return idx < size() && compare(idx, interval) == 0 ? idx : -1;
+    }
+
+    /**
+     * Find the least interval in the tree.
+     *
+     * @return The earliest interval, or null if the tree is empty.
+     */
+    public SVIntervalTree.Entry<V> min() {
+        return entryOrNull(0);
+    }
+
+    /**
+     * Find the earliest interval in the tree greater than or equal to the specified interval.
+     *
+     * @param interval The interval sought.
+     * @return The earliest >= interval, or null if there is none.
+     */
+    public SVIntervalTree.Entry<V> min( final SVInterval interval ) {
+        return entryOrNull(lowerBound(interval));
+    }
+
+    /**
+     * Check the tree against a probe interval to see if there's an overlapping interval.
+     *
+     * @param interval The interval sought.
+     * @return Whether or not there's an overlapping interval in this tree.
+     */
+    public boolean hasOverlapper( final SVInterval interval ) {
+        return new OverlapIterator(interval).hasNext();
+    }
+
+    /**
+     * Find the earliest interval in the tree that overlaps the specified interval.
+     *
+     * @param interval The interval sought.
+     * @return The earliest overlapping interval, or null if there is none.
+     */
+    public SVIntervalTree.Entry<V> minOverlapper( final SVInterval interval ) {
+        final OverlapIterator overlapIterator = new OverlapIterator(interval);
+        return overlapIterator.hasNext() ? overlapIterator.next() : null;
+    }
+
+    /**
+     * Find the greatest interval in the tree.
+     *
+     * @return The latest interval, or null if the tree is empty.
+     */
+    public SVIntervalTree.Entry<V> max() {
+        return entryOrNull(size() - 1);
+    }
+
+    /**
+     * Find the latest interval in the tree less than or equal to the specified interval.
+     *
+     * @param interval The interval sought.
+     * @return The latest <= interval, or null if there is none.
+     */
+    public SVIntervalTree.Entry<V> max( final SVInterval interval ) {
+        return entryOrNull(upperBound(interval) - 1);
+    }
+
+    /**
+     * Return the interval having the largest ending value.
+     * This will be null if the tree is empty.
+     */
+    public SVInterval maxEnd() {
+        if ( size() == 0 ) {
+            return null;
+        }
+        int result = 0;
+        for ( int idx = 1; idx < size(); ++idx ) {
+            if ( endsLater(idx, result) ) {
+                result = idx;
+            }
+        }
+        return getInterval(result);
+    }
+
+    /**
+     * Return an iterator over the entire tree.
+     *
+     * @return An iterator.
+     */
+    @Override
+    public Iterator<SVIntervalTree.Entry<V>> iterator() { return new FwdIterator(0); }
+
+    /**
+     * Return an iterator over all intervals greater than or equal to the specified interval.
+     *
+     * @param interval The minimum interval.
+     * @return An iterator.
+     */
+    public Iterator<SVIntervalTree.Entry<V>> iterator( final SVInterval interval ) {
+        return new FwdIterator(lowerBound(interval));
+    }
+
+    /**
+     * Return an iterator over all intervals overlapping the specified interval.
+     *
+     * @param interval Interval to overlap.
+     * @return An iterator.
+     */
+    public Iterator<SVIntervalTree.Entry<V>> overlappers( final SVInterval interval ) {
+        return new OverlapIterator(interval);
+    }
+
+    /**
+     * Return an iterator over the entire tree that returns intervals in reverse order.
+     *
+     * @return An iterator.
+     */
+    public Iterator<SVIntervalTree.Entry<V>> reverseIterator() { return new RevIterator(size() - 1); }
+
+    /**
+     * Return an iterator over all intervals less than or equal to the specified interval, in reverse order.
+     *
+     * @param interval The maximum interval.
+     * @return An iterator.
+     */
+    public Iterator<SVIntervalTree.Entry<V>> reverseIterator( final SVInterval interval ) {
+        return new RevIterator(upperBound(interval) - 1);
+    }
+
+    /** fraction of the intervals in this tree that overlap with intervals in some other tree */
+    public float overlapFraction( final ImmutableSVIntervalTree<?> that ) {
+        int count = 0;
+        for ( int idx = 0; idx != size(); ++idx ) {
+            if ( that.hasOverlapper(getInterval(idx)) ) count += 1;
+        }
+        return (float)count/size();
+    }
+
+    private SVInterval getInterval( final int idx ) {
+        return new SVInterval(contigs[idx], starts[idx], ends[idx],
+                SVInterval.SVIntervalConstructorArgsValidator.ACCEPTS_ALL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getValue( final int idx ) {
+        return values == null ? (V)getInterval(idx) : (V)values[idx];
+    }
+
+    private SVIntervalTree.Entry<V> entryOrNull( final int idx ) {
+        return idx >= 0 && idx < size() ? new IndexedEntry(idx) : null;
+    }
+
+    /** same order as {@link SVInterval#compareTo} */
+    private int compare( final int idx, final SVInterval interval ) {
+        int result = Integer.compare(contigs[idx], interval.getContig());
+        if ( result == 0 ) {
+            result = Integer.compare(starts[idx], interval.getStart());
+            if ( result == 0 ) result = Integer.compare(ends[idx], interval.getEnd());
+        }
+        return result;
+    }
+
+    /** index of the first entry >= interval, or size() if there is none */
+    private int lowerBound( final SVInterval interval ) {
+        int lo = 0;
+        int hi = size();
+        while ( lo < hi ) {
+            final int mid = (lo + hi) >>> 1;
+            if ( compare(mid, interval) < 0 ) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** index of the first entry > interval, or size() if there is none */
+    private int upperBound( final SVInterval interval ) {
+        int lo = 0;
+        int hi = size();
+        while ( lo < hi ) {
+            final int mid = (lo + hi) >>> 1;
+            if ( compare(mid, interval) <= 0 ) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** whether the entry at idx1 ends later than the entry at idx2, as judged by contig and then end */
+    private boolean endsLater( final int idx1, final int idx2 ) {
+        return contigs[idx1] > contigs[idx2] || (contigs[idx1] == contigs[idx2] && ends[idx1] > ends[idx2]);
+    }
+
+    /**
+     * Fill in maxEndIndices for every entry, treating the missing entries of an incomplete tree as having the
+     * greatest endpoint of the entries that precede them.
+     *
+     * @return The level of the root.
+     */
+    private int buildIndex() {
+        final int size = size();
+        if ( size == 0 ) {
+            return 0;
+        }
+        int lastIdx = 0; // the last entry at the current level
+        int lastMaxEnd = 0; // the index of the greatest endpoint among entries up to and including lastIdx
+        for ( int idx = 0; idx < size; idx += 2 ) {
+            lastIdx = idx;
+            lastMaxEnd = idx;
+            maxEndIndices[idx] = idx;
+        }
+        int level = 1;
+        for ( ; (1L << level) <= size; ++level ) {
+            final int halfSpan = 1 << (level - 1);
+            final long step = (long)halfSpan << 2;
+            for ( long node = ((long)halfSpan << 1) - 1; node < size; node += step ) {
+                final int idx = (int)node;
+                final int leftMaxEnd = maxEndIndices[idx - halfSpan];
+                final int rightMaxEnd = idx + halfSpan < size ? maxEndIndices[idx + halfSpan] : lastMaxEnd;
+                int maxEnd = idx;
+                if ( endsLater(leftMaxEnd, maxEnd) ) maxEnd = leftMaxEnd;
+                if ( endsLater(rightMaxEnd, maxEnd) ) maxEnd = rightMaxEnd;
+                maxEndIndices[idx] = maxEnd;
+            }
+            lastIdx = ((lastIdx >> level) & 1) != 0 ? lastIdx - halfSpan : lastIdx + halfSpan;
+            if ( lastIdx < size && endsLater(maxEndIndices[lastIdx], lastMaxEnd) ) {
+                lastMaxEnd = maxEndIndices[lastIdx];
+            }
+        }
+        return level - 1;
+    }
+
+    public static final class Serializer<T> extends com.esotericsoftware.kryo.Serializer<ImmutableSVIntervalTree<T>> {
+        @Override
+        public void write( final Kryo kryo, final Output output, final ImmutableSVIntervalTree<T> tree ) {
+            tree.serialize(kryo, output);
+        }
+
+        @Override
+        public ImmutableSVIntervalTree<T> read( final Kryo kryo, final Input input,
+                                                final Class<ImmutableSVIntervalTree<T>> klass ) {
+            return new ImmutableSVIntervalTree<>(kryo, input);
+        }
+    }
+
+    private final class IndexedEntry implements SVIntervalTree.Entry<V> {
+        private final int idx;
+
+        IndexedEntry( final int idx ) { this.idx = idx; }
+
+        @Override
+        public SVInterval getInterval() { return ImmutableSVIntervalTree.this.getInterval(idx); }
+
+        @Override
+        public V getValue() { return ImmutableSVIntervalTree.this.getValue(idx); }
+
+        @Override
+        public V setValue( final V value ) {
+            throw new UnsupportedOperationException("ImmutableSVIntervalTree entries cannot be modified.");
+        }
+    }
+
+    private final class FwdIterator implements Iterator<SVIntervalTree.Entry<V>> {
+        private int nextIdx;
+
+        FwdIterator( final int firstIdx ) { nextIdx = firstIdx; }
+
+        @Override
+        public boolean hasNext() { return nextIdx < size(); }
+
+        @Override
+        public SVIntervalTree.Entry<V> next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException("No next element.");
+            }
+            return new IndexedEntry(nextIdx++);
+        }
+    }
+
+    private final class RevIterator implements Iterator<SVIntervalTree.Entry<V>> {
+        private int nextIdx;
+
+        RevIterator( final int firstIdx ) { nextIdx = firstIdx; }
+
+        @Override
+        public boolean hasNext() { return nextIdx >= 0; }
+
+        @Override
+        public SVIntervalTree.Entry<V> next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException("No next element.");
+            }
+            return new IndexedEntry(nextIdx--);
+        }
+    }
+
+    /**
+     * Walks the implicit tree in order, with an explicit stack, returning the overlapping entries in sorted order.
+     * Small sub-trees are scanned linearly, since their entries are contiguous in the arrays.
+     */
+    private final class OverlapIterator implements Iterator<SVIntervalTree.Entry<V>> {
+        private final int contig;
+        private final int start;
+        private final int end;
+        // each stack frame is a node, its level, and whether its left sub-tree has been visited
+        private final int[] stackNodes = new int[2 * Integer.SIZE];
+        private final int[] stackLevels = new int[2 * Integer.SIZE];
+        private final boolean[] stackLeftDone = new boolean[2 * Integer.SIZE];
+        private int stackSize;
+        private int scanIdx;
+        private int scanEnd;
+        private int nextIdx;
+
+        OverlapIterator( final SVInterval interval ) {
+            Utils.nonNull(interval, "interval may not be null");
+            contig = interval.getContig();
+            start = interval.getStart();
+            end = interval.getEnd();
+            if ( size() > 0 ) {
+                push((1 << maxLevel) - 1, maxLevel, false);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() { return nextIdx >= 0; }
+
+        @Override
+        public SVIntervalTree.Entry<V> next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException("No next element.");
+            }
+            final SVIntervalTree.Entry<V> result = new IndexedEntry(nextIdx);
+            advance();
+            return result;
+        }
+
+        private void push( final int node, final int level, final boolean leftDone ) {
+            stackNodes[stackSize] = node;
+            stackLevels[stackSize] = level;
+            stackLeftDone[stackSize] = leftDone;
+            stackSize += 1;
+        }
+
+        // true if the query interval is not upstream of the entry's start
+        private boolean startsBeforeEnd( final int idx ) {
+            return contigs[idx] < contig || (contigs[idx] == contig && starts[idx] < end);
+        }
+
+        // true if the entry is not upstream of the query interval
+        private boolean endsAfterStart( final int idx ) {
+            return contigs[idx] > contig || (contigs[idx] == contig && ends[idx] > start);
+        }
+
+        private void advance() {
+            final int size = size();
+            while ( true ) {
+                while ( scanIdx < scanEnd ) {
+                    final int idx = scanIdx++;
+                    if ( !startsBeforeEnd(idx) ) {
+                        scanIdx = scanEnd;
+                        break;
+                    }
+                    if ( endsAfterStart(idx) ) {
+                        nextIdx = idx;
+                        return;
+                    }
+                }
+                if ( stackSize == 0 ) {
+                    nextIdx = -1;
+                    return;
+                }
+                stackSize -= 1;
+                final int node = stackNodes[stackSize];
+                final int level = stackLevels[stackSize];
+                if ( level <= SCAN_LEVEL ) {
+                    final int firstIdx = node >> level << level;
+                    scanIdx = firstIdx;
+                    scanEnd = Math.min(size, firstIdx + (1 << (level + 1)) - 1);
+                } else if ( !stackLeftDone[stackSize] ) {
+                    final int left = node - (1 << (level - 1));
+                    push(node, level, true);
+                    if ( left >= size || endsAfterStart(maxEndIndices[left]) ) {
+                        push(left, level - 1, false);
+                    }
+                } else if ( node < size && startsBeforeEnd(node) ) {
+                    push(node + (1 << (level - 1)), level - 1, false);
+                    if ( endsAfterStart(node) ) {
+                        nextIdx = node;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
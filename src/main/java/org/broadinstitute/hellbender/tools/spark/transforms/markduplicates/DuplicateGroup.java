@@ -0,0 +1,371 @@
+package org.broadinstitute.hellbender.tools.spark.transforms.markduplicates;
+
+import com.esotericsoftware.kryo.DefaultSerializer;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils.IndexPair;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.Fragment;
+import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.MarkDuplicatesSparkRecord;
+import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.Pair;
+import picard.sam.markduplicates.util.OpticalDuplicateFinder;
+import picard.sam.markduplicates.util.ReadEnds;
+import picard.sam.util.PhysicalLocation;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Combiner for all the {@link MarkDuplicatesSparkRecord}s sharing a {@link org.broadinstitute.hellbender.utils.read.markduplicates.ReadsKey},
+ * holding only what is needed to decide which of them are not duplicates:
+ *
+ *  - the best scoring fragment, and whether there was any empty fragment (in which case all fragments are duplicates)
+ *  - the best scoring pair, and the {@link OpticalLocation} of every other pair, which is all that is needed to find
+ *    the optical duplicates of the best pair (along with their names, only if optical duplicates are to be marked)
+ *  - the names of the passthrough reads, which are never duplicates
+ *
+ * so that duplicate sets can be combined map-side and merged without materializing the whole group of records.
+ *
+ * The records are given their physical location (tile, x, y) before being compared, since it is a transient field
+ * that is lost when a group is serialized. The best records are chosen with the same comparator, and optical duplicates
+ * are found among the same locations, as when marking a fully grouped set of records, so the results are identical.
+ *
+ * Groups are shuffled with {@link Serializer}, which packs the {@link OpticalLocation}s into fixed width fields.
+ */
+@DefaultSerializer(DuplicateGroup.Serializer.class)
+public final class DuplicateGroup {
+    private final boolean keepDuplicateNames;
+    private boolean hasEmptyFragment = false;
+    private Fragment bestFragment = null;
+    private Pair bestPair = null;
+    private List<OpticalLocation> otherPairs = null;
+    private List<IndexPair<String>> passthroughs = null;
+
+    // bits of the flags in the serialized form
+    private static final int KEEP_DUPLICATE_NAMES = 1;
+    private static final int HAS_EMPTY_FRAGMENT = 1 << 1;
+    private static final int HAS_BEST_FRAGMENT = 1 << 2;
+    private static final int HAS_BEST_PAIR = 1 << 3;
+
+    /**
+     * @param keepDuplicateNames whether to keep the names of the pairs that are not the best one, which is only
+     *                           needed to mark optical duplicates
+     */
+    public DuplicateGroup(final boolean keepDuplicateNames) {
+        this.keepDuplicateNames = keepDuplicateNames;
+    }
+
+    /**
+     * Add a record to this group
+     * @return this group
+     */
+    public DuplicateGroup add(final MarkDuplicatesSparkRecord record, final OpticalDuplicateFinder finder) {
+        Utils.nonNull(record);
+        switch (record.getType()) {
+            case EMPTY_FRAGMENT:
+                hasEmptyFragment = true;
+                break;
+            case FRAGMENT:
+                addFragment((Fragment)record, finder);
+                break;
+            case PAIR:
+                addPair((Pair)record, finder);
+                break;
+            case PASSTHROUGH:
+                if (passthroughs == null) {
+                    passthroughs = new ArrayList<>(1);
+                }
+                passthroughs.add(new IndexPair<>(record.getName(), record.getPartitionIndex()));
+                break;
+            default:
+                throw new GATKException.ShouldNeverReachHereException("Unknown MarkDuplicatesSparkRecord type " + record.getType());
+        }
+        return this;
+    }
+
+    /**
+     * Add all the records of {@code other}, which must not be used anymore, to this group
+     * @return this group
+     */
+    public DuplicateGroup merge(final DuplicateGroup other, final OpticalDuplicateFinder finder) {
+        Utils.nonNull(other);
+        hasEmptyFragment |= other.hasEmptyFragment;
+        if (other.bestFragment != null) {
+            addFragment(other.bestFragment, finder);
+        }
+        if (other.bestPair != null) {
+            addPair(other.bestPair, finder);
+        }
+        if (other.otherPairs != null) {
+            otherPairs().addAll(other.otherPairs);
+        }
+        if (other.passthroughs != null) {
+            if (passthroughs == null) {
+                passthroughs = new ArrayList<>(other.passthroughs.size());
+            }
+            passthroughs.addAll(other.passthroughs);
+        }
+        return this;
+    }
+
+    private void addFragment(final Fragment fragment, final OpticalDuplicateFinder finder) {
+        finder.addLocationInformation(fragment.getName(), fragment);
+        if (bestFragment == null) {
+            bestFragment = fragment;
+        } else {
+            // the location of the current best one may have been lost in serialization
+            finder.addLocationInformation(bestFragment.getName(), bestFragment);
+            if (MarkDuplicatesSparkUtils.PAIRED_ENDS_SCORE_COMPARATOR.compare(fragment, bestFragment) > 0) {
+                bestFragment = fragment;
+            }
+        }
+    }
+
+    private void addPair(final Pair pair, final OpticalDuplicateFinder finder) {
+        finder.addLocationInformation(pair.getName(), pair);
+        if (bestPair == null) {
+            bestPair = pair;
+        } else {
+            finder.addLocationInformation(bestPair.getName(), bestPair);
+            if (MarkDuplicatesSparkUtils.PAIRED_ENDS_SCORE_COMPARATOR.compare(pair, bestPair) > 0) {
+                otherPairs().add(new OpticalLocation(bestPair, keepDuplicateNames));
+                bestPair = pair;
+            } else {
+                otherPairs().add(new OpticalLocation(pair, keepDuplicateNames));
+            }
+        }
+    }
+
+    private List<OpticalLocation> otherPairs() {
+        if (otherPairs == null) {
+            otherPairs = new ArrayList<>();
+        }
+        return otherPairs;
+    }
+
+    /**
+     * Decide which records of this group are not duplicates.
+     *
+     * @return the (name, partition index) of the best fragment (with -1), of the best pair (with its number of optical
+     *         duplicates), and of each passthrough read (with {@link MarkDuplicatesSpark#NO_OPTICAL_MARKER}); and of each
+     *         optical duplicate of the best pair (with {@link MarkDuplicatesSpark#OPTICAL_DUPLICATE_MARKER}) if {@code markOpticalDups}
+     */
+    public List<Tuple2<IndexPair<String>, Integer>> getNonDuplicates(final OpticalDuplicateFinder finder, final boolean markOpticalDups) {
+        Utils.validate(keepDuplicateNames || !markOpticalDups, "Optical duplicates can't be marked when the names of the duplicates weren't kept");
+        final List<Tuple2<IndexPair<String>, Integer>> nonDuplicates = new ArrayList<>();
+
+        // empty fragments signify that a pair has a mate at this site, in which case all fragments are duplicates
+        if (bestFragment != null && !hasEmptyFragment) {
+            nonDuplicates.add(new Tuple2<>(new IndexPair<>(bestFragment.getName(), bestFragment.getPartitionIndex()), -1));
+        }
+
+        if (bestPair != null) {
+            nonDuplicates.addAll(handlePairs(finder, markOpticalDups));
+        }
+
+        if (passthroughs != null) {
+            for (final IndexPair<String> passthrough : passthroughs) {
+                nonDuplicates.add(new Tuple2<>(passthrough, MarkDuplicatesSpark.NO_OPTICAL_MARKER));
+            }
+        }
+        return nonDuplicates;
+    }
+
+    private List<Tuple2<IndexPair<String>, Integer>> handlePairs(final OpticalDuplicateFinder finder, final boolean markOpticalDups) {
+        // save ourselves the trouble when there are no optical duplicates to worry about
+        if (otherPairs == null || otherPairs.isEmpty()) {
+            return Collections.singletonList(new Tuple2<>(new IndexPair<>(bestPair.getName(), bestPair.getPartitionIndex()), 0));
+        }
+
+        finder.addLocationInformation(bestPair.getName(), bestPair);
+        final OpticalLocation best = new OpticalLocation(bestPair, true);
+        final List<OpticalLocation> allPairs = new ArrayList<>(otherPairs.size() + 1);
+        allPairs.add(best);
+        allPairs.addAll(otherPairs);
+
+        final List<Tuple2<IndexPair<String>, Integer>> output = new ArrayList<>();
+        final List<Tuple2<IndexPair<String>, Integer>> opticalDuplicates = markOpticalDups ? output : null;
+
+        // Split by orientation and count duplicates in each group separately.
+        final List<OpticalLocation> pairsFR = new ArrayList<>();
+        final List<OpticalLocation> pairsRF = new ArrayList<>();
+        for (final OpticalLocation pair : allPairs) {
+            if (pair.orientation == ReadEnds.FR) {
+                pairsFR.add(pair);
+            } else if (pair.orientation == ReadEnds.RF) {
+                pairsRF.add(pair);
+            }
+        }
+        final int numOpticalDuplicates;
+        if (!pairsFR.isEmpty() && !pairsRF.isEmpty()) {
+            numOpticalDuplicates = countOpticalDuplicates(finder, pairsFR, best, opticalDuplicates) + countOpticalDuplicates(finder, pairsRF, best, opticalDuplicates);
+        } else {
+            numOpticalDuplicates = countOpticalDuplicates(finder, allPairs, best, opticalDuplicates);
+        }
+        output.add(new Tuple2<>(new IndexPair<>(bestPair.getName(), bestPair.getPartitionIndex()), numOpticalDuplicates));
+        return output;
+    }
+
+    private static int countOpticalDuplicates(final OpticalDuplicateFinder finder, final List<OpticalLocation> scored, final OpticalLocation best,
+                                              final List<Tuple2<IndexPair<String>, Integer>> opticalDuplicateList) {
+        final boolean[] opticalDuplicateFlags = finder.findOpticalDuplicates(scored, best);
+        int numOpticalDuplicates = 0;
+        for (int i = 0; i < opticalDuplicateFlags.length; i++) {
+            if (opticalDuplicateFlags[i]) {
+                numOpticalDuplicates++;
+                if (opticalDuplicateList != null) {
+                    opticalDuplicateList.add(new Tuple2<>(new IndexPair<>(scored.get(i).name, scored.get(i).partitionIndex), MarkDuplicatesSpark.OPTICAL_DUPLICATE_MARKER));
+                }
+            }
+        }
+        return numOpticalDuplicates;
+    }
+
+    /**
+     * The part of a {@link Pair} needed to find optical duplicates: its physical location and orientation, and
+     * optionally its name and partition index. Unlike in {@link Pair}, the location is kept when serialized.
+     */
+    public static final class OpticalLocation implements PhysicalLocation {
+        private short readGroup;
+        private short tile;
+        private short x;
+        private short y;
+        private short libraryId;
+        private byte orientation;
+        private String name;
+        private int partitionIndex;
+
+        OpticalLocation(final Pair pair, final boolean keepName) {
+            readGroup = pair.getReadGroup();
+            tile = pair.getTile();
+            // picard compresses the pixel values to shorts as well
+            x = (short)pair.getX();
+            y = (short)pair.getY();
+            libraryId = pair.getLibraryId();
+            orientation = pair.getOrientationForOpticalDuplicates();
+            name = keepName ? pair.getName() : null;
+            partitionIndex = pair.getPartitionIndex();
+        }
+
+        // Constructor for serialization purposes
+        private OpticalLocation(final Input input) {
+            // the read group, tile and pixel coordinates are packed into one fixed width long
+            final long location = input.readLong();
+            readGroup = (short)(location >>> 48);
+            tile = (short)(location >>> 32);
+            x = (short)(location >>> 16);
+            y = (short)location;
+            libraryId = input.readShort();
+            orientation = input.readByte();
+            partitionIndex = input.readInt(true);
+            name = input.readString();
+        }
+
+        private void serialize(final Output output) {
+            output.writeLong(((long)readGroup << 48) |
+                    (((long)tile & 0xFFFF) << 32) |
+                    (((long)x & 0xFFFF) << 16) |
+                    ((long)y & 0xFFFF));
+            output.writeShort(libraryId);
+            output.writeByte(orientation);
+            output.writeInt(partitionIndex, true);
+            output.writeAscii(name);
+        }
+
+        @Override
+        public short getReadGroup() { return readGroup; }
+
+        @Override
+        public void setReadGroup(final short readGroup) { this.readGroup = readGroup; }
+
+        @Override
+        public short getTile() { return tile; }
+
+        @Override
+        public void setTile(final short tile) { this.tile = tile; }
+
+        @Override
+        public int getX() { return x; }
+
+        @Override
+        public void setX(final int x) { this.x = (short)x; }
+
+        @Override
+        public int getY() { return y; }
+
+        @Override
+        public void setY(final int y) { this.y = (short)y; }
+
+        @Override
+        public short getLibraryId() { return libraryId; }
+
+        @Override
+        public void setLibraryId(final short libraryId) { this.libraryId = libraryId; }
+    }
+
+    public static final class Serializer extends com.esotericsoftware.kryo.Serializer<DuplicateGroup> {
+        @Override
+        public void write(final Kryo kryo, final Output output, final DuplicateGroup group) {
+            output.writeByte((group.keepDuplicateNames ? KEEP_DUPLICATE_NAMES : 0) |
+                    (group.hasEmptyFragment ? HAS_EMPTY_FRAGMENT : 0) |
+                    (group.bestFragment != null ? HAS_BEST_FRAGMENT : 0) |
+                    (group.bestPair != null ? HAS_BEST_PAIR : 0));
+            if (group.bestFragment != null) {
+                kryo.writeObject(output, group.bestFragment);
+            }
+            if (group.bestPair != null) {
+                kryo.writeObject(output, group.bestPair);
+            }
+
+            output.writeInt(group.otherPairs == null ? 0 : group.otherPairs.size(), true);
+            if (group.otherPairs != null) {
+                for (final OpticalLocation location : group.otherPairs) {
+                    location.serialize(output);
+                }
+            }
+
+            output.writeInt(group.passthroughs == null ? 0 : group.passthroughs.size(), true);
+            if (group.passthroughs != null) {
+                for (final IndexPair<String> passthrough : group.passthroughs) {
+                    output.writeInt(passthrough.getIndex(), true);
+                    output.writeAscii(passthrough.getValue());
+                }
+            }
+        }
+
+        @Override
+        public DuplicateGroup read(final Kryo kryo, final Input input, final Class<DuplicateGroup> klass) {
+            final byte flags = input.readByte();
+            final DuplicateGroup group = new DuplicateGroup((flags & KEEP_DUPLICATE_NAMES) != 0);
+            group.hasEmptyFragment = (flags & HAS_EMPTY_FRAGMENT) != 0;
+            if ((flags & HAS_BEST_FRAGMENT) != 0) {
+                group.bestFragment = kryo.readObject(input, Fragment.class);
+            }
+            if ((flags & HAS_BEST_PAIR) != 0) {
+                group.bestPair = kryo.readObject(input, Pair.class);
+            }
+
+            final int numOtherPairs = input.readInt(true);
+            if (numOtherPairs > 0) {
+                group.otherPairs = new ArrayList<>(numOtherPairs);
+                for (int i = 0; i < numOtherPairs; i++) {
+                    group.otherPairs.add(new OpticalLocation(input));
+                }
+            }
+
+            final int numPassthroughs = input.readInt(true);
+            if (numPassthroughs > 0) {
+                group.passthroughs = new ArrayList<>(numPassthroughs);
+                for (int i = 0; i < numPassthroughs; i++) {
+                    final int index = input.readInt(true);
+                    group.passthroughs.add(new IndexPair<>(input.readString(), index));
+                }
+            }
+            return group;
+        }
+    }
+}
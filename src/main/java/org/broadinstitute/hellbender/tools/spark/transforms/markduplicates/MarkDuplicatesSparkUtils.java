@@ -23,7 +23,6 @@ import org.broadinstitute.hellbender.utils.read.markduplicates.*;
 import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.*;
 import org.broadinstitute.hellbender.utils.spark.SparkUtils;
 import picard.sam.markduplicates.util.OpticalDuplicateFinder;
-import picard.sam.markduplicates.util.ReadEnds;
 import scala.Tuple2;
 
 import java.io.Serializable;
@@ -40,7 +39,7 @@ public class MarkDuplicatesSparkUtils {
     public static final String OPTICAL_DUPLICATE_TOTAL_ATTRIBUTE_NAME = "OD";
     // This comparator represents the tiebreaking for PairedEnds duplicate marking.
     // We compare first on score, followed by unclipped start position (which is reversed here because of the expected ordering)
-    private static final Comparator<TransientFieldPhysicalLocation> PAIRED_ENDS_SCORE_COMPARATOR = Comparator.comparing(TransientFieldPhysicalLocation::getScore)
+    static final Comparator<TransientFieldPhysicalLocation> PAIRED_ENDS_SCORE_COMPARATOR = Comparator.comparing(TransientFieldPhysicalLocation::getScore)
             .thenComparing(TransientFieldPhysicalLocationComparator.INSTANCE.reversed());
 
     /**
@@ -108,11 +107,11 @@ public class MarkDuplicatesSparkUtils {
      *   (c) Label each read with alignment information: Library, reference index,
      *       stranded unclipped start and reverse strand.
      *   (d) Unmapped Pairs, Templates of entirely non-primary reads, etc are passed through as unmarked reads
-     * (4) GroupByKey: Group MarkDuplicatesSparkRecord that share alignment information. These pairs
-     *     are duplicates of each other.
+     * (4) CombineByKey: Combine MarkDuplicatesSparkRecord that share alignment information (which are duplicates of
+     *     each other) into a {@link DuplicateGroup}, which only keeps the highest scoring fragment and pair, and what is
+     *     needed to find the optical duplicates of that pair, so large duplicate sets are never materialized.
      * (5) markDuplicatePairs:
-     *   (a) For each group created by (4), sort the pairs by score and mark all but the
-     *       highest scoring as duplicates.
+     *   (a) For each group created by (4), mark all but the highest scoring fragment or pair as duplicates.
      *   (b) Determine which duplicates are optical duplicates and increase the overall count.
      */
     static JavaPairRDD<IndexPair<String>, Integer> transformToDuplicateNames(final SAMFileHeader header, final MarkDuplicatesScoringStrategy scoringStrategy, final OpticalDuplicateFinder finder, final JavaRDD<GATKRead>  reads, final int numReducers, final boolean markOpticalDups) {
@@ -193,9 +192,12 @@ public class MarkDuplicatesSparkUtils {
             return out.iterator();
         });
 
-        final JavaPairRDD<ReadsKey, Iterable<MarkDuplicatesSparkRecord>> keyedPairs = pairedEnds.groupByKey(); //TODO evaluate replacing this with a smart aggregate by key.
+        final JavaPairRDD<ReadsKey, DuplicateGroup> duplicateGroups = pairedEnds.combineByKey(
+                record -> new DuplicateGroup(markOpticalDups).add(record, finder),
+                (group, record) -> group.add(record, finder),
+                (group1, group2) -> group1.merge(group2, finder));
 
-        return markDuplicateRecords(keyedPairs, finder, markOpticalDups);
+        return duplicateGroups.flatMapToPair(keyedGroup -> keyedGroup._2().getNonDuplicates(finder, markOpticalDups).iterator());
     }
 
     /**
@@ -276,128 +278,6 @@ public class MarkDuplicatesSparkUtils {
     }
 
 
-    /**
-     * Primary landing point for MarkDuplicateSparkRecords:
-     *  - Handles separating out hashed keys into into groups by start position/readgroup
-     *  - Further separates out MarkDuplicatesSparkRecord by their record objects
-     *  - Farms out to methods which handles each group
-     *  - Collects the results and returns an iterator
-     */
-    @SuppressWarnings("unchecked")
-    private static JavaPairRDD<IndexPair<String>, Integer> markDuplicateRecords(final JavaPairRDD<ReadsKey, Iterable<MarkDuplicatesSparkRecord>> keyedPairs,
-                                                                                final OpticalDuplicateFinder finder, final boolean markOpticalDups) {
-        return keyedPairs.flatMapToPair(keyedPair -> {
-            Iterable<MarkDuplicatesSparkRecord> pairGroups = keyedPair._2();
-
-            final List<Tuple2<IndexPair<String>, Integer>> nonDuplicates = Lists.newArrayList();
-            final Map<MarkDuplicatesSparkRecord.Type, List<MarkDuplicatesSparkRecord>> stratifiedByType = splitByType(pairGroups);
-
-            // Each key corresponds to either fragments or paired ends, not a mixture of both.
-            final List<MarkDuplicatesSparkRecord> emptyFragments = stratifiedByType.get(MarkDuplicatesSparkRecord.Type.EMPTY_FRAGMENT);
-            final List<MarkDuplicatesSparkRecord> fragments = stratifiedByType.get(MarkDuplicatesSparkRecord.Type.FRAGMENT);
-            final List<Pair> pairs = (List<Pair>)(List)stratifiedByType.get(MarkDuplicatesSparkRecord.Type.PAIR);
-            final List<MarkDuplicatesSparkRecord> passthroughs = stratifiedByType.get(MarkDuplicatesSparkRecord.Type.PASSTHROUGH);
-
-            //empty MarkDuplicatesSparkRecord signify that a pair has a mate somewhere else
-            // If there are any non-fragment placeholders at this site, mark everything as duplicates, otherwise compute the best score
-            if (Utils.isNonEmpty(fragments) && !Utils.isNonEmpty(emptyFragments)) {
-                final Tuple2<IndexPair<String>, Integer> bestFragment = handleFragments(fragments, finder);
-                nonDuplicates.add(bestFragment);
-            }
-
-            if (Utils.isNonEmpty(pairs)) {
-                nonDuplicates.addAll(handlePairs(pairs, finder, markOpticalDups));
-            }
-
-            if (Utils.isNonEmpty(passthroughs)) {
-                nonDuplicates.addAll(handlePassthroughs(passthroughs));
-            }
-
-            return nonDuplicates.iterator();
-        });
-    }
-
-    /**
-     * split MarkDuplicatesSparkRecord into groups by their type
-     */
-    private static Map<MarkDuplicatesSparkRecord.Type, List<MarkDuplicatesSparkRecord>> splitByType(Iterable<MarkDuplicatesSparkRecord> duplicateGroup) {
-        final EnumMap<MarkDuplicatesSparkRecord.Type, List<MarkDuplicatesSparkRecord>> byType = new EnumMap<>(MarkDuplicatesSparkRecord.Type.class);
-        for(MarkDuplicatesSparkRecord pair: duplicateGroup) {
-            byType.compute(pair.getType(), (key, value) -> {
-                if (value == null) {
-                    final ArrayList<MarkDuplicatesSparkRecord> pairedEnds = new ArrayList<>();
-                    pairedEnds.add(pair);
-                    return pairedEnds;
-                } else {
-                    value.add(pair);
-                    return value;
-                }
-            });
-        }
-        return byType;
-    }
-
-    private static List<Tuple2<IndexPair<String>,Integer>> handlePassthroughs(List<MarkDuplicatesSparkRecord> passthroughs) {
-        // Emit the passthrough reads as non-duplicates.
-        return passthroughs.stream()
-                .map(pair -> new Tuple2<>(new IndexPair<>(pair.getName(), pair.getPartitionIndex()), MarkDuplicatesSpark.NO_OPTICAL_MARKER))
-                .collect(Collectors.toList());
-    }
-
-    private static List<Tuple2<IndexPair<String>, Integer>> handlePairs(final List<Pair> pairs, final OpticalDuplicateFinder finder, final boolean markOpticalDups) {
-        // save ourselves the trouble when there are no optical duplicates to worry about
-        if (pairs.size() == 1) {
-            return Collections.singletonList(new Tuple2<>(new IndexPair<>(pairs.get(0).getName(), pairs.get(0).getPartitionIndex()), 0));
-        }
-
-        List<Tuple2<IndexPair<String>, Integer>> output = new ArrayList<>();
-
-        final Pair bestPair = pairs.stream()
-                .peek(pair -> finder.addLocationInformation(pair.getName(), pair))
-                .max(PAIRED_ENDS_SCORE_COMPARATOR)
-                .orElseThrow(() -> new GATKException.ShouldNeverReachHereException("There was no best pair because the stream was empty, but it shouldn't have been empty."));
-
-        // Split by orientation and count duplicates in each group separately.
-        final Map<Byte, List<Pair>> groupByOrientation = pairs.stream()
-                .collect(Collectors.groupingBy(Pair::getOrientationForOpticalDuplicates));
-        final int numOpticalDuplicates;
-        if (groupByOrientation.containsKey(ReadEnds.FR) && groupByOrientation.containsKey(ReadEnds.RF)) {
-            final List<Pair> peFR = new ArrayList<>(groupByOrientation.get(ReadEnds.FR));
-            final List<Pair> peRF = new ArrayList<>(groupByOrientation.get(ReadEnds.RF));
-            numOpticalDuplicates = countOpticalDuplicates(finder, peFR, bestPair, markOpticalDups? output : null) + countOpticalDuplicates(finder, peRF, bestPair, markOpticalDups? output : null);
-        } else {
-            numOpticalDuplicates = countOpticalDuplicates(finder, pairs, bestPair, markOpticalDups? output : null);
-        }
-        output.add(new Tuple2<>(new IndexPair<>(bestPair.getName(), bestPair.getPartitionIndex()), numOpticalDuplicates));
-        return output;
-    }
-
-    private static int countOpticalDuplicates(OpticalDuplicateFinder finder, List<Pair> scored, Pair best, List<Tuple2<IndexPair<String>,Integer>> opticalDuplicateList) {
-        final boolean[] opticalDuplicateFlags = finder.findOpticalDuplicates(scored, best);
-        int numOpticalDuplicates = 0;
-        for (int i = 0; i < opticalDuplicateFlags.length; i++) {
-            if (opticalDuplicateFlags[i]) {
-                numOpticalDuplicates++;
-                if (opticalDuplicateList != null) {
-                    opticalDuplicateList.add(new Tuple2<>(new IndexPair<>(scored.get(i).getName(), scored.get(i).getPartitionIndex()), MarkDuplicatesSpark.OPTICAL_DUPLICATE_MARKER));
-                }
-            }
-        }
-        return numOpticalDuplicates;
-    }
-
-    /**
-     * If there are fragments with no non-fragments overlapping at a site, select the best one according to PAIRED_ENDS_SCORE_COMPARATOR
-     */
-    private static Tuple2<IndexPair<String>, Integer> handleFragments(List<MarkDuplicatesSparkRecord> duplicateFragmentGroup, OpticalDuplicateFinder finder) {
-        return duplicateFragmentGroup.stream()
-                .map(f -> (Fragment)f)
-                .peek(f -> finder.addLocationInformation(f.getName(), f))
-                .max(PAIRED_ENDS_SCORE_COMPARATOR)
-                .map(best -> new Tuple2<>(new IndexPair<>(best.getName(), best.getPartitionIndex()), -1))
-                .orElse(null);
-    }
-
     static JavaPairRDD<String, GATKDuplicationMetrics> generateMetrics(final SAMFileHeader header, final JavaRDD<GATKRead> reads) {
         return reads.mapToPair(read -> {
                     final String library = LibraryIdGenerator.getLibraryName(header, read.getReadGroup());
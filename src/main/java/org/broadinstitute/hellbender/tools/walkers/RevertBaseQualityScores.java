@@ -8,6 +8,7 @@ import org.broadinstitute.hellbender.utils.io.IOUtils;
 import picard.cmdline.programgroups.ReadDataManipulationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadWorker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
@@ -45,8 +46,26 @@ public class RevertBaseQualityScores extends ReadWalker {
         return Collections.singletonList(ReadFilterLibrary.ALLOW_ALL_READS);
     }
 
+    @Override
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
+
+    @Override
+    protected ReadWorker makeReadWorker() {
+        return (read, referenceContext, featureContext) -> {
+            revertBaseQualities(read);
+            return () -> outputWriter.addRead(read);
+        };
+    }
+
     @Override
     public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext ) {
+        revertBaseQualities(read);
+        outputWriter.addRead(read);
+    }
+
+    private static void revertBaseQualities(final GATKRead read) {
         final byte[] originalQuals = ReadUtils.getOriginalBaseQualities(read);
         if ( originalQuals != null ){
             read.setBaseQualities(originalQuals);
@@ -54,7 +73,6 @@ public class RevertBaseQualityScores extends ReadWalker {
             throw new UserException("RevertQualityScores can only be applied to SAM/BAM files with original quality scores, "
                     + "caused by read: " + read.getName());
         }
-        outputWriter.addRead(read);
     }
 
     @Override
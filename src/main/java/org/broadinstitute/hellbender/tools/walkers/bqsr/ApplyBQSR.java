@@ -10,6 +10,7 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadWorker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.tools.ApplyBQSRArgumentCollection;
 import org.broadinstitute.hellbender.transformers.BQSRReadTransformer;
@@ -109,6 +110,19 @@ public final class ApplyBQSR extends ReadWalker{
         Utils.warnOnNonIlluminaReadGroups(getHeaderForReads(), logger);
     }
 
+    /**
+     * The reads are recalibrated by the post-transformer, which is run on the worker threads.
+     */
+    @Override
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
+
+    @Override
+    protected ReadWorker makeReadWorker() {
+        return (read, referenceContext, featureContext) -> () -> outputWriter.addRead(read);
+    }
+
     @Override
     public void apply( GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext ) {
         outputWriter.addRead(read);
@@ -72,6 +72,12 @@ import java.util.List;
  *   --known-sites another/optional/setOfSitesToMask.vcf \
  *   -O recal_data.table
  * </pre>
+ *
+ * <p>
+ * With {@code --read-threads N}, reads are recalibrated in batches by N independent threads, each with its own tables,
+ * which are merged at the end. The resulting table is the same as with a single thread, up to the rounding of
+ * the mismatch counts.
+ * </p>
  */
 
 @CommandLineProgramProperties(
@@ -117,6 +123,9 @@ public final class BaseRecalibrator extends ReadWalker {
 
     private BaseRecalibrationEngine recalibrationEngine;
 
+    // the engines of the read workers, when running with more than one read thread, in the order they were created
+    private final List<BaseRecalibrationEngine> workerEngines = new ArrayList<>();
+
     private ReferenceDataSource referenceDataSource; // datasource for the reference. We're using a different one from the engine itself to avoid messing with its caches.
 
     /**
@@ -141,11 +150,42 @@ public final class BaseRecalibrator extends ReadWalker {
 
         Utils.warnOnNonIlluminaReadGroups(getHeaderForReads(), logger);
 
-        recalibrationEngine = new BaseRecalibrationEngine(recalArgs, getHeaderForReads());
+        // the engines may set the platform of the read groups in their header, so with more than one read thread each
+        // engine gets its own copy rather than the header shared with the traversal
+        recalibrationEngine = new BaseRecalibrationEngine(recalArgs, readThreads > 1 ? getHeaderForReads().clone() : getHeaderForReads(), true);
         recalibrationEngine.logCovariatesUsed();
         referenceDataSource = ReferenceDataSource.of(referenceArguments.getReferencePath());
     }
 
+    /**
+     * Each read thread accumulates its own tables, which are merged in {@link #onTraversalSuccess}, so memory usage
+     * for the tables grows linearly with the number of threads.
+     */
+    @Override
+    protected boolean supportsMultiThreadedReadProcessing() {
+        return true;
+    }
+
+    @Override
+    protected ReadWorker makeReadWorker() {
+        final BaseRecalibrationEngine workerEngine = new BaseRecalibrationEngine(recalArgs, getHeaderForReads().clone(), true);
+        workerEngines.add(workerEngine);
+        // the engine reads the reference through a ReferenceDataSource, which is not thread-safe, so each worker opens its own
+        final ReferenceDataSource workerReference = ReferenceDataSource.of(referenceArguments.getReferencePath());
+        return new ReadWorker() {
+            @Override
+            public Runnable processRead( final GATKRead read, final ReferenceContext referenceContext, final FeatureContext featureContext ) {
+                workerEngine.processRead(read, workerReference, featureContext.getValues(knownSites));
+                return () -> {};
+            }
+
+            @Override
+            public void close() {
+                workerReference.close();
+            }
+        };
+    }
+
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
         return getStandardBQSRReadFilterList();
@@ -187,6 +227,7 @@ public final class BaseRecalibrator extends ReadWalker {
 
     @Override
     public Object onTraversalSuccess() {
+        workerEngines.forEach(recalibrationEngine::combine);
         recalibrationEngine.finalizeData();
 
         logger.info("Calculating quantized quality scores...");
@@ -200,6 +241,13 @@ public final class BaseRecalibrator extends ReadWalker {
         return recalibrationEngine.getNumReadsProcessed();
     }
 
+    @Override
+    public void closeTool() {
+        if ( referenceDataSource != null ) {
+            referenceDataSource.close();
+        }
+    }
+
     /**
      * go through the quality score table and use the # observations and the empirical quality score
      * to build a quality score histogram for quantization. Then use the QuantizeQual algorithm to
@@ -217,4 +265,4 @@ public final class BaseRecalibrator extends ReadWalker {
             throw new UserException.CouldNotCreateOutputFile(recalTableFile, e);
         }
     }
-}
\ No newline at end of file
+}
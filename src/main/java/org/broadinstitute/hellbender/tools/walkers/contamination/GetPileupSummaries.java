@@ -16,6 +16,7 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.GATKProtectedVariantContextUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 
@@ -141,10 +142,7 @@ public class GetPileupSummaries extends LocusWalker {
     @Argument(fullName = MIN_MAPPING_QUALITY_LONG_NAME, shortName = MIN_MAPPING_QUALITY_SHORT_NAME, doc = "Minimum read mapping quality", optional = true)
     private int minMappingQuality = DEFAULT_MINIMUM_MAPPING_QUALITY;
 
-    private final List<PileupSummary> pileupSummaries = new ArrayList<>();
-
-    private boolean sawVariantsWithoutAlleleFrequency = false;
-    private boolean sawVariantsWithAlleleFrequency = false;
+    private final PileupSummaryCollector allSites = new PileupSummaryCollector(true);
 
     @Override
     public boolean requiresReads() {
@@ -192,41 +190,101 @@ public class GetPileupSummaries extends LocusWalker {
     }
 
     @Override
-    public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
-        final List<VariantContext> vcs = featureContext.getValues(variants);
-        if (vcs.isEmpty()) {
-            return;
-        }
-        final VariantContext vc = vcs.get(0);
+    protected boolean supportsMultiThreadedLocusTraversal() {
+        return true;
+    }
 
-        if ( vc.isBiallelic() && vc.isSNP() && alleleFrequencyInRange(vc) ) {
-            final ReadPileup pileup = alignmentContext.getBasePileup()
-                    .makeFilteredPileup(pe -> pe.getRead().getMappingQuality() >= minMappingQuality);
-            pileupSummaries.add(new PileupSummary(vc, pileup));
-        }
+    /**
+     * Each shard collects the summaries of its sites separately, and they are appended to those of the previous
+     * shards in shard order.
+     */
+    @Override
+    protected LocusWorker makeLocusWorker() {
+        final PileupSummaryCollector shardSites = new PileupSummaryCollector(false);
+        return new LocusWorker() {
+            @Override
+            public void apply(final AlignmentContext alignmentContext, final ReferenceContext referenceContext, final FeatureContext featureContext) {
+                shardSites.collect(alignmentContext, featureContext);
+            }
+
+            @Override
+            public void mergeResults() {
+                allSites.add(shardSites);
+            }
+        };
+    }
+
+    @Override
+    public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
+        allSites.collect(alignmentContext, featureContext);
     }
 
     @Override
     public Object onTraversalSuccess() {
-        if (sawVariantsWithoutAlleleFrequency && !sawVariantsWithAlleleFrequency) {
+        if (allSites.firstVariantWithoutAlleleFrequency != null && !allSites.sawVariantsWithAlleleFrequency) {
             throw new UserException.BadInput("No variants in population vcf had an allele frequency (AF) field.");
         }
         final String sampleName = ReadUtils.getSamplesFromHeader(getHeaderForReads()).stream().findFirst().get();
-        PileupSummary.writeToFile(sampleName, pileupSummaries, outputTable);
+        PileupSummary.writeToFile(sampleName, allSites.pileupSummaries, outputTable);
         return "SUCCESS";
     }
 
-    private boolean alleleFrequencyInRange(final VariantContext vc) {
-        if (!vc.hasAttribute(VCFConstants.ALLELE_FREQUENCY_KEY)) {
-            if (!sawVariantsWithoutAlleleFrequency) {
-                logger.warn(String.format("Variant context at %s:%d lacks allele frequency (AF) field.", vc.getContig(), vc.getStart()));
-                sawVariantsWithoutAlleleFrequency = true;
+    /**
+     * Summarizes the pileups at the population sites of a set of loci.
+     */
+    private final class PileupSummaryCollector {
+        private final List<PileupSummary> pileupSummaries = new ArrayList<>();
+
+        // only the collector of the whole run warns about variants without an allele frequency, so that the warning is
+        // given once, for the same variant as in a single-threaded traversal, rather than once per shard
+        private final boolean warnAboutVariantsWithoutAlleleFrequency;
+        private SimpleInterval firstVariantWithoutAlleleFrequency = null;
+        private boolean sawVariantsWithAlleleFrequency = false;
+
+        private PileupSummaryCollector(final boolean warnAboutVariantsWithoutAlleleFrequency) {
+            this.warnAboutVariantsWithoutAlleleFrequency = warnAboutVariantsWithoutAlleleFrequency;
+        }
+
+        private void collect(final AlignmentContext alignmentContext, final FeatureContext featureContext) {
+            final List<VariantContext> vcs = featureContext.getValues(variants);
+            if (vcs.isEmpty()) {
+                return;
+            }
+            final VariantContext vc = vcs.get(0);
+
+            if ( vc.isBiallelic() && vc.isSNP() && alleleFrequencyInRange(vc) ) {
+                final ReadPileup pileup = alignmentContext.getBasePileup()
+                        .makeFilteredPileup(pe -> pe.getRead().getMappingQuality() >= minMappingQuality);
+                pileupSummaries.add(new PileupSummary(vc, pileup));
+            }
+        }
+
+        private void add(final PileupSummaryCollector other) {
+            pileupSummaries.addAll(other.pileupSummaries);
+            if (other.firstVariantWithoutAlleleFrequency != null) {
+                sawVariantWithoutAlleleFrequency(other.firstVariantWithoutAlleleFrequency);
+            }
+            sawVariantsWithAlleleFrequency |= other.sawVariantsWithAlleleFrequency;
+        }
+
+        private void sawVariantWithoutAlleleFrequency(final SimpleInterval site) {
+            if (firstVariantWithoutAlleleFrequency == null) {
+                firstVariantWithoutAlleleFrequency = site;
+                if (warnAboutVariantsWithoutAlleleFrequency) {
+                    logger.warn(String.format("Variant context at %s:%d lacks allele frequency (AF) field.", site.getContig(), site.getStart()));
+                }
+            }
+        }
+
+        private boolean alleleFrequencyInRange(final VariantContext vc) {
+            if (!vc.hasAttribute(VCFConstants.ALLELE_FREQUENCY_KEY)) {
+                sawVariantWithoutAlleleFrequency(new SimpleInterval(vc.getContig(), vc.getStart(), vc.getStart()));
+                return false;
+            } else {
+                sawVariantsWithAlleleFrequency = true;
+                final double alleleFrequency = vc.getAttributeAsDouble(VCFConstants.ALLELE_FREQUENCY_KEY, -1.0);
+                return minPopulationAlleleFrequency < alleleFrequency && alleleFrequency < maxPopulationAlleleFrequency;
             }
-            return false;
-        } else {
-            sawVariantsWithAlleleFrequency = true;
-            final double alleleFrequency = vc.getAttributeAsDouble(VCFConstants.ALLELE_FREQUENCY_KEY, -1.0);
-            return minPopulationAlleleFrequency < alleleFrequency && alleleFrequency < maxPopulationAlleleFrequency;
         }
     }
 }
@@ -10,6 +10,9 @@ import htsjdk.variant.variantcontext.VariantContext;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.engine.AlignmentContext;
 import org.broadinstitute.hellbender.engine.AssemblyRegion;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.engine.ReferenceDataSourceSequenceFile;
+import org.broadinstitute.hellbender.engine.ReferenceTwoBitSource;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading.ReadThreadingAssembler;
 import org.broadinstitute.hellbender.utils.QualityUtils;
@@ -35,6 +38,7 @@ import org.broadinstitute.hellbender.utils.smithwaterman.SmithWatermanAligner;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -173,9 +177,16 @@ public final class AssemblyBasedCallerUtils {
         return new SimpleInterval(region.getExtendedSpan().getContig(), padLeft, padRight);
     }
 
-    public static CachingIndexedFastaSequenceFile createReferenceReader(final String reference) {
-        // fasta reference reader to supplement the edges of the reference sequence
-        return new CachingIndexedFastaSequenceFile(IOUtils.getPath(reference));
+    /**
+     * Create the reader used to supplement the edges of the reference sequence: a caching fasta reader, or for a .2bit
+     * reference, a view of its {@link ReferenceDataSource}.
+     */
+    public static ReferenceSequenceFile createReferenceReader(final String reference) {
+        final Path referencePath = IOUtils.getPath(reference);
+        if ( ReferenceTwoBitSource.isTwoBit(referencePath) ) {
+            return new ReferenceDataSourceSequenceFile(ReferenceDataSource.of(referencePath));
+        }
+        return new CachingIndexedFastaSequenceFile(referencePath);
     }
 
     /**
@@ -189,7 +200,7 @@ public final class AssemblyBasedCallerUtils {
 
         switch ( likelihoodArgs.likelihoodEngineImplementation) {
             case PairHMM:
-                return new PairHMMLikelihoodCalculationEngine((byte) likelihoodArgs.gcpHMM, likelihoodArgs.pairHMMNativeArgs.getPairHMMArgs(), likelihoodArgs.pairHMM, log10GlobalReadMismappingRate, likelihoodArgs.pcrErrorModel, likelihoodArgs.BASE_QUALITY_SCORE_THRESHOLD);
+                return new PairHMMLikelihoodCalculationEngine((byte) likelihoodArgs.gcpHMM, likelihoodArgs.pairHMMNativeArgs.getPairHMMArgs(), likelihoodArgs.pairHMM, log10GlobalReadMismappingRate, likelihoodArgs.pcrErrorModel, likelihoodArgs.BASE_QUALITY_SCORE_THRESHOLD, likelihoodArgs.pairHMMLikelihoodCacheSize);
             case Random:
                 return new RandomLikelihoodCalculationEngine();
             default:
@@ -1,6 +1,8 @@
 package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
 
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
@@ -14,10 +16,7 @@ import org.broadinstitute.hellbender.engine.*;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.tools.walkers.annotator.Annotation;
 import org.broadinstitute.hellbender.tools.walkers.annotator.VariantAnnotatorEngine;
-import org.broadinstitute.hellbender.utils.fasta.CachingIndexedFastaSequenceFile;
-import org.broadinstitute.hellbender.utils.io.IOUtils;
 
-import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 
@@ -220,9 +219,12 @@ public final class HaplotypeCaller extends AssemblyRegionWalker {
             logger.warn("*************************************************************************");
         }
 
-        final VariantAnnotatorEngine variantAnnotatorEngine = new VariantAnnotatorEngine(makeVariantAnnotations(),
-                hcArgs.dbsnp.dbsnp, hcArgs.comps,  hcArgs.emitReferenceConfidence != ReferenceConfidenceMode.NONE);
-        hcEngine = new HaplotypeCallerEngine(hcArgs, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(), getReferenceReader(referenceArguments), variantAnnotatorEngine);
+        if ( assemblyRegionThreads > 1 && hcArgs.bamOutputPath != null ) {
+            throw new CommandLineException.BadArgumentValue(ASSEMBLY_REGION_THREADS_LONG_NAME, Integer.toString(assemblyRegionThreads),
+                    "multi-threaded assembly region processing does not support --" + AssemblyBasedCallerArgumentCollection.BAM_OUTPUT_LONG_NAME);
+        }
+
+        hcEngine = makeHaplotypeCallerEngine();
 
         // The HC engine will make the right kind (VCF or GVCF) of writer for us
         final SAMSequenceDictionary sequenceDictionary = getHeaderForReads().getSequenceDictionary();
@@ -230,9 +232,14 @@ public final class HaplotypeCaller extends AssemblyRegionWalker {
         hcEngine.writeHeader(vcfWriter, sequenceDictionary, getDefaultToolVCFHeaderLines());
     }
 
-    private static CachingIndexedFastaSequenceFile getReferenceReader(ReferenceInputArgumentCollection referenceArguments) {
-        final Path reference = IOUtils.getPath(referenceArguments.getReferenceFileName());
-        return new CachingIndexedFastaSequenceFile(reference);
+    private HaplotypeCallerEngine makeHaplotypeCallerEngine() {
+        final VariantAnnotatorEngine variantAnnotatorEngine = new VariantAnnotatorEngine(makeVariantAnnotations(),
+                hcArgs.dbsnp.dbsnp, hcArgs.comps,  hcArgs.emitReferenceConfidence != ReferenceConfidenceMode.NONE);
+        return new HaplotypeCallerEngine(hcArgs, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(), getReferenceReader(referenceArguments), variantAnnotatorEngine);
+    }
+
+    private static ReferenceSequenceFile getReferenceReader(ReferenceInputArgumentCollection referenceArguments) {
+        return AssemblyBasedCallerUtils.createReferenceReader(referenceArguments.getReferenceFileName());
     }
 
     @Override
@@ -240,6 +247,30 @@ public final class HaplotypeCaller extends AssemblyRegionWalker {
         hcEngine.callRegion(region, featureContext).forEach(vcfWriter::add);
     }
 
+    @Override
+    protected boolean supportsMultiThreadedAssemblyRegionProcessing() { return true; }
+
+    /**
+     * Each worker gets its own HaplotypeCallerEngine, and therefore its own assembler, PairHMM, Smith-Waterman aligner
+     * and reference reader. The main engine is still used for active region determination.
+     */
+    @Override
+    protected AssemblyRegionWorker makeAssemblyRegionWorker() {
+        final HaplotypeCallerEngine workerEngine = makeHaplotypeCallerEngine();
+        return new AssemblyRegionWorker() {
+            @Override
+            public Runnable processRegion(final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext) {
+                final List<VariantContext> calls = workerEngine.callRegion(region, featureContext);
+                return () -> calls.forEach(vcfWriter::add);
+            }
+
+            @Override
+            public void close() {
+                workerEngine.shutdown();
+            }
+        };
+    }
+
     @Override
     public void closeTool() {
         if ( vcfWriter != null ) {
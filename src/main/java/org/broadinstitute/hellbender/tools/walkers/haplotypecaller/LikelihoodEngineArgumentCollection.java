@@ -68,6 +68,16 @@ public final class LikelihoodEngineArgumentCollection implements Serializable {
     @Argument(fullName="phred-scaled-global-read-mismapping-rate", doc="The global assumed mismapping rate for reads", optional = true)
     public int phredScaledGlobalReadMismappingRate = 45;
 
+    /**
+     * Maximum number of read-haplotype likelihoods to keep in an LRU cache, so that reads re-scored against identical
+     * haplotypes in overlapping or adjacent active regions don't go through the PairHMM again. Reads are matched on
+     * their bases and their (PCR error model adjusted) base, insertion and deletion qualities. The cache hit rate is
+     * reported at the end of the run, to help tune this value. 0 disables the cache.
+     */
+    @Advanced
+    @Argument(fullName="pair-hmm-likelihood-cache-size", doc="Maximum number of read-haplotype likelihoods to cache across active regions (0 disables the cache)", optional = true, minValue = 0)
+    public int pairHMMLikelihoodCacheSize = 0;
+
     @ArgumentCollection
     public PairHMMNativeArgumentCollection pairHMMNativeArgs = new PairHMMNativeArgumentCollection();
 
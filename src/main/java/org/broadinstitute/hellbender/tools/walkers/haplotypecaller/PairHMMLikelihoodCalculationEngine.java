@@ -7,6 +7,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.gatk.nativebindings.pairhmm.PairHMMNativeArguments;
 import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.LRUCache;
 import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.QualityUtils;
 import org.broadinstitute.hellbender.utils.Utils;
@@ -79,6 +80,14 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
      * For example, if this is 0.01, then we'd expect 1 error per 100 bp.
      */
     private static final double EXPECTED_ERROR_RATE_PER_BASE = 0.02;
+
+    /**
+     * Cache of log10 likelihoods of reads given haplotypes, shared across calls to {@link #computeReadLikelihoods},
+     * or null if caching is disabled. The gap continuation penalty is constant for this engine, so it is not part of the key.
+     */
+    private final LRUCache<ReadHaplotypeKey, Double> likelihoodCache;
+    private long likelihoodCacheHits = 0;
+    private long likelihoodCacheMisses = 0;
     
     /**
      * Create a new PairHMMLikelihoodCalculationEngine using provided parameters and hmm to do its calculations
@@ -126,6 +135,35 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
                                               final double log10globalReadMismappingRate,
                                               final PCRErrorModel pcrErrorModel,
                                               final byte baseQualityScoreThreshold) {
+        this( constantGCP, arguments, hmmType, log10globalReadMismappingRate, pcrErrorModel, baseQualityScoreThreshold, 0 );
+    }
+
+    /**
+     * Create a new PairHMMLikelihoodCalculationEngine using provided parameters and hmm to do its calculations
+     *
+     * @param constantGCP the gap continuation penalty to use with the PairHMM
+     * @param hmmType the type of the HMM to use
+     * @param log10globalReadMismappingRate the global mismapping probability, in log10(prob) units.  A value of
+     *                                      -3 means that the chance that a read doesn't actually belong at this
+     *                                      location in the genome is 1 in 1000.  The effect of this parameter is
+     *                                      to cap the maximum likelihood difference between the reference haplotype
+     *                                      and the best alternative haplotype by -3 log units.  So if the best
+     *                                      haplotype is at -10 and this parameter has a value of -3 then even if the
+     *                                      reference haplotype gets a score of -100 from the pairhmm it will be
+     *                                      assigned a likelihood of -13.
+     * @param pcrErrorModel model to correct for PCR indel artifacts
+     * @param baseQualityScoreThreshold Base qualities below this threshold will be reduced to the minimum usable base
+     *                                  quality.
+     * @param likelihoodCacheSize maximum number of read-haplotype likelihoods to cache across calls to
+     *                            {@link #computeReadLikelihoods}, or 0 to disable the cache.
+     */
+    public PairHMMLikelihoodCalculationEngine(final byte constantGCP,
+                                              final PairHMMNativeArguments arguments,
+                                              final PairHMM.Implementation hmmType,
+                                              final double log10globalReadMismappingRate,
+                                              final PCRErrorModel pcrErrorModel,
+                                              final byte baseQualityScoreThreshold,
+                                              final int likelihoodCacheSize) {
         Utils.nonNull(hmmType, "hmmType is null");
         Utils.nonNull(pcrErrorModel, "pcrErrorModel is null");
         if (constantGCP < 0){
@@ -147,6 +185,9 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
             throw new IllegalArgumentException("baseQualityScoreThreshold must be greater than or equal to " + QualityUtils.MIN_USABLE_Q_SCORE + " (QualityUtils.MIN_USABLE_Q_SCORE)");
         }
         this.baseQualityScoreThreshold = baseQualityScoreThreshold;
+
+        Utils.validateArg(likelihoodCacheSize >= 0, () -> "likelihoodCacheSize must be >= 0 but got " + likelihoodCacheSize);
+        this.likelihoodCache = likelihoodCacheSize > 0 ? new LRUCache<>(likelihoodCacheSize) : null;
     }
 
     private PrintStream makeLikelihoodStream() {
@@ -162,6 +203,12 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
         if ( likelihoodsStream != null ) {
             likelihoodsStream.close();
         }
+        if ( likelihoodCache != null ) {
+            final long lookups = likelihoodCacheHits + likelihoodCacheMisses;
+            logger.info(String.format("PairHMM likelihood cache: %d hits, %d misses (%.2f%% hit rate), %d of %d entries used",
+                    likelihoodCacheHits, likelihoodCacheMisses, lookups == 0 ? 0.0 : 100.0 * likelihoodCacheHits / lookups,
+                    likelihoodCache.size(), likelihoodCache.getMaxCapacity()));
+        }
         pairHMM.close();
     }
 
@@ -249,11 +296,220 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
         final Map<GATKRead, byte[]> gapContinuationPenalties = buildGapContinuationPenalties(processedReads, constantGCP);
 
         // Run the PairHMM to calculate the log10 likelihood of each (processed) reads' arising from each haplotype
-        pairHMM.computeLog10Likelihoods(likelihoods, processedReads, gapContinuationPenalties);
+        if ( likelihoodCache == null ) {
+            pairHMM.computeLog10Likelihoods(likelihoods, processedReads, gapContinuationPenalties);
+        } else {
+            computeLog10LikelihoodsUsingCache(likelihoods, processedReads, gapContinuationPenalties);
+        }
 
         writeDebugLikelihoods(likelihoods);
     }
 
+    /**
+     * Fill in the likelihoods of reads whose likelihoods given every haplotype are already in the cache, and run the PairHMM
+     * (which works on whole reads x haplotypes batches) on the remaining reads only, adding their likelihoods to the cache.
+     */
+    private void computeLog10LikelihoodsUsingCache(final LikelihoodMatrix<Haplotype> likelihoods,
+                                                   final List<GATKRead> processedReads,
+                                                   final Map<GATKRead, byte[]> gapContinuationPenalties) {
+        final List<Haplotype> haplotypes = likelihoods.alleles();
+        final int haplotypeCount = haplotypes.size();
+        final int[] haplotypeHashes = haplotypes.stream().mapToInt(h -> Arrays.hashCode(h.getBases())).toArray();
+
+        final List<ReadHaplotypeKey[]> uncachedReadKeys = new ArrayList<>();
+        final List<Integer> uncachedReadIndices = new ArrayList<>();
+        final double[] cachedLikelihoods = new double[haplotypeCount];
+        for ( int r = 0; r < processedReads.size(); r++ ) {
+            final ReadKey readKey = new ReadKey(processedReads.get(r));
+            final ReadHaplotypeKey[] keys = new ReadHaplotypeKey[haplotypeCount];
+            boolean allCached = true;
+            for ( int h = 0; h < haplotypeCount; h++ ) {
+                keys[h] = new ReadHaplotypeKey(readKey, haplotypes.get(h).getBases(), haplotypeHashes[h]);
+                final Double cached = allCached ? likelihoodCache.get(keys[h]) : null;
+                if ( cached == null ) {
+                    allCached = false;
+                } else {
+                    cachedLikelihoods[h] = cached;
+                }
+            }
+
+            if ( allCached ) {
+                likelihoodCacheHits += haplotypeCount;
+                for ( int h = 0; h < haplotypeCount; h++ ) {
+                    likelihoods.set(h, r, cachedLikelihoods[h]);
+                }
+            } else {
+                likelihoodCacheMisses += haplotypeCount;
+                uncachedReadIndices.add(r);
+                uncachedReadKeys.add(keys);
+            }
+        }
+
+        if ( uncachedReadIndices.isEmpty() ) {
+            return;
+        }
+        final ReadSubsetLikelihoodMatrix uncachedLikelihoods = new ReadSubsetLikelihoodMatrix(likelihoods, uncachedReadIndices);
+        final List<GATKRead> uncachedReads = new ArrayList<>(uncachedReadIndices.size());
+        uncachedReadIndices.forEach(r -> uncachedReads.add(processedReads.get(r)));
+        pairHMM.computeLog10Likelihoods(uncachedLikelihoods, uncachedReads, gapContinuationPenalties);
+
+        for ( int r = 0; r < uncachedReadIndices.size(); r++ ) {
+            final ReadHaplotypeKey[] keys = uncachedReadKeys.get(r);
+            for ( int h = 0; h < haplotypeCount; h++ ) {
+                likelihoodCache.put(keys[h], uncachedLikelihoods.get(h, r));
+            }
+        }
+    }
+
+    @VisibleForTesting
+    long getLikelihoodCacheHits() {
+        return likelihoodCacheHits;
+    }
+
+    @VisibleForTesting
+    long getLikelihoodCacheMisses() {
+        return likelihoodCacheMisses;
+    }
+
+    /**
+     * The values of a processed read that determine its likelihoods given a haplotype.
+     * Keeps references to (rather than copies of) the arrays of the processed read, which are never modified.
+     */
+    private static final class ReadKey {
+        private final byte[] bases;
+        private final byte[] quals;
+        private final byte[] insertionQuals;
+        private final byte[] deletionQuals;
+        private final int hashCode;
+
+        ReadKey(final GATKRead processedRead) {
+            bases = processedRead.getBases();
+            quals = processedRead.getBaseQualities();
+            insertionQuals = ReadUtils.getBaseInsertionQualities(processedRead);
+            deletionQuals = ReadUtils.getBaseDeletionQualities(processedRead);
+            hashCode = Objects.hash(Arrays.hashCode(bases), Arrays.hashCode(quals), Arrays.hashCode(insertionQuals), Arrays.hashCode(deletionQuals));
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof ReadKey) ) {
+                return false;
+            }
+            final ReadKey other = (ReadKey) o;
+            return hashCode == other.hashCode && Arrays.equals(bases, other.bases) && Arrays.equals(quals, other.quals)
+                    && Arrays.equals(insertionQuals, other.insertionQuals) && Arrays.equals(deletionQuals, other.deletionQuals);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class ReadHaplotypeKey {
+        private final ReadKey read;
+        private final byte[] haplotypeBases;
+        private final int hashCode;
+
+        ReadHaplotypeKey(final ReadKey read, final byte[] haplotypeBases, final int haplotypeHashCode) {
+            this.read = read;
+            this.haplotypeBases = haplotypeBases;
+            this.hashCode = 31 * read.hashCode() + haplotypeHashCode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof ReadHaplotypeKey) ) {
+                return false;
+            }
+            final ReadHaplotypeKey other = (ReadHaplotypeKey) o;
+            return hashCode == other.hashCode && Arrays.equals(haplotypeBases, other.haplotypeBases) && read.equals(other.read);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * View of a subset of the reads of a likelihood matrix, with reads indexed by their position in the subset.
+     */
+    private static final class ReadSubsetLikelihoodMatrix implements LikelihoodMatrix<Haplotype> {
+        private final LikelihoodMatrix<Haplotype> matrix;
+        private final List<Integer> readIndices;
+
+        ReadSubsetLikelihoodMatrix(final LikelihoodMatrix<Haplotype> matrix, final List<Integer> readIndices) {
+            this.matrix = matrix;
+            this.readIndices = readIndices;
+        }
+
+        @Override
+        public List<GATKRead> reads() {
+            final List<GATKRead> reads = new ArrayList<>(readIndices.size());
+            readIndices.forEach(r -> reads.add(matrix.getRead(r)));
+            return reads;
+        }
+
+        @Override
+        public List<Haplotype> alleles() {
+            return matrix.alleles();
+        }
+
+        @Override
+        public void set(final int alleleIndex, final int readIndex, final double value) {
+            matrix.set(alleleIndex, readIndices.get(readIndex), value);
+        }
+
+        @Override
+        public double get(final int alleleIndex, final int readIndex) {
+            return matrix.get(alleleIndex, readIndices.get(readIndex));
+        }
+
+        @Override
+        public int indexOfAllele(final Haplotype allele) {
+            return matrix.indexOfAllele(allele);
+        }
+
+        @Override
+        public int indexOfRead(final GATKRead read) {
+            return readIndices.indexOf(matrix.indexOfRead(read));
+        }
+
+        @Override
+        public int numberOfAlleles() {
+            return matrix.numberOfAlleles();
+        }
+
+        @Override
+        public int numberOfReads() {
+            return readIndices.size();
+        }
+
+        @Override
+        public Haplotype getAllele(final int alleleIndex) {
+            return matrix.getAllele(alleleIndex);
+        }
+
+        @Override
+        public GATKRead getRead(final int readIndex) {
+            return matrix.getRead(readIndices.get(readIndex));
+        }
+
+        @Override
+        public void copyAlleleLikelihoods(final int alleleIndex, final double[] dest, final int offset) {
+            for ( int r = 0; r < readIndices.size(); r++ ) {
+                dest[offset + r] = get(alleleIndex, r);
+            }
+        }
+    }
+
     /**
      * Pre-processing of the reads to be evaluated at the current location from the current sample.
      * We apply the PCR Error Model, and cap the minimum base, insertion, and deletion qualities of each read.
@@ -0,0 +1,156 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading;
+
+import com.google.common.annotations.VisibleForTesting;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.Kmer;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map from fixed-size kmers to values, keyed directly by the position of the kmer in a larger sequence so that
+ * lookups don't have to create a {@link Kmer}.
+ *
+ * For kmer sizes up to {@link #MAX_PACKED_KMER_SIZE}, kmers made up only of the (upper case) bases A, C, G and T are
+ * packed 2 bits per base into a long and stored in an open-addressing primitive map. Any other kmer (containing an
+ * N, an IUPAC code, a lower case base, etc.) and all kmers of larger sizes fall back to a {@link Kmer}-keyed map, so
+ * two kmers are mapped to the same value exactly when they would be equal as {@link Kmer}s.
+ */
+final class PackedKmerMap<V> {
+    /**
+     * Largest kmer size that can be packed into a long. We stop one base short of 32 to keep packed keys non-negative,
+     * which leaves {@link #UNPACKABLE} free to mark kmers that can't be packed.
+     */
+    static final int MAX_PACKED_KMER_SIZE = 31;
+
+    private static final long UNPACKABLE = -1L;
+
+    private final int kmerSize;
+    private final boolean packingEnabled;
+    private final Long2ObjectOpenHashMap<V> packedKmers;
+    private final Map<Kmer, V> unpackedKmers = new LinkedHashMap<>();
+
+    /**
+     * @param kmerSize size of the kmers stored in this map, must be > 0
+     * @param expectedSize expected number of kmers in the map, used to avoid rehashing
+     */
+    PackedKmerMap(final int kmerSize, final int expectedSize) {
+        Utils.validateArg(kmerSize > 0, () -> "kmerSize must be > 0 but got " + kmerSize);
+        Utils.validateArg(expectedSize >= 0, () -> "expectedSize must be >= 0 but got " + expectedSize);
+        this.kmerSize = kmerSize;
+        packingEnabled = kmerSize <= MAX_PACKED_KMER_SIZE;
+        packedKmers = new Long2ObjectOpenHashMap<>(packingEnabled ? expectedSize : 0);
+    }
+
+    PackedKmerMap(final int kmerSize) {
+        this(kmerSize, Long2ObjectOpenHashMap.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * @return the value for the kmer of {@code kmerSize} bases starting at {@code start} in {@code sequence}, or null if there is none
+     */
+    V get(final byte[] sequence, final int start) {
+        final long key = pack(sequence, start);
+        return key != UNPACKABLE ? packedKmers.get(key) : unpackedKmers.get(new Kmer(sequence, start, kmerSize));
+    }
+
+    /**
+     * @return the value for {@code kmer}, or null if there is none (including if {@code kmer} is not of {@code kmerSize} bases)
+     */
+    V get(final Kmer kmer) {
+        return kmer.length() == kmerSize ? get(kmer.bases(), 0) : null;
+    }
+
+    boolean containsKey(final byte[] sequence, final int start) {
+        final long key = pack(sequence, start);
+        return key != UNPACKABLE ? packedKmers.containsKey(key) : unpackedKmers.containsKey(new Kmer(sequence, start, kmerSize));
+    }
+
+    /**
+     * Associate the kmer starting at {@code start} in {@code sequence} with {@code value}, unless it is already in the map.
+     * If the kmer can't be packed, the map keeps a reference to {@code sequence}, which must not be modified afterwards.
+     *
+     * @param value non-null value
+     * @return the value already associated with the kmer, or null if there was none and {@code value} was added
+     */
+    V putIfAbsent(final byte[] sequence, final int start, final V value) {
+        Utils.nonNull(value);
+        final long key = pack(sequence, start);
+        if ( key == UNPACKABLE ) {
+            return unpackedKmers.putIfAbsent(new Kmer(sequence, start, kmerSize), value);
+        }
+        // fastutil 7 has no primitive putIfAbsent, and values are never null, so a get then put is equivalent
+        final V previousValue = packedKmers.get(key);
+        if ( previousValue == null ) {
+            packedKmers.put(key, value);
+        }
+        return previousValue;
+    }
+
+    /**
+     * @return the value that was associated with the kmer starting at {@code start} in {@code sequence}, or null if there was none
+     */
+    V remove(final byte[] sequence, final int start) {
+        final long key = pack(sequence, start);
+        return key != UNPACKABLE ? packedKmers.remove(key) : unpackedKmers.remove(new Kmer(sequence, start, kmerSize));
+    }
+
+    /**
+     * @return the value that was associated with {@code kmer}, or null if there was none (including if {@code kmer} is not of {@code kmerSize} bases)
+     */
+    V remove(final Kmer kmer) {
+        return kmer.length() == kmerSize ? remove(kmer.bases(), 0) : null;
+    }
+
+    void clear() {
+        packedKmers.clear();
+        unpackedKmers.clear();
+    }
+
+    int size() {
+        return packedKmers.size() + unpackedKmers.size();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return a new collection with all values in the map, in no particular order
+     */
+    Collection<V> values() {
+        final Collection<V> values = new ArrayList<>(size());
+        values.addAll(packedKmers.values());
+        values.addAll(unpackedKmers.values());
+        return values;
+    }
+
+    /**
+     * Pack the kmer starting at {@code start} in {@code sequence} 2 bits per base.
+     *
+     * @return the packed kmer, or {@link #UNPACKABLE} if packing is disabled or the kmer contains bases other than A, C, G and T
+     */
+    @VisibleForTesting
+    long pack(final byte[] sequence, final int start) {
+        if ( ! packingEnabled ) {
+            return UNPACKABLE;
+        }
+
+        long key = 0;
+        for ( int i = start; i < start + kmerSize; i++ ) {
+            final long code;
+            switch ( sequence[i] ) {
+                case 'A': code = 0; break;
+                case 'C': code = 1; break;
+                case 'G': code = 2; break;
+                case 'T': code = 3; break;
+                default: return UNPACKABLE;
+            }
+            key = (key << 2) | code;
+        }
+        return key;
+    }
+}
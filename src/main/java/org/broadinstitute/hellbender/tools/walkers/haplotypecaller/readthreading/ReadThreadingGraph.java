@@ -56,14 +56,14 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
     private final Map<String, List<SequenceForKmers>> pending = new LinkedHashMap<>();
 
     /**
-     * A set of non-unique kmers that cannot be used as merge points in the graph
+     * The non-unique kmers that cannot be used as merge points in the graph, each one mapped to itself
      */
-    private Set<Kmer> nonUniqueKmers;
+    private PackedKmerMap<Kmer> nonUniqueKmers;
 
     /**
      * A map from kmers -> their corresponding vertex in the graph
      */
-    private final Map<Kmer, MultiDeBruijnVertex> uniqueKmers = new LinkedHashMap<>();
+    private final PackedKmerMap<MultiDeBruijnVertex> uniqueKmers;
 
     private final boolean debugGraphTransformations;
     private final byte minBaseQualityToUseInAssembly;
@@ -97,6 +97,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
     @VisibleForTesting
     protected ReadThreadingGraph(final int kmerSizeFromString, final EdgeFactory<MultiDeBruijnVertex, MultiSampleEdge> edgeFactory) {
         super(kmerSizeFromString, new MyEdgeFactory(1));
+        uniqueKmers = new PackedKmerMap<>(kmerSizeFromString);
         debugGraphTransformations = false;
         minBaseQualityToUseInAssembly = 0;
     }
@@ -144,6 +145,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
         super(kmerSize, new MyEdgeFactory(numPruningSamples));
 
         Utils.validateArg( kmerSize > 0, () -> "bad minkKmerSize " + kmerSize);
+        uniqueKmers = new PackedKmerMap<>(kmerSize);
 
         this.debugGraphTransformations = debugGraphTransformations;
         this.minBaseQualityToUseInAssembly = minBaseQualityToUseInAssembly;
@@ -268,8 +270,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
         }
 
         for ( int i = seqForKmers.start; i < seqForKmers.stop - kmerSize; i++ ) {
-            final Kmer kmer1 = new Kmer(seqForKmers.sequence, i, kmerSize);
-            if ( isThreadingStart(kmer1) ) {
+            if ( isThreadingStart(seqForKmers.sequence, i) ) {
                 return i;
             }
         }
@@ -283,12 +284,13 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
      * @see #setThreadingStartOnlyAtExistingVertex(boolean)
      * @see #getThreadingStartOnlyAtExistingVertex()
      *
-     * @param kmer the query kmer.
+     * @param sequence the sequence containing the query kmer.
+     * @param start the start of the query kmer in {@code sequence}.
      * @return {@code true} if we can start thread the sequence at this kmer, {@code false} otherwise.
      */
-    private boolean isThreadingStart(final Kmer kmer) {
-        Utils.nonNull(kmer);
-        return startThreadingOnlyAtExistingVertex ? uniqueKmers.containsKey(kmer) : !nonUniqueKmers.contains(kmer);
+    private boolean isThreadingStart(final byte[] sequence, final int start) {
+        Utils.nonNull(sequence);
+        return startThreadingOnlyAtExistingVertex ? uniqueKmers.containsKey(sequence, start) : !nonUniqueKmers.containsKey(sequence, start);
     }
 
     /**
@@ -312,7 +314,10 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
 
         // determine the kmer size we'll use, and capture the set of nonUniques for that kmer size
         final NonUniqueResult result = determineKmerSizeAndNonUniques(kmerSize, kmerSize);
-        nonUniqueKmers = result.nonUniques;
+        nonUniqueKmers = new PackedKmerMap<>(kmerSize, result.nonUniques.size());
+        for ( final Kmer nonUniqueKmer : result.nonUniques ) {
+            nonUniqueKmers.putIfAbsent(nonUniqueKmer.bases(), 0, nonUniqueKmer);
+        }
 
         if ( DEBUG_NON_UNIQUE_CALC ) {
             logger.info("using " + kmerSize + " kmer size for this assembly with the following non-uniques");
@@ -346,9 +351,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
     public boolean removeVertex(final MultiDeBruijnVertex V) {
         final boolean result = super.removeVertex(V);
         if (result) {
-            final byte[] sequence = V.getSequence();
-            final Kmer kmer = new Kmer(sequence);
-            uniqueKmers.remove(kmer);
+            uniqueKmers.remove(new Kmer(V.getSequence()));
         }
         return result;
     }
@@ -1018,13 +1021,12 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
      */
     static Collection<Kmer> determineNonUniqueKmers(final SequenceForKmers seqForKmers, final int kmerSize) {
         // count up occurrences of kmers within each read
-        final Set<Kmer> allKmers = new LinkedHashSet<>();
-        final List<Kmer> nonUniqueKmers = new ArrayList<>();
         final int stopPosition = seqForKmers.stop - kmerSize;
+        final PackedKmerMap<Boolean> allKmers = new PackedKmerMap<>(kmerSize, Math.max(stopPosition + 1, 0));
+        final List<Kmer> nonUniqueKmers = new ArrayList<>();
         for (int i = 0; i <= stopPosition; i++) {
-            final Kmer kmer = new Kmer(seqForKmers.sequence, i, kmerSize);
-            if (!allKmers.add(kmer)) {
-                nonUniqueKmers.add(kmer);
+            if (allKmers.putIfAbsent(seqForKmers.sequence, i, Boolean.TRUE) != null) {
+                nonUniqueKmers.add(new Kmer(seqForKmers.sequence, i, kmerSize));
             }
         }
         return nonUniqueKmers;
@@ -1062,36 +1064,53 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
      * @return a non-null vertex
      */
     private MultiDeBruijnVertex getOrCreateKmerVertex(final byte[] sequence, final int start) {
-        final Kmer kmer = new Kmer(sequence, start, kmerSize);
-        final MultiDeBruijnVertex vertex = getUniqueKmerVertex(kmer, true);
-        return ( vertex != null ) ? vertex : createVertex(kmer);
+        final MultiDeBruijnVertex vertex = getUniqueKmerVertex(sequence, start, true);
+        return ( vertex != null ) ? vertex : createVertex(sequence, start);
     }
 
     /**
-     * Get the unique vertex for kmer, or null if not possible.
+     * Get the unique vertex for the kmer in sequence starting at start, or null if not possible.
      *
      * @param allowRefSource if true, we will allow kmer to match the reference source vertex
      * @return a vertex for kmer, or null if it's not unique
      */
-    private MultiDeBruijnVertex getUniqueKmerVertex(final Kmer kmer, final boolean allowRefSource) {
-        if ( ! allowRefSource && kmer.equals(refSource) ) {
+    private MultiDeBruijnVertex getUniqueKmerVertex(final byte[] sequence, final int start, final boolean allowRefSource) {
+        final MultiDeBruijnVertex vertex = uniqueKmers.get(sequence, start);
+        if ( ! allowRefSource && vertex != null && isRefSource(sequence, start) ) {
             return null;
         }
 
-        return uniqueKmers.get(kmer);
+        return vertex;
+    }
+
+    /**
+     * @return true if the kmer in sequence starting at start is the same as the reference source kmer
+     */
+    private boolean isRefSource(final byte[] sequence, final int start) {
+        if ( refSource == null ) {
+            return false;
+        }
+        final byte[] refSourceBases = refSource.bases();
+        for ( int i = 0; i < kmerSize; i++ ) {
+            if ( sequence[start + i] != refSourceBases[i] ) {
+                return false;
+            }
+        }
+        return true;
     }
 
 
     /**
-     * Create a new vertex for kmer.  Add it to the uniqueKmers map if appropriate.
+     * Create a new vertex for the kmer in sequence starting at start.  Add it to the uniqueKmers map if appropriate.
      *
      * kmer must not have a entry in unique kmers, or an error will be thrown
      *
-     * @param kmer the kmer we want to create a vertex for
+     * @param sequence the sequence containing the kmer we want to create a vertex for
+     * @param start the start of the kmer in sequence
      * @return the non-null created vertex
      */
-    private MultiDeBruijnVertex createVertex(final Kmer kmer) {
-        final MultiDeBruijnVertex newVertex = new MultiDeBruijnVertex(kmer.bases());
+    private MultiDeBruijnVertex createVertex(final byte[] sequence, final int start) {
+        final MultiDeBruijnVertex newVertex = new MultiDeBruijnVertex(Arrays.copyOfRange(sequence, start, start + kmerSize));
         final int prevSize = vertexSet().size();
         addVertex(newVertex);
 
@@ -1101,9 +1120,10 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
         }
 
         // add the vertex to the unique kmer map, if it is in fact unique
-        if ( ! nonUniqueKmers.contains(kmer) && ! uniqueKmers.containsKey(kmer) ) // TODO -- not sure this last test is necessary
+        // the vertex owns a copy of the kmer bases, so key the map with those rather than with the (possibly larger) sequence
+        if ( ! nonUniqueKmers.containsKey(sequence, start) ) // putIfAbsent keeps any existing entry -- not sure that case is possible
         {
-            uniqueKmers.put(kmer, newVertex);
+            uniqueKmers.putIfAbsent(newVertex.getSequence(), 0, newVertex);
         }
 
         return newVertex;
@@ -1134,15 +1154,14 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
         }
 
         // none of our outgoing edges had our unique suffix base, so we check for an opportunity to merge back in
-        final Kmer kmer = new Kmer(sequence, kmerStart, kmerSize);
-        final MultiDeBruijnVertex uniqueMergeVertex = getUniqueKmerVertex(kmer, false);
+        final MultiDeBruijnVertex uniqueMergeVertex = getUniqueKmerVertex(sequence, kmerStart, false);
 
         if ( isRef && uniqueMergeVertex != null ) {
             throw new IllegalStateException("Found a unique vertex to merge into the reference graph " + prevVertex + " -> " + uniqueMergeVertex);
         }
 
         // either use our unique merge vertex, or create a new one in the chain
-        final MultiDeBruijnVertex nextVertex = uniqueMergeVertex == null ? createVertex(kmer) : uniqueMergeVertex;
+        final MultiDeBruijnVertex nextVertex = uniqueMergeVertex == null ? createVertex(sequence, kmerStart) : uniqueMergeVertex;
         addEdge(prevVertex, nextVertex, ((MyEdgeFactory)getEdgeFactory()).createEdge(isRef, count));
         return nextVertex;
     }
@@ -1197,7 +1216,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
      */
     @VisibleForTesting
     Set<Kmer> getNonUniqueKmers() {
-        return nonUniqueKmers;
+        return new LinkedHashSet<>(nonUniqueKmers.values());
     }
 
     @Override
@@ -1208,7 +1227,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
 
     @Override
     public MultiDeBruijnVertex findKmer(final Kmer k) {
-        return uniqueKmers.get(k);
+        return uniqueKmers.get(Utils.nonNull(k));
     }
 
 
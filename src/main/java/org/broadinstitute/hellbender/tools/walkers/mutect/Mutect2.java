@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect;
 
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
@@ -11,6 +12,7 @@ import org.broadinstitute.hellbender.cmdline.programgroups.ShortVariantDiscovery
 import org.broadinstitute.hellbender.engine.*;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.tools.walkers.annotator.*;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyBasedCallerArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ReferenceConfidenceMode;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.downsampling.MutectDownsampler;
@@ -188,8 +190,11 @@ public final class Mutect2 extends AssemblyRegionWalker {
 
     @Override
     public void onTraversalStart() {
-        VariantAnnotatorEngine annotatorEngine = new VariantAnnotatorEngine(makeVariantAnnotations(), null, Collections.emptyList(), false);
-        m2Engine = new Mutect2Engine(MTAC, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(), referenceArguments.getReferenceFileName(), annotatorEngine);
+        if ( assemblyRegionThreads > 1 && MTAC.bamOutputPath != null ) {
+            throw new CommandLineException.BadArgumentValue(ASSEMBLY_REGION_THREADS_LONG_NAME, Integer.toString(assemblyRegionThreads),
+                    "multi-threaded assembly region processing does not support --" + AssemblyBasedCallerArgumentCollection.BAM_OUTPUT_LONG_NAME);
+        }
+        m2Engine = makeMutect2Engine();
         vcfWriter = createVCFWriter(outputVCF);
         if (m2Engine.emitReferenceConfidence()) {
             logger.warn("Note that the Mutect2 reference confidence mode is in BETA -- the likelihoods model and output format are subject to change in subsequent versions.");
@@ -204,6 +209,11 @@ public final class Mutect2 extends AssemblyRegionWalker {
         m2Engine.writeHeader(vcfWriter, getDefaultToolVCFHeaderLines());
     }
 
+    private Mutect2Engine makeMutect2Engine() {
+        final VariantAnnotatorEngine annotatorEngine = new VariantAnnotatorEngine(makeVariantAnnotations(), null, Collections.emptyList(), false);
+        return new Mutect2Engine(MTAC, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(), referenceArguments.getReferenceFileName(), annotatorEngine);
+    }
+
     @Override
     public Collection<Annotation> makeVariantAnnotations(){
         final Collection<Annotation> annotations = super.makeVariantAnnotations();
@@ -232,6 +242,30 @@ public final class Mutect2 extends AssemblyRegionWalker {
         m2Engine.callRegion(region, referenceContext, featureContext).forEach(vcfWriter::add);
     }
 
+    @Override
+    protected boolean supportsMultiThreadedAssemblyRegionProcessing() { return true; }
+
+    /**
+     * Each worker gets its own Mutect2Engine, and therefore its own assembler, PairHMM, Smith-Waterman aligner
+     * and reference reader. The main engine is still used for active region determination.
+     */
+    @Override
+    protected AssemblyRegionWorker makeAssemblyRegionWorker() {
+        final Mutect2Engine workerEngine = makeMutect2Engine();
+        return new AssemblyRegionWorker() {
+            @Override
+            public Runnable processRegion(final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext) {
+                final List<VariantContext> calls = workerEngine.callRegion(region, referenceContext, featureContext);
+                return () -> calls.forEach(vcfWriter::add);
+            }
+
+            @Override
+            public void close() {
+                workerEngine.shutdown();
+            }
+        };
+    }
+
     @Override
     public void closeTool() {
         if (vcfWriter != null) {
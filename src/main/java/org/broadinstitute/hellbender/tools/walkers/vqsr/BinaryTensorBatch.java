@@ -0,0 +1,170 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A batch of variants, and the data from which their tensors are built, in the binary format read by
+ * {@code vqsr_cnn.score_and_write_binary_batch}.  This is tightly coupled with inference.py.
+ *
+ * Unlike the text format, in which every value is formatted by GATK and parsed back by Python, the reference bases and
+ * annotations of all variants of the batch are sent as contiguous arrays, which Python reads directly as numpy arrays.
+ * All numbers are big-endian.  A batch is laid out as follows:
+ * <ul>
+ *     <li>int32: number of variants, int32: window size, int32: number of annotations</li>
+ *     <li>text block (int32 length followed by UTF-8 bytes): the annotation keys, separated by tabs</li>
+ *     <li>text block: one line per variant, "contig\tposition\treference\talternates\ttype"</li>
+ *     <li>number of variants x window size bytes: the reference bases of each variant</li>
+ *     <li>number of variants x number of annotations float64: the annotations of each variant, NaN if missing</li>
+ *     <li>int32: 1 if reads follow, 0 otherwise.  For each variant, int32: number of reads, and for each read:
+ *     int32 length, bases, base qualities, text block with the cigar, int8 flags (1: reverse strand,
+ *     2: mate reverse strand, 4: first of pair), int32 mapping quality, int32 unclipped start</li>
+ * </ul>
+ */
+final class BinaryTensorBatch {
+
+    static final int READ_REVERSE_STRAND_FLAG = 1;
+    static final int MATE_REVERSE_STRAND_FLAG = 2;
+    static final int FIRST_OF_PAIR_FLAG = 4;
+
+    private final int windowSize;
+    private final List<String> annotationKeys;
+    private final boolean includeReads;
+
+    private int size = 0;
+    private final StringBuilder variantLines = new StringBuilder();
+    private final ByteArrayOutputStream referenceBases = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream annotations = new ByteArrayOutputStream();
+    private final DataOutputStream annotationsOut = new DataOutputStream(annotations);
+    private final ByteArrayOutputStream reads = new ByteArrayOutputStream();
+    private final DataOutputStream readsOut = new DataOutputStream(reads);
+
+    /**
+     * @param windowSize number of reference bases sent for each variant
+     * @param annotationKeys the INFO field keys of the annotations sent for each variant
+     * @param includeReads whether the reads overlapping each variant are sent
+     */
+    BinaryTensorBatch(final int windowSize, final List<String> annotationKeys, final boolean includeReads) {
+        Utils.validateArg(windowSize >= 0, "window size must be non-negative");
+        this.windowSize = windowSize;
+        this.annotationKeys = Utils.nonNull(annotationKeys);
+        this.includeReads = includeReads;
+    }
+
+    /**
+     * Add a variant to this batch.
+     * @param variant the variant to score
+     * @param referenceBases the reference bases around the variant.  Only the first window size bases are sent, padded with zeros if needed.
+     * @param variantReads the reads overlapping the variant.  Must be {@code null} iff this batch does not include reads.
+     */
+    void add(final VariantContext variant, final byte[] referenceBases, final Iterable<GATKRead> variantReads) {
+        Utils.nonNull(variant);
+        Utils.nonNull(referenceBases);
+        Utils.validateArg(includeReads == (variantReads != null), "reads must be given iff this batch includes reads");
+
+        variantLines.append(variant.getContig()).append('\t')
+                .append(variant.getStart()).append('\t')
+                .append(variant.getReference().getBaseString()).append('\t')
+                .append(variant.getAlternateAlleles().toString()).append('\t')
+                .append(variant.isSNP() ? "SNP" : variant.isIndel() ? "INDEL" : "OTHER").append('\n');
+
+        final int numBases = Math.min(windowSize, referenceBases.length);
+        this.referenceBases.write(referenceBases, 0, numBases);
+        for ( int i = numBases; i < windowSize; i++ ) {
+            this.referenceBases.write(0);
+        }
+
+        try {
+            for ( final String key : annotationKeys ) {
+                annotationsOut.writeDouble(getAnnotationValue(variant, key));
+            }
+            if ( includeReads ) {
+                int numReads = 0;
+                final ByteArrayOutputStream variantReadBytes = new ByteArrayOutputStream();
+                final DataOutputStream variantReadsOut = new DataOutputStream(variantReadBytes);
+                for ( final GATKRead read : variantReads ) {
+                    writeRead(variantReadsOut, read);
+                    numReads++;
+                }
+                readsOut.writeInt(numReads);
+                variantReadBytes.writeTo(readsOut);
+            }
+        } catch (final IOException e) {
+            throw new GATKException("IOException serializing variant " + variant.toStringWithoutGenotypes(), e);
+        }
+        size++;
+    }
+
+    private static double getAnnotationValue(final VariantContext variant, final String key) {
+        if ( !variant.hasAttribute(key) ) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(variant.getAttribute(key).toString().replace(" ", "").replace("[", "").replace("]", ""));
+        } catch (final NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static void writeRead(final DataOutputStream out, final GATKRead read) throws IOException {
+        final byte[] bases = read.getBases();
+        final byte[] qualities = read.getBaseQualities();
+        out.writeInt(bases.length);
+        out.write(bases);
+        if ( qualities.length == bases.length ) {
+            out.write(qualities);
+        } else {
+            // reads without base qualities
+            out.write(new byte[bases.length]);
+        }
+        writeText(out, read.getCigar().toString());
+        out.writeByte((read.isReverseStrand() ? READ_REVERSE_STRAND_FLAG : 0) |
+                (read.isPaired() && read.mateIsReverseStrand() ? MATE_REVERSE_STRAND_FLAG : 0) |
+                (read.isFirstOfPair() ? FIRST_OF_PAIR_FLAG : 0));
+        out.writeInt(read.getMappingQuality());
+        out.writeInt(read.getUnclippedStart());
+    }
+
+    private static void writeText(final DataOutputStream out, final String text) throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @return the number of variants in this batch
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the serialized batch
+     */
+    ByteArrayOutputStream serialize() {
+        final ByteArrayOutputStream batch = new ByteArrayOutputStream(
+                64 + variantLines.length() + referenceBases.size() + annotations.size() + reads.size());
+        try ( final DataOutputStream out = new DataOutputStream(batch) ) {
+            out.writeInt(size);
+            out.writeInt(windowSize);
+            out.writeInt(annotationKeys.size());
+            writeText(out, String.join("\t", annotationKeys));
+            writeText(out, variantLines.toString());
+            referenceBases.writeTo(out);
+            annotations.writeTo(out);
+            out.writeInt(includeReads ? 1 : 0);
+            reads.writeTo(out);
+        } catch (final IOException e) {
+            throw new GATKException("IOException serializing batch of variants", e);
+        }
+        return batch;
+    }
+}
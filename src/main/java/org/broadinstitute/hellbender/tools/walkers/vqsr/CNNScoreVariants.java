@@ -27,6 +27,7 @@ import com.intel.gkl.IntelGKLUtils;
 
 import java.io.*;
 import java.util.*;
+import java.util.function.Function;
 
 
 /**
@@ -172,6 +173,15 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
             "Use only if you have installed a pre-1.6 TensorFlow build. ", optional = true)
     private boolean disableAVXCheck = false;
 
+    /**
+     * By default, the data of each variant is formatted as text by GATK and parsed back by Python.  With this argument,
+     * each batch of variants is instead sent as packed binary arrays (reference bases, annotations and reads), which
+     * Python reads directly as numpy arrays.  This is much cheaper for both processes, and gives the same scores.
+     */
+    @Advanced
+    @Argument(fullName = "binary-transfer", shortName = "binary-transfer", doc = "Send the tensor data to python in a binary format rather than as text.", optional = true)
+    private boolean binaryTransfer = false;
+
     @Hidden
     @Argument(fullName = "enable-journal", shortName = "enable-journal", doc = "Enable streaming process journal.", optional = true)
     private boolean enableJournal = false;
@@ -186,9 +196,10 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
 
     // Create the Python executor. This doesn't actually start the Python process, but verifies that
     // the requestedPython executable exists and can be located.
-    final StreamingPythonScriptExecutor<String> pythonExecutor = new StreamingPythonScriptExecutor<>(true);
+    final StreamingPythonScriptExecutor<ByteArrayOutputStream> pythonExecutor = new StreamingPythonScriptExecutor<>(true);
 
-    private List<String> batchList = new ArrayList<>(inferenceBatchSize);
+    private List<ByteArrayOutputStream> batchList = new ArrayList<>(inferenceBatchSize);
+    private BinaryTensorBatch binaryBatch;
 
     private int curBatchSize = 0;
     private int windowEnd = windowSize / 2;
@@ -256,9 +267,10 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
 
         // Start the Python process and initialize a stream writer for streaming data to the Python code
         pythonExecutor.start(Collections.emptyList(), enableJournal, pythonProfileResults);
-        pythonExecutor.initStreamWriter(AsynchronousStreamWriter.stringSerializer);
+        pythonExecutor.initStreamWriter(Function.identity());
 
         batchList = new ArrayList<>(transferBatchSize);
+        binaryBatch = createBinaryBatch();
 
         // Execute Python code to open our output file, where it will write the contents of everything it reads
         // from the stream.
@@ -283,7 +295,10 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
     @Override
     public void firstPassApply(final VariantContext variant, final ReadsContext readsContext, final ReferenceContext referenceContext, final FeatureContext featureContext) {
         referenceContext.setWindow(windowStart, windowEnd);
-        if (tensorType.isReadsRequired()) {
+        if (binaryTransfer) {
+            binaryBatch.add(variant, referenceContext.getBases(), tensorType.isReadsRequired() ? readsContext : null);
+            curBatchSize++;
+        } else if (tensorType.isReadsRequired()) {
             transferReadsToPythonViaFifo(variant, readsContext, referenceContext);
         } else {
             transferToPythonViaFifo(variant, referenceContext);
@@ -356,7 +371,7 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
                     new String(Arrays.copyOfRange(referenceContext.getBases(), 0, windowSize), "UTF-8"),
                     getVariantInfoString(variant),
                     variant.isSNP() ? "SNP" : variant.isIndel() ? "INDEL" : "OTHER");
-            batchList.add(outDat);
+            batchList.add(AsynchronousStreamWriter.stringSerializer.apply(outDat));
             curBatchSize++;
         } catch (UnsupportedEncodingException e) {
             throw new GATKException("Trying to make string from reference, but unsupported encoding UTF-8.", e);
@@ -375,9 +390,14 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
             waitforBatchCompletion = true;
             curBatchSize = 0;
             batchList = new ArrayList<>(transferBatchSize);
+            binaryBatch = createBinaryBatch();
         }
     }
 
+    private BinaryTensorBatch createBinaryBatch() {
+        return binaryTransfer ? new BinaryTensorBatch(windowSize, annotationKeys, tensorType.isReadsRequired()) : null;
+    }
+
     private void transferReadsToPythonViaFifo(final VariantContext variant, final ReadsContext readsContext, final ReferenceContext referenceContext) {
         StringBuilder sb = new StringBuilder(FIFO_STRING_INITIAL_CAPACITY);
         try {
@@ -398,7 +418,7 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
             sb.append(GATKReadToString(readIt.next()));
         }
         sb.append("\n");
-        batchList.add(sb.toString());
+        batchList.add(AsynchronousStreamWriter.stringSerializer.apply(sb.toString()));
         curBatchSize++;
     }
 
@@ -452,10 +472,15 @@ public class CNNScoreVariants extends TwoPassVariantWalker {
 
     private void executePythonCommand() {
         final String pythonCommand = String.format(
-                "vqsr_cnn.score_and_write_batch(args, model, tempFile, %d, %d, '%s')",
+                "vqsr_cnn.%s(args, model, tempFile, %d, %d, '%s')",
+                binaryTransfer ? "score_and_write_binary_batch" : "score_and_write_batch",
                 curBatchSize,
                 inferenceBatchSize,
                 outputTensorsDir) + NL;
+        if (binaryTransfer) {
+            // the whole batch is sent as a single item
+            batchList.add(binaryBatch.serialize());
+        }
         pythonExecutor.startBatchWrite(pythonCommand, batchList);
     }
 
@@ -10,13 +10,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import Jama.Matrix;
 
+/*
+ * The expectation-maximization steps used to train the model run on a ForkJoinPool: the E step (and the assignment step
+ * of k-means) over chunks of the data, the M step over the Gaussians.  Each datum and each Gaussian is processed exactly
+ * as it would be serially, so the trained model does not depend on the number of threads.
+ */
 class GaussianMixtureModel {
 
     protected final static Logger logger = LogManager.getLogger(GaussianMixtureModel.class);
 
+    // number of data processed by each fork-join task of the E step
+    private static final int DATA_PER_TASK = 10_000;
+
     private final List<MultivariateGaussian> gaussians;
     private final double shrinkage;
     private final double dirichletParameter;
@@ -59,7 +69,7 @@ class GaussianMixtureModel {
 
     }
 
-    public void initializeRandomModel( final List<VariantDatum> data, final int numKMeansIterations ) {
+    public void initializeRandomModel( final VariantDataColumns data, final int numKMeansIterations, final ForkJoinPool pool ) {
 
         // initialize random Gaussian means // BUGBUG: this is broken up this way to match the order of calls to rand.nextDouble() in the old code
         for( final MultivariateGaussian gaussian : gaussians ) {
@@ -68,7 +78,7 @@ class GaussianMixtureModel {
 
         // initialize means using K-means algorithm
         logger.info( "Initializing model with " + numKMeansIterations + " k-means iterations..." );
-        initializeMeansUsingKMeans( data, numKMeansIterations );
+        initializeMeansUsingKMeans( data, numKMeansIterations, pool );
 
         // initialize uniform mixture coefficients, random covariance matrices, and initial hyperparameters
         for( final MultivariateGaussian gaussian : gaussians ) {
@@ -81,38 +91,46 @@ class GaussianMixtureModel {
         }
     }
 
-    private void initializeMeansUsingKMeans( final List<VariantDatum> data, final int numIterations ) {
+    private void initializeMeansUsingKMeans( final VariantDataColumns data, final int numIterations, final ForkJoinPool pool ) {
 
+        final int[] assignments = new int[data.size()];
         int ttt = 0;
         while( ttt++ < numIterations ) {
             // E step: assign each variant to the nearest cluster
-            for( final VariantDatum datum : data ) {
-                double minDistance = Double.MAX_VALUE;
-                MultivariateGaussian minGaussian = null;
-                datum.assignment = minGaussian;
-                for( final MultivariateGaussian gaussian : gaussians ) {
-                    final double dist = gaussian.calculateDistanceFromMeanSquared( datum );
-                    if( dist < minDistance ) {
-                        minDistance = dist;
-                        minGaussian = gaussian;
+            forEachRange(pool, data.size(), DATA_PER_TASK, (start, end) -> {
+                for( int datumIndex = start; datumIndex < end; datumIndex++ ) {
+                    double minDistance = Double.MAX_VALUE;
+                    int minGaussian = -1;
+                    for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                        final double dist = gaussians.get(gaussianIndex).calculateDistanceFromMeanSquared( data, datumIndex );
+                        if( dist < minDistance ) {
+                            minDistance = dist;
+                            minGaussian = gaussianIndex;
+                        }
                     }
+                    assignments[datumIndex] = minGaussian;
                 }
-                datum.assignment = minGaussian;
-            }
+            });
 
             // M step: update gaussian means based on assigned variants
-            for( final MultivariateGaussian gaussian : gaussians ) {
-                gaussian.zeroOutMu();
-                int numAssigned = 0;
-
-                for( final VariantDatum datum : data ) {
-                    if( datum.assignment.equals(gaussian) ) {
-                        numAssigned++;
-                        gaussian.incrementMu( datum );
+            final int[] numAssigned = new int[gaussians.size()];
+            forEachRange(pool, gaussians.size(), 1, (start, end) -> {
+                for( int gaussianIndex = start; gaussianIndex < end; gaussianIndex++ ) {
+                    final MultivariateGaussian gaussian = gaussians.get(gaussianIndex);
+                    gaussian.zeroOutMu();
+                    for( int datumIndex = 0; datumIndex < data.size(); datumIndex++ ) {
+                        if( assignments[datumIndex] == gaussianIndex ) {
+                            numAssigned[gaussianIndex]++;
+                            gaussian.incrementMu( data, datumIndex );
+                        }
                     }
                 }
-                if( numAssigned != 0 ) {
-                    gaussian.divideEqualsMu( ((double) numAssigned) );
+            });
+            // the random re-initializations are done serially, in order, so that the random number sequence does not depend on the number of threads
+            for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                final MultivariateGaussian gaussian = gaussians.get(gaussianIndex);
+                if( numAssigned[gaussianIndex] != 0 ) {
+                    gaussian.divideEqualsMu( ((double) numAssigned[gaussianIndex]) );
                 } else {
                     gaussian.initializeRandomMu( Utils.getRandomGenerator() );
                 }
@@ -120,32 +138,47 @@ class GaussianMixtureModel {
         }
     }
 
-    public void expectationStep( final List<VariantDatum> data ) {
+    public void expectationStep( final VariantDataColumns data, final ForkJoinPool pool ) {
 
         for( final MultivariateGaussian gaussian : gaussians ) {
             gaussian.precomputeDenominatorForVariationalBayes( getSumHyperParameterLambda() );
         }
 
-        for( final VariantDatum datum : data ) {
-            final double[] pVarInGaussianLog10 = gaussians.stream().mapToDouble(g -> g.evaluateDatumLog10(datum)).toArray();
-            final double[] pVarInGaussianNormalized = MathUtils.normalizeLog10DeleteMePlease( pVarInGaussianLog10, false);
-            int gaussianIndex = 0;
-            for( final MultivariateGaussian gaussian : gaussians ) {
-                gaussian.assignPVarInGaussian( pVarInGaussianNormalized[gaussianIndex++] );
+        forEachRange(pool, data.size(), DATA_PER_TASK, (start, end) -> {
+            final double[] pVarInGaussianLog10 = new double[gaussians.size()];
+            final double[] annotations = new double[getNumAnnotations()];
+            final double[] crossProdTmp = new double[getNumAnnotations()];
+            for( int datumIndex = start; datumIndex < end; datumIndex++ ) {
+                data.copyAnnotations( datumIndex, annotations );
+                for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                    pVarInGaussianLog10[gaussianIndex] = gaussians.get(gaussianIndex).evaluateDatumLog10( annotations, crossProdTmp );
+                }
+                final double[] pVarInGaussianNormalized = MathUtils.normalizeLog10DeleteMePlease( pVarInGaussianLog10, false);
+                for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                    gaussians.get(gaussianIndex).assignPVarInGaussian( datumIndex, pVarInGaussianNormalized[gaussianIndex] );
+                }
             }
-        }
+        });
     }
 
-    public void maximizationStep( final List<VariantDatum> data ) {
-        gaussians.forEach(g -> g.maximizeGaussian( data, empiricalMu, empiricalSigma, shrinkage, dirichletParameter, priorCounts));
+    public void maximizationStep( final VariantDataColumns data, final ForkJoinPool pool ) {
+        forEachRange(pool, gaussians.size(), 1, (start, end) -> {
+            for( int gaussianIndex = start; gaussianIndex < end; gaussianIndex++ ) {
+                gaussians.get(gaussianIndex).maximizeGaussian( data, empiricalMu, empiricalSigma, shrinkage, dirichletParameter, priorCounts );
+            }
+        });
     }
 
     private double getSumHyperParameterLambda() {
         return gaussians.stream().mapToDouble(g -> g.hyperParameter_lambda).sum();
     }
 
-    public void evaluateFinalModelParameters( final List<VariantDatum> data ) {
-        gaussians.forEach(g -> g.evaluateFinalModelParameters(data));
+    public void evaluateFinalModelParameters( final VariantDataColumns data, final ForkJoinPool pool ) {
+        forEachRange(pool, gaussians.size(), 1, (start, end) -> {
+            for( int gaussianIndex = start; gaussianIndex < end; gaussianIndex++ ) {
+                gaussians.get(gaussianIndex).evaluateFinalModelParameters( data );
+            }
+        });
         normalizePMixtureLog10();
     }
 
@@ -247,4 +280,43 @@ class GaussianMixtureModel {
     protected List<MultivariateGaussian> getModelGaussians() {return Collections.unmodifiableList(gaussians);}
 
     protected int getNumAnnotations() {return empiricalMu.length;}
+
+    @FunctionalInterface
+    private interface IndexRangeConsumer {
+        void accept( int start, int end );
+    }
+
+    /**
+     * Apply {@code action} to consecutive ranges of at most {@code indicesPerTask} of the indices {@code [0, size)},
+     * splitting the work recursively into fork-join tasks on {@code pool}, and wait for all ranges to be processed.
+     */
+    private static void forEachRange( final ForkJoinPool pool, final int size, final int indicesPerTask, final IndexRangeConsumer action ) {
+        pool.invoke(new RangeAction(0, size, indicesPerTask, action));
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int indicesPerTask;
+        private final transient IndexRangeConsumer action;
+
+        RangeAction( final int start, final int end, final int indicesPerTask, final IndexRangeConsumer action ) {
+            this.start = start;
+            this.end = end;
+            this.indicesPerTask = indicesPerTask;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if( end - start <= indicesPerTask ) {
+                action.accept(start, end);
+            } else {
+                final int middle = start + (end - start) / 2;
+                invokeAll(new RangeAction(start, middle, indicesPerTask, action), new RangeAction(middle, end, indicesPerTask, action));
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -3,11 +3,8 @@ package org.broadinstitute.hellbender.tools.walkers.vqsr;
 import org.apache.commons.math3.special.Gamma;
 
 import org.broadinstitute.hellbender.exceptions.UserException;
-import org.broadinstitute.hellbender.utils.MathUtils;
-import org.broadinstitute.hellbender.utils.collections.ExpandingArrayList;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
 
 import Jama.Matrix;
@@ -23,13 +20,11 @@ class MultivariateGaussian {
     private double cachedDenomLog10;
     private Matrix cachedSigmaInverse;
     final private double[] pVarInGaussian;
-    int pVarInGaussianIndex;
 
     public MultivariateGaussian( final int numVariants, final int numAnnotations  ) {
         mu = new double[numAnnotations];
         sigma = new Matrix(numAnnotations, numAnnotations);
         pVarInGaussian = new double[numVariants];
-        pVarInGaussianIndex = 0;
     }
 
     public void zeroOutMu() {
@@ -67,17 +62,22 @@ class MultivariateGaussian {
         sigma.setMatrix(0, mu.length - 1, 0, mu.length - 1, tmp);
     }
 
-    public double calculateDistanceFromMeanSquared( final VariantDatum datum ) {
-        return MathUtils.distanceSquared( datum.annotations, mu );
+    public double calculateDistanceFromMeanSquared( final VariantDataColumns data, final int datumIndex ) {
+        double result = 0.0;
+        for( int jjj = 0; jjj < mu.length; jjj++ ) {
+            final double diff = data.get(datumIndex, jjj) - mu[jjj];
+            result += diff * diff;
+        }
+        return result;
     }
 
-    public void incrementMu( final VariantDatum datum ) {
-        incrementMu( datum, 1.0 );
+    public void incrementMu( final VariantDataColumns data, final int datumIndex ) {
+        incrementMu( data, datumIndex, 1.0 );
     }
 
-    public void incrementMu( final VariantDatum datum, final double prob ) {
+    public void incrementMu( final VariantDataColumns data, final int datumIndex, final double prob ) {
         for( int jjj = 0; jjj < mu.length; jjj++ ) {
-            mu[jjj] += prob * datum.annotations[jjj];
+            mu[jjj] += prob * data.get(datumIndex, jjj);
         }
     }
 
@@ -125,42 +125,51 @@ class MultivariateGaussian {
     }
 
     public double evaluateDatumLog10( final VariantDatum datum ) {
+        return evaluateDatumLog10( datum.annotations, new double[mu.length] );
+    }
+
+    /**
+     * Same as {@link #evaluateDatumLog10(VariantDatum)}, for a datum with the given annotations.
+     * @param crossProdTmp scratch array of length at least the number of annotations, so that it can be reused across data
+     */
+    public double evaluateDatumLog10( final double[] annotations, final double[] crossProdTmp ) {
         double sumKernel = 0.0;
-        final double[] crossProdTmp = new double[mu.length];
         Arrays.fill(crossProdTmp, 0.0);
         for( int iii = 0; iii < mu.length; iii++ ) {
             for( int jjj = 0; jjj < mu.length; jjj++ ) {
-                crossProdTmp[iii] += (datum.annotations[jjj] - mu[jjj]) * cachedSigmaInverse.get(jjj, iii);
+                crossProdTmp[iii] += (annotations[jjj] - mu[jjj]) * cachedSigmaInverse.get(jjj, iii);
             }
         }
         for( int iii = 0; iii < mu.length; iii++ ) {
-            sumKernel += crossProdTmp[iii] * (datum.annotations[iii] - mu[iii]);
+            sumKernel += crossProdTmp[iii] * (annotations[iii] - mu[iii]);
         }
 
         return (( -0.5 * sumKernel ) / Math.log(10.0)) + cachedDenomLog10; // This is the definition of a Gaussian PDF Log10
     }
 
-    public void assignPVarInGaussian( final double pVar ) {
-        pVarInGaussian[pVarInGaussianIndex++] = pVar;
+    /**
+     * Set the probability that the datum at {@code datumIndex} belongs to this Gaussian.
+     * Different data may be assigned concurrently.
+     */
+    public void assignPVarInGaussian( final int datumIndex, final double pVar ) {
+        pVarInGaussian[datumIndex] = pVar;
     }
 
     public void resetPVarInGaussian() {
         Arrays.fill(pVarInGaussian, 0.0);
-        pVarInGaussianIndex = 0;
     }
 
-    public void maximizeGaussian(final List<VariantDatum> data, final double[] empiricalMu, final Matrix empiricalSigma,
+    public void maximizeGaussian(final VariantDataColumns data, final double[] empiricalMu, final Matrix empiricalSigma,
                                  final double SHRINKAGE, final double DIRICHLET_PARAMETER, final double DEGREES_OF_FREEDOM ) {
         sumProb = 1E-10;
         final Matrix wishart = new Matrix(mu.length, mu.length);
         zeroOutMu();
         zeroOutSigma();
 
-        int datumIndex = 0;
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
+        for( int datumIndex = 0; datumIndex < data.size(); datumIndex++ ) {
+            final double prob = pVarInGaussian[datumIndex];
             sumProb += prob;
-            incrementMu( datum, prob );
+            incrementMu( data, datumIndex, prob );
         }
         divideEqualsMu( sumProb );
 
@@ -172,18 +181,7 @@ class MultivariateGaussian {
             }
         }
 
-        datumIndex = 0;
-        final Matrix pVarSigma = new Matrix(mu.length, mu.length);
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
-            for( int iii = 0; iii < mu.length; iii++ ) {
-                double deltaMu = prob * (datum.annotations[iii]-mu[iii]);
-                for( int jjj = 0; jjj < mu.length; jjj++ ) {
-                    pVarSigma.set(iii, jjj, deltaMu * (datum.annotations[jjj]-mu[jjj]));
-                }
-            }
-            sigma.plusEquals( pVarSigma );
-        }
+        accumulateSigma( data );
 
         sigma.plusEquals( empiricalSigma );
         sigma.plusEquals( wishart );
@@ -199,32 +197,46 @@ class MultivariateGaussian {
         resetPVarInGaussian(); // clean up some memory
     }
 
-    public void evaluateFinalModelParameters( final List<VariantDatum> data ) {
+    public void evaluateFinalModelParameters( final VariantDataColumns data ) {
         sumProb = 0.0;
         zeroOutMu();
         zeroOutSigma();
 
-        int datumIndex = 0;
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
+        for( int datumIndex = 0; datumIndex < data.size(); datumIndex++ ) {
+            final double prob = pVarInGaussian[datumIndex];
             sumProb += prob;
-            incrementMu( datum, prob );
+            incrementMu( data, datumIndex, prob );
         }
         divideEqualsMu( sumProb );
 
-        datumIndex = 0;
-        final Matrix pVarSigma = new Matrix(mu.length, mu.length);
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
-            for( int iii = 0; iii < mu.length; iii++ ) {
-                for( int jjj = 0; jjj < mu.length; jjj++ ) {
-                    pVarSigma.set(iii, jjj, prob * (datum.annotations[iii]-mu[iii]) * (datum.annotations[jjj]-mu[jjj]));
-                }
-            }
-            sigma.plusEquals( pVarSigma );
-        }
+        accumulateSigma( data );
         sigma.timesEquals( 1.0 / sumProb );
 
         resetPVarInGaussian(); // clean up some memory
     }
+
+    /**
+     * Add the covariance of all data around mu, weighted by the probability that each datum belongs to this Gaussian,
+     * to sigma.  The sum is accumulated directly into the backing array of sigma, one annotation column at a time,
+     * over the data in order.
+     */
+    private void accumulateSigma( final VariantDataColumns data ) {
+        final double[][] sigmaArray = sigma.getArray();
+        for( int iii = 0; iii < mu.length; iii++ ) {
+            for( int jjj = 0; jjj < mu.length; jjj++ ) {
+                final double muI = mu[iii];
+                final double muJ = mu[jjj];
+                double sum = sigmaArray[iii][jjj];
+                for( int blockIndex = 0; blockIndex < data.getNumBlocks(); blockIndex++ ) {
+                    final double[] columnI = data.getBlockColumn(blockIndex, iii);
+                    final double[] columnJ = data.getBlockColumn(blockIndex, jjj);
+                    final int blockStart = data.getBlockStart(blockIndex);
+                    for( int offset = 0; offset < columnI.length; offset++ ) {
+                        sum += (pVarInGaussian[blockStart + offset] * (columnI[offset] - muI)) * (columnJ[offset] - muJ);
+                    }
+                }
+                sigmaArray[iii][jjj] = sum;
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.List;
+
+/*
+ * Column-oriented storage of the (normalized) annotations of a list of VariantDatum, used to train the Gaussian mixture model.
+ * Each annotation is held in contiguous arrays, indexed by the position of the datum in the list, so that the
+ * expectation-maximization loops read primitive arrays rather than chasing one object (and one array) per site.
+ * The columns take the annotations from the data while a model is trained, and give them back afterwards (see
+ * {@link #takeAnnotations} and {@link #returnAnnotations}), so the training annotations are only held once.  The
+ * columns are split into blocks of data, so that they can be given back one block at a time.
+ * Package private because it's not usable outside of VQSR.
+ */
+final class VariantDataColumns {
+
+    private static final int DATA_PER_BLOCK_SHIFT = 14;
+    private static final int DATA_PER_BLOCK = 1 << DATA_PER_BLOCK_SHIFT;
+    private static final int BLOCK_OFFSET_MASK = DATA_PER_BLOCK - 1;
+
+    private final int size;
+    private final int numAnnotations;
+    private final double[][][] blocks; // [block][annotation][datum in block]
+
+    private VariantDataColumns( final int size, final int numAnnotations ) {
+        this.size = size;
+        this.numAnnotations = numAnnotations;
+        blocks = new double[(size + DATA_PER_BLOCK - 1) >>> DATA_PER_BLOCK_SHIFT][][];
+    }
+
+    /**
+     * Move the annotations of the given data into columns: the annotations of each datum are set to null once they
+     * have been copied.  They must be given back with {@link #returnAnnotations} before the data are used again.
+     * Each datum must appear only once in the list.
+     */
+    public static VariantDataColumns takeAnnotations( final List<VariantDatum> data ) {
+        Utils.nonEmpty(data, "No data found.");
+        Utils.nonNull(data.get(0).annotations, "Data have no annotations.");
+        final VariantDataColumns columns = new VariantDataColumns(data.size(), data.get(0).annotations.length);
+        for( int blockIndex = 0; blockIndex < columns.blocks.length; blockIndex++ ) {
+            final int start = columns.getBlockStart(blockIndex);
+            final int end = Math.min(start + DATA_PER_BLOCK, columns.size);
+            final double[][] block = new double[columns.numAnnotations][end - start];
+            for( int datumIndex = start; datumIndex < end; datumIndex++ ) {
+                final double[] datumAnnotations = data.get(datumIndex).annotations;
+                if( datumAnnotations == null || datumAnnotations.length != columns.numAnnotations ) {
+                    columns.returnBlocks(data, blockIndex);
+                    throw new IllegalArgumentException("All data must have the same number of annotations, and appear only once.");
+                }
+                for( int iii = 0; iii < columns.numAnnotations; iii++ ) {
+                    block[iii][datumIndex - start] = datumAnnotations[iii];
+                }
+            }
+            columns.blocks[blockIndex] = block;
+            for( int datumIndex = start; datumIndex < end; datumIndex++ ) {
+                data.get(datumIndex).annotations = null;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Give the annotations back to the data they were taken from, as new arrays, releasing the columns one block at a
+     * time.  These columns can't be used afterwards.
+     */
+    public void returnAnnotations( final List<VariantDatum> data ) {
+        Utils.validateArg(data.size() == size, "The annotations must be returned to the data they were taken from.");
+        returnBlocks(data, blocks.length);
+    }
+
+    private void returnBlocks( final List<VariantDatum> data, final int numBlocks ) {
+        for( int blockIndex = 0; blockIndex < numBlocks; blockIndex++ ) {
+            final double[][] block = blocks[blockIndex];
+            if( block == null ) {
+                continue;
+            }
+            final int start = getBlockStart(blockIndex);
+            for( int datumIndex = start; datumIndex < start + block[0].length; datumIndex++ ) {
+                final double[] datumAnnotations = new double[numAnnotations];
+                for( int iii = 0; iii < numAnnotations; iii++ ) {
+                    datumAnnotations[iii] = block[iii][datumIndex - start];
+                }
+                data.get(datumIndex).annotations = datumAnnotations;
+            }
+            blocks[blockIndex] = null;
+        }
+    }
+
+    /**
+     * @return the number of data in these columns
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getNumAnnotations() {
+        return numAnnotations;
+    }
+
+    /**
+     * @return the value of annotation {@code annotationIndex} of the datum at {@code datumIndex}
+     */
+    public double get( final int datumIndex, final int annotationIndex ) {
+        return blocks[datumIndex >>> DATA_PER_BLOCK_SHIFT][annotationIndex][datumIndex & BLOCK_OFFSET_MASK];
+    }
+
+    /**
+     * Copy the annotations of the datum at {@code datumIndex} into {@code destination}, which must be at least
+     * {@link #getNumAnnotations()} long.
+     */
+    public void copyAnnotations( final int datumIndex, final double[] destination ) {
+        final double[][] block = blocks[datumIndex >>> DATA_PER_BLOCK_SHIFT];
+        final int offset = datumIndex & BLOCK_OFFSET_MASK;
+        for( int iii = 0; iii < numAnnotations; iii++ ) {
+            destination[iii] = block[iii][offset];
+        }
+    }
+
+    /**
+     * @return the number of blocks the data are split into
+     */
+    public int getNumBlocks() {
+        return blocks.length;
+    }
+
+    /**
+     * @return the index of the first datum of block {@code blockIndex}
+     */
+    public int getBlockStart( final int blockIndex ) {
+        return blockIndex << DATA_PER_BLOCK_SHIFT;
+    }
+
+    /**
+     * @return the values of annotation {@code annotationIndex} of the data of block {@code blockIndex}, starting with
+     *         the datum at {@link #getBlockStart}.  Not a copy, so must not be modified.
+     */
+    public double[] getBlockColumn( final int blockIndex, final int annotationIndex ) {
+        return blocks[blockIndex][annotationIndex];
+    }
+}
@@ -65,6 +65,14 @@ final class VariantRecalibratorArgumentCollection {
     @Argument(fullName = "k-means-iterations", doc = "Number of k-means iterations", optional = true)
     public int NUM_KMEANS_ITERATIONS = 100;
 
+    /**
+     * This parameter determines the number of threads used to train the Gaussian mixture models.  The trained models
+     * (and hence the results) do not depend on the number of threads.
+     */
+    @Advanced
+    @Argument(fullName = "em-threads", doc = "Number of threads to use to train the Gaussian mixture models", minValue = 1, optional = true)
+    public int EM_THREADS = 1;
+
     /**
      * If a variant has annotations more than -std standard deviations away from mean, it won't be used for building
      * the Gaussian mixture model.
@@ -6,6 +6,7 @@ import org.apache.logging.log4j.LogManager;
 import org.broadinstitute.hellbender.utils.Utils;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class VariantRecalibratorEngine {
 
@@ -100,20 +101,32 @@ public class VariantRecalibratorEngine {
     /////////////////////////////
 
     private void variationalBayesExpectationMaximization( final GaussianMixtureModel model, final List<VariantDatum> data ) {
+        // the columns hold the only copy of the training annotations until the model is trained
+        final VariantDataColumns columns = VariantDataColumns.takeAnnotations(data);
+        final ForkJoinPool pool = new ForkJoinPool(VRAC.EM_THREADS);
+        try {
+            variationalBayesExpectationMaximization(model, columns, pool);
+        } finally {
+            columns.returnAnnotations(data);
+            pool.shutdown();
+        }
+    }
+
+    private void variationalBayesExpectationMaximization( final GaussianMixtureModel model, final VariantDataColumns data, final ForkJoinPool pool ) {
 
-        model.initializeRandomModel( data, VRAC.NUM_KMEANS_ITERATIONS );
+        model.initializeRandomModel( data, VRAC.NUM_KMEANS_ITERATIONS, pool );
 
         // The VBEM loop
         model.normalizePMixtureLog10();
-        model.expectationStep( data );
+        model.expectationStep( data, pool );
         double currentChangeInMixtureCoefficients;
         int iteration = 0;
         logger.info("Finished iteration " + iteration + ".");
         while( iteration < VRAC.MAX_ITERATIONS ) {
             iteration++;
-            model.maximizationStep( data );
+            model.maximizationStep( data, pool );
             currentChangeInMixtureCoefficients = model.normalizePMixtureLog10();
-            model.expectationStep( data );
+            model.expectationStep( data, pool );
             if( iteration % 5 == 0 ) { // cut down on the number of output lines so that users can read the warning messages
                 logger.info("Finished iteration " + iteration + ". \tCurrent change in mixture coefficients = " + String.format("%.5f", currentChangeInMixtureCoefficients));
             }
@@ -123,7 +136,7 @@ public class VariantRecalibratorEngine {
             }
         }
 
-        model.evaluateFinalModelParameters( data );
+        model.evaluateFinalModelParameters( data, pool );
     }
 
     /////////////////////////////
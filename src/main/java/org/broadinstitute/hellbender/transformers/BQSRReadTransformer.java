@@ -11,7 +11,6 @@ import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 import org.broadinstitute.hellbender.utils.recalibration.*;
-import org.broadinstitute.hellbender.utils.recalibration.covariates.CovariateKeyCache;
 import org.broadinstitute.hellbender.utils.recalibration.covariates.ReadCovariates;
 import org.broadinstitute.hellbender.utils.recalibration.covariates.StandardCovariateList;
 
@@ -47,7 +46,9 @@ public final class BQSRReadTransformer implements ReadTransformer {
     private final boolean useOriginalBaseQualities;
 
     private byte[] staticQuantizedMapping;
-    private final CovariateKeyCache keyCache;
+
+    // reused across reads so that computing the covariates of a read doesn't allocate; created lazily since it is not serialized
+    private transient ReadCovariates readCovariates;
 
     /**
      * Constructor using a GATK Report file
@@ -97,7 +98,6 @@ public final class BQSRReadTransformer implements ReadTransformer {
 
         //Note: We pre-create the varargs arrays that will be used in the calls. Otherwise we're spending a lot of time allocating those int[] objects
         empiricalQualCovsArgs = new RecalDatum[totalCovariateCount - specialCovariateCount];
-        keyCache = new CovariateKeyCache();//one cache per transformer
     }
 
     /**
@@ -142,7 +142,11 @@ public final class BQSRReadTransformer implements ReadTransformer {
             }
         }
 
-        final ReadCovariates readCovariates = RecalUtils.computeCovariates(read, header, covariates, false, keyCache);
+        if (readCovariates == null) {
+            readCovariates = new ReadCovariates(covariates.size());
+        }
+        readCovariates.reset(read.getLength());
+        RecalUtils.computeCovariates(read, header, covariates, readCovariates, false);
 
         //clear indel qualities
         read.clearAttribute(ReadUtils.BQSR_BASE_INSERTION_QUALITIES);
@@ -0,0 +1,238 @@
+package org.broadinstitute.hellbender.utils;
+
+import com.google.common.annotations.VisibleForTesting;
+import htsjdk.tribble.FeatureCodec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.barclay.argparser.ClassFinder;
+import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
+import org.broadinstitute.hellbender.engine.filters.ReadFilter;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.tools.walkers.annotator.Annotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A registry of the subclasses of a few base classes (command line programs, codecs, and plugins) that are found
+ * on the classpath, recorded at build time so that they can be looked up at startup without scanning the classpath.
+ *
+ * Scanning with barclay's {@link ClassFinder} loads every class in the scanned packages, which takes seconds for
+ * the packages in the GATK jar.  The build runs {@link #main(String[])} to scan {@link #REGISTERED_PACKAGES} once
+ * for the subclasses of {@link #REGISTERED_BASE_CLASSES}, and packages the result into the jar as
+ * {@link #REGISTRY_RESOURCE}.  {@link #findClasses(String, Class)} then looks up the classes in the registry when it
+ * covers the requested package and base class, and falls back to scanning otherwise, or when there is no registry on
+ * the classpath (eg. when running from the class directories in tests or an IDE).
+ */
+public final class ClassRegistry {
+    private static final Logger logger = LogManager.getLogger(ClassRegistry.class);
+
+    /**
+     * Classpath location of the registry generated at build time.
+     */
+    public static final String REGISTRY_RESOURCE = "org/broadinstitute/hellbender/utils/classRegistry.tsv";
+
+    /**
+     * Packages scanned at build time.  These cover the packages searched for command line programs by
+     * {@link org.broadinstitute.hellbender.Main} and for codecs by {@link org.broadinstitute.hellbender.engine.FeatureManager}.
+     */
+    public static final List<String> REGISTERED_PACKAGES =
+            Collections.unmodifiableList(Arrays.asList("org.broadinstitute.hellbender", "picard", "htsjdk"));
+
+    /**
+     * Base classes whose subclasses are recorded at build time.
+     */
+    public static final List<Class<?>> REGISTERED_BASE_CLASSES = Collections.unmodifiableList(Arrays.asList(
+            CommandLineProgram.class,
+            picard.cmdline.CommandLineProgram.class,
+            FeatureCodec.class,
+            ReadFilter.class,
+            Annotation.class));
+
+    private static final String PACKAGE_RECORD = "package";
+    private static final String CLASS_RECORD = "class";
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private final Set<String> packages;
+    private final Map<String, List<String>> classNamesByBaseClassName;
+
+    private ClassRegistry(final Set<String> packages, final Map<String, List<String>> classNamesByBaseClassName) {
+        this.packages = packages;
+        this.classNamesByBaseClassName = classNamesByBaseClassName;
+    }
+
+    // the registry on the classpath, loaded on first use
+    private static final class DefaultRegistryHolder {
+        private static final ClassRegistry REGISTRY = loadDefault();
+    }
+
+    private static ClassRegistry loadDefault() {
+        try ( final InputStream registryStream = ClassRegistry.class.getClassLoader().getResourceAsStream(REGISTRY_RESOURCE) ) {
+            if ( registryStream == null ) {
+                return new ClassRegistry(Collections.emptySet(), Collections.emptyMap());
+            }
+            return read(registryStream);
+        } catch ( final IOException | GATKException e ) {
+            logger.warn("Unable to read the class registry, scanning the classpath instead: " + e.getMessage());
+            return new ClassRegistry(Collections.emptySet(), Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Find the classes in a package (or its sub-packages) that are assignable to a base class, as
+     * {@link ClassFinder#find(String, Class)} followed by {@link ClassFinder#getClasses()} would.
+     * The classes are looked up in the registry on the classpath if there is one that covers the package and
+     * base class, and found by scanning the classpath otherwise.
+     *
+     * @param packageName package to search
+     * @param baseClass base class of the classes sought
+     * @return a new (modifiable) set of the classes found
+     */
+    public static Set<Class<?>> findClasses(final String packageName, final Class<?> baseClass) {
+        Utils.nonNull(packageName, "package name");
+        Utils.nonNull(baseClass, "base class");
+        final Set<Class<?>> registeredClasses = DefaultRegistryHolder.REGISTRY.lookUp(packageName, baseClass);
+        if ( registeredClasses != null ) {
+            return registeredClasses;
+        }
+        final ClassFinder finder = new ClassFinder();
+        finder.find(packageName, baseClass);
+        return finder.getClasses();
+    }
+
+    /**
+     * Build a registry by scanning the classpath.
+     *
+     * @param packageNames packages to scan
+     * @param baseClasses base classes whose subclasses are recorded
+     */
+    @VisibleForTesting
+    static ClassRegistry scan(final List<String> packageNames, final List<Class<?>> baseClasses) {
+        Utils.nonEmpty(packageNames, "package names");
+        Utils.nonEmpty(baseClasses, "base classes");
+        // scan once for all classes, rather than once per base class
+        final ClassFinder finder = new ClassFinder();
+        packageNames.forEach(packageName -> finder.find(packageName, Object.class));
+        final Set<Class<?>> classes = finder.getClasses();
+        final Map<String, List<String>> classNamesByBaseClassName = new LinkedHashMap<>();
+        for ( final Class<?> baseClass : baseClasses ) {
+            final Set<String> classNames = new TreeSet<>();
+            for ( final Class<?> clazz : classes ) {
+                if ( baseClass.isAssignableFrom(clazz) ) {
+                    classNames.add(clazz.getName());
+                }
+            }
+            classNamesByBaseClassName.put(baseClass.getName(), new ArrayList<>(classNames));
+        }
+        return new ClassRegistry(new LinkedHashSet<>(packageNames), classNamesByBaseClassName);
+    }
+
+    /**
+     * Read a registry written by {@link #write(Writer)}.
+     */
+    @VisibleForTesting
+    static ClassRegistry read(final InputStream inputStream) throws IOException {
+        final Set<String> packages = new LinkedHashSet<>();
+        final Map<String, List<String>> classNamesByBaseClassName = new LinkedHashMap<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ( (line = reader.readLine()) != null ) {
+            final String[] fields = line.split(FIELD_SEPARATOR);
+            if ( fields.length == 2 && fields[0].equals(PACKAGE_RECORD) ) {
+                packages.add(fields[1]);
+            } else if ( fields.length == 3 && fields[0].equals(CLASS_RECORD) ) {
+                classNamesByBaseClassName.computeIfAbsent(fields[1], k -> new ArrayList<>()).add(fields[2]);
+            } else if ( fields.length == 2 && fields[0].equals(CLASS_RECORD) ) {
+                classNamesByBaseClassName.computeIfAbsent(fields[1], k -> new ArrayList<>());
+            } else {
+                throw new GATKException("Malformed class registry line: " + line);
+            }
+        }
+        return new ClassRegistry(packages, classNamesByBaseClassName);
+    }
+
+    /**
+     * Write the registry as tab-separated records.  A base class with no subclasses is recorded on its own, so that
+     * it's still known to be registered.
+     */
+    @VisibleForTesting
+    void write(final Writer writer) {
+        final PrintWriter printWriter = new PrintWriter(writer);
+        packages.forEach(packageName -> printWriter.println(PACKAGE_RECORD + FIELD_SEPARATOR + packageName));
+        classNamesByBaseClassName.forEach((baseClassName, classNames) -> {
+            if ( classNames.isEmpty() ) {
+                printWriter.println(CLASS_RECORD + FIELD_SEPARATOR + baseClassName);
+            }
+            classNames.forEach(className ->
+                    printWriter.println(CLASS_RECORD + FIELD_SEPARATOR + baseClassName + FIELD_SEPARATOR + className));
+        });
+        printWriter.flush();
+    }
+
+    /**
+     * Look up the classes in a package (or its sub-packages) that are assignable to a base class.
+     *
+     * @return a new set of the classes, or null if the package or base class is not covered by this registry,
+     *         or if any of the registered classes can't be loaded
+     */
+    @VisibleForTesting
+    Set<Class<?>> lookUp(final String packageName, final Class<?> baseClass) {
+        final List<String> classNames = classNamesByBaseClassName.get(baseClass.getName());
+        if ( classNames == null || !isRegisteredPackage(packageName) ) {
+            return null;
+        }
+        final String packagePrefix = packageName + ".";
+        final ClassLoader classLoader = ClassRegistry.class.getClassLoader();
+        final Set<Class<?>> classes = new LinkedHashSet<>();
+        for ( final String className : classNames ) {
+            if ( className.startsWith(packagePrefix) ) {
+                try {
+                    classes.add(Class.forName(className, false, classLoader));
+                } catch ( final ClassNotFoundException | LinkageError e ) {
+                    logger.warn(String.format("Unable to load registered class %s, scanning the classpath instead.", className));
+                    return null;
+                }
+            }
+        }
+        return classes;
+    }
+
+    private boolean isRegisteredPackage(final String packageName) {
+        for ( final String registeredPackage : packages ) {
+            if ( packageName.equals(registeredPackage) || packageName.startsWith(registeredPackage + ".") ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scan {@link #REGISTERED_PACKAGES} for the subclasses of {@link #REGISTERED_BASE_CLASSES}, and write the
+     * registry to the file given as the only argument.  Run by the build.
+     */
+    public static void main(final String[] args) throws IOException {
+        if ( args.length != 1 ) {
+            throw new IllegalArgumentException("Usage: ClassRegistry <output registry file>");
+        }
+        final ClassRegistry registry = scan(REGISTERED_PACKAGES, REGISTERED_BASE_CLASSES);
+        try ( final Writer writer = Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8) ) {
+            registry.write(writer);
+        }
+    }
+}
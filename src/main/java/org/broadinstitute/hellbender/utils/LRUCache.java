@@ -16,6 +16,13 @@ public final class LRUCache<K,V> extends LinkedHashMap<K,V> {
         this.maxCapacity = maxCapacity;
     }
 
+    /**
+     * @return the maximum number of items held by this cache
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
     @Override
     protected boolean removeEldestEntry(final Map.Entry<K,V> entry) {
         return size() > this.maxCapacity;
@@ -57,8 +57,42 @@ public final class Utils {
     private static final long GATK_RANDOM_SEED = 47382911L;
     private static final Random randomGenerator = new Random(GATK_RANDOM_SEED);
     private static final RandomDataGenerator randomDataGenerator = new RandomDataGenerator(new Well19937c(GATK_RANDOM_SEED));
+    private static final ThreadLocal<Random> threadRandomGenerator = new ThreadLocal<>();
+
+    /**
+     * @return the random generator set on this thread by {@link #runWithRandomGenerator}, if any, otherwise the
+     *         static random generator
+     */
+    public static Random getRandomGenerator() {
+        final Random generator = threadRandomGenerator.get();
+        return generator != null ? generator : randomGenerator;
+    }
+
+    /**
+     * Run {@code action} with {@link #getRandomGenerator} returning {@code generator} on this thread. Code processing
+     * independent units of work on several threads can give each unit its own generator, seeded from the unit, so that
+     * the random numbers drawn for a unit don't depend on which thread processes it, or when.
+     *
+     * @param generator random generator to use while running {@code action}
+     * @param action action to run
+     * @return the result of {@code action}
+     */
+    public static <T> T runWithRandomGenerator(final Random generator, final Supplier<T> action) {
+        nonNull(generator);
+        nonNull(action);
+        final Random previousGenerator = threadRandomGenerator.get();
+        threadRandomGenerator.set(generator);
+        try {
+            return action.get();
+        } finally {
+            if ( previousGenerator == null ) {
+                threadRandomGenerator.remove();
+            } else {
+                threadRandomGenerator.set(previousGenerator);
+            }
+        }
+    }
 
-    public static Random getRandomGenerator() { return randomGenerator; }
     public static RandomDataGenerator getRandomDataGenerator() { return randomDataGenerator; }
 
     public static void resetRandomGenerator() {
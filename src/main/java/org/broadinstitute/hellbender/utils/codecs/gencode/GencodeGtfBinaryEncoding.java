@@ -0,0 +1,367 @@
+package org.broadinstitute.hellbender.utils.codecs.gencode;
+
+import htsjdk.tribble.annotation.Strand;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Binary encoding of a {@link GencodeGtfGeneFeature} and all of its transcripts, exons, CDS regions, etc., as decoded
+ * from a GENCODE GTF file by {@link GencodeGtfCodec}.
+ *
+ * Decoding a gene does not involve any text parsing: positions and line numbers are stored as integers, enumerated
+ * values as their ordinals, and the fields that a feature shares with its parent feature (contig, gene and transcript
+ * IDs, names, types, ...) are not stored again, the decoded features share the {@link String} instances of their
+ * parents instead.  A decoded gene is equal to the gene that was encoded, including the line numbers of all of its
+ * sub-features.
+ *
+ * The enumerated values are stored by ordinal, so files containing encoded genes should also store the
+ * {@link #SCHEMA_FINGERPRINT} and reject genes encoded with a different fingerprint.
+ */
+public final class GencodeGtfBinaryEncoding {
+
+    // values() allocates a new array on every call, so the enumerated values are cached here:
+    private static final GencodeGtfFeature.FeatureType[] FEATURE_TYPES = GencodeGtfFeature.FeatureType.values();
+    private static final GencodeGtfFeature.AnnotationSource[] ANNOTATION_SOURCES = GencodeGtfFeature.AnnotationSource.values();
+    private static final Strand[] STRANDS = Strand.values();
+    private static final GencodeGtfFeature.GenomicPhase[] GENOMIC_PHASES = GencodeGtfFeature.GenomicPhase.values();
+    private static final GencodeGtfFeature.GeneTranscriptType[] GENE_TRANSCRIPT_TYPES = GencodeGtfFeature.GeneTranscriptType.values();
+    private static final GencodeGtfFeature.GeneTranscriptStatus[] GENE_TRANSCRIPT_STATUSES = GencodeGtfFeature.GeneTranscriptStatus.values();
+    private static final GencodeGtfFeature.LocusLevel[] LOCUS_LEVELS = GencodeGtfFeature.LocusLevel.values();
+    private static final GencodeGtfFeature.FeatureTag[] FEATURE_TAGS = GencodeGtfFeature.FeatureTag.values();
+    private static final GencodeGtfFeature.TranscriptSupportLevel[] TRANSCRIPT_SUPPORT_LEVELS = GencodeGtfFeature.TranscriptSupportLevel.values();
+    private static final GencodeGtfFeature.RemapStatus[] REMAP_STATUSES = GencodeGtfFeature.RemapStatus.values();
+    private static final GencodeGtfFeature.RemapTargetStatus[] REMAP_TARGET_STATUSES = GencodeGtfFeature.RemapTargetStatus.values();
+
+    /**
+     * Fingerprint of the enumerated types whose values are stored by ordinal, so that genes encoded with different
+     * versions of these types can be rejected instead of being silently misread.
+     */
+    public static final int SCHEMA_FINGERPRINT = Arrays.hashCode(new Object[] {
+            Arrays.toString(FEATURE_TYPES),
+            Arrays.toString(ANNOTATION_SOURCES),
+            Arrays.toString(STRANDS),
+            Arrays.toString(GENOMIC_PHASES),
+            Arrays.toString(GENE_TRANSCRIPT_TYPES),
+            Arrays.toString(GENE_TRANSCRIPT_STATUSES),
+            Arrays.toString(LOCUS_LEVELS),
+            Arrays.toString(FEATURE_TAGS),
+            Arrays.toString(TRANSCRIPT_SUPPORT_LEVELS),
+            Arrays.toString(REMAP_STATUSES),
+            Arrays.toString(REMAP_TARGET_STATUSES)
+    });
+
+    // Flags for the fields of a feature that have the same value as in its parent feature, and so are not stored:
+    private static final int SAME_CONTIG = 1;
+    private static final int SAME_GENE_ID = 1 << 1;
+    private static final int SAME_TRANSCRIPT_ID = 1 << 2;
+    private static final int SAME_GENE_TYPE = 1 << 3;
+    private static final int SAME_GENE_STATUS = 1 << 4;
+    private static final int SAME_GENE_NAME = 1 << 5;
+    private static final int SAME_TRANSCRIPT_TYPE = 1 << 6;
+    private static final int SAME_TRANSCRIPT_STATUS = 1 << 7;
+    private static final int SAME_TRANSCRIPT_NAME = 1 << 8;
+    private static final int SAME_LOCUS_LEVEL = 1 << 9;
+
+    // Flags for the sub-features of an exon:
+    private static final int HAS_CDS = 1;
+    private static final int HAS_START_CODON = 1 << 1;
+    private static final int HAS_STOP_CODON = 1 << 2;
+
+    // Types of the values of optional fields:
+    private static final byte STRING_VALUE = 0;
+    private static final byte LONG_VALUE = 1;
+    private static final byte FEATURE_TAG_VALUE = 2;
+    private static final byte TRANSCRIPT_SUPPORT_LEVEL_VALUE = 3;
+    private static final byte REMAP_STATUS_VALUE = 4;
+    private static final byte REMAP_TARGET_STATUS_VALUE = 5;
+
+    private static final int NULL_ORDINAL = -1;
+
+    private GencodeGtfBinaryEncoding() {}
+
+    /**
+     * Encode the given gene and all of its sub-features.
+     * @param out The {@link DataOutput} to which to write the gene.  Must not be {@code null}.
+     * @param gene The {@link GencodeGtfGeneFeature} to write.  Must not be {@code null}.
+     */
+    public static void writeGene(final DataOutput out, final GencodeGtfGeneFeature gene) throws IOException {
+        Utils.nonNull(out);
+        Utils.nonNull(gene);
+        writeFeature(out, gene, null);
+    }
+
+    /**
+     * Decode a gene and all of its sub-features, as written by {@link #writeGene}.
+     * @param in The {@link DataInput} from which to read the gene.  Must not be {@code null}.
+     * @param ucscGenomeVersion The UCSC genome version to set on the decoded features.
+     * @return The decoded {@link GencodeGtfGeneFeature}.
+     */
+    public static GencodeGtfGeneFeature readGene(final DataInput in, final String ucscGenomeVersion) throws IOException {
+        Utils.nonNull(in);
+        final GencodeGtfFeature feature = readFeature(in, null, ucscGenomeVersion);
+        if ( feature.getFeatureType() != GencodeGtfFeature.FeatureType.GENE ) {
+            throw new UserException.MalformedFile("Expected a gene in binary GENCODE data, found a " + feature.getFeatureType());
+        }
+        return (GencodeGtfGeneFeature) feature;
+    }
+
+    private static void writeFeature(final DataOutput out, final GencodeGtfFeature feature, final GencodeGtfFeature parent) throws IOException {
+        out.writeByte(feature.getFeatureType().ordinal());
+        out.writeInt(feature.getFeatureOrderNumber());
+
+        int sameAsParent = 0;
+        if ( parent != null ) {
+            sameAsParent |= flagIfEqual(feature.getChromosomeName(),   parent.getChromosomeName(),   SAME_CONTIG);
+            sameAsParent |= flagIfEqual(feature.getGeneId(),           parent.getGeneId(),           SAME_GENE_ID);
+            sameAsParent |= flagIfEqual(feature.getTranscriptId(),     parent.getTranscriptId(),     SAME_TRANSCRIPT_ID);
+            sameAsParent |= flagIfEqual(feature.getGeneType(),         parent.getGeneType(),         SAME_GENE_TYPE);
+            sameAsParent |= flagIfEqual(feature.getGeneStatus(),       parent.getGeneStatus(),       SAME_GENE_STATUS);
+            sameAsParent |= flagIfEqual(feature.getGeneName(),         parent.getGeneName(),         SAME_GENE_NAME);
+            sameAsParent |= flagIfEqual(feature.getTranscriptType(),   parent.getTranscriptType(),   SAME_TRANSCRIPT_TYPE);
+            sameAsParent |= flagIfEqual(feature.getTranscriptStatus(), parent.getTranscriptStatus(), SAME_TRANSCRIPT_STATUS);
+            sameAsParent |= flagIfEqual(feature.getTranscriptName(),   parent.getTranscriptName(),   SAME_TRANSCRIPT_NAME);
+            sameAsParent |= flagIfEqual(feature.getLocusLevel(),       parent.getLocusLevel(),       SAME_LOCUS_LEVEL);
+        }
+        out.writeShort(sameAsParent);
+
+        if ( (sameAsParent & SAME_CONTIG) == 0 ) {
+            out.writeUTF(feature.getChromosomeName());
+        }
+        out.writeInt(feature.getStart());
+        out.writeInt(feature.getEnd());
+
+        writeEnum(out, feature.getAnnotationSource());
+        writeEnum(out, feature.getGenomicStrand());
+        writeEnum(out, feature.getGenomicPhase());
+
+        if ( (sameAsParent & SAME_GENE_ID) == 0 )           { writeString(out, feature.getGeneId()); }
+        if ( (sameAsParent & SAME_TRANSCRIPT_ID) == 0 )     { writeString(out, feature.getTranscriptId()); }
+        if ( (sameAsParent & SAME_GENE_TYPE) == 0 )         { writeEnum(out, feature.getGeneType()); }
+        if ( (sameAsParent & SAME_GENE_STATUS) == 0 )       { writeEnum(out, feature.getGeneStatus()); }
+        if ( (sameAsParent & SAME_GENE_NAME) == 0 )         { writeString(out, feature.getGeneName()); }
+        if ( (sameAsParent & SAME_TRANSCRIPT_TYPE) == 0 )   { writeEnum(out, feature.getTranscriptType()); }
+        if ( (sameAsParent & SAME_TRANSCRIPT_STATUS) == 0 ) { writeEnum(out, feature.getTranscriptStatus()); }
+        if ( (sameAsParent & SAME_TRANSCRIPT_NAME) == 0 )   { writeString(out, feature.getTranscriptName()); }
+        out.writeInt(feature.getExonNumber());
+        writeString(out, feature.getExonId());
+        if ( (sameAsParent & SAME_LOCUS_LEVEL) == 0 )       { writeEnum(out, feature.getLocusLevel()); }
+
+        final List<GencodeGtfFeature.OptionalField<?>> optionalFields = feature.getOptionalFields();
+        Utils.validate(optionalFields.size() <= Short.MAX_VALUE, () -> "Too many optional fields in " + feature.getGeneId());
+        out.writeShort(optionalFields.size());
+        for ( final GencodeGtfFeature.OptionalField<?> optionalField : optionalFields ) {
+            writeOptionalField(out, optionalField);
+        }
+        writeString(out, feature.getAnonymousOptionalFields());
+
+        switch ( feature.getFeatureType() ) {
+            case GENE:
+                writeFeatures(out, ((GencodeGtfGeneFeature) feature).getTranscripts(), feature);
+                break;
+            case TRANSCRIPT:
+                final GencodeGtfTranscriptFeature transcript = (GencodeGtfTranscriptFeature) feature;
+                writeFeatures(out, transcript.getExons(), transcript);
+                writeFeatures(out, transcript.getSelenocysteines(), transcript);
+                writeFeatures(out, transcript.getUtrs(), transcript);
+                break;
+            case EXON:
+                final GencodeGtfExonFeature exon = (GencodeGtfExonFeature) feature;
+                out.writeByte((exon.getCds() != null ? HAS_CDS : 0) |
+                              (exon.getStartCodon() != null ? HAS_START_CODON : 0) |
+                              (exon.getStopCodon() != null ? HAS_STOP_CODON : 0));
+                if ( exon.getCds() != null ) {
+                    writeFeature(out, exon.getCds(), exon);
+                }
+                if ( exon.getStartCodon() != null ) {
+                    writeFeature(out, exon.getStartCodon(), exon);
+                }
+                if ( exon.getStopCodon() != null ) {
+                    writeFeature(out, exon.getStopCodon(), exon);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void writeFeatures(final DataOutput out, final List<? extends GencodeGtfFeature> features, final GencodeGtfFeature parent) throws IOException {
+        out.writeInt(features.size());
+        for ( final GencodeGtfFeature feature : features ) {
+            writeFeature(out, feature, parent);
+        }
+    }
+
+    private static void writeOptionalField(final DataOutput out, final GencodeGtfFeature.OptionalField<?> optionalField) throws IOException {
+        out.writeUTF(optionalField.getName());
+
+        final Object value = optionalField.getValue();
+        if ( value instanceof String ) {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF((String) value);
+        }
+        else if ( value instanceof Long ) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong((Long) value);
+        }
+        else if ( value instanceof GencodeGtfFeature.FeatureTag ) {
+            out.writeByte(FEATURE_TAG_VALUE);
+            writeEnum(out, (GencodeGtfFeature.FeatureTag) value);
+        }
+        else if ( value instanceof GencodeGtfFeature.TranscriptSupportLevel ) {
+            out.writeByte(TRANSCRIPT_SUPPORT_LEVEL_VALUE);
+            writeEnum(out, (GencodeGtfFeature.TranscriptSupportLevel) value);
+        }
+        else if ( value instanceof GencodeGtfFeature.RemapStatus ) {
+            out.writeByte(REMAP_STATUS_VALUE);
+            writeEnum(out, (GencodeGtfFeature.RemapStatus) value);
+        }
+        else if ( value instanceof GencodeGtfFeature.RemapTargetStatus ) {
+            out.writeByte(REMAP_TARGET_STATUS_VALUE);
+            writeEnum(out, (GencodeGtfFeature.RemapTargetStatus) value);
+        }
+        else {
+            throw new GATKException("Unsupported type of optional field value: " + optionalField.getName() + " = " + value);
+        }
+    }
+
+    private static int flagIfEqual(final Object value, final Object parentValue, final int flag) {
+        return Objects.equals(value, parentValue) ? flag : 0;
+    }
+
+    private static void writeEnum(final DataOutput out, final Enum<?> value) throws IOException {
+        out.writeShort(value == null ? NULL_ORDINAL : value.ordinal());
+    }
+
+    private static void writeString(final DataOutput out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if ( value != null ) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Decode a feature and all of its sub-features.
+     * @param in The {@link DataInput} from which to read the feature.
+     * @param parent The feature of which the feature to read is a sub-feature, or {@code null} for genes.
+     * @param ucscGenomeVersion The UCSC genome version to set on the decoded features.
+     * @return The decoded {@link GencodeGtfFeature}.
+     */
+    private static GencodeGtfFeature readFeature(final DataInput in, final GencodeGtfFeature parent, final String ucscGenomeVersion) throws IOException {
+        final GencodeGtfFeatureBaseData baseData = new GencodeGtfFeatureBaseData();
+
+        baseData.featureType = FEATURE_TYPES[in.readByte()];
+        baseData.featureOrderNumber = in.readInt();
+
+        final int sameAsParent = in.readShort();
+        final String contig = (sameAsParent & SAME_CONTIG) != 0 ? parent.getChromosomeName() : in.readUTF();
+        final int start = in.readInt();
+        final int end = in.readInt();
+        baseData.genomicPosition = new SimpleInterval(contig, start, end);
+
+        baseData.annotationSource = readEnum(in, ANNOTATION_SOURCES);
+        baseData.genomicStrand = readEnum(in, STRANDS);
+        baseData.genomicPhase = readEnum(in, GENOMIC_PHASES);
+
+        baseData.geneId           = (sameAsParent & SAME_GENE_ID) != 0 ? parent.getGeneId() : readString(in);
+        baseData.transcriptId     = (sameAsParent & SAME_TRANSCRIPT_ID) != 0 ? parent.getTranscriptId() : readString(in);
+        baseData.geneType         = (sameAsParent & SAME_GENE_TYPE) != 0 ? parent.getGeneType() : readEnum(in, GENE_TRANSCRIPT_TYPES);
+        baseData.geneStatus       = (sameAsParent & SAME_GENE_STATUS) != 0 ? parent.getGeneStatus() : readEnum(in, GENE_TRANSCRIPT_STATUSES);
+        baseData.geneName         = (sameAsParent & SAME_GENE_NAME) != 0 ? parent.getGeneName() : readString(in);
+        baseData.transcriptType   = (sameAsParent & SAME_TRANSCRIPT_TYPE) != 0 ? parent.getTranscriptType() : readEnum(in, GENE_TRANSCRIPT_TYPES);
+        baseData.transcriptStatus = (sameAsParent & SAME_TRANSCRIPT_STATUS) != 0 ? parent.getTranscriptStatus() : readEnum(in, GENE_TRANSCRIPT_STATUSES);
+        baseData.transcriptName   = (sameAsParent & SAME_TRANSCRIPT_NAME) != 0 ? parent.getTranscriptName() : readString(in);
+        baseData.exonNumber       = in.readInt();
+        baseData.exonId           = readString(in);
+        baseData.locusLevel       = (sameAsParent & SAME_LOCUS_LEVEL) != 0 ? parent.getLocusLevel() : readEnum(in, LOCUS_LEVELS);
+
+        final int numOptionalFields = in.readShort();
+        for ( int i = 0; i < numOptionalFields; ++i ) {
+            baseData.optionalFields.add(readOptionalField(in));
+        }
+        baseData.anonymousOptionalFields = readString(in);
+
+        final GencodeGtfFeature feature = GencodeGtfFeature.create(baseData);
+        feature.setUcscGenomeVersion(ucscGenomeVersion);
+
+        switch ( baseData.featureType ) {
+            case GENE:
+                final GencodeGtfGeneFeature gene = (GencodeGtfGeneFeature) feature;
+                final int numTranscripts = in.readInt();
+                for ( int i = 0; i < numTranscripts; ++i ) {
+                    gene.addTranscript((GencodeGtfTranscriptFeature) readFeature(in, gene, ucscGenomeVersion));
+                }
+                break;
+            case TRANSCRIPT:
+                final GencodeGtfTranscriptFeature transcript = (GencodeGtfTranscriptFeature) feature;
+                final int numExons = in.readInt();
+                for ( int i = 0; i < numExons; ++i ) {
+                    transcript.addExon((GencodeGtfExonFeature) readFeature(in, transcript, ucscGenomeVersion));
+                }
+                final int numSelenocysteines = in.readInt();
+                for ( int i = 0; i < numSelenocysteines; ++i ) {
+                    transcript.addSelenocysteine((GencodeGtfSelenocysteineFeature) readFeature(in, transcript, ucscGenomeVersion));
+                }
+                final int numUtrs = in.readInt();
+                for ( int i = 0; i < numUtrs; ++i ) {
+                    transcript.addUtr((GencodeGtfUTRFeature) readFeature(in, transcript, ucscGenomeVersion));
+                }
+                break;
+            case EXON:
+                final GencodeGtfExonFeature exon = (GencodeGtfExonFeature) feature;
+                final int subFeatures = in.readByte();
+                if ( (subFeatures & HAS_CDS) != 0 ) {
+                    exon.setCds((GencodeGtfCDSFeature) readFeature(in, exon, ucscGenomeVersion));
+                }
+                if ( (subFeatures & HAS_START_CODON) != 0 ) {
+                    exon.setStartCodon((GencodeGtfStartCodonFeature) readFeature(in, exon, ucscGenomeVersion));
+                }
+                if ( (subFeatures & HAS_STOP_CODON) != 0 ) {
+                    exon.setStopCodon((GencodeGtfStopCodonFeature) readFeature(in, exon, ucscGenomeVersion));
+                }
+                break;
+            default:
+                break;
+        }
+
+        return feature;
+    }
+
+    private static GencodeGtfFeature.OptionalField<?> readOptionalField(final DataInput in) throws IOException {
+        final String name = in.readUTF();
+        final byte valueType = in.readByte();
+        switch ( valueType ) {
+            case STRING_VALUE:
+                return new GencodeGtfFeature.OptionalField<>(name, in.readUTF());
+            case LONG_VALUE:
+                return new GencodeGtfFeature.OptionalField<>(name, in.readLong());
+            case FEATURE_TAG_VALUE:
+                return new GencodeGtfFeature.OptionalField<>(name, readEnum(in, FEATURE_TAGS));
+            case TRANSCRIPT_SUPPORT_LEVEL_VALUE:
+                return new GencodeGtfFeature.OptionalField<>(name, readEnum(in, TRANSCRIPT_SUPPORT_LEVELS));
+            case REMAP_STATUS_VALUE:
+                return new GencodeGtfFeature.OptionalField<>(name, readEnum(in, REMAP_STATUSES));
+            case REMAP_TARGET_STATUS_VALUE:
+                return new GencodeGtfFeature.OptionalField<>(name, readEnum(in, REMAP_TARGET_STATUSES));
+            default:
+                throw new UserException.MalformedFile("Unknown type of optional field value in binary GENCODE data: " + valueType);
+        }
+    }
+
+    private static <T extends Enum<T>> T readEnum(final DataInput in, final T[] values) throws IOException {
+        final int ordinal = in.readShort();
+        return ordinal == NULL_ORDINAL ? null : values[ordinal];
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -11,6 +11,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -112,6 +113,25 @@ final public class GencodeGtfCodec extends AbstractFeatureCodec<GencodeGtfFeatur
         }
     }
 
+    /**
+     * Reads the UCSC version of the features of a GENCODE GTF file from its header, without decoding any features.
+     * This is the UCSC version set on every feature decoded from the file.
+     *
+     * @param gtfPath The {@link Path} to the GENCODE GTF file.
+     * @return The UCSC version in a {@link String} corresponding to the gencode version of the given file.
+     */
+    public static String readUcscGenomeVersion(final Path gtfPath) {
+        final GencodeGtfCodec codec = new GencodeGtfCodec();
+        try ( final InputStream inputStream = new BufferedInputStream(Files.newInputStream(gtfPath)) ) {
+            final InputStream gtfStream = IOUtil.hasBlockCompressedExtension(gtfPath.toString()) ? IOUtils.makeZippedInputStream(inputStream) : inputStream;
+            codec.readActualHeader(codec.makeSourceFromStream(gtfStream));
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotReadInputFile(gtfPath, ex);
+        }
+        return getUcscVersionFromGencodeVersion(codec.versionNumber);
+    }
+
     // ============================================================================================================
 
     public GencodeGtfCodec() {
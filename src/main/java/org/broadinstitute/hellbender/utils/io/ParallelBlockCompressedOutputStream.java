@@ -0,0 +1,394 @@
+package org.broadinstitute.hellbender.utils.io;
+
+import com.intel.gkl.compression.IntelDeflaterFactory;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.RuntimeIOException;
+import htsjdk.samtools.util.zip.DeflaterFactory;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.runtime.OrderedWorkerPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.*;
+
+/**
+ * Writes BGZF output, compressing many blocks concurrently on a pool of threads.
+ *
+ * The data is split into blocks exactly as {@link BlockCompressedOutputStream} would split it (full blocks of
+ * {@code DEFAULT_UNCOMPRESSED_BLOCK_SIZE} bytes, plus a partial block on every {@link #flush}), and each block is
+ * compressed on its own with a deflater from the same {@link DeflaterFactory} at the same compression level, so the
+ * output is byte-identical to the output of a {@link BlockCompressedOutputStream}, whatever the number of threads.
+ * Compressed blocks are written to the underlying stream in order, on the thread that writes to this stream.
+ *
+ * The one exception is the Intel deflater at compression levels 1 and 2 (level 2 being GATK's default), which carries
+ * state from one block to the next, so its output depends on which blocks a deflater compressed before. At these levels
+ * the blocks are compressed with the JDK deflater instead (see {@link #getPerBlockDeflaterFactory}), and the output is
+ * byte-identical to the output of a {@link BlockCompressedOutputStream} using the JDK deflater.
+ *
+ * Unlike {@link BlockCompressedOutputStream}, this stream can't report the virtual file pointer of the data written
+ * so far (the size of the blocks still being compressed is not known yet).
+ *
+ * Writers such as htsjdk's BAM writer create their own {@link BlockCompressedOutputStream}. To
+ * compress their output in parallel, give them {@link #STORING_DEFLATER_FACTORY} and write their output to
+ * {@link #storedBlockSink}. The virtual file pointers reported by their stream then refer to the stored blocks; a
+ * {@link StoredBlockListener} is told where each stored block ends up in the compressed output, so that writers can
+ * translate these pointers, e.g. to build an index on the fly.
+ */
+public final class ParallelBlockCompressedOutputStream extends OutputStream {
+
+    /**
+     * A {@link DeflaterFactory} whose deflaters copy their input unchanged. A {@link BlockCompressedOutputStream}
+     * created with this factory still splits its data into BGZF blocks, but leaves the blocks uncompressed, so they can
+     * be compressed in parallel by writing them to {@link #storedBlockSink()}.
+     */
+    public static final DeflaterFactory STORING_DEFLATER_FACTORY = new DeflaterFactory() {
+        @Override
+        public Deflater makeDeflater(final int compressionLevel, final boolean gzipCompatible) {
+            return new StoringDeflater();
+        }
+    };
+
+    /**
+     * Told the address of each stored block given to a {@link #storedBlockSink}, and the address of the same block in
+     * the compressed output, in order, as soon as the compressed block is written (on the thread writing to the sink).
+     * The BGZF terminator block is reported too, once all the blocks before it have been written.
+     */
+    @FunctionalInterface
+    public interface StoredBlockListener {
+        void blockWritten( long storedAddress, long compressedAddress );
+    }
+
+    private static final DeflaterFactory JDK_DEFLATER_FACTORY = new DeflaterFactory();
+
+    private final OutputStream out;
+    private final OrderedWorkerPool<BlockCompressor> compressors;
+    private final byte[] singleByteArray = new byte[1];
+    private byte[] uncompressedBuffer = new byte[DEFAULT_UNCOMPRESSED_BLOCK_SIZE];
+    private int numUncompressedBytes = 0;
+    private long numCompressedBytesWritten = 0;
+    private boolean closed = false;
+
+    /**
+     * Compress with the default compression level and deflater of {@link BlockCompressedOutputStream}.
+     *
+     * @param out stream to which the compressed blocks are written; closed when this stream is closed
+     * @param numThreads number of threads compressing blocks, must be > 0
+     */
+    public ParallelBlockCompressedOutputStream( final OutputStream out, final int numThreads ) {
+        this(out, BlockCompressedOutputStream.getDefaultCompressionLevel(), BlockCompressedOutputStream.getDefaultDeflaterFactory(), numThreads);
+    }
+
+    /**
+     * @param out stream to which the compressed blocks are written; closed when this stream is closed
+     * @param compressionLevel deflate compression level, from -1 (the deflater's default) to 9
+     * @param deflaterFactory factory of the deflaters used to compress the blocks, one per thread, unless its deflaters
+     *                        can't compress blocks independently (see {@link #getPerBlockDeflaterFactory})
+     * @param numThreads number of threads compressing blocks, must be > 0
+     */
+    public ParallelBlockCompressedOutputStream( final OutputStream out, final int compressionLevel, final DeflaterFactory deflaterFactory, final int numThreads ) {
+        Utils.nonNull(out);
+        Utils.nonNull(deflaterFactory);
+        Utils.validateArg(compressionLevel >= Deflater.DEFAULT_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+                "compressionLevel must be between -1 and 9");
+        Utils.validateArg(numThreads > 0, "numThreads must be > 0");
+
+        this.out = out;
+        final DeflaterFactory perBlockDeflaterFactory = getPerBlockDeflaterFactory(compressionLevel, deflaterFactory);
+        compressors = new OrderedWorkerPool<>("bgzf-compressor", numThreads,
+                () -> new BlockCompressor(perBlockDeflaterFactory.makeDeflater(compressionLevel, true)), BlockCompressor::close);
+    }
+
+    /**
+     * Blocks compressed in parallel must not depend on the blocks compressed before them by the same deflater. The
+     * Intel deflater keeps state between blocks at compression levels 1 and 2, so the JDK deflater is used instead at
+     * these levels; any other deflater is used as is.
+     *
+     * @return the factory of the deflaters that compress the blocks of a stream created with these settings
+     */
+    public static DeflaterFactory getPerBlockDeflaterFactory( final int compressionLevel, final DeflaterFactory deflaterFactory ) {
+        Utils.nonNull(deflaterFactory);
+        if ( deflaterFactory instanceof IntelDeflaterFactory && compressionLevel >= 1 && compressionLevel <= 2 ) {
+            return JDK_DEFLATER_FACTORY;
+        }
+        return deflaterFactory;
+    }
+
+    @Override
+    public void write( final int b ) throws IOException {
+        singleByteArray[0] = (byte)b;
+        write(singleByteArray, 0, 1);
+    }
+
+    @Override
+    public void write( final byte[] bytes, int startIndex, int numBytes ) throws IOException {
+        Utils.validate(!closed, "stream is closed");
+        while ( numBytes > 0 ) {
+            final int bytesToWrite = Math.min(uncompressedBuffer.length - numUncompressedBytes, numBytes);
+            System.arraycopy(bytes, startIndex, uncompressedBuffer, numUncompressedBytes, bytesToWrite);
+            numUncompressedBytes += bytesToWrite;
+            startIndex += bytesToWrite;
+            numBytes -= bytesToWrite;
+            if ( numUncompressedBytes == uncompressedBuffer.length ) {
+                submitUncompressedBuffer();
+            }
+        }
+    }
+
+    /**
+     * Ends the current block, waits for all blocks to be compressed and written, and flushes the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        Utils.validate(!closed, "stream is closed");
+        if ( numUncompressedBytes > 0 ) {
+            submitUncompressedBuffer();
+        }
+        compressors.drain();
+        out.flush();
+    }
+
+    /**
+     * Writes all remaining blocks followed by the BGZF terminator block, and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if ( closed ) {
+            return;
+        }
+        try {
+            flush();
+            out.write(EMPTY_GZIP_BLOCK);
+        } finally {
+            closed = true;
+            compressors.close();
+            out.close();
+        }
+    }
+
+    /**
+     * Returns a stream that accepts the BGZF output of a {@link BlockCompressedOutputStream} created with
+     * {@link #STORING_DEFLATER_FACTORY}, and compresses each of its blocks into this stream, keeping the block
+     * boundaries chosen by that stream. Flushing or closing the returned stream flushes or closes this stream.
+     *
+     * The returned stream must be the only source of data for this stream.
+     */
+    public OutputStream storedBlockSink() {
+        return storedBlockSink((storedAddress, compressedAddress) -> {});
+    }
+
+    /**
+     * Like {@link #storedBlockSink()}, telling {@code listener} where each of the stored blocks is written.
+     */
+    public OutputStream storedBlockSink( final StoredBlockListener listener ) {
+        return new StoredBlockSink(Utils.nonNull(listener));
+    }
+
+    private void submitUncompressedBuffer() {
+        submitBlock(uncompressedBuffer, numUncompressedBytes, compressedAddress -> {});
+        // the submitted buffer now belongs to its compression task
+        uncompressedBuffer = new byte[DEFAULT_UNCOMPRESSED_BLOCK_SIZE];
+        numUncompressedBytes = 0;
+    }
+
+    /**
+     * @param onWrite given the address of the compressed block just before it's written
+     */
+    private void submitBlock( final byte[] data, final int length, final LongConsumer onWrite ) {
+        compressors.submit(compressor -> {
+            final byte[] block = compressor.compress(data, length);
+            return () -> {
+                onWrite.accept(numCompressedBytesWritten);
+                try {
+                    out.write(block);
+                } catch ( IOException e ) {
+                    throw new RuntimeIOException(e);
+                }
+                numCompressedBytesWritten += block.length;
+            };
+        });
+    }
+
+    /**
+     * Compresses blocks with a private deflater, following the same steps as
+     * {@link BlockCompressedOutputStream}, so each compressed block is identical to the block it would write.
+     */
+    private static final class BlockCompressor {
+        private final Deflater deflater;
+        private final Deflater noCompressionDeflater = new Deflater(Deflater.NO_COMPRESSION, true);
+        private final CRC32 crc32 = new CRC32();
+        private final byte[] compressedBuffer = new byte[MAX_COMPRESSED_BLOCK_SIZE - BLOCK_HEADER_LENGTH];
+
+        BlockCompressor( final Deflater deflater ) {
+            this.deflater = deflater;
+        }
+
+        /**
+         * @return the complete BGZF block (header, compressed data and footer) for the first {@code length} bytes of {@code data}
+         */
+        byte[] compress( final byte[] data, final int length ) {
+            int compressedSize = deflate(deflater, data, length);
+            if ( ! deflater.finished() ) {
+                // the compressed data doesn't fit in a block, so store the data uncompressed instead
+                compressedSize = deflate(noCompressionDeflater, data, length);
+                if ( ! noCompressionDeflater.finished() ) {
+                    throw new GATKException("BGZF block too large to store uncompressed: " + length + " bytes");
+                }
+            }
+            crc32.reset();
+            crc32.update(data, 0, length);
+
+            final int totalBlockSize = BLOCK_HEADER_LENGTH + compressedSize + BLOCK_FOOTER_LENGTH;
+            final ByteBuffer block = ByteBuffer.allocate(totalBlockSize).order(ByteOrder.LITTLE_ENDIAN);
+            block.put(GZIP_BLOCK_PREAMBLE)
+                    .putShort((short)(totalBlockSize - 1))
+                    .put(compressedBuffer, 0, compressedSize)
+                    .putInt((int)crc32.getValue())
+                    .putInt(length);
+            return block.array();
+        }
+
+        private int deflate( final Deflater deflater, final byte[] data, final int length ) {
+            deflater.reset();
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            return deflater.deflate(compressedBuffer, 0, compressedBuffer.length);
+        }
+
+        void close() {
+            deflater.end();
+            noCompressionDeflater.end();
+        }
+    }
+
+    /**
+     * Splits BGZF output made of stored (uncompressed) blocks back into blocks, and submits their data for compression.
+     */
+    private final class StoredBlockSink extends OutputStream {
+        private final StoredBlockListener listener;
+        private final byte[] block = new byte[MAX_COMPRESSED_BLOCK_SIZE];
+        private final byte[] singleByteArray = new byte[1];
+        private int blockBytes = 0;
+        private long storedAddress = 0;
+
+        StoredBlockSink( final StoredBlockListener listener ) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void write( final int b ) throws IOException {
+            singleByteArray[0] = (byte)b;
+            write(singleByteArray, 0, 1);
+        }
+
+        @Override
+        public void write( final byte[] bytes, int startIndex, int numBytes ) throws IOException {
+            Utils.validate(!closed, "stream is closed");
+            while ( numBytes > 0 ) {
+                // read the header first, to find the size of the block
+                final int blockSize = blockBytes < BLOCK_HEADER_LENGTH ? BLOCK_HEADER_LENGTH : currentBlockSize();
+                final int bytesToWrite = Math.min(blockSize - blockBytes, numBytes);
+                System.arraycopy(bytes, startIndex, block, blockBytes, bytesToWrite);
+                blockBytes += bytesToWrite;
+                startIndex += bytesToWrite;
+                numBytes -= bytesToWrite;
+                if ( blockBytes >= BLOCK_HEADER_LENGTH && blockBytes == currentBlockSize() ) {
+                    submitStoredBlock();
+                    blockBytes = 0;
+                }
+            }
+        }
+
+        private int currentBlockSize() {
+            return (ByteBuffer.wrap(block).order(ByteOrder.LITTLE_ENDIAN).getShort(BLOCK_LENGTH_OFFSET) & 0xFFFF) + 1;
+        }
+
+        private void submitStoredBlock() {
+            final int blockSize = currentBlockSize();
+            final int dataLength = blockSize - BLOCK_HEADER_LENGTH - BLOCK_FOOTER_LENGTH;
+            final int uncompressedLength = ByteBuffer.wrap(block).order(ByteOrder.LITTLE_ENDIAN).getInt(blockSize - 4);
+            final long blockAddress = storedAddress;
+            storedAddress += blockSize;
+            if ( uncompressedLength == 0 ) {
+                // the terminator block, which is written again when this stream is closed, right after the blocks before it
+                compressors.submit(compressor -> () -> listener.blockWritten(blockAddress, numCompressedBytesWritten));
+                return;
+            }
+            if ( dataLength != uncompressedLength ) {
+                throw new GATKException("BGZF block was not written with STORING_DEFLATER_FACTORY: stored "
+                        + dataLength + " bytes for " + uncompressedLength + " bytes of data");
+            }
+            submitBlock(Arrays.copyOfRange(block, BLOCK_HEADER_LENGTH, BLOCK_HEADER_LENGTH + dataLength), dataLength,
+                    compressedAddress -> listener.blockWritten(blockAddress, compressedAddress));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ParallelBlockCompressedOutputStream.this.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if ( blockBytes != 0 && ! closed ) {
+                throw new GATKException("Incomplete BGZF block at the end of the output");
+            }
+            ParallelBlockCompressedOutputStream.this.close();
+        }
+    }
+
+    /**
+     * A deflater that copies its input to its output unchanged, supporting the calls made by
+     * {@link BlockCompressedOutputStream} to compress a block.
+     */
+    private static final class StoringDeflater extends Deflater {
+        private byte[] input;
+        private int inputOffset;
+        private int inputLength;
+        private boolean finish;
+
+        StoringDeflater() {
+            super(Deflater.NO_COMPRESSION, true);
+        }
+
+        @Override
+        public void setInput( final byte[] b, final int off, final int len ) {
+            input = b;
+            inputOffset = off;
+            inputLength = len;
+        }
+
+        @Override
+        public void finish() {
+            finish = true;
+        }
+
+        @Override
+        public int deflate( final byte[] b, final int off, final int len ) {
+            final int bytesToCopy = Math.min(len, inputLength);
+            System.arraycopy(input, inputOffset, b, off, bytesToCopy);
+            inputOffset += bytesToCopy;
+            inputLength -= bytesToCopy;
+            return bytesToCopy;
+        }
+
+        @Override
+        public boolean finished() {
+            return finish && inputLength == 0;
+        }
+
+        @Override
+        public void reset() {
+            input = null;
+            inputOffset = 0;
+            inputLength = 0;
+            finish = false;
+        }
+    }
+}
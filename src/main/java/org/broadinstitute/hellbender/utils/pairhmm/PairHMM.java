@@ -51,6 +51,13 @@ public abstract class PairHMM implements Closeable{
             logger.info("Using the non-hardware-accelerated Java LOGLESS_CACHING PairHMM implementation");
             return hmm;
         }),
+        /* LOGLESS_CACHING that reuses the computations for haplotype prefixes shared across the haplotypes evaluated against each read.
+           Produces the same results as LOGLESS_CACHING, and is the fastest Java implementation */
+        PREFIX_SHARING_LOGLESS_CACHING(args -> {
+            final PrefixSharingLoglessPairHMM hmm = new PrefixSharingLoglessPairHMM();
+            logger.info("Using the non-hardware-accelerated Java PREFIX_SHARING_LOGLESS_CACHING PairHMM implementation");
+            return hmm;
+        }),
         /* Optimized AVX implementation of LOGLESS_CACHING called through JNI. Throws if AVX is not available */
         AVX_LOGLESS_CACHING(args -> {
             // Constructor will throw a UserException if AVX is not available
@@ -76,7 +83,7 @@ public abstract class PairHMM implements Closeable{
            Order of precedence:
             1. AVX_LOGLESS_CACHING_OMP
             2. AVX_LOGLESS_CACHING
-            3. LOGLESS_CACHING
+            3. PREFIX_SHARING_LOGLESS_CACHING
          */
         FASTEST_AVAILABLE(args -> {
             // This try block is temporarily commented out becuase FPGA support is experimental for the time being. Once
@@ -105,8 +112,8 @@ public abstract class PairHMM implements Closeable{
             }
             catch ( UserException.HardwareFeatureException e ) {
                 logger.warn("***WARNING: Machine does not have the AVX instruction set support needed for the accelerated AVX PairHmm. " +
-                            "Falling back to the MUCH slower LOGLESS_CACHING implementation!");
-                return new LoglessPairHMM();
+                            "Falling back to the MUCH slower PREFIX_SHARING_LOGLESS_CACHING implementation!");
+                return new PrefixSharingLoglessPairHMM();
             }
         });
 
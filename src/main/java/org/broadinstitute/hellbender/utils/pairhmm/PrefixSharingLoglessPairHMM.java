@@ -0,0 +1,198 @@
+package org.broadinstitute.hellbender.utils.pairhmm;
+
+import org.broadinstitute.hellbender.utils.MathUtils;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.broadinstitute.hellbender.utils.pairhmm.PairHMMModel.*;
+
+/**
+ * Java implementation of LOGLESS_CACHING that reuses the dynamic programming matrix columns of haplotype prefixes
+ * shared between the haplotypes evaluated against each read.
+ *
+ * Column j of the match, insertion and deletion matrices only depends on the read and on the first j bases of the
+ * haplotype (and, through the initial deletion row, on the haplotype length). For each batch of reads the haplotypes
+ * are therefore visited in order of length and then bases, so that haplotypes sharing a prefix are adjacent, and only
+ * the columns past the prefix shared with the previously evaluated haplotype are recomputed.
+ *
+ * The inner loop is also split in two: the match and insertion cells of a row only depend on the previous row, so
+ * they are computed in a loop of independent iterations that the JIT can vectorize, followed by the inherently
+ * sequential deletion recurrence along the row. Every cell is computed with exactly the same operations as in
+ * {@link LoglessPairHMM}, so the likelihoods are identical to those of LOGLESS_CACHING.
+ */
+public final class PrefixSharingLoglessPairHMM extends LoglessPairHMM {
+
+    @Override
+    public void computeLog10Likelihoods(final LikelihoodMatrix<Haplotype> logLikelihoods,
+                                        final List<GATKRead> processedReads,
+                                        final Map<GATKRead, byte[]> gcp) {
+        if (processedReads.isEmpty()) {
+            return;
+        }
+        if(doProfiling) {
+            startTime = System.nanoTime();
+        }
+        // (re)initialize the pairHMM only if necessary
+        final int readMaxLength = findMaxReadLength(processedReads);
+        final List<Haplotype> alleles = logLikelihoods.alleles();
+        final int haplotypeMaxLength = alleles.stream().mapToInt(Haplotype::length).max().orElse(0);
+        if (!initialized || readMaxLength > maxReadLength || haplotypeMaxLength > maxHaplotypeLength) {
+            initialize(readMaxLength, haplotypeMaxLength);
+        }
+
+        final int readCount = processedReads.size();
+        final int alleleCount = alleles.size();
+        final byte[][] haplotypeBases = alleles.stream().map(Haplotype::getBases).toArray(byte[][]::new);
+
+        // visit the haplotypes so that the ones sharing a prefix are adjacent, and find where each one starts to differ
+        // from the previous one; haplotypes of different lengths can't share columns because of the initial deletion row
+        final int[] haplotypeOrder = sortHaplotypesForPrefixSharing(haplotypeBases);
+        final int[] haplotypeStartIndices = new int[alleleCount];
+        for (int k = 1; k < alleleCount; k++) {
+            final byte[] previous = haplotypeBases[haplotypeOrder[k - 1]];
+            final byte[] current = haplotypeBases[haplotypeOrder[k]];
+            haplotypeStartIndices[k] = previous.length == current.length ? findFirstPositionWhereHaplotypesDiffer(previous, current) : 0;
+        }
+
+        mLogLikelihoodArray = new double[readCount * alleleCount];
+        for (int readIndex = 0; readIndex < readCount; readIndex++) {
+            final GATKRead read = processedReads.get(readIndex);
+            final byte[] readBases = read.getBases();
+            final byte[] readQuals = read.getBaseQualities();
+            final byte[] readInsQuals = ReadUtils.getBaseInsertionQualities(read);
+            final byte[] readDelQuals = ReadUtils.getBaseDeletionQualities(read);
+            final byte[] overallGCP = gcp.get(read);
+            validateRead(readBases, readQuals, readInsQuals, readDelQuals, overallGCP);
+
+            paddedReadLength = readBases.length + 1;
+            for (int k = 0; k < alleleCount; k++) {
+                final int a = haplotypeOrder[k];
+                final byte[] bases = haplotypeBases[a];
+                paddedHaplotypeLength = bases.length + 1;
+                // the first haplotype for each read has to recompute everything, since the read (and its constants) changed
+                final boolean isFirstHaplotype = k == 0;
+                final double lk = subComputeReadLikelihoodGivenHaplotypeLog10(bases, readBases, readQuals, readInsQuals, readDelQuals,
+                        overallGCP, isFirstHaplotype ? 0 : haplotypeStartIndices[k], isFirstHaplotype, 0);
+                Utils.validate(lk <= 0.0 && MathUtils.goodLog10Probability(lk), () -> "Invalid Log Probability: " + lk);
+                previousHaplotypeBases = bases;
+
+                logLikelihoods.set(a, readIndex, lk);
+                mLogLikelihoodArray[readIndex * alleleCount + a] = lk;
+            }
+        }
+        if(doProfiling) {
+            threadLocalPairHMMComputeTimeDiff = (System.nanoTime() - startTime);
+            {
+                pairHMMComputeTime += threadLocalPairHMMComputeTimeDiff;
+            }
+        }
+    }
+
+    /**
+     * @return the indices of the haplotypes ordered by length, and then lexicographically by bases
+     */
+    static int[] sortHaplotypesForPrefixSharing(final byte[][] haplotypeBases) {
+        final Comparator<Integer> byLength = Comparator.comparingInt(i -> haplotypeBases[i].length);
+        return IntStream.range(0, haplotypeBases.length).boxed()
+                .sorted(byLength.thenComparing((i, j) -> compareBases(haplotypeBases[i], haplotypeBases[j])))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int compareBases(final byte[] bases1, final byte[] bases2) {
+        final int commonLength = Math.min(bases1.length, bases2.length);
+        for (int i = 0; i < commonLength; i++) {
+            if (bases1[i] != bases2[i]) {
+                return Byte.compare(bases1[i], bases2[i]);
+            }
+        }
+        return Integer.compare(bases1.length, bases2.length);
+    }
+
+    private void validateRead(final byte[] readBases, final byte[] readQuals, final byte[] insertionGOP, final byte[] deletionGOP, final byte[] overallGCP) {
+        Utils.validateArg(readQuals.length == readBases.length, () -> "Read bases and read quals aren't the same size: " + readBases.length + " vs " + readQuals.length);
+        Utils.validateArg( insertionGOP.length == readBases.length, () -> "Read bases and read insertion quals aren't the same size: " + readBases.length + " vs " + insertionGOP.length);
+        Utils.validateArg( deletionGOP.length == readBases.length, () -> "Read bases and read deletion quals aren't the same size: " + readBases.length + " vs " + deletionGOP.length);
+        Utils.validateArg( overallGCP.length == readBases.length, () -> "Read bases and overall GCP aren't the same size: " + readBases.length + " vs " + overallGCP.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double subComputeReadLikelihoodGivenHaplotypeLog10( final byte[] haplotypeBases,
+                                                               final byte[] readBases,
+                                                               final byte[] readQuals,
+                                                               final byte[] insertionGOP,
+                                                               final byte[] deletionGOP,
+                                                               final byte[] overallGCP,
+                                                               final int hapStartIndex,
+                                                               final boolean recacheReadValues,
+                                                               final int nextHapStartIndex) {
+
+        if (previousHaplotypeBases == null || previousHaplotypeBases.length != haplotypeBases.length) {
+            Arrays.fill(deletionMatrix[0], 0, paddedHaplotypeLength, INITIAL_CONDITION / haplotypeBases.length);
+        }
+
+        if ( ! constantsAreInitialized || recacheReadValues ) {
+            initializeProbabilities(transition, insertionGOP, deletionGOP, overallGCP);
+
+            // note that we initialized the constants
+            constantsAreInitialized = true;
+        }
+
+        initializePriors(haplotypeBases, readBases, readQuals, hapStartIndex);
+
+        // +1 here is because hapStartIndex is 0-based, but our matrices are 1 based
+        final int firstColumn = hapStartIndex + 1;
+        for (int i = 1; i < paddedReadLength; i++) {
+            final double[] priorRow = prior[i];
+            final double[] matchRow = matchMatrix[i];
+            final double[] insertionRow = insertionMatrix[i];
+            final double[] deletionRow = deletionMatrix[i];
+            final double[] previousMatchRow = matchMatrix[i - 1];
+            final double[] previousInsertionRow = insertionMatrix[i - 1];
+            final double[] previousDeletionRow = deletionMatrix[i - 1];
+            final double[] transitionRow = transition[i];
+            final double mm = transitionRow[matchToMatch];
+            final double im = transitionRow[indelToMatch];
+            final double mi = transitionRow[matchToInsertion];
+            final double ii = transitionRow[insertionToInsertion];
+            final double md = transitionRow[matchToDeletion];
+            final double dd = transitionRow[deletionToDeletion];
+
+            // match and insertion only depend on the previous row, so these iterations are independent of each other
+            for (int j = firstColumn; j < paddedHaplotypeLength; j++) {
+                matchRow[j] = priorRow[j] * ( previousMatchRow[j - 1] * mm +
+                        previousInsertionRow[j - 1] * im +
+                        previousDeletionRow[j - 1] * im );
+                insertionRow[j] = previousMatchRow[j] * mi + previousInsertionRow[j] * ii;
+            }
+            // deletion depends on the cell to its left in the same row
+            for (int j = firstColumn; j < paddedHaplotypeLength; j++) {
+                deletionRow[j] = matchRow[j - 1] * md + deletionRow[j - 1] * dd;
+            }
+        }
+
+        // final log probability is the log10 sum of the last element in the Match and Insertion state arrays
+        // this way we ignore all paths that ended in deletions! (huge)
+        // but we have to sum all the paths ending in the M and I matrices, because they're no longer extended.
+        final int endI = paddedReadLength - 1;
+        final double[] lastMatchRow = matchMatrix[endI];
+        final double[] lastInsertionRow = insertionMatrix[endI];
+        double finalSumProbabilities = 0.0;
+        for (int j = 1; j < paddedHaplotypeLength; j++) {
+            finalSumProbabilities += lastMatchRow[j] + lastInsertionRow[j];
+        }
+        return Math.log10(finalSumProbabilities) - INITIAL_CONDITION_LOG10;
+    }
+}
@@ -2,6 +2,8 @@ package org.broadinstitute.hellbender.utils.read;
 
 import htsjdk.samtools.*;
 import htsjdk.samtools.cram.build.CramIO;
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.samtools.util.Md5CalculatingOutputStream;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -14,12 +16,15 @@ import org.broadinstitute.hellbender.utils.BaseUtils;
 import org.broadinstitute.hellbender.utils.QualityUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedOutputStream;
 import org.broadinstitute.hellbender.utils.recalibration.EventType;
 
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
@@ -1109,9 +1114,37 @@ public final class ReadUtils {
         final boolean preSorted,
         boolean createOutputBamIndex,
         final boolean createMD5)
+    {
+        return createCommonSAMWriter(outputPath, referenceFile, header, preSorted, createOutputBamIndex, createMD5, 1);
+    }
+
+    /**
+     * Create a common SAMFileWriter for use with GATK tools.
+     *
+     * @param outputPath - if this file has a .cram extension then a reference is required. Can not be null.
+     * @param referenceFile - the reference source to use. Can not be null if a output file has a .cram extension.
+     * @param header - header to be used for the output writer
+     * @param preSorted - if true then the records must already be sorted to match the header sort order
+     * @param createOutputBamIndex - if true an index will be created for .BAM and .CRAM files
+     * @param createMD5 - if true an MD5 file will be created
+     * @param compressionThreads - number of threads compressing the BGZF blocks of a .BAM file. If > 1, the blocks
+     *                             are compressed in parallel by a {@link ParallelBlockCompressedOutputStream}, and the
+     *                             index (if any) is still built while the file is written.
+     *
+     * @return SAMFileWriter
+     */
+    public static SAMFileWriter createCommonSAMWriter(
+        final Path outputPath,
+        final Path referenceFile,
+        final SAMFileHeader header,
+        final boolean preSorted,
+        boolean createOutputBamIndex,
+        final boolean createMD5,
+        final int compressionThreads)
     {
         Utils.nonNull(outputPath);
         Utils.nonNull(header);
+        Utils.validateArg(compressionThreads > 0, "compressionThreads must be > 0");
 
         if (createOutputBamIndex && header.getSortOrder() != SAMFileHeader.SortOrder.coordinate) {
             logger.warn("Skipping index file creation for: " +
@@ -1119,6 +1152,10 @@ public final class ReadUtils {
             createOutputBamIndex = false;
         }
 
+        if (compressionThreads > 1 && IOUtils.isBamFileName(outputPath.toString())) {
+            return createParallelCompressedBAMWriter(outputPath, header, preSorted, createOutputBamIndex, createMD5, compressionThreads);
+        }
+
         final SAMFileWriterFactory factory = new SAMFileWriterFactory().setCreateIndex(createOutputBamIndex).setCreateMd5File(createMD5);
         return ReadUtils.createCommonSAMWriterFromFactory(factory, outputPath, referenceFile, header, preSorted);
     }
@@ -1175,6 +1212,52 @@ public final class ReadUtils {
         return factory.makeWriter(header.clone(), preSorted, outputPath, referenceFile);
     }
 
+    /**
+     * Create a BAM writer whose BGZF blocks are compressed in parallel, with output identical to the output of
+     * {@link SAMFileWriterFactory#makeWriter} (using the JDK deflater at the compression levels where the Intel deflater
+     * can't compress blocks independently, see {@link ParallelBlockCompressedOutputStream}). htsjdk's BAM writer splits its output into blocks as usual but leaves them
+     * uncompressed ({@link ParallelBlockCompressedOutputStream#STORING_DEFLATER_FACTORY}), and the blocks are then
+     * compressed by a {@link ParallelBlockCompressedOutputStream}. The index, if any, is built while writing, as each
+     * record's blocks are compressed and written.
+     */
+    private static SAMFileWriter createParallelCompressedBAMWriter(
+        final Path outputPath,
+        final SAMFileHeader header,
+        final boolean preSorted,
+        final boolean createIndex,
+        final boolean createMD5,
+        final int compressionThreads)
+    {
+        // like SAMFileWriterFactory, only create indices and MD5 files for regular files
+        final boolean isRegularPath = IOUtil.isRegularPath(outputPath);
+        if ((createIndex || createMD5) && !isRegularPath) {
+            logger.warn("Cannot create index or MD5 file for " + outputPath.toUri());
+        }
+
+        final ParallelBlockCompressedOutputStream bgzfOutput;
+        try {
+            OutputStream fileOutput = IOUtil.maybeBufferOutputStream(Files.newOutputStream(outputPath));
+            if (createMD5 && isRegularPath) {
+                fileOutput = new Md5CalculatingOutputStream(fileOutput, IOUtil.addExtension(outputPath, ".md5"));
+            }
+            bgzfOutput = new ParallelBlockCompressedOutputStream(fileOutput, compressionThreads);
+        } catch (IOException e) {
+            throw new UserException.CouldNotCreateOutputFile(outputPath.toUri().toString(), "could not open output file", e);
+        }
+
+        // like SAMFileWriterFactory, only index coordinate-sorted output, next to the output with the .bam extension replaced
+        final Path indexPath;
+        if (createIndex && isRegularPath && header.getSortOrder() == SAMFileHeader.SortOrder.coordinate) {
+            final String fileName = outputPath.getFileName().toString();
+            indexPath = outputPath.resolveSibling(fileName.endsWith(BamFileIoUtils.BAM_FILE_EXTENSION) ?
+                    fileName.substring(0, fileName.lastIndexOf('.')) + BAMIndex.BAMIndexSuffix :
+                    fileName + BAMIndex.BAMIndexSuffix);
+        } else {
+            indexPath = null;
+        }
+        return new ParallelCompressedBAMFileWriter(bgzfOutput, outputPath.toUri().toString(), header.clone(), preSorted, indexPath);
+    }
+
     /**
      * Validate that a file has CRAM contents by checking that it has a valid CRAM file header
      * (no matter what the extension).
@@ -1,5 +1,8 @@
 package org.broadinstitute.hellbender.utils.read.markduplicates;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import htsjdk.samtools.SAMFileHeader;
 import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -74,6 +77,22 @@ public abstract class ReadsKey {
         public String toString() {
             return Long.toString(keyValue);
         }
+
+        /**
+         * Writes the key as a single fixed width long, since the packed start position in its top bits would make a
+         * variable length encoding larger than 8 bytes
+         */
+        public static final class Serializer extends com.esotericsoftware.kryo.Serializer<KeyForFragment> {
+            @Override
+            public void write(final Kryo kryo, final Output output, final KeyForFragment key) {
+                output.writeLong(key.keyValue);
+            }
+
+            @Override
+            public KeyForFragment read(final Kryo kryo, final Input input, final Class<KeyForFragment> klass) {
+                return new KeyForFragment(input.readLong());
+            }
+        }
     }
 
     /**
@@ -109,6 +128,22 @@ public abstract class ReadsKey {
         public String toString() {
             return firstReadKeyValue + " " + secondReadKeyValue;
         }
+
+        /**
+         * Writes the key as two fixed width longs, see {@link KeyForFragment.Serializer}
+         */
+        public static final class Serializer extends com.esotericsoftware.kryo.Serializer<KeyForPair> {
+            @Override
+            public void write(final Kryo kryo, final Output output, final KeyForPair key) {
+                output.writeLong(key.firstReadKeyValue);
+                output.writeLong(key.secondReadKeyValue);
+            }
+
+            @Override
+            public KeyForPair read(final Kryo kryo, final Input input, final Class<KeyForPair> klass) {
+                return new KeyForPair(input.readLong(), input.readLong());
+            }
+        }
     }
 
     // Helper methods for generating summary longs
@@ -1,5 +1,9 @@
 package org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords;
 
+import com.esotericsoftware.kryo.DefaultSerializer;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import htsjdk.samtools.SAMFileHeader;
 import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -17,6 +21,7 @@ import java.util.Map;
  * This class holds onto as little information as possible in an attempt to prevent excessive serialization of
  * during the processing step of MarkDuplicatesSpark
  */
+@DefaultSerializer(EmptyFragment.Serializer.class)
 public final class EmptyFragment extends PairedEnds {
     protected transient ReadsKey key;
 
@@ -36,6 +41,12 @@ public final class EmptyFragment extends PairedEnds {
                 headerLibraryMap.get(MarkDuplicatesSparkUtils.getLibraryForRead(read, header, LibraryIdGenerator.UNKNOWN_LIBRARY)));
     }
 
+    // Constructor for serialization purposes, the strand is the only information that isn't part of the key
+    private EmptyFragment(Kryo kryo, Input input) {
+        super(0, null);
+        this.R1R = input.readBoolean();
+    }
+
     @Override
     public Type getType() {
         return Type.EMPTY_FRAGMENT;
@@ -61,4 +72,15 @@ public final class EmptyFragment extends PairedEnds {
     public String toString() {
         return "EmptyFragment ";
     }
+
+    public static final class Serializer extends com.esotericsoftware.kryo.Serializer<EmptyFragment> {
+        @Override
+        public void write(final Kryo kryo, final Output output, final EmptyFragment emptyFragment) {
+            output.writeBoolean(emptyFragment.R1R);
+        }
+        @Override
+        public EmptyFragment read(final Kryo kryo, final Input input, final Class<EmptyFragment> klass) {
+            return new EmptyFragment(kryo, input);
+        }
+    }
 }
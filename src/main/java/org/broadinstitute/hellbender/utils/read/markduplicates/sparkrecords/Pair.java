@@ -30,6 +30,11 @@ public final class Pair extends TransientFieldPhysicalLocation {
     private final short score;
     private final boolean wasFlipped;
 
+    // bits of the serialized form
+    private static final int READ1_REVERSE_STRAND = 1;
+    private static final int READ2_REVERSE_STRAND = 1 << 1;
+    private static final int WAS_FLIPPED = 1 << 2;
+
     public Pair(final GATKRead read1, final GATKRead read2, final SAMFileHeader header, int partitionIndex, MarkDuplicatesScoringStrategy scoringStrategy, Map<String, Byte> headerLibraryMap) {
         super(partitionIndex, read1.getName());
 
@@ -90,28 +95,25 @@ public final class Pair extends TransientFieldPhysicalLocation {
         y = -1;
         libraryId = -1;
 
-        score = input.readShort();
-
-        isRead1ReverseStrand = input.readBoolean();
-
-        isRead2ReverseStrand = input.readBoolean();
+        final int scoreAndReadGroup = input.readInt();
+        score = (short)(scoreAndReadGroup >>> 16);
+        readGroupIndex = (short)scoreAndReadGroup;
 
-        readGroupIndex = input.readShort();
-        wasFlipped = input.readBoolean();
+        final byte flags = input.readByte();
+        isRead1ReverseStrand = (flags & READ1_REVERSE_STRAND) != 0;
+        isRead2ReverseStrand = (flags & READ2_REVERSE_STRAND) != 0;
+        wasFlipped = (flags & WAS_FLIPPED) != 0;
     }
 
+    // The score and read group are packed into one fixed width int and the strand flags into one byte
     protected void serialize(Kryo kryo, Output output) {
         output.writeInt(partitionIndex, true);
         output.writeAscii(name);
 
-        output.writeShort(score);
-
-        output.writeBoolean(isRead1ReverseStrand);
-
-        output.writeBoolean(isRead2ReverseStrand);
-
-        output.writeShort(readGroupIndex);
-        output.writeBoolean(wasFlipped);
+        output.writeInt((score << 16) | (readGroupIndex & 0xFFFF));
+        output.writeByte((isRead1ReverseStrand ? READ1_REVERSE_STRAND : 0) |
+                (isRead2ReverseStrand ? READ2_REVERSE_STRAND : 0) |
+                (wasFlipped ? WAS_FLIPPED : 0));
     }
 
     @Override
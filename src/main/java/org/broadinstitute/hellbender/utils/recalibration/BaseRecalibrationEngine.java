@@ -22,7 +22,6 @@ import org.broadinstitute.hellbender.utils.read.AlignmentUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 import org.broadinstitute.hellbender.utils.recalibration.covariates.Covariate;
-import org.broadinstitute.hellbender.utils.recalibration.covariates.CovariateKeyCache;
 import org.broadinstitute.hellbender.utils.recalibration.covariates.ReadCovariates;
 import org.broadinstitute.hellbender.utils.recalibration.covariates.StandardCovariateList;
 
@@ -33,7 +32,17 @@ public final class BaseRecalibrationEngine implements Serializable {
     private static final long serialVersionUID = 1L;
 
     protected static final Logger logger = LogManager.getLogger(BaseRecalibrationEngine.class);
-    private final CovariateKeyCache keyCache;
+
+    /**
+     * Storage for the per-read arrays, reused across reads so that processing a read doesn't allocate them.
+     * Created lazily since it is not serialized with the engine.
+     */
+    private transient ReadWorkspace workspace;
+
+    /**
+     * The transformations applied to each read before it is processed, created once rather than for every read.
+     */
+    private transient ReadTransformer readTransform;
 
     /*
      * Every call to EventType.values() (or any enum type) creates a new array instance but they are all equal (ie contain identical elements).
@@ -62,6 +71,11 @@ public final class BaseRecalibrationEngine implements Serializable {
 
     private RecalibrationTables recalTables;
 
+    /**
+     * If not null, events are counted in these flat tables and only added to recalTables when the tables are requested.
+     */
+    private final FlatRecalibrationTables flatTables;
+
     private SAMFileHeader readsHeader;
 
     /**
@@ -80,6 +94,14 @@ public final class BaseRecalibrationEngine implements Serializable {
     private boolean finalized = false;
 
     public BaseRecalibrationEngine( final RecalibrationArgumentCollection recalArgs, final SAMFileHeader readsHeader ) {
+        this(recalArgs, readsHeader, false);
+    }
+
+    /**
+     * @param useFlatTables if true, and if the covariates are small enough (see {@link FlatRecalibrationTables#canRepresent}),
+     *                      count events in primitive-array-backed tables, which is faster and produces the same tables
+     */
+    public BaseRecalibrationEngine( final RecalibrationArgumentCollection recalArgs, final SAMFileHeader readsHeader, final boolean useFlatTables ) {
         this.recalArgs = recalArgs;
         this.readsHeader = readsHeader;
 
@@ -96,7 +118,10 @@ public final class BaseRecalibrationEngine implements Serializable {
             throw new UserException("Number of read groups must be >= 1, but is " + numReadGroups);
         }
         recalTables = new RecalibrationTables(covariates, numReadGroups);
-        keyCache = new CovariateKeyCache();
+        if ( useFlatTables && ! FlatRecalibrationTables.canRepresent(covariates) ) {
+            logger.info("The covariates have too many keys for flat recalibration tables, falling back to nested tables");
+        }
+        flatTables = useFlatTables && FlatRecalibrationTables.canRepresent(covariates) ? new FlatRecalibrationTables(covariates, numReadGroups) : null;
         cachedEventTypes = recalArgs.computeIndelBQSRTables ? EventType.values() : new EventType[]{EventType.BASE_SUBSTITUTION};
     }
 
@@ -112,8 +137,10 @@ public final class BaseRecalibrationEngine implements Serializable {
      * whether or not the base matches the reference at this particular location
      */
     public void processRead( final GATKRead originalRead, final ReferenceDataSource refDS, final Iterable<? extends Locatable> knownSites ) {
-        final ReadTransformer transform = makeReadTransform();
-        final GATKRead read = transform.apply(originalRead);
+        if ( readTransform == null ) {
+            readTransform = makeReadTransform();
+        }
+        final GATKRead read = readTransform.apply(originalRead);
 
         if( read.isEmpty() ) {
             return; // the whole read was inside the adaptor so skip it
@@ -121,27 +148,30 @@ public final class BaseRecalibrationEngine implements Serializable {
 
         RecalUtils.parsePlatformForRead(read, readsHeader, recalArgs);
 
-        int[] isSNP = new int[read.getLength()];
-        int[] isInsertion = new int[isSNP.length];
-        int[] isDeletion = new int[isSNP.length];
+        final int readLength = read.getLength();
+        if ( workspace == null ) {
+            workspace = new ReadWorkspace(covariates.size());
+        }
+        workspace.reset(readLength);
 
         //Note: this function modifies the isSNP, isInsertion and isDeletion arguments so it can't be skipped, BAQ or no BAQ
-        final int nErrors = calculateIsSNPOrIndel(read, refDS, isSNP, isInsertion, isDeletion);
+        final int nErrors = calculateIsSNPOrIndel(read, refDS, workspace.isSNP, workspace.isInsertion, workspace.isDeletion, readLength);
 
         // note for efficiency reasons we don't compute the BAQ array unless we actually have
         // some error to marginalize over.  For ILMN data ~85% of reads have no error
-        final byte[] baqArray = (nErrors == 0 || !recalArgs.enableBAQ) ? flatBAQArray(read) : calculateBAQArray(read, refDS);
+        final byte[] baqArray = (nErrors == 0 || !recalArgs.enableBAQ) ? workspace.flatBAQ : calculateBAQArray(read, refDS);
 
         if( baqArray != null ) { // some reads just can't be BAQ'ed
-            final ReadCovariates covariates = RecalUtils.computeCovariates(read, readsHeader, this.covariates, true, keyCache);
-            final boolean[] skip = calculateSkipArray(read, knownSites); // skip known sites of variation as well as low quality and non-regular bases
-            final double[] snpErrors = calculateFractionalErrorArray(isSNP, baqArray);
-            final double[] insertionErrors = calculateFractionalErrorArray(isInsertion, baqArray);
-            final double[] deletionErrors = calculateFractionalErrorArray(isDeletion, baqArray);
-
-            // aggregate all of the info into our info object, and update the data
-            final ReadRecalibrationInfo info = new ReadRecalibrationInfo(read, covariates, skip, snpErrors, insertionErrors, deletionErrors);
-            updateRecalTablesForRead(info);
+            workspace.readCovariates.reset(readLength);
+            RecalUtils.computeCovariates(read, readsHeader, this.covariates, workspace.readCovariates, true);
+            calculateSkipArray(read, knownSites, workspace.skip, readLength); // skip known sites of variation as well as low quality and non-regular bases
+            calculateFractionalErrorArray(workspace.isSNP, baqArray, workspace.errors[EventType.BASE_SUBSTITUTION.ordinal()], readLength);
+            calculateFractionalErrorArray(workspace.isInsertion, baqArray, workspace.errors[EventType.BASE_INSERTION.ordinal()], readLength);
+            calculateFractionalErrorArray(workspace.isDeletion, baqArray, workspace.errors[EventType.BASE_DELETION.ordinal()], readLength);
+
+            // aggregate all of the info into our workspace, and update the data
+            workspace.setQuals(read);
+            updateRecalTablesForRead(workspace, readLength);
         }
 
         numReadsProcessed++;
@@ -157,6 +187,7 @@ public final class BaseRecalibrationEngine implements Serializable {
      */
     public void finalizeData() {
         Utils.validate(!finalized, "FinalizeData() has already been called");
+        flushFlatTables();
         finalizeRecalibrationTables(recalTables);
         finalized = true;
     }
@@ -210,9 +241,34 @@ public final class BaseRecalibrationEngine implements Serializable {
      * Get a possibly not-final recalibration table, to deal with distributed execution.
      */
     public RecalibrationTables getRecalibrationTables() {
+        flushFlatTables();
         return recalTables;
     }
 
+    /**
+     * Add everything collected by {@code other}, which must have been created with the same arguments and header, to
+     * this engine. This allows several engines to process disjoint sets of reads concurrently before being merged.
+     *
+     * Neither engine may have been finalized.
+     */
+    public void combine( final BaseRecalibrationEngine other ) {
+        Utils.nonNull(other);
+        Utils.validate(!finalized && !other.finalized, "Cannot combine engines after finalizeData() has been called");
+        if ( flatTables != null && other.flatTables != null ) {
+            flatTables.combine(other.flatTables);
+        } else {
+            other.flushFlatTables();
+        }
+        recalTables.combine(other.recalTables);
+        numReadsProcessed += other.numReadsProcessed;
+    }
+
+    private void flushFlatTables() {
+        if ( flatTables != null && ! finalized ) {
+            flatTables.flushInto(recalTables);
+        }
+    }
+
     /**
      * Get the final recalibration tables, after finalizeData() has been called
      *
@@ -236,31 +292,42 @@ public final class BaseRecalibrationEngine implements Serializable {
     }
 
     /**
-     * Update the recalibration statistics using the information in recalInfo
-     * @param recalInfo data structure holding information about the recalibration values for a single read
+     * Update the recalibration statistics using the information about the current read in the workspace
+     * @param readWorkspace data structure holding information about the recalibration values for a single read
+     * @param readLength length of the read
      */
-    private void updateRecalTablesForRead( final ReadRecalibrationInfo recalInfo ) {
+    private void updateRecalTablesForRead( final ReadWorkspace readWorkspace, final int readLength ) {
         Utils.validate(!finalized, "FinalizeData() has already been called");
 
-        final GATKRead read = recalInfo.getRead();
-        final ReadCovariates readCovariates = recalInfo.getCovariatesValues();
+        final ReadCovariates readCovariates = readWorkspace.readCovariates;
+        final boolean[] skip = readWorkspace.skip;
         final NestedIntegerArray<RecalDatum> qualityScoreTable = recalTables.getQualityScoreTable();
 
         final int nCovariates = covariates.size();
         final int nSpecialCovariates = covariates.numberOfSpecialCovariates();
-        final int readLength = read.getLength();
         for( int offset = 0; offset < readLength; offset++ ) {
-            if( ! recalInfo.skip(offset) ) {
+            if( ! skip[offset] ) {
                 for (int idx = 0; idx < cachedEventTypes.length; idx++) { //Note: we loop explicitly over cached values for speed
                     final EventType eventType = cachedEventTypes[idx];
                     final int[] keys = readCovariates.getKeySet(offset, eventType);
                     final int eventIndex = eventType.ordinal();
-                    final byte qual = recalInfo.getQual(eventType, offset);
-                    final double isError = recalInfo.getErrorFraction(eventType, offset);
+                    final byte qual = readWorkspace.getQual(eventIndex, offset);
+                    final double isError = readWorkspace.errors[eventIndex][offset];
 
                     final int key0 = keys[0];
                     final int key1 = keys[1];
 
+                    if ( flatTables != null ) {
+                        flatTables.incrementQualityScoreTable(key0, key1, eventIndex, isError);
+                        for (int i = nSpecialCovariates; i < nCovariates; i++) {
+                            final int keyi = keys[i];
+                            if (keyi >= 0) {
+                                flatTables.incrementAdditionalTable(i, key0, key1, keyi, eventIndex, isError);
+                            }
+                        }
+                        continue;
+                    }
+
                     RecalUtils.incrementDatumOrPutIfNecessary3keys(qualityScoreTable, qual, isError, key0, key1, eventIndex);
 
                     for (int i = nSpecialCovariates; i < nCovariates; i++) {
@@ -316,19 +383,24 @@ public final class BaseRecalibrationEngine implements Serializable {
         return read;
     }
 
-    private boolean[] calculateSkipArray( final GATKRead read, final Iterable<? extends Locatable> knownSites ) {
-        final int readLength = read.getLength();
-        final boolean[] skip = new boolean[readLength];
-        final boolean[] knownSitesArray = calculateKnownSites(read, knownSites);
+    private void calculateSkipArray( final GATKRead read, final Iterable<? extends Locatable> knownSites, final boolean[] skip, final int readLength ) {
         for(int i = 0; i < readLength; i++ ) {
-            skip[i] = !BaseUtils.isRegularBase(read.getBase(i)) || read.getBaseQuality(i) < recalArgs.PRESERVE_QSCORES_LESS_THAN || knownSitesArray[i];
+            skip[i] = !BaseUtils.isRegularBase(read.getBase(i)) || read.getBaseQuality(i) < recalArgs.PRESERVE_QSCORES_LESS_THAN;
         }
-        return skip;
+        markKnownSites(read, knownSites, skip, readLength);
     }
 
     protected boolean[] calculateKnownSites( final GATKRead read, final Iterable<? extends Locatable> knownSites ) {
         final int readLength = read.getLength();
         final boolean[] knownSitesArray = new boolean[readLength];//initializes to all false
+        markKnownSites(read, knownSites, knownSitesArray, readLength);
+        return knownSitesArray;
+    }
+
+    /**
+     * Set to true the elements of knownSitesArray (of which only the first readLength are used) for the read bases overlapping known sites
+     */
+    private static void markKnownSites( final GATKRead read, final Iterable<? extends Locatable> knownSites, final boolean[] knownSitesArray, final int readLength ) {
         final Cigar cigar = read.getCigar();
         final int softStart = read.getSoftStart();
         final int softEnd = read.getSoftEnd();
@@ -353,7 +425,6 @@ public final class BaseRecalibrationEngine implements Serializable {
 
             Arrays.fill(knownSitesArray, Math.max(0, featureStartOnRead), Math.min(readLength, featureEndOnRead + 1), true);
         }
-        return knownSitesArray;
     }
 
     /**
@@ -368,6 +439,14 @@ public final class BaseRecalibrationEngine implements Serializable {
      * @return the total number of SNP and indel events
      */
     protected static int calculateIsSNPOrIndel(final GATKRead read, final ReferenceDataSource ref, int[] snp, int[] isIns, int[] isDel) {
+        return calculateIsSNPOrIndel(read, ref, snp, isIns, isDel, snp.length);
+    }
+
+    /**
+     * Same as {@link #calculateIsSNPOrIndel(GATKRead, ReferenceDataSource, int[], int[], int[])}, but with storage
+     * arrays that may be longer than the read, of which only the first readLength elements are used (and must be initialized to 0's).
+     */
+    private static int calculateIsSNPOrIndel(final GATKRead read, final ReferenceDataSource ref, int[] snp, int[] isIns, int[] isDel, final int readLength) {
         final byte[] refBases = ref.queryAndPrefetch(read.getContig(), read.getStart(), read.getEnd()).getBases();
         int readPos = 0;
         int refPos = 0;
@@ -389,7 +468,7 @@ public final class BaseRecalibrationEngine implements Serializable {
                     break;
                 case D: {
                     final int index = (read.isReverseStrand() ? readPos : readPos - 1);
-                    updateIndel(isDel, index);
+                    updateIndel(isDel, index, readLength);
                     refPos += elementLength;
                     break;
                 }
@@ -399,11 +478,11 @@ public final class BaseRecalibrationEngine implements Serializable {
                 case I: {
                     final boolean forwardStrandRead = !read.isReverseStrand();
                     if (forwardStrandRead) {
-                        updateIndel(isIns, readPos - 1);
+                        updateIndel(isIns, readPos - 1, readLength);
                     }
                     readPos += elementLength;
                     if (!forwardStrandRead) {
-                        updateIndel(isIns, readPos);
+                        updateIndel(isIns, readPos, readLength);
                     }
                     break;
                 }
@@ -418,12 +497,14 @@ public final class BaseRecalibrationEngine implements Serializable {
             }
         }
         // we don't sum those as we go because they might set the same place to 1 twice
-        nEvents += MathUtils.sum(isDel) + MathUtils.sum(isIns);
+        for (int i = 0; i < readLength; i++) {
+            nEvents += isDel[i] + isIns[i];
+        }
         return nEvents;
     }
 
-    private static void updateIndel(final int[] indel, final int index) {
-        if (index >= 0 && index < indel.length) {
+    private static void updateIndel(final int[] indel, final int index, final int readLength) {
+        if (index >= 0 && index < readLength) {
             // protect ourselves from events at the start or end of the read (1D3M or 3M1D)
             indel[index] = 1;
         }
@@ -434,13 +515,26 @@ public final class BaseRecalibrationEngine implements Serializable {
             throw new GATKException("Array length mismatch detected. Malformed read?");
         }
 
+        final double[] fractionalErrors = new double[baqArray.length];
+        calculateFractionalErrorArray(errorArray, baqArray, fractionalErrors, fractionalErrors.length);
+        return fractionalErrors;
+    }
+
+    /**
+     * Same as {@link #calculateFractionalErrorArray(int[], byte[])}, but writes the first readLength fractional errors
+     * into fractionalErrors. All arrays must have at least readLength elements.
+     */
+    private static void calculateFractionalErrorArray( final int[] errorArray, final byte[] baqArray, final double[] fractionalErrors, final int readLength ) {
+        if ( errorArray.length < readLength || baqArray.length < readLength || fractionalErrors.length < readLength ) {
+            throw new GATKException("Array length mismatch detected. Malformed read?");
+        }
+
         final int BLOCK_START_UNSET = -1;
 
-        final double[] fractionalErrors = new double[baqArray.length];
         boolean inBlock = false;
         int blockStartIndex = BLOCK_START_UNSET;
         int i;
-        for( i = 0; i < fractionalErrors.length; i++ ) {
+        for( i = 0; i < readLength; i++ ) {
             if( baqArray[i] == NO_BAQ_UNCERTAINTY ) {
                 if( !inBlock ) {
                     fractionalErrors[i] = (double) errorArray[i];
@@ -457,10 +551,6 @@ public final class BaseRecalibrationEngine implements Serializable {
         if( inBlock ) {
             calculateAndStoreErrorsInBlock(i-1, blockStartIndex, errorArray, fractionalErrors);
         }
-        if( fractionalErrors.length != errorArray.length ) {
-            throw new GATKException("Output array length mismatch detected. Malformed read?");
-        }
-        return fractionalErrors;
     }
 
     private static void calculateAndStoreErrorsInBlock( final int i,
@@ -497,4 +587,60 @@ public final class BaseRecalibrationEngine implements Serializable {
         baq.baqRead(read, refDS, BAQ.CalculationMode.RECALCULATE, BAQ.QualityMode.ADD_TAG);
         return BAQ.getBAQTag(read);
     }
+
+    /**
+     * The per-read arrays used by {@link #processRead}, sized for the longest read seen so far. Only the first
+     * read length elements of each array are meaningful for the current read.
+     */
+    private static final class ReadWorkspace {
+        private final ReadCovariates readCovariates;
+        private int[] isSNP = new int[0];
+        private int[] isInsertion = new int[0];
+        private int[] isDeletion = new int[0];
+        private boolean[] skip = new boolean[0];
+        private byte[] flatBAQ = new byte[0];
+        // indexed by event type ordinal
+        private final double[][] errors = new double[EventType.values().length][0];
+        private final byte[][] quals = new byte[EventType.values().length][];
+
+        private ReadWorkspace( final int numberOfCovariates ) {
+            readCovariates = new ReadCovariates(numberOfCovariates);
+        }
+
+        /**
+         * Prepare the workspace for a read of length readLength, clearing the event arrays
+         */
+        private void reset( final int readLength ) {
+            if ( isSNP.length < readLength ) {
+                isSNP = new int[readLength];
+                isInsertion = new int[readLength];
+                isDeletion = new int[readLength];
+                skip = new boolean[readLength];
+                flatBAQ = new byte[readLength];
+                Arrays.fill(flatBAQ, NO_BAQ_UNCERTAINTY);
+                for ( int i = 0; i < errors.length; i++ ) {
+                    errors[i] = new double[readLength];
+                }
+            } else {
+                Arrays.fill(isSNP, 0, readLength, 0);
+                Arrays.fill(isInsertion, 0, readLength, 0);
+                Arrays.fill(isDeletion, 0, readLength, 0);
+            }
+        }
+
+        /**
+         * Record the qualities of each event type for the current read, as in {@link ReadRecalibrationInfo}
+         */
+        private void setQuals( final GATKRead read ) {
+            quals[EventType.BASE_SUBSTITUTION.ordinal()] = read.getBaseQualitiesNoCopy();
+            quals[EventType.BASE_INSERTION.ordinal()] = ReadUtils.getExistingBaseInsertionQualities(read);
+            quals[EventType.BASE_DELETION.ordinal()] = ReadUtils.getExistingBaseDeletionQualities(read);
+        }
+
+        private byte getQual( final int eventIndex, final int offset ) {
+            final byte[] eventQuals = quals[eventIndex];
+            // if we don't have ins/del quals we just return the default byte directly
+            return eventQuals == null ? ReadUtils.DEFAULT_INSERTION_DELETION_QUAL : eventQuals[offset];
+        }
+    }
 }
\ No newline at end of file
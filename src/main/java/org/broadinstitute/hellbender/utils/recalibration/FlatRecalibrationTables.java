@@ -0,0 +1,189 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
+import org.broadinstitute.hellbender.utils.recalibration.covariates.Covariate;
+import org.broadinstitute.hellbender.utils.recalibration.covariates.StandardCovariateList;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Primitive-array-backed accumulator for the quality score and additional covariate tables of {@link RecalibrationTables}.
+ *
+ * Each table is stored as one dense slab of observation counts ({@code long[]}) and mismatch sums ({@code double[]})
+ * per read group, indexed directly by the (reported quality, covariate key, event type) keys, so counting an event
+ * allocates nothing and dereferences no tree of nodes. Slabs are allocated the first time a read group is seen.
+ *
+ * This class is not thread-safe: concurrent accumulation is done by giving each thread its own instance and merging
+ * them with {@link #combine} at the end. The accumulated counts are turned into {@link RecalDatum}s by {@link #flushInto}.
+ * The read group table is not represented, since it is derived from the quality score table when finalizing.
+ *
+ * Mismatches are summed with the same scaling as {@link RecalDatum}, so accumulating events here and flushing them
+ * gives exactly the same tables as incrementing the RecalDatums of a {@link RecalibrationTables} directly.
+ */
+public final class FlatRecalibrationTables implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Largest number of bins of a single table for a single read group. Covariates with more keys than this (eg., very
+     * long contexts) would need too much memory per read group and thread, and must use {@link RecalibrationTables} directly.
+     */
+    static final int MAX_BINS_PER_READ_GROUP = 1 << 22;
+
+    private static final int QUALITY_SCORE_TABLE_INDEX = 1;
+
+    private final int numReadGroups;
+    private final int qualDimension;
+    private final int eventDimension = EventType.values().length;
+
+    // number of keys of the covariate of each table (1 for the quality score table, which has no extra covariate key)
+    private final int[] covariateDimensions;
+
+    // indexed by [table][read group][bin], where the read group table (at index 0) is always null
+    private final long[][][] numObservations;
+    private final double[][][] scaledNumMismatches;
+
+    public FlatRecalibrationTables(final StandardCovariateList covariates, final int numReadGroups) {
+        Utils.nonNull(covariates);
+        Utils.validateArg(numReadGroups > 0, () -> "numReadGroups must be > 0 but got " + numReadGroups);
+        Utils.validateArg(canRepresent(covariates), "the covariates have too many keys to be stored in flat tables");
+
+        this.numReadGroups = numReadGroups;
+        this.qualDimension = covariates.getQualityScoreCovariate().maximumKeyValue() + 1;
+
+        // the tables are indexed like the covariates, with the additional covariates following the quality score covariate
+        final int numTables = covariates.size();
+        covariateDimensions = new int[numTables];
+        covariateDimensions[QUALITY_SCORE_TABLE_INDEX] = 1;
+        for ( int i = QUALITY_SCORE_TABLE_INDEX + 1; i < numTables; i++ ) {
+            covariateDimensions[i] = covariates.get(i).maximumKeyValue() + 1;
+        }
+        numObservations = new long[numTables][][];
+        scaledNumMismatches = new double[numTables][][];
+        for ( int table = QUALITY_SCORE_TABLE_INDEX; table < numTables; table++ ) {
+            numObservations[table] = new long[numReadGroups][];
+            scaledNumMismatches[table] = new double[numReadGroups][];
+        }
+    }
+
+    /**
+     * @return true if the tables for these covariates are small enough to be stored in flat tables
+     */
+    public static boolean canRepresent(final StandardCovariateList covariates) {
+        Utils.nonNull(covariates);
+        final long binsPerCovariateKey = (long)(covariates.getQualityScoreCovariate().maximumKeyValue() + 1) * EventType.values().length;
+        for ( final Covariate cov : covariates.getAdditionalCovariates() ) {
+            if ( binsPerCovariateKey * (cov.maximumKeyValue() + 1L) > MAX_BINS_PER_READ_GROUP ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count an event in the quality score table
+     */
+    public void incrementQualityScoreTable(final int readGroupKey, final int qualKey, final int eventIndex, final double isError) {
+        increment(QUALITY_SCORE_TABLE_INDEX, readGroupKey, qualKey * eventDimension + eventIndex, isError);
+    }
+
+    /**
+     * Count an event in the additional covariate table at {@code tableIndex} (the index of that table in {@link RecalibrationTables})
+     */
+    public void incrementAdditionalTable(final int tableIndex, final int readGroupKey, final int qualKey, final int covariateKey, final int eventIndex, final double isError) {
+        increment(tableIndex, readGroupKey, (qualKey * covariateDimensions[tableIndex] + covariateKey) * eventDimension + eventIndex, isError);
+    }
+
+    private void increment(final int tableIndex, final int readGroupKey, final int bin, final double isError) {
+        long[] observations = numObservations[tableIndex][readGroupKey];
+        if ( observations == null ) {
+            observations = allocateReadGroup(tableIndex, readGroupKey);
+        }
+        observations[bin]++;
+        scaledNumMismatches[tableIndex][readGroupKey][bin] += RecalDatum.scaleMismatches(isError);
+    }
+
+    private long[] allocateReadGroup(final int tableIndex, final int readGroupKey) {
+        final int numBins = qualDimension * covariateDimensions[tableIndex] * eventDimension;
+        numObservations[tableIndex][readGroupKey] = new long[numBins];
+        scaledNumMismatches[tableIndex][readGroupKey] = new double[numBins];
+        return numObservations[tableIndex][readGroupKey];
+    }
+
+    /**
+     * Add all the counts of {@code other}, which must have been created for the same covariates and read groups, to these tables
+     * @return these tables
+     */
+    public FlatRecalibrationTables combine(final FlatRecalibrationTables other) {
+        Utils.nonNull(other);
+        Utils.validateArg(numReadGroups == other.numReadGroups && qualDimension == other.qualDimension
+                && Arrays.equals(covariateDimensions, other.covariateDimensions),
+                "Attempting to merge FlatRecalibrationTables with different sizes");
+
+        for ( int table = QUALITY_SCORE_TABLE_INDEX; table < numObservations.length; table++ ) {
+            for ( int rg = 0; rg < numReadGroups; rg++ ) {
+                final long[] otherObservations = other.numObservations[table][rg];
+                if ( otherObservations == null ) {
+                    continue;
+                }
+                final long[] observations = numObservations[table][rg] != null ? numObservations[table][rg] : allocateReadGroup(table, rg);
+                final double[] mismatches = scaledNumMismatches[table][rg];
+                final double[] otherMismatches = other.scaledNumMismatches[table][rg];
+                for ( int bin = 0; bin < observations.length; bin++ ) {
+                    observations[bin] += otherObservations[bin];
+                    mismatches[bin] += otherMismatches[bin];
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add the counts accumulated so far to the corresponding RecalDatums of {@code tables}, creating them when
+     * necessary, and reset these tables to empty.
+     *
+     * @param tables tables created for the same covariates and read groups as these tables
+     */
+    public void flushInto(final RecalibrationTables tables) {
+        Utils.nonNull(tables);
+        Utils.validateArg(tables.numTables() == numObservations.length, "Attempting to flush FlatRecalibrationTables into RecalibrationTables with different sizes");
+
+        for ( int table = QUALITY_SCORE_TABLE_INDEX; table < numObservations.length; table++ ) {
+            final NestedIntegerArray<RecalDatum> target = tables.getTable(table);
+            final int covariateDimension = covariateDimensions[table];
+            for ( int rg = 0; rg < numReadGroups; rg++ ) {
+                final long[] observations = numObservations[table][rg];
+                if ( observations == null ) {
+                    continue;
+                }
+                final double[] mismatches = scaledNumMismatches[table][rg];
+                for ( int bin = 0; bin < observations.length; bin++ ) {
+                    if ( observations[bin] == 0 ) {
+                        continue;
+                    }
+                    final int eventIndex = bin % eventDimension;
+                    final int covariateKey = (bin / eventDimension) % covariateDimension;
+                    final int qualKey = bin / eventDimension / covariateDimension;
+                    final RecalDatum existingDatum = table == QUALITY_SCORE_TABLE_INDEX ?
+                            target.get3Keys(rg, qualKey, eventIndex) :
+                            target.get4Keys(rg, qualKey, covariateKey, eventIndex);
+                    if ( existingDatum != null ) {
+                        existingDatum.incrementScaled(observations[bin], mismatches[bin]);
+                    } else {
+                        // the reported quality of a datum is its quality score key
+                        final RecalDatum datum = new RecalDatum(0L, 0.0, (byte)qualKey);
+                        datum.incrementScaled(observations[bin], mismatches[bin]);
+                        if ( table == QUALITY_SCORE_TABLE_INDEX ) {
+                            target.put(datum, rg, qualKey, eventIndex);
+                        } else {
+                            target.put(datum, rg, qualKey, covariateKey, eventIndex);
+                        }
+                    }
+                }
+                numObservations[table][rg] = null;
+                scaledNumMismatches[table][rg] = null;
+            }
+        }
+    }
+}
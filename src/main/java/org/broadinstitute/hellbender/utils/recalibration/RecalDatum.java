@@ -220,6 +220,24 @@ public final class RecalDatum implements Serializable {
         increment(1, isError ? 1.0 : 0.0);
     }
 
+    /**
+     * Increment the observations, and the mismatches by a value that has already been scaled by the internal multiplier
+     * (see {@link #scaleMismatches}). Used to flush counts accumulated outside of RecalDatums without rounding them again.
+     */
+    final void incrementScaled(final long incObservations, final double scaledIncMismatches) {
+        numObservations += incObservations;
+        numMismatches += scaledIncMismatches;
+        empiricalQuality = UNINITIALIZED;
+    }
+
+    /**
+     * @return {@code mismatches} scaled the same way as they are when added to a RecalDatum, so that summing the
+     * scaled values gives exactly the same result as incrementing a RecalDatum with each of them
+     */
+    static double scaleMismatches(final double mismatches) {
+        return mismatches*MULTIPLIER;
+    }
+
     // -------------------------------------------------------------------------------------
     //
     // Private implementation helper functions
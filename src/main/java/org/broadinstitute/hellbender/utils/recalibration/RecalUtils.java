@@ -23,6 +23,7 @@ import org.broadinstitute.hellbender.utils.report.GATKReportTable;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This helper class holds the data HashMap as well as submaps that represent the marginal distributions collapsed over all needed dimensions.
@@ -50,7 +51,8 @@ public final class RecalUtils {
     public static final String NUMBER_OBSERVATIONS_COLUMN_NAME = "Observations";
     public static final String NUMBER_ERRORS_COLUMN_NAME = "Errors";
 
-    private static boolean warnUserNullPlatform = false;
+    // atomic, since reads may be recalibrated on several threads at once
+    private static final AtomicBoolean warnUserNullPlatform = new AtomicBoolean(false);
 
     private static final String SCRIPT_FILE = "BQSR.R";
     public static final int EMPIRICAL_QUAL_DECIMAL_PLACES = 4;
@@ -494,11 +496,10 @@ public final class RecalUtils {
 
         if (readGroup.getPlatform() == null) {
             if (RAC.DEFAULT_PLATFORM != null) {
-                if (!warnUserNullPlatform) {
+                if (warnUserNullPlatform.compareAndSet(false, true)) {
                     Utils.warnUser("The input .bam file contains reads with no platform information. " +
                             "Defaulting to platform = " + RAC.DEFAULT_PLATFORM + ". " +
                             "First observed at read with name = " + read.getName());
-                    warnUserNullPlatform = true;
                 }
                 readGroup.setPlatform(RAC.DEFAULT_PLATFORM);
             }
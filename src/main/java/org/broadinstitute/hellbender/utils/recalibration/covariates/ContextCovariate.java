@@ -2,8 +2,6 @@ package org.broadinstitute.hellbender.utils.recalibration.covariates;
 
 import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMFileHeader;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.barclay.argparser.CommandLineException;
@@ -61,13 +59,12 @@ public final class ContextCovariate implements Covariate {
         final int originalReadLength = read.getLength();
 
         // store the original bases and then write Ns over low quality ones
-        final byte[] strandedClippedBases = getStrandedClippedBytes(read, lowQualTail);  //Note: this makes a copy of the read
+        //Note: the bases and the keys are computed in scratch buffers of the ReadCovariates, to avoid allocating arrays for every read
+        final byte[] strandedClippedBases = values.getBasesBuffer(originalReadLength);
+        final int readLengthAfterClipping = fillStrandedClippedBases(read, lowQualTail, strandedClippedBases);
 
-        //Note: we're using a non-standard library here because boxing came up on profiling as taking 20% of time in applyBQSR.
-        //IntList avoids boxing
-        final IntList mismatchKeys = contextWith(strandedClippedBases, mismatchesContextSize, mismatchesKeyMask);
-
-        final int readLengthAfterClipping = strandedClippedBases.length;
+        final int[] mismatchKeys = values.getKeysBuffer(0, readLengthAfterClipping);
+        contextWith(strandedClippedBases, readLengthAfterClipping, mismatchesContextSize, mismatchesKeyMask, mismatchKeys);
 
         // this is necessary to ensure that we don't keep historical data in the ReadCovariates values
         // since the context covariate may not span the entire set of values in read covariates
@@ -84,16 +81,17 @@ public final class ContextCovariate implements Covariate {
 
         //Note: duplicated the loop to avoid checking recordIndelValues on each iteration
         if (recordIndelValues) {
-            final IntList indelKeys = contextWith(strandedClippedBases, indelsContextSize, indelsKeyMask);
+            final int[] indelKeys = values.getKeysBuffer(1, readLengthAfterClipping);
+            contextWith(strandedClippedBases, readLengthAfterClipping, indelsContextSize, indelsKeyMask, indelKeys);
             for (int i = 0; i < readLengthAfterClipping; i++) {
                 final int readOffset = getStrandedOffset(negativeStrand, i, readLengthAfterClipping);
-                final int indelKey = indelKeys.getInt(i);
-                values.addCovariate(mismatchKeys.getInt(i), indelKey, indelKey, readOffset);
+                final int indelKey = indelKeys[i];
+                values.addCovariate(mismatchKeys[i], indelKey, indelKey, readOffset);
             }
         } else {
             for (int i = 0; i < readLengthAfterClipping; i++) {
                 final int readOffset = getStrandedOffset(negativeStrand, i, readLengthAfterClipping);
-                values.addCovariate(mismatchKeys.getInt(i), 0, 0, readOffset);
+                values.addCovariate(mismatchKeys[i], 0, 0, readOffset);
             }
         }
     }
@@ -130,6 +128,41 @@ public final class ContextCovariate implements Covariate {
         }
     }
 
+    /**
+     * Same as {@link #getStrandedClippedBytes}, but writes the bases into {@code destination} instead of copying the read.
+     * @param destination array of at least read length bases to write the stranded, clipped bases to
+     * @return the number of bases written to {@code destination} (0 if all bases are below lowQTail, the read length otherwise).
+     */
+    @VisibleForTesting
+    static int fillStrandedClippedBases(final GATKRead read, final byte lowQTail, final byte[] destination) {
+        final int readLength = read.getLength();
+
+        // find the low quality tails the same way as ReadClipper.clipLowQualEnds
+        int rightClipIndex = readLength - 1;
+        while (rightClipIndex >= 0 && read.getBaseQuality(rightClipIndex) <= lowQTail) {
+            rightClipIndex--;
+        }
+        int leftClipIndex = 0;
+        while (leftClipIndex < readLength && read.getBaseQuality(leftClipIndex) <= lowQTail) {
+            leftClipIndex++;
+        }
+        if (leftClipIndex > rightClipIndex) {
+            return 0;
+        }
+
+        final byte[] bases = read.getBasesNoCopy();
+        final boolean negativeStrand = read.isReverseStrand();
+        for (int i = 0; i < readLength; i++) {
+            final byte base = i < leftClipIndex || i > rightClipIndex ? (byte)'N' : bases[i];
+            if (negativeStrand) {
+                destination[readLength - 1 - i] = BaseUtils.simpleComplement(base);
+            } else {
+                destination[i] = base;
+            }
+        }
+        return readLength;
+    }
+
     @Override
     public String formatKey(final int key) {
         if (key == -1) // this can only happen in test routines because we do not propagate null keys to the csv file
@@ -157,30 +190,30 @@ public final class ContextCovariate implements Covariate {
      * calculates the context of a base independent of the covariate mode (mismatch, insertion or deletion)
      *
      * @param bases       the bases in the read to build the context from
+     * @param readLength  number of bases of {@code bases} to use
      * @param contextSize context size to use building the context
      * @param mask        mask for pulling out just the context bits
+     * @param keys        array of at least {@code readLength} elements where the key of each base is written
      */
-    private static IntList contextWith(final byte[] bases, final int contextSize, final int mask) {
+    private static void contextWith(final byte[] bases, final int readLength, final int contextSize, final int mask, final int[] keys) {
 
-        final int readLength = bases.length;
-
-        //Note: we use a specialized collection to avoid the cost of boxing and unboxing that otherwise comes up on the profiler.
-        final IntList keys = new IntArrayList(readLength);
+        //Note: we write into a reused int[] to avoid the cost of boxing and of allocating a collection per read.
+        int numKeys = 0;
 
         // the first contextSize-1 bases will not have enough previous context
         for (int i = 1; i < contextSize && i <= readLength; i++) {
-            keys.add(-1);
+            keys[numKeys++] = -1;
         }
 
         if (readLength < contextSize) {
-            return keys;
+            return;
         }
 
         final int newBaseOffset = 2 * (contextSize - 1) + LENGTH_BITS;
 
         // get (and add) the key for the context starting at the first base
         int currentKey = keyFromContext(bases, 0, contextSize);
-        keys.add(currentKey);
+        keys[numKeys++] = currentKey;
 
         // if the first key was -1 then there was an N in the context; figure out how many more consecutive contexts it affects
         int currentNPenalty = 0;
@@ -209,14 +242,12 @@ public final class ContextCovariate implements Covariate {
             }
 
             if (currentNPenalty == 0) {
-                keys.add(currentKey);
+                keys[numKeys++] = currentKey;
             } else {
                 currentNPenalty--;
-                keys.add(-1);
+                keys[numKeys++] = -1;
             }
         }
-
-        return keys;
     }
 
     public static int keyFromContext(final String dna) {
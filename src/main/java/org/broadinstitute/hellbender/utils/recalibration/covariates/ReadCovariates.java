@@ -7,6 +7,11 @@ import org.broadinstitute.hellbender.utils.recalibration.EventType;
 
 /**
  * The object temporarily held by a read that describes all of its covariates.
+ *
+ * A ReadCovariates created with {@link #ReadCovariates(int)} is a workspace that is meant to be reused for successive
+ * reads (see {@link #reset}). Its key arrays, as well as the scratch buffers that covariates use while computing their
+ * keys, grow to fit the longest read seen, so once they have done so computing the covariates of a read allocates nothing.
+ * A workspace must only be used by one thread at a time.
  */
 public final class ReadCovariates {
     private static final Logger logger = LogManager.getLogger(ReadCovariates.class);
@@ -14,7 +19,13 @@ public final class ReadCovariates {
     /**
      * Our keys, indexed by event type x read length x covariate
      */
-    private final int[][][] keys;
+    private int[][][] keys;
+
+    private final int numberOfCovariates;
+
+    // scratch buffers for the covariates, allocated on first use (see getBasesBuffer and getKeysBuffer)
+    private byte[] basesBuffer;
+    private final int[][] keysBuffers = new int[2][];
 
     /**
      * The index of the current covariate, used by addCovariate
@@ -28,6 +39,7 @@ public final class ReadCovariates {
      */
     public ReadCovariates(final int readLength, final int numberOfCovariates, final CovariateKeyCache keysCache) {
         Utils.nonNull(keysCache);
+        this.numberOfCovariates = numberOfCovariates;
         final int[][][] cachedKeys = keysCache.get(readLength);
         if ( cachedKeys == null ) {
             if ( logger.isDebugEnabled() ) logger.debug("Keys cache miss for length " + readLength + " cache size " + keysCache.size());
@@ -38,6 +50,50 @@ public final class ReadCovariates {
         }
     }
 
+    /**
+     * Create a reusable workspace for the given number of covariates. {@link #reset} must be called before each read.
+     */
+    public ReadCovariates(final int numberOfCovariates) {
+        Utils.validateArg(numberOfCovariates > 0, "numberOfCovariates must be > 0");
+        this.numberOfCovariates = numberOfCovariates;
+        keys = new int[EventType.values().length][0][];
+    }
+
+    /**
+     * Prepare this object to hold the covariates of a read of length {@code readLength}, reusing its storage when it
+     * is large enough. Key arrays past {@code readLength} may hold the keys of a previous read, and must be ignored.
+     */
+    public void reset(final int readLength) {
+        Utils.validateArg(readLength >= 0, "readLength must be >= 0");
+        currentCovariateIndex = 0;
+        if ( keys[0].length < readLength ) {
+            // grow geometrically so that a slowly increasing read length doesn't cause an allocation per read
+            final int capacity = Math.max(readLength, keys[0].length * 3 / 2);
+            keys = new int[EventType.values().length][capacity][numberOfCovariates];
+        }
+    }
+
+    /**
+     * @return a scratch buffer of at least {@code length} bases that is reused across reads, for use by the covariates
+     */
+    byte[] getBasesBuffer(final int length) {
+        if ( basesBuffer == null || basesBuffer.length < length ) {
+            basesBuffer = new byte[length];
+        }
+        return basesBuffer;
+    }
+
+    /**
+     * @param index which of the buffers to return (0 or 1)
+     * @return a scratch buffer of at least {@code length} keys that is reused across reads, for use by the covariates
+     */
+    int[] getKeysBuffer(final int index, final int length) {
+        if ( keysBuffers[index] == null || keysBuffers[index].length < length ) {
+            keysBuffers[index] = new int[length];
+        }
+        return keysBuffers[index];
+    }
+
     public void setCovariateIndex(final int index) {
         currentCovariateIndex = index;
     }
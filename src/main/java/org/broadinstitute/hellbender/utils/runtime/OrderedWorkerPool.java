@@ -0,0 +1,164 @@
+package org.broadinstitute.hellbender.utils.runtime;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of per-thread workers used to process independent units of work concurrently, while keeping their
+ * results in order (for example assembly regions or interval shards in the walker traversals, or BGZF blocks in
+ * {@link org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedOutputStream}).
+ *
+ * Tasks are submitted in traversal order. Their results (the {@link Runnable}s returned by the tasks) are kept
+ * in a reorder buffer and run on the submitting thread strictly in submission order, so output produced by the
+ * results stays in traversal order. The reorder buffer is bounded: once it holds
+ * {@link #PENDING_RESULTS_PER_THREAD} results per thread, {@link #submit} blocks until the oldest one is emitted,
+ * which also bounds the amount of work (and reads) held in memory at once.
+ *
+ * All workers are created up front on the constructing thread, and each one is used by at most one task at a time.
+ *
+ * @param <W> type of the workers, which hold any non-thread-safe state needed by a task
+ */
+public final class OrderedWorkerPool<W> implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(OrderedWorkerPool.class);
+
+    /**
+     * Number of submitted-but-not-yet-emitted tasks allowed per thread before {@link #submit} blocks.
+     * Must be > 1 so that a slow task does not leave the other threads idle.
+     */
+    public static final int PENDING_RESULTS_PER_THREAD = 4;
+
+    private final ExecutorService executor;
+    private final List<W> workers;
+    private final BlockingQueue<W> idleWorkers;
+    private final Consumer<W> workerCloser;
+    private final Deque<Future<Runnable>> pendingResults = new ArrayDeque<>();
+    private final int maxPendingResults;
+
+    /**
+     * @param threadNamePrefix prefix of the names of the worker threads, which are numbered from 0
+     * @param numThreads number of worker threads (and workers) to create, must be > 0
+     * @param workerFactory called {@code numThreads} times on the constructing thread to create the workers; if it
+     *                      throws, the workers already created are closed with {@code workerCloser}
+     * @param workerCloser called on each worker by {@link #close}, on the calling thread
+     */
+    public OrderedWorkerPool( final String threadNamePrefix, final int numThreads, final Supplier<W> workerFactory, final Consumer<W> workerCloser ) {
+        Utils.nonNull(threadNamePrefix);
+        Utils.validateArg(numThreads > 0, "numThreads must be > 0");
+        Utils.nonNull(workerFactory);
+        Utils.nonNull(workerCloser);
+
+        workers = new ArrayList<>(numThreads);
+        idleWorkers = new ArrayBlockingQueue<>(numThreads);
+        this.workerCloser = workerCloser;
+        try {
+            for ( int i = 0; i < numThreads; i++ ) {
+                final W worker = Utils.nonNull(workerFactory.get(), "worker factory returned a null worker");
+                workers.add(worker);
+                idleWorkers.add(worker);
+            }
+        } catch ( RuntimeException | Error e ) {
+            // close the workers created so far, since the caller never gets the pool to close
+            for ( final W worker : workers ) {
+                try {
+                    workerCloser.accept(worker);
+                } catch ( RuntimeException closeException ) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+
+        executor = Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder()
+                .setNameFormat(threadNamePrefix + "-%d")
+                .setDaemon(true)
+                .build());
+        maxPendingResults = numThreads * PENDING_RESULTS_PER_THREAD;
+    }
+
+    /**
+     * Schedule a task on the next available worker. If the reorder buffer is full, results of previously submitted
+     * tasks are emitted (in submission order) on the calling thread until there is room for this one.
+     *
+     * @param task work to perform with a worker; returns the action to run on the calling thread, in submission order
+     */
+    public void submit( final Function<W, Runnable> task ) {
+        Utils.nonNull(task);
+        while ( pendingResults.size() >= maxPendingResults ) {
+            emitNextResult();
+        }
+
+        pendingResults.add(executor.submit(() -> {
+            final W worker = idleWorkers.take();
+            try {
+                return Utils.nonNull(task.apply(worker), "worker task returned a null result");
+            } finally {
+                idleWorkers.add(worker);
+            }
+        }));
+    }
+
+    /**
+     * Wait for all submitted tasks to complete, and emit their results in submission order on the calling thread.
+     */
+    public void drain() {
+        while ( ! pendingResults.isEmpty() ) {
+            emitNextResult();
+        }
+    }
+
+    private void emitNextResult() {
+        final Future<Runnable> nextResult = pendingResults.remove();
+        try {
+            nextResult.get().run();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new GATKException("Interrupted while waiting for a worker task to complete", e);
+        } catch ( ExecutionException e ) {
+            // rethrow unchecked exceptions unwrapped so that UserExceptions thrown by the tool are reported as such
+            final Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException)cause;
+            } else if ( cause instanceof Error ) {
+                throw (Error)cause;
+            }
+            throw new GATKException("Exception in a worker task", cause);
+        }
+    }
+
+    /**
+     * Discard any results that have not been emitted, stop the worker threads, and close all workers.
+     * Call {@link #drain()} first to emit all pending results.
+     */
+    @Override
+    public void close() {
+        pendingResults.forEach(result -> result.cancel(true));
+        pendingResults.clear();
+        executor.shutdownNow();
+        try {
+            if ( ! executor.awaitTermination(1, TimeUnit.MINUTES) ) {
+                logger.warn("Timed out waiting for worker threads to terminate");
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+        workers.forEach(workerCloser);
+    }
+}
@@ -2,15 +2,25 @@ package org.broadinstitute.hellbender.utils.variant;
 
 import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.BlockCompressedFilePointerUtil;
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
 import htsjdk.samtools.util.CollectionUtil;
 import htsjdk.samtools.util.IOUtil;
 import htsjdk.samtools.util.Locatable;
+import htsjdk.samtools.util.Md5CalculatingOutputStream;
 import htsjdk.tribble.TribbleException;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+import htsjdk.tribble.readers.AsciiLineReader;
+import htsjdk.tribble.readers.AsciiLineReaderIterator;
 import htsjdk.variant.variantcontext.*;
 import htsjdk.variant.variantcontext.writer.Options;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFConstants;
+import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
 import htsjdk.variant.vcf.VCFSimpleHeaderLine;
 import htsjdk.variant.vcf.VCFStandardHeaderLines;
@@ -20,15 +30,20 @@ import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.*;
 import org.broadinstitute.hellbender.utils.BaseUtils;
 import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedOutputStream;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -92,8 +107,38 @@ public final class GATKVariantContextUtils {
             final SAMSequenceDictionary referenceDictionary,
             final boolean createMD5,
             final Options... options)
+    {
+        return createVCFWriter(outFile, referenceDictionary, createMD5, 1, options);
+    }
+
+    /**
+     * Creates a VariantContextWriter whose outputFile type is based on the extension of the output file name.
+     * The default options set by VariantContextWriter are cleared before applying ALLOW_MISSING_FIELDS_IN_HEADER (if
+     * <code>lenientProcessing</code> is set), followed by the set of options specified by any <code>options</code> args.
+     *
+     * @param outFile output File for this writer. May not be null.
+     * @param referenceDictionary required if on the fly indexing is set, otherwise can be null
+     * @param createMD5 true if an md5 file should be created
+     * @param compressionThreads number of threads compressing the BGZF blocks of a block-compressed VCF. If > 1, the
+     *                           blocks are compressed in parallel by a {@link ParallelBlockCompressedOutputStream}, and
+     *                           the index (if any) is created once the file has been written.
+     * @param options variable length list of additional Options to be set for this writer
+     * @returns VariantContextWriter must be closed by the caller
+     */
+    public static VariantContextWriter createVCFWriter(
+            final File outFile,
+            final SAMSequenceDictionary referenceDictionary,
+            final boolean createMD5,
+            final int compressionThreads,
+            final Options... options)
     {
         Utils.nonNull(outFile);
+        Utils.validateArg(compressionThreads > 0, "compressionThreads must be > 0");
+
+        if (compressionThreads > 1 &&
+                VariantContextWriterBuilder.OutputType.BLOCK_COMPRESSED_VCF == getVariantFileTypeFromExtension(outFile)) {
+            return createParallelCompressedVCFWriter(outFile, referenceDictionary, createMD5, compressionThreads, options);
+        }
 
         VariantContextWriterBuilder vcWriterBuilder =
                 new VariantContextWriterBuilder().clearOptions().setOutputFile(outFile);
@@ -123,6 +168,109 @@ public final class GATKVariantContextUtils {
         return vcWriterBuilder.build();
     }
 
+    /**
+     * Create a block-compressed VCF writer whose BGZF blocks are compressed in parallel, with output identical to
+     * the output of htsjdk's writer (using the JDK deflater at the compression levels where the Intel deflater can't
+     * compress blocks independently, see {@link ParallelBlockCompressedOutputStream}). htsjdk writes plain VCF to a {@link ParallelBlockCompressedOutputStream}, which
+     * splits it into blocks the same way as the {@link htsjdk.samtools.util.BlockCompressedOutputStream} htsjdk would
+     * use. Since the virtual file pointers of the records are not known while they are written, the index (if
+     * {@link Options#INDEX_ON_THE_FLY} is set) is created from the output once it has been closed.
+     */
+    private static VariantContextWriter createParallelCompressedVCFWriter(
+            final File outFile,
+            final SAMSequenceDictionary referenceDictionary,
+            final boolean createMD5,
+            final int compressionThreads,
+            final Options... options)
+    {
+        final OutputStream bgzfOutput;
+        try {
+            OutputStream fileOutput = IOUtil.maybeBufferOutputStream(Files.newOutputStream(outFile.toPath()));
+            if (createMD5) {
+                fileOutput = new Md5CalculatingOutputStream(fileOutput, IOUtil.addExtension(outFile.toPath(), ".md5"));
+            }
+            bgzfOutput = new ParallelBlockCompressedOutputStream(fileOutput, compressionThreads);
+        } catch (IOException e) {
+            throw new UserException.CouldNotCreateOutputFile(outFile, "could not open output file", e);
+        }
+
+        VariantContextWriterBuilder vcWriterBuilder =
+                new VariantContextWriterBuilder().clearOptions().setOutputVCFStream(bgzfOutput);
+
+        if (null != referenceDictionary) {
+            vcWriterBuilder = vcWriterBuilder.setReferenceDictionary(referenceDictionary);
+        }
+
+        boolean createIndex = false;
+        for (Options opt : options) {
+            if (opt == Options.INDEX_ON_THE_FLY) {
+                createIndex = true;
+            } else {
+                vcWriterBuilder = vcWriterBuilder.setOption(opt);
+            }
+        }
+
+        final VariantContextWriter writer = vcWriterBuilder.build();
+        return createIndex ? new IndexOnCloseVCFWriter(writer, outFile, referenceDictionary) : writer;
+    }
+
+    /**
+     * A block-compressed VCF writer that creates the tabix index of its output once the output has been closed.
+     */
+    private static final class IndexOnCloseVCFWriter implements VariantContextWriter {
+        private final VariantContextWriter writer;
+        private final File outFile;
+        private final SAMSequenceDictionary referenceDictionary;
+
+        IndexOnCloseVCFWriter(final VariantContextWriter writer, final File outFile, final SAMSequenceDictionary referenceDictionary) {
+            this.writer = writer;
+            this.outFile = outFile;
+            this.referenceDictionary = referenceDictionary;
+        }
+
+        @Override
+        public void writeHeader(final VCFHeader header) {
+            writer.writeHeader(header);
+        }
+
+        @Override
+        public void setHeader(final VCFHeader header) {
+            writer.setHeader(header);
+        }
+
+        @Override
+        public void add(final VariantContext vc) {
+            writer.add(vc);
+        }
+
+        @Override
+        public boolean checkError() {
+            return writer.checkError();
+        }
+
+        @Override
+        public void close() {
+            writer.close();
+
+            // index the records at the same positions as htsjdk's on-the-fly indexing would
+            final TabixIndexCreator indexCreator = new TabixIndexCreator(referenceDictionary, TabixFormat.VCF);
+            final VCFCodec codec = new VCFCodec();
+            try (final BlockCompressedInputStream input = new BlockCompressedInputStream(outFile)) {
+                final AsciiLineReaderIterator lines = new AsciiLineReaderIterator(AsciiLineReader.from(input));
+                codec.readActualHeader(lines);
+                while (lines.hasNext()) {
+                    final long position = lines.getPosition();
+                    indexCreator.addFeature(codec.decode(lines.next()), position);
+                }
+                // htsjdk finalizes its index at the position of the terminator block
+                final long terminatorBlockAddress = outFile.length() - BlockCompressedStreamConstants.EMPTY_GZIP_BLOCK.length;
+                indexCreator.finalizeIndex(BlockCompressedFilePointerUtil.makeFilePointer(terminatorBlockAddress, 0)).writeBasedOnFeatureFile(outFile);
+            } catch (IOException e) {
+                throw new UserException.CouldNotCreateOutputFile(outFile, "could not create index", e);
+            }
+        }
+    }
+
     // Determine the variant file type from the file extension. Htsjdk has similar code, when
     // https://github.com/broadinstitute/gatk/issues/2128 is fixed we should eliminate this code
     // and use the htsjdk method.
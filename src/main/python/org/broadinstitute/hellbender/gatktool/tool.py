@@ -121,6 +121,13 @@ def readDataFIFO() -> str:
     global _dataFIFO
     return _dataFIFO.readLine()
 
+def readDataFIFOBytes(numBytes: int) -> bytes:
+    """
+    Read exactly numBytes bytes from the Data FIFO, for binary data.
+    """
+    global _dataFIFO
+    return _dataFIFO.readBytes(numBytes)
+
 def startProfiling():
     """
     Start Python CProfile profiling.
@@ -229,7 +236,8 @@ class DataFIFO:
 
         # the data fifo is always opened for read only on the python side
         readDescriptor = os.open(self.dataFIFOName, os.O_RDONLY)
-        self.fileReader = os.fdopen(readDescriptor, 'r')
+        # the fifo is opened in binary mode so that it can carry both lines of text and binary data
+        self.fileReader = os.fdopen(readDescriptor, 'rb')
 
     def readLine(self) -> str:
         """
@@ -238,7 +246,19 @@ class DataFIFO:
         """
         if self.fileReader is None:
             raise RuntimeError("data FIFO reader has not been initialized")
-        return self.fileReader.readline()
+        return self.fileReader.readline().decode('utf-8')
+
+    def readBytes(self, numBytes: int) -> bytes:
+        """
+        Read exactly numBytes bytes from the Data FIFO.
+        :return: bytes
+        """
+        if self.fileReader is None:
+            raise RuntimeError("data FIFO reader has not been initialized")
+        data = self.fileReader.read(numBytes)
+        if len(data) != numBytes:
+            raise RuntimeError("expected %d bytes from the data FIFO but only got %d" % (numBytes, len(data)))
+        return data
 
     def close(self):
         if self.fileReader is None:
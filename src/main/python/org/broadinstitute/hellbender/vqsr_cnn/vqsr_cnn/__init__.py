@@ -3,6 +3,6 @@ from .models import build_default_1d_annotation_model, build_default_2d_annotati
 from .models import start_session_get_args_and_model, train_model_from_generators
 from .tensor_maps import get_tensor_channel_map_from_args, tensor_shape_from_args
 from .arguments import parse_args, weight_path_from_args, annotations_from_args
-from .inference import score_and_write_batch
+from .inference import score_and_write_batch, score_and_write_binary_batch
 from .plots import plot_roc_per_class
 from .defines import *
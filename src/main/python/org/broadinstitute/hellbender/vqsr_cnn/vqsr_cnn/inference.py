@@ -1,6 +1,7 @@
 # Imports
 import os
 import math
+import struct
 import h5py
 import numpy as np
 from collections import Counter, defaultdict, namedtuple
@@ -30,6 +31,21 @@ for i in range(256):
     p_lut[i] = 1.0 - (10.0**exponent)
     not_p_lut[i] = (1.0 - p_lut[i]) / 3.0
 
+# Maps reference base bytes to their one hot (or ambiguity) encoding, zero bytes are padding
+dna_lut = np.zeros((256, len(defines.DNA_SYMBOLS)))
+known_base_codes = np.zeros((256,), dtype=bool)
+known_base_codes[0] = True
+for b in defines.DNA_SYMBOLS:
+    dna_lut[ord(b), defines.DNA_SYMBOLS[b]] = 1.0
+    known_base_codes[ord(b)] = True
+for b in defines.AMBIGUITY_CODES:
+    dna_lut[ord(b)] = defines.AMBIGUITY_CODES[b]
+    known_base_codes[ord(b)] = True
+
+READ_REVERSE_STRAND_FLAG = 1
+MATE_REVERSE_STRAND_FLAG = 2
+FIRST_OF_PAIR_FLAG = 4
+
 # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 # ~~~~~~~ Inference ~~~~~~~~~~~~~~~
 # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -84,6 +100,98 @@ def score_and_write_batch(args, model, file_out, batch_size, python_batch_size,
                 _write_tensor_to_hd5(args, tensor, annotation_batch[-1], fifo_data[0], fifo_data[1], fifo_data[6])
             read_batch.append(tensor)
 
+    _predict_and_write_scores(args, model, file_out, python_batch_size, variant_data, variant_types,
+                              reference_batch, annotation_batch, read_batch)
+
+
+def score_and_write_binary_batch(args, model, file_out, batch_size, python_batch_size, tensor_dir):
+    '''Score a batch of variants sent in binary format with a CNN model. Write tab delimited temp file with scores.
+
+    This function is tightly coupled with the BinaryTensorBatch.java, which documents the layout of the batch.
+    Reference bases and annotations are read as whole numpy arrays, rather than parsed from text for each variant.
+
+    Arguments
+        args: Namespace with command line or configuration file set arguments
+        model: a keras model
+        file_out: The VCF file where variants scores are written
+        batch_size: The total number of variants available in the fifo
+        python_batch_size: the number of variants to process in each inference
+        tensor_dir : If this path exists write hd5 files for each tensor (optional for debugging)
+    '''
+    num_variants, window_size, num_annotations = struct.unpack('>iii', tool.readDataFIFOBytes(12))
+    if num_variants != batch_size:
+        raise ValueError('Expected a batch of %d variants but got %d' % (batch_size, num_variants))
+
+    annotation_keys = _read_text_block().split(defines.SEPARATOR_CHAR) if num_annotations > 0 else []
+    variant_lines = _read_text_block().splitlines()
+
+    reference_bytes = np.frombuffer(tool.readDataFIFOBytes(num_variants * window_size), dtype=np.uint8)
+    reference_bytes = reference_bytes.reshape((num_variants, window_size))
+    if not np.all(known_base_codes[reference_bytes]):
+        raise ValueError('Error! Unknown codes in reference:', set(chr(b) for b in reference_bytes[~known_base_codes[reference_bytes]]))
+    reference_batch = dna_lut[reference_bytes]
+
+    annotations = np.frombuffer(tool.readDataFIFOBytes(num_variants * num_annotations * 8), dtype='>f8')
+    annotations = np.nan_to_num(annotations.reshape((num_variants, num_annotations)).astype(np.float64))
+    annotation_batch = np.zeros((num_variants, len(defines.ANNOTATIONS[args.annotation_set])))
+    for i, a in enumerate(defines.ANNOTATIONS[args.annotation_set]):
+        if a in annotation_keys:
+            annotation_batch[:, i] = annotations[:, annotation_keys.index(a)]
+
+    has_reads = struct.unpack('>i', tool.readDataFIFOBytes(4))[0] == 1
+
+    variant_data = []
+    variant_types = []
+    read_batch = []
+    for v in range(num_variants):
+        fields = variant_lines[v].split(defines.SEPARATOR_CHAR)
+        variant_data.append(defines.SEPARATOR_CHAR.join(fields[:4]))
+        variant_types.append(fields[4])
+        if has_reads:
+            read_tuples = _read_binary_reads()
+            if args.tensor_name in defines.TENSOR_MAPS_2D:
+                var = Variant(fields[0], int(fields[1]), fields[2], fields[3], fields[4])
+                reference_string = reference_bytes[v].tobytes().decode('latin-1')
+                _, ref_start, _ = get_variant_window(args, var)
+                insert_dict = get_inserts(args, read_tuples, var)
+                tensor = read_tuples_to_read_tensor(args, read_tuples, ref_start, insert_dict)
+                reference_sequence_into_tensor(args, reference_string, tensor, insert_dict)
+                if os.path.exists(tensor_dir):
+                    _write_tensor_to_hd5(args, tensor, annotation_batch[v], fields[0], fields[1], fields[4])
+                read_batch.append(tensor)
+
+    _predict_and_write_scores(args, model, file_out, python_batch_size, variant_data, variant_types,
+                              reference_batch, annotation_batch, read_batch)
+
+
+def _read_text_block():
+    length = struct.unpack('>i', tool.readDataFIFOBytes(4))[0]
+    return tool.readDataFIFOBytes(length).decode('utf-8') if length > 0 else ''
+
+
+def _read_binary_reads():
+    read_tuples = []
+    num_reads = struct.unpack('>i', tool.readDataFIFOBytes(4))[0]
+    for _ in range(num_reads):
+        length = struct.unpack('>i', tool.readDataFIFOBytes(4))[0]
+        seq = tool.readDataFIFOBytes(length).decode('latin-1')
+        qual = list(tool.readDataFIFOBytes(length))
+        cigar = _read_text_block()
+        flags, mapping_quality, reference_start = struct.unpack('>bii', tool.readDataFIFOBytes(9))
+        read_tuples.append(Read(seq,
+                                qual,
+                                cigar,
+                                bool(flags & READ_REVERSE_STRAND_FLAG),
+                                bool(flags & MATE_REVERSE_STRAND_FLAG),
+                                bool(flags & FIRST_OF_PAIR_FLAG),
+                                mapping_quality,
+                                reference_start))
+    return read_tuples
+
+
+def _predict_and_write_scores(args, model, file_out, python_batch_size, variant_data, variant_types,
+                              reference_batch, annotation_batch, read_batch):
+    batch_size = len(variant_data)
     if args.tensor_name in defines.TENSOR_MAPS_1D:
         predictions = model.predict([np.array(reference_batch), np.array(annotation_batch)],
                                     batch_size=python_batch_size)
@@ -672,6 +672,211 @@ public final class FeatureDataSourceUnitTest extends GATKBaseTest {
         Assert.assertEquals(cache.getCachedFeaturesUpToStopPosition(100), emptyRegion, "Should get back empty List for empty region");
     }
 
+    @Test
+    public void testCacheOverlappingRetrieval() {
+        // Features of varying lengths, sorted by start, so that many long Features reach past later short ones
+        final Random random = new Random(7);
+        final List<ArtificialTestFeature> feats = new ArrayList<>();
+        for ( int start = 1; start <= 10000; start += random.nextInt(20) ) {
+            feats.add(new ArtificialTestFeature("1", start, start + (random.nextInt(10) == 0 ? random.nextInt(2000) : random.nextInt(10))));
+        }
+        final FeatureCache<ArtificialTestFeature> cache = initializeFeatureCache(feats, "1", 1, 12000);
+
+        for ( int i = 0; i < 500; i++ ) {
+            final int start = 1 + random.nextInt(11000);
+            final SimpleInterval query = new SimpleInterval("1", start, start + random.nextInt(1000));
+            final List<ArtificialTestFeature> expectedFeatures = feats.stream().filter(query::overlaps).collect(Collectors.toList());
+
+            Assert.assertTrue(cache.cacheHit(query), "Unexpected cache miss for interval " + query);
+            Assert.assertEquals(cache.getCachedFeatures(query), expectedFeatures, "Wrong Features returned for interval " + query);
+        }
+    }
+
+    @Test
+    public void testCacheHitsInEarlierRegions() {
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>();
+        final List<ArtificialTestFeature> region1Feats = Arrays.asList(new ArtificialTestFeature("1", 10, 20), new ArtificialTestFeature("1", 50, 60));
+        final List<ArtificialTestFeature> region2Feats = Arrays.asList(new ArtificialTestFeature("1", 550, 560));
+        final List<ArtificialTestFeature> region3Feats = Arrays.asList(new ArtificialTestFeature("2", 1, 1000));
+        cache.fill(region1Feats.iterator(), new SimpleInterval("1", 1, 100));
+        cache.fill(region2Feats.iterator(), new SimpleInterval("1", 500, 600));
+        cache.fill(region3Feats.iterator(), new SimpleInterval("2", 1, 100));
+
+        // Backing up, and switching contigs, are hits as long as we stay within a cached region
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 40, 70)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 40, 70)), region1Feats.subList(1, 2));
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("2", 50, 60)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("2", 50, 60)), region3Feats);
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 500, 549)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 500, 549)), Collections.emptyList());
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 1, 100)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 1, 100)), region1Feats);
+
+        // Intervals spanning regions, or outside of all of them, are misses
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 90, 510)));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 101, 499)));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("2", 100, 101)));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("3", 1, 1)));
+        Assert.assertEquals(cache.getNumCacheHits(), 4);
+        Assert.assertEquals(cache.getNumCacheMisses(), 4);
+        Assert.assertEquals(cache.getNumCachedFeatures(), 4);
+    }
+
+    @Test
+    public void testCacheDiscardsRedundantRegions() {
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>();
+        final List<ArtificialTestFeature> feats = Arrays.asList(new ArtificialTestFeature("1", 10, 20), new ArtificialTestFeature("1", 150, 160));
+        cache.fill(feats.subList(0, 1).iterator(), new SimpleInterval("1", 1, 100));
+        cache.fill(feats.subList(1, 2).iterator(), new SimpleInterval("1", 120, 200));
+
+        // This region contains both of the previous ones, which are therefore discarded
+        cache.fill(feats.iterator(), new SimpleInterval("1", 1, 300));
+        Assert.assertEquals(cache.getNumCachedFeatures(), 2);
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 50, 250)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 50, 250)), feats.subList(1, 2));
+
+        // Trimming keeps the trimmed region indexed under its new start position
+        cache.trimToNewStartPosition(100);
+        Assert.assertEquals(cache.getNumCachedFeatures(), 1);
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 50, 250)));
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 100, 250)));
+        Assert.assertEquals(cache.getCacheStart(), 100);
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsedRegions() {
+        // room for two regions of two Features each (each region counts as one more than its number of Features)
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>(0, 7);
+        final List<ArtificialTestFeature> region1Feats = Arrays.asList(new ArtificialTestFeature("1", 10, 10), new ArtificialTestFeature("1", 20, 20));
+        final List<ArtificialTestFeature> region2Feats = Arrays.asList(new ArtificialTestFeature("1", 210, 210), new ArtificialTestFeature("1", 220, 220));
+        final List<ArtificialTestFeature> region3Feats = Arrays.asList(new ArtificialTestFeature("1", 410, 410), new ArtificialTestFeature("1", 420, 420));
+        cache.fill(region1Feats.iterator(), new SimpleInterval("1", 1, 100));
+        cache.fill(region2Feats.iterator(), new SimpleInterval("1", 201, 300));
+
+        // Using region 1 makes region 2 the least recently used, so region 2 is evicted when region 3 is added
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 1, 50)));
+        cache.fill(region3Feats.iterator(), new SimpleInterval("1", 401, 500));
+        Assert.assertEquals(cache.getNumEvictions(), 1);
+        Assert.assertEquals(cache.getNumCachedFeatures(), 4);
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 1, 50)));
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 401, 500)));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 201, 300)));
+
+        // A region larger than the whole cache is still kept, on its own
+        final List<ArtificialTestFeature> largeRegionFeats = new ArrayList<>();
+        for ( int start = 601; start <= 700; start += 10 ) {
+            largeRegionFeats.add(new ArtificialTestFeature("1", start, start));
+        }
+        cache.fill(largeRegionFeats.iterator(), new SimpleInterval("1", 601, 700));
+        Assert.assertEquals(cache.getNumEvictions(), 3);
+        Assert.assertEquals(cache.getNumCachedFeatures(), largeRegionFeats.size());
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 650, 700)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 650, 700)), largeRegionFeats.subList(5, 10));
+    }
+
+    @Test
+    public void testCacheEvictsEmptyRegions() {
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>(0, 10);
+        for ( int start = 1; start <= 100000; start += 1000 ) {
+            cache.fill(Collections.emptyIterator(), new SimpleInterval("1", start, start + 99));
+        }
+        Assert.assertEquals(cache.getNumCachedRegions(), 10);
+        Assert.assertEquals(cache.getNumEvictions(), 90);
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 99001, 99100)));
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 90001, 90100)));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 89001, 89100)));
+    }
+
+    @Test
+    public void testCacheReleasesFeaturesBehindForwardQueries() {
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>(100, FeatureCache.DEFAULT_MAX_CACHED_FEATURES);
+        final List<ArtificialTestFeature> feats = new ArrayList<>();
+        for ( int start = 1; start <= 1000; start += 10 ) {
+            feats.add(new ArtificialTestFeature("1", start, start + 5));
+        }
+        // a long Feature that must be kept as long as it overlaps the region
+        feats.add(2, new ArtificialTestFeature("1", 15, 800));
+        cache.fill(feats.iterator(), new SimpleInterval("1", 1, 1000));
+
+        // Backing up within the lookahead is still a hit, but not any further
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 500, 510)));
+        cache.releaseFeaturesBehind(500);
+        Assert.assertEquals(cache.getCacheStart(), 400);
+        Assert.assertEquals(cache.getNumCachedFeatures(), 61);
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 400, 420)));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 400, 420)),
+                Arrays.asList(feats.get(2), feats.get(41), feats.get(42)));
+
+        // Releasing behind a position that is within the lookahead of the start does nothing
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 450, 460)));
+        cache.releaseFeaturesBehind(450);
+        Assert.assertEquals(cache.getCacheStart(), 400);
+
+        Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", 900, 1000)));
+        cache.releaseFeaturesBehind(900);
+        Assert.assertEquals(cache.getCacheStart(), 800);
+        final List<ArtificialTestFeature> expectedFeatures = new ArrayList<>(feats.subList(81, feats.size()));
+        expectedFeatures.add(0, feats.get(2));
+        Assert.assertEquals(cache.getCachedFeatures(new SimpleInterval("1", 800, 1000)), expectedFeatures);
+        Assert.assertEquals(cache.getNumCachedFeatures(), 21);
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 790, 820)));
+    }
+
+    @Test
+    public void testCacheLookaheadAdaptsToHitRate() {
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>(100, FeatureCache.DEFAULT_MAX_CACHED_FEATURES);
+        Assert.assertEquals(cache.getLookaheadBases(), 100);
+
+        // Running off the end of a fill that served no hits doubles the lookahead
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 1, 10)));
+        Assert.assertEquals(cache.getLookaheadBases(), 100);
+        cache.fill(Collections.emptyIterator(), new SimpleInterval("1", 1, 110));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 150, 160)));
+        Assert.assertEquals(cache.getLookaheadBases(), 200);
+        cache.fill(Collections.emptyIterator(), new SimpleInterval("1", 150, 360));
+
+        // A fill that served enough hits leaves the lookahead alone
+        for ( int start = 150; start < 350; start += 10 ) {
+            Assert.assertTrue(cache.cacheHit(new SimpleInterval("1", start, start + 10)));
+        }
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 355, 365)));
+        Assert.assertEquals(cache.getLookaheadBases(), 200);
+        cache.fill(Collections.emptyIterator(), new SimpleInterval("1", 355, 565));
+
+        // Moving elsewhere after a fill that served no hits halves the lookahead
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("2", 1, 10)));
+        Assert.assertEquals(cache.getLookaheadBases(), 100);
+        cache.fill(Collections.emptyIterator(), new SimpleInterval("2", 1, 110));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("2", 100000, 100010)));
+        Assert.assertEquals(cache.getLookaheadBases(), 50);
+
+        // The lookahead stays within bounds
+        for ( int i = 0; i < 20; i++ ) {
+            cache.fill(Collections.emptyIterator(), new SimpleInterval("3", 1, 10));
+            cache.cacheHit(new SimpleInterval("4", 1, 10));
+        }
+        Assert.assertEquals(cache.getLookaheadBases(), 1);
+        for ( int i = 0; i < 20; i++ ) {
+            final int start = 1 + i * 100000;
+            cache.fill(Collections.emptyIterator(), new SimpleInterval("5", start, start + 10));
+            cache.cacheHit(new SimpleInterval("5", start + 5, start + 20));
+        }
+        Assert.assertEquals(cache.getLookaheadBases(), 6400);
+    }
+
+    @Test
+    public void testCacheLookaheadNotAdaptedIfZero() {
+        final FeatureCache<ArtificialTestFeature> cache = new FeatureCache<>();
+        cache.fill(Collections.emptyIterator(), new SimpleInterval("1", 1, 10));
+        Assert.assertFalse(cache.cacheHit(new SimpleInterval("1", 5, 20)));
+        Assert.assertEquals(cache.getLookaheadBases(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCacheInvalidMaxCachedFeatures() {
+        new FeatureCache<ArtificialTestFeature>(100, 0);
+    }
+
     /*********************************************************
      * End of direct testing on the FeatureCache inner class
      *********************************************************/
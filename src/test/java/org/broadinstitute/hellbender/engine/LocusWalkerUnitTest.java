@@ -1,16 +1,23 @@
 package org.broadinstitute.hellbender.engine;
 
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.TestProgramGroup;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
@@ -133,4 +140,93 @@ public class LocusWalkerUnitTest extends CommandLineProgramTest {
         Assert.assertEquals(tool.totalApplyCalls, 10);
     }
 
-}
\ No newline at end of file
+    private static class TestMultiThreadedLocusWalker extends LocusWalker {
+        public final List<String> lociAndDepths = new ArrayList<>();
+
+        @Override
+        protected boolean supportsMultiThreadedLocusTraversal() {
+            return true;
+        }
+
+        @Override
+        protected LocusWorker makeLocusWorker() {
+            final List<String> shardLociAndDepths = new ArrayList<>();
+            return new LocusWorker() {
+                @Override
+                public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
+                    shardLociAndDepths.add(describe(alignmentContext, referenceContext));
+                }
+
+                @Override
+                public void mergeResults() {
+                    lociAndDepths.addAll(shardLociAndDepths);
+                }
+            };
+        }
+
+        @Override
+        public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
+            lociAndDepths.add(describe(alignmentContext, referenceContext));
+        }
+
+        private static String describe(final AlignmentContext alignmentContext, final ReferenceContext referenceContext) {
+            return alignmentContext.getLocation() + " " + (char)referenceContext.getBase() + " " + alignmentContext.size();
+        }
+    }
+
+    @DataProvider(name = "multiThreadedTraversalArgs")
+    public Object[][] multiThreadedTraversalArgs() {
+        return new Object[][] {
+                { Collections.emptyList() },
+                { Arrays.asList("-L", "chr7:1-100", "-L", "chr7:200-454", "-L", "chr8") }
+        };
+    }
+
+    @Test(dataProvider = "multiThreadedTraversalArgs")
+    public void testMultiThreadedTraversalMatchesSingleThreaded(final List<String> intervalArgs) {
+        final List<String> args = new ArrayList<>(Arrays.asList(
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "-R", getTestDataDir()+ "/print_reads.fasta"));
+        args.addAll(intervalArgs);
+
+        final TestMultiThreadedLocusWalker singleThreadedTool = new TestMultiThreadedLocusWalker();
+        singleThreadedTool.instanceMain(args.toArray(new String[0]));
+
+        args.addAll(Arrays.asList("--" + LocusWalker.LOCUS_THREADS_LONG_NAME, "3"));
+        final TestMultiThreadedLocusWalker multiThreadedTool = new TestMultiThreadedLocusWalker();
+        multiThreadedTool.instanceMain(args.toArray(new String[0]));
+
+        Assert.assertFalse(singleThreadedTool.lociAndDepths.isEmpty());
+        Assert.assertEquals(multiThreadedTool.lociAndDepths, singleThreadedTool.lociAndDepths);
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultiThreadedTraversalIsRejectedByUnsupportingTool() {
+        final String[] args = {
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "-R", getTestDataDir()+ "/print_reads.fasta",
+                "--" + LocusWalker.LOCUS_THREADS_LONG_NAME, "2"
+        };
+        new TestEmitUncoveredLociTool().instanceMain(args);
+    }
+
+    @Test
+    public void testMakeShards() {
+        final List<SimpleInterval> intervals = Arrays.asList(
+                new SimpleInterval("1", 1, 250),
+                new SimpleInterval("1", 301, 350),
+                new SimpleInterval("1", 401, 450),
+                new SimpleInterval("1", 501, 520),
+                new SimpleInterval("2", 1, 10),
+                new SimpleInterval("3", 1, 10));
+        final List<List<SimpleInterval>> expected = Arrays.asList(
+                Collections.singletonList(new SimpleInterval("1", 1, 100)),
+                Collections.singletonList(new SimpleInterval("1", 101, 200)),
+                Arrays.asList(new SimpleInterval("1", 201, 250), new SimpleInterval("1", 301, 350)),
+                Arrays.asList(new SimpleInterval("1", 401, 450), new SimpleInterval("1", 501, 520)),
+                Collections.singletonList(new SimpleInterval("2", 1, 10)),
+                Collections.singletonList(new SimpleInterval("3", 1, 10)));
+        Assert.assertEquals(LocusWalker.makeShards(intervals, 100), expected);
+        Assert.assertEquals(LocusWalker.makeShards(Collections.emptyList(), 100), Collections.emptyList());
+    }
+}
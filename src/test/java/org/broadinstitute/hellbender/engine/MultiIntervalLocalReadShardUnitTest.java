@@ -184,4 +184,31 @@ public class MultiIntervalLocalReadShardUnitTest extends GATKBaseTest {
 
         Assert.assertEquals(actualReadNames, expectedReadNames, "Wrong reads returned");
     }
+
+    @Test(dataProvider = "shardIterationTestData")
+    public void testShardIterationWithReadPrefetching(final MultiIntervalLocalReadShard shard, final List<String> expectedReadNames) {
+        // use a buffer smaller than most shards, so that the prefetch thread has to wait on the consumer
+        shard.setReadPrefetchBufferSize(2);
+        final List<String> actualReadNames = new ArrayList<>();
+
+        for ( final GATKRead read : shard ) {
+            actualReadNames.add(read.getName());
+        }
+
+        Assert.assertEquals(actualReadNames, expectedReadNames, "Wrong reads returned");
+    }
+
+    @Test
+    public void testAbandonedPrefetchingIteratorIsReplaced() {
+        final ReadsDataSource readsSource = new ReadsDataSource(IOUtils.getPath(publicTestDir + "org/broadinstitute/hellbender/engine/reads_data_source_test1.bam"));
+        final MultiIntervalLocalReadShard shard = new MultiIntervalLocalReadShard(Arrays.asList(new SimpleInterval("1", 200, 210)), 0, readsSource);
+        shard.setReadPrefetchBufferSize(1);
+
+        final Iterator<GATKRead> abandonedIterator = shard.iterator();
+        Assert.assertEquals(abandonedIterator.next().getName(), "a");
+
+        final List<String> actualReadNames = new ArrayList<>();
+        shard.iterator().forEachRemaining(read -> actualReadNames.add(read.getName()));
+        Assert.assertEquals(actualReadNames, Arrays.asList("a", "b", "c"), "Wrong reads returned");
+    }
 }
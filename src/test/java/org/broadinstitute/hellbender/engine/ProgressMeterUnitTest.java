@@ -60,6 +60,19 @@ public class ProgressMeterUnitTest extends GATKBaseTest {
         Assert.assertEquals(meter.numLoggerUpdates(), expectedUpdates, "Wrong number of logger updates given secondsBetweenUpdates = " + secondsBetweenUpdates);
     }
 
+    @Test(dataProvider = "UpdateIntervalTestData")
+    public void testBatchUpdateInterval( final double secondsBetweenUpdates, final ListBasedTimeFunction timeFunction, final long numRecords, final int expectedUpdates ) {
+        final ProgressMeter meter = new ProgressMeter(secondsBetweenUpdates, timeFunction);
+        meter.start();
+        // batches smaller than the time check interval, so that each check is crossed exactly once
+        final long batchSize = ProgressMeter.DEFAULT_RECORDS_BETWEEN_TIME_CHECKS / 3 + 1;
+        for ( long processed = 0; processed < numRecords; processed += batchSize ) {
+            meter.update(new SimpleInterval("1", 1, 1), Math.min(batchSize, numRecords - processed));
+        }
+
+        Assert.assertEquals(meter.numLoggerUpdates(), expectedUpdates, "Wrong number of logger updates given secondsBetweenUpdates = " + secondsBetweenUpdates);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testInvalidUpdateInterval() {
         final ProgressMeter meter = new ProgressMeter(0.0);
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.engine;
 
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.TestProgramGroup;
@@ -11,6 +12,9 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
@@ -110,4 +114,68 @@ public class ReadWalkerUnitTest extends CommandLineProgramTest {
         Assert.assertEquals(tool.totalReads, 5);
     }
 
-}
\ No newline at end of file
+    private static class TestMultiThreadedReadWalker extends ReadWalker {
+        public final List<String> emittedReads = new ArrayList<>();
+
+        @Override
+        public CountingReadFilter makeReadFilter() {
+            return new CountingReadFilter(new ReadFilter() {
+                private static final long serialVersionUID = 1L;
+                @Override
+                public boolean test(GATKRead read) {
+                    return read.getName().hashCode() % 3 != 0;
+                }
+            });
+        }
+
+        @Override
+        protected boolean supportsMultiThreadedReadProcessing() {
+            return true;
+        }
+
+        @Override
+        protected ReadWorker makeReadWorker() {
+            return (read, referenceContext, featureContext) -> {
+                final String description = describe(read);
+                return () -> emittedReads.add(description);
+            };
+        }
+
+        @Override
+        public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext) {
+            emittedReads.add(describe(read));
+        }
+
+        private static String describe(final GATKRead read) {
+            return read.getName() + " " + read.getContig() + ":" + read.getStart() + " " + read.getBaseQualities()[0];
+        }
+    }
+
+    @Test
+    public void testMultiThreadedTraversalMatchesSingleThreaded() {
+        final String[] args = {
+                "-I", getTestDataDir() + "/BQSR/HiSeq.1mb.1RG.2k_lines.alternate.bam"
+        };
+        final TestMultiThreadedReadWalker singleThreadedTool = new TestMultiThreadedReadWalker();
+        singleThreadedTool.instanceMain(args);
+
+        final TestMultiThreadedReadWalker multiThreadedTool = new TestMultiThreadedReadWalker();
+        final String[] multiThreadedArgs = Arrays.copyOf(args, args.length + 2);
+        multiThreadedArgs[args.length] = "--" + ReadWalker.READ_THREADS_LONG_NAME;
+        multiThreadedArgs[args.length + 1] = "3";
+        multiThreadedTool.instanceMain(multiThreadedArgs);
+
+        // enough reads for several batches
+        Assert.assertTrue(singleThreadedTool.emittedReads.size() > ReadWalker.READ_BATCH_SIZE);
+        Assert.assertEquals(multiThreadedTool.emittedReads, singleThreadedTool.emittedReads);
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultiThreadedTraversalIsRejectedByUnsupportingTool() {
+        final String[] args = {
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "--" + ReadWalker.READ_THREADS_LONG_NAME, "2"
+        };
+        new TestTransformedReadWalker().instanceMain(args);
+    }
+}
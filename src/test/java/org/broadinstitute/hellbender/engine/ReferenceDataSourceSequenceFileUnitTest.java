@@ -0,0 +1,53 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.reference.ReferenceSequence;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.fasta.CachingIndexedFastaSequenceFile;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public final class ReferenceDataSourceSequenceFileUnitTest extends GATKBaseTest {
+
+    private static ReferenceDataSourceSequenceFile openTwoBitReference() {
+        return new ReferenceDataSourceSequenceFile(ReferenceDataSource.of(IOUtils.getPath(v37_chr17_1Mb_TwoBitReference)));
+    }
+
+    @Test
+    public void testGetSubsequenceAtIsLikeFasta() {
+        try ( final CachingIndexedFastaSequenceFile fasta = new CachingIndexedFastaSequenceFile(IOUtils.getPath(v37_chr17_1Mb_Reference));
+              final ReferenceDataSourceSequenceFile twoBit = openTwoBitReference() ) {
+            Assert.assertTrue(twoBit.isIndexed());
+            Assert.assertEquals(twoBit.getSequenceDictionary().getSequence("17").getSequenceLength(),
+                    fasta.getSequenceDictionary().getSequence("17").getSequenceLength());
+            for ( final int[] interval : new int[][] {{1, 1}, {1, 100}, {69000, 70000}, {999_000, 1_000_000}} ) {
+                final ReferenceSequence expected = fasta.getSubsequenceAt("17", interval[0], interval[1]);
+                final ReferenceSequence actual = twoBit.getSubsequenceAt("17", interval[0], interval[1]);
+                Assert.assertEquals(actual.getName(), expected.getName());
+                Assert.assertEquals(actual.getContigIndex(), expected.getContigIndex());
+                Assert.assertEquals(actual.getBases(), expected.getBases());
+            }
+        }
+    }
+
+    @Test
+    public void testIterateSequences() {
+        try ( final ReferenceDataSourceSequenceFile twoBit = openTwoBitReference() ) {
+            for ( int pass = 0; pass < 2; pass++ ) {
+                final ReferenceSequence sequence = twoBit.nextSequence();
+                Assert.assertEquals(sequence.getName(), "17");
+                Assert.assertEquals(sequence.getBases(), twoBit.getSequence("17").getBases());
+                Assert.assertNull(twoBit.nextSequence());
+                twoBit.reset();
+            }
+        }
+    }
+
+    @Test(expectedExceptions = UserException.MissingContigInSequenceDictionary.class)
+    public void testUnknownContig() {
+        try ( final ReferenceDataSourceSequenceFile twoBit = openTwoBitReference() ) {
+            twoBit.getSequence("1");
+        }
+    }
+}
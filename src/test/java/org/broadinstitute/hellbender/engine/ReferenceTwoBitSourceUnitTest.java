@@ -0,0 +1,160 @@
+package org.broadinstitute.hellbender.engine;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class ReferenceTwoBitSourceUnitTest extends GATKBaseTest {
+
+    private static final Path FASTA_REFERENCE = IOUtils.getPath(publicTestDir + "human_g1k_v37.chr17_1Mb.fasta");
+    private static final Path TWO_BIT_REFERENCE = IOUtils.getPath(publicTestDir + "human_g1k_v37.chr17_1Mb.2bit");
+    private static final String CONTIG = "17";
+
+    @Test
+    public void testOfSelectsTwoBitSource() {
+        try ( final ReferenceDataSource reference = ReferenceDataSource.of(TWO_BIT_REFERENCE) ) {
+            Assert.assertTrue(reference instanceof ReferenceTwoBitSource);
+        }
+        try ( final ReferenceDataSource reference = ReferenceDataSource.of(FASTA_REFERENCE) ) {
+            Assert.assertTrue(reference instanceof ReferenceFileSource);
+        }
+    }
+
+    @Test
+    public void testGetSequenceDictionary() {
+        try ( final ReferenceDataSource fastaReference = new ReferenceFileSource(FASTA_REFERENCE);
+              final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            final SAMSequenceDictionary expected = fastaReference.getSequenceDictionary();
+            final SAMSequenceDictionary actual = twoBitReference.getSequenceDictionary();
+            Assert.assertEquals(actual.size(), expected.size());
+            for ( final SAMSequenceRecord record : expected.getSequences() ) {
+                Assert.assertEquals(actual.getSequence(record.getSequenceName()).getSequenceLength(), record.getSequenceLength());
+                Assert.assertEquals(actual.getSequenceIndex(record.getSequenceName()), record.getSequenceIndex());
+            }
+        }
+    }
+
+    @DataProvider(name = "intervals")
+    public Object[][] intervals() {
+        final int contigLength = new ReferenceFileSource(FASTA_REFERENCE).getSequenceDictionary().getSequence(CONTIG).getSequenceLength();
+        final Random random = new Random(1);
+        final List<Object[]> intervals = new ArrayList<>();
+        intervals.add(new Object[]{new SimpleInterval(CONTIG, 1, 1)});
+        intervals.add(new Object[]{new SimpleInterval(CONTIG, 1, 100_000)});                        // spans the leading N block
+        intervals.add(new Object[]{new SimpleInterval(CONTIG, contigLength - 10, contigLength)});
+        intervals.add(new Object[]{new SimpleInterval(CONTIG, 1, contigLength)});
+        for ( int i = 0; i < 100; i++ ) {
+            final int start = 1 + random.nextInt(contigLength);
+            intervals.add(new Object[]{new SimpleInterval(CONTIG, start, Math.min(contigLength, start + random.nextInt(1000)))});
+        }
+        return intervals.toArray(new Object[][]{});
+    }
+
+    @Test(dataProvider = "intervals")
+    public void testQueryAndPrefetch(final SimpleInterval interval) {
+        try ( final ReferenceDataSource fastaReference = new ReferenceFileSource(FASTA_REFERENCE);
+              final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            Assert.assertEquals(twoBitReference.queryAndPrefetch(interval).getBases(), fastaReference.queryAndPrefetch(interval).getBases());
+            Assert.assertEquals(twoBitReference.queryAndPrefetch(interval).getContigIndex(), fastaReference.queryAndPrefetch(interval).getContigIndex());
+        }
+    }
+
+    @Test(dataProvider = "intervals")
+    public void testQueryAndIterate(final SimpleInterval interval) {
+        try ( final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            final byte[] expected = twoBitReference.queryAndPrefetch(interval).getBases();
+            final Iterator<Byte> iterator = twoBitReference.query(interval);
+            for ( final byte base : expected ) {
+                Assert.assertTrue(iterator.hasNext());
+                Assert.assertEquals(iterator.next().byteValue(), base);
+            }
+            Assert.assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void testPreserveCase() {
+        final SimpleInterval interval = new SimpleInterval(CONTIG, 1, 1_000_000);
+        try ( final ReferenceDataSource fastaReference = new ReferenceFileSource(FASTA_REFERENCE, true);
+              final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE, true) ) {
+            Assert.assertEquals(twoBitReference.queryAndPrefetch(interval).getBases(), fastaReference.queryAndPrefetch(interval).getBases());
+        }
+    }
+
+    @Test
+    public void testConcurrentQueries() {
+        final List<SimpleInterval> intervals = IntStream.range(0, 1000)
+                .mapToObj(i -> new SimpleInterval(CONTIG, 1 + i * 997, 1 + i * 997 + 500))
+                .collect(Collectors.toList());
+        try ( final ReferenceDataSource fastaReference = new ReferenceFileSource(FASTA_REFERENCE);
+              final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            final List<String> expected = intervals.stream()
+                    .map(interval -> new String(fastaReference.queryAndPrefetch(interval).getBases(), StandardCharsets.US_ASCII))
+                    .collect(Collectors.toList());
+            final List<String> actual = intervals.parallelStream()
+                    .map(interval -> new String(twoBitReference.queryAndPrefetch(interval).getBases(), StandardCharsets.US_ASCII))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(actual, expected);
+        }
+    }
+
+    @Test
+    public void testUnmappableFileSystem() throws IOException {
+        final SimpleInterval interval = new SimpleInterval(CONTIG, 50_000, 70_000);
+        try ( final FileSystem jimfs = Jimfs.newFileSystem(Configuration.unix());
+              final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            final Path twoBitCopy = Files.copy(TWO_BIT_REFERENCE, jimfs.getPath("reference.2bit"));
+            try ( final ReferenceDataSource twoBitCopyReference = ReferenceDataSource.of(twoBitCopy) ) {
+                Assert.assertEquals(twoBitCopyReference.queryAndPrefetch(interval).getBases(), twoBitReference.queryAndPrefetch(interval).getBases());
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQueryPastContigEnd() {
+        try ( final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            final int contigLength = twoBitReference.getSequenceDictionary().getSequence(CONTIG).getSequenceLength();
+            twoBitReference.queryAndPrefetch(CONTIG, contigLength - 10, contigLength + 1);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQueryUnknownContig() {
+        try ( final ReferenceDataSource twoBitReference = new ReferenceTwoBitSource(TWO_BIT_REFERENCE) ) {
+            twoBitReference.queryAndPrefetch("20", 1, 10);
+        }
+    }
+
+    @Test(expectedExceptions = UserException.MalformedFile.class)
+    public void testNotATwoBitFile() throws IOException {
+        final Path notTwoBit = createTempPath("notTwoBit", ReferenceTwoBitSource.TWO_BIT_EXTENSION);
+        Files.copy(FASTA_REFERENCE, notTwoBit, StandardCopyOption.REPLACE_EXISTING);
+        new ReferenceTwoBitSource(notTwoBit);
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testNonExistentReference() {
+        new ReferenceTwoBitSource(getSafeNonExistentPath("nonexistent.2bit"));
+    }
+}
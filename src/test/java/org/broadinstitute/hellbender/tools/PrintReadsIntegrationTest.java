@@ -4,6 +4,8 @@ import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
 import org.apache.commons.io.FileUtils;
 import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.zip.DeflaterFactory;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.ReadFilterArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
@@ -23,6 +25,7 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 public final class PrintReadsIntegrationTest extends CommandLineProgramTest{
@@ -126,6 +129,45 @@ public final class PrintReadsIntegrationTest extends CommandLineProgramTest{
         };
     }
 
+    private File printReadsWithBGZFThreads(final File input, final int bgzfThreads) {
+        final File outFile = GATKBaseTest.createTempFile("testParallelBGZFCompression." + bgzfThreads + ".", ".bam");
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addInput(input);
+        args.addOutput(outFile);
+        args.addArgument(StandardArgumentDefinitions.BGZF_THREADS_LONG_NAME, String.valueOf(bgzfThreads));
+        args.addBooleanArgument(StandardArgumentDefinitions.CREATE_OUTPUT_BAM_MD5_LONG_NAME, true);
+        args.addBooleanArgument(StandardArgumentDefinitions.ADD_OUTPUT_SAM_PROGRAM_RECORD, false);
+        // the JDK deflater keeps no state from one block to the next, so blocks compressed in parallel match htsjdk's
+        args.addBooleanArgument(StandardArgumentDefinitions.USE_JDK_DEFLATER_LONG_NAME, true);
+        // the tool cannot change the factory back to the JDK one if an earlier test already set it to Intel
+        final DeflaterFactory currentDeflaterFactory = BlockCompressedOutputStream.getDefaultDeflaterFactory();
+        BlockCompressedOutputStream.setDefaultDeflaterFactory(new DeflaterFactory());
+        try {
+            runCommandLine(args);
+        } finally {
+            BlockCompressedOutputStream.setDefaultDeflaterFactory(currentDeflaterFactory);
+        }
+        new File(outFile.getAbsolutePath() + ".md5").deleteOnExit();
+        bamIndexFile(outFile).deleteOnExit();
+        return outFile;
+    }
+
+    private static File bamIndexFile(final File bam) {
+        return new File(bam.getAbsolutePath().replaceAll("\\.bam$", ".bai"));
+    }
+
+    @Test
+    public void testParallelBGZFCompression() throws IOException {
+        // large enough to span many BGZF blocks
+        final File input = new File(toolsTestDir, "BQSR/HiSeq.1mb.1RG.2k_lines.alternate.bam");
+        final File expected = printReadsWithBGZFThreads(input, 1);
+        final File actual = printReadsWithBGZFThreads(input, 4);
+
+        Assert.assertEquals(Files.readAllBytes(actual.toPath()), Files.readAllBytes(expected.toPath()));
+        Assert.assertEquals(Files.readAllBytes(bamIndexFile(actual).toPath()), Files.readAllBytes(bamIndexFile(expected).toPath()));
+        checkMD5asExpected(actual);
+    }
+
     @Test
     public void testReadThatConsumesNoReferenceBases() throws IOException {
         final File zeroRefBasesReadBam = new File(TEST_DATA_DIR, "read_consumes_zero_ref_bases.bam");
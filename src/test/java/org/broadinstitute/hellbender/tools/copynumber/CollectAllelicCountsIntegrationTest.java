@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.tools.copynumber;
 import htsjdk.samtools.SAMSequenceDictionary;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.LocusWalker;
 import org.broadinstitute.hellbender.engine.ReferenceDataSource;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.AllelicCountCollection;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
@@ -124,4 +125,20 @@ public final class CollectAllelicCountsIntegrationTest extends CommandLineProgra
         final AllelicCountCollection countsResult = new AllelicCountCollection(outputFile);
         Assert.assertEquals(countsExpected, countsResult);
     }
+
+    @Test(dataProvider = "testData")
+    public void testMultiThreaded(final File inputBAMFile,
+                                  final AllelicCountCollection countsExpected) {
+        final File outputFile = createTempFile("collect-allelic-counts-test-output", ".tsv");
+        final String[] arguments = {
+                "-" + StandardArgumentDefinitions.INPUT_SHORT_NAME, inputBAMFile.getAbsolutePath(),
+                "-L", SITES_FILE.getAbsolutePath(),
+                "-" + StandardArgumentDefinitions.REFERENCE_SHORT_NAME, REFERENCE_FILE.getAbsolutePath(),
+                "-" + StandardArgumentDefinitions.OUTPUT_SHORT_NAME, outputFile.getAbsolutePath(),
+                "--" + LocusWalker.LOCUS_THREADS_LONG_NAME, "2"
+        };
+        runCommandLine(arguments);
+        final AllelicCountCollection countsResult = new AllelicCountCollection(outputFile);
+        Assert.assertEquals(countsExpected, countsResult);
+    }
 }
\ No newline at end of file
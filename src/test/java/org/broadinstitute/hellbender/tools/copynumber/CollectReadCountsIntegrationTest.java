@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.tools.copynumber;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.IntervalArgumentCollection;
+import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.SimpleCountCollection;
 import org.broadinstitute.hellbender.utils.IntervalMergingRule;
@@ -109,4 +110,20 @@ public final class CollectReadCountsIntegrationTest extends CommandLineProgramTe
         final SimpleCountCollection resultCounts = SimpleCountCollection.read(resultOutputFile);
         Assert.assertEquals(expectedCounts, resultCounts);
     }
-}
\ No newline at end of file
+
+    @Test(dataProvider = "testData")
+    public void testMultithreadedTSVOutput(final File inputBAMFile, final File expectedOutputFile) {
+        final File resultOutputFile = createTempFile("collect-read-counts-test", ".tsv");
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder()
+                .addInput(inputBAMFile)
+                .addArgument(StandardArgumentDefinitions.INTERVALS_LONG_NAME, INTERVALS_FILE.getAbsolutePath())
+                .addArgument(IntervalArgumentCollection.INTERVAL_MERGING_RULE_LONG_NAME, IntervalMergingRule.OVERLAPPING_ONLY.toString())
+                .addArgument(CollectReadCounts.FORMAT_LONG_NAME, CollectReadCounts.Format.TSV.toString())
+                .addArgument(ReadWalker.READ_THREADS_LONG_NAME, "3")
+                .addOutput(resultOutputFile);
+        runCommandLine(argsBuilder);
+        final SimpleCountCollection expectedCounts = SimpleCountCollection.read(expectedOutputFile);
+        final SimpleCountCollection resultCounts = SimpleCountCollection.read(resultOutputFile);
+        Assert.assertEquals(expectedCounts, resultCounts);
+    }
+}
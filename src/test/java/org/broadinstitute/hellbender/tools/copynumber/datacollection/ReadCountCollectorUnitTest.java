@@ -0,0 +1,82 @@
+package org.broadinstitute.hellbender.tools.copynumber.datacollection;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.copynumber.formats.collections.SimpleCountCollection;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SimpleSampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.SimpleCount;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class ReadCountCollectorUnitTest extends GATKBaseTest {
+    private static final SampleLocatableMetadata METADATA = new SimpleSampleLocatableMetadata(
+            "test-sample",
+            new SAMSequenceDictionary(Arrays.asList(
+                    new SAMSequenceRecord("1", 10000),
+                    new SAMSequenceRecord("2", 10000),
+                    new SAMSequenceRecord("3", 10000))));
+
+    //given out of order, to check that bins are sorted by the sequence dictionary
+    private static final List<SimpleInterval> INTERVALS = Arrays.asList(
+            new SimpleInterval("2", 1, 100),
+            new SimpleInterval("1", 201, 300),
+            new SimpleInterval("1", 1, 100),
+            new SimpleInterval("1", 101, 200));
+
+    @Test
+    public void testGetBinIndex() {
+        final ReadCountCollector collector = new ReadCountCollector(METADATA, INTERVALS);
+        Assert.assertEquals(collector.getIntervals(), Arrays.asList(
+                new SimpleInterval("1", 1, 100),
+                new SimpleInterval("1", 101, 200),
+                new SimpleInterval("1", 201, 300),
+                new SimpleInterval("2", 1, 100)));
+
+        Assert.assertEquals(collector.getBinIndex("1", 1), 0);
+        Assert.assertEquals(collector.getBinIndex("1", 100), 0);
+        Assert.assertEquals(collector.getBinIndex("1", 101), 1);
+        Assert.assertEquals(collector.getBinIndex("1", 300), 2);
+        Assert.assertEquals(collector.getBinIndex("1", 301), -1);
+        Assert.assertEquals(collector.getBinIndex("2", 50), 3);
+        Assert.assertEquals(collector.getBinIndex("2", 101), -1);
+        //out of order queries, and contigs without bins
+        Assert.assertEquals(collector.getBinIndex("3", 50), -1);
+        Assert.assertEquals(collector.getBinIndex("1", 150), 1);
+        Assert.assertEquals(collector.getBinIndex("1", 50), 0);
+        Assert.assertEquals(collector.getBinIndex("X", 50), -1);
+    }
+
+    @Test
+    public void testCombine() {
+        final ReadCountCollector collector = new ReadCountCollector(METADATA, INTERVALS);
+        final ReadCountCollector otherCollector = collector.createEmptyCollector();
+        collector.incrementCount(0);
+        collector.incrementCount(0);
+        otherCollector.incrementCount(0);
+        otherCollector.incrementCount(3);
+        collector.combine(otherCollector);
+
+        final SimpleCountCollection readCounts = collector.getReadCounts();
+        Assert.assertEquals(readCounts.getRecords(), Arrays.asList(
+                new SimpleCount(new SimpleInterval("1", 1, 100), 3),
+                new SimpleCount(new SimpleInterval("1", 101, 200), 0),
+                new SimpleCount(new SimpleInterval("1", 201, 300), 0),
+                new SimpleCount(new SimpleInterval("2", 1, 100), 1)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCombineDifferentBins() {
+        new ReadCountCollector(METADATA, INTERVALS).combine(new ReadCountCollector(METADATA, INTERVALS));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOverlappingIntervals() {
+        new ReadCountCollector(METADATA, Arrays.asList(new SimpleInterval("1", 1, 100), new SimpleInterval("1", 100, 200)));
+    }
+}
@@ -10,8 +10,11 @@ import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLoc
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SimpleSampleLocatableMetadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.records.AllelicCount;
 import org.broadinstitute.hellbender.tools.copynumber.formats.records.CopyRatio;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.ModeledSegment;
 import org.broadinstitute.hellbender.tools.copynumber.formats.records.MultidimensionalSegment;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
@@ -30,8 +33,59 @@ import java.util.stream.IntStream;
 public final class MultidimensionalModellerUnitTest extends GATKBaseTest {
     private static final int RANDOM_SEED = 13;
 
+    @DataProvider(name = "numThreads")
+    public Object[][] numThreads() {
+        return new Object[][]{{1}, {3}};
+    }
+
+    @Test(dataProvider = "numThreads")
+    public void testMCMC(final int numThreads) {
+        final SmoothedModellerAndSimulatedData result = createAndSmoothModeller(numThreads);
+        CopyRatioModellerUnitTest.assertCopyRatioPosteriorCenters(result.modeller.getCopyRatioModeller(), result.simulatedDataCR);
+        AlleleFractionModellerUnitTest.assertAlleleFractionPosteriorCenters(result.modeller.getAlleleFractionModeller(), result.simulatedDataAF);
+    }
+
     @Test
-    public void testMCMC() {
+    public void testMCMCDoesNotDependOnNumberOfThreads() {
+        //the default is the serial sampler
+        assertEqualModeledSegments(createAndSmoothModeller(null).modeller, createAndSmoothModeller(1).modeller);
+        assertEqualModeledSegments(createAndSmoothModeller(2).modeller, createAndSmoothModeller(4).modeller);
+    }
+
+    private static void assertEqualModeledSegments(final MultidimensionalModeller modeller,
+                                                   final MultidimensionalModeller expectedModeller) {
+        final List<ModeledSegment> segments = modeller.getModeledSegments().getRecords();
+        final List<ModeledSegment> expectedSegments = expectedModeller.getModeledSegments().getRecords();
+        Assert.assertEquals(segments.size(), expectedSegments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            final ModeledSegment segment = segments.get(i);
+            final ModeledSegment expectedSegment = expectedSegments.get(i);
+            Assert.assertEquals(segment.getInterval(), expectedSegment.getInterval());
+            Assert.assertEquals(segment.getLog2CopyRatioSimplePosteriorSummary().toString(),
+                    expectedSegment.getLog2CopyRatioSimplePosteriorSummary().toString());
+            Assert.assertEquals(segment.getMinorAlleleFractionSimplePosteriorSummary().toString(),
+                    expectedSegment.getMinorAlleleFractionSimplePosteriorSummary().toString());
+        }
+    }
+
+    private static final class SmoothedModellerAndSimulatedData {
+        private final MultidimensionalModeller modeller;
+        private final CopyRatioSimulatedData simulatedDataCR;
+        private final AlleleFractionSimulatedData simulatedDataAF;
+
+        private SmoothedModellerAndSimulatedData(final MultidimensionalModeller modeller,
+                                                 final CopyRatioSimulatedData simulatedDataCR,
+                                                 final AlleleFractionSimulatedData simulatedDataAF) {
+            this.modeller = modeller;
+            this.simulatedDataCR = simulatedDataCR;
+            this.simulatedDataAF = simulatedDataAF;
+        }
+    }
+
+    /**
+     * @param numThreads    number of threads, or {@code null} to use the constructor without a number of threads
+     */
+    private SmoothedModellerAndSimulatedData createAndSmoothModeller(final Integer numThreads) {
         final int numSegments = 25;
         final int numSamples = 150;
         final int numBurnIn = 50;
@@ -74,15 +128,19 @@ public final class MultidimensionalModellerUnitTest extends GATKBaseTest {
                 metadata,
                 constructOversegmentedSegments(simulatedDataCR, simulatedDataAF));
 
-        final MultidimensionalModeller modeller = new MultidimensionalModeller(
-                oversegmentedSegments,
-                simulatedDataCR.getCopyRatios(),
-                simulatedDataAF.getAllelicCounts(), priorAF,
-                numSamples, numBurnIn, numSamples, numBurnIn);
+        final MultidimensionalModeller modeller = numThreads == null
+                ? new MultidimensionalModeller(
+                        oversegmentedSegments,
+                        simulatedDataCR.getCopyRatios(),
+                        simulatedDataAF.getAllelicCounts(), priorAF,
+                        numSamples, numBurnIn, numSamples, numBurnIn)
+                : new MultidimensionalModeller(
+                        oversegmentedSegments,
+                        simulatedDataCR.getCopyRatios(),
+                        simulatedDataAF.getAllelicCounts(), priorAF,
+                        numSamples, numBurnIn, numSamples, numBurnIn, numThreads);
         modeller.smoothSegments(maxNumSmoothingIterations, numSmoothingIterationsPerFit, smoothingCredibleIntervalThresholdCopyRatio, smoothingCredibleIntervalThresholdAlleleFraction);
-
-        CopyRatioModellerUnitTest.assertCopyRatioPosteriorCenters(modeller.getCopyRatioModeller(), simulatedDataCR);
-        AlleleFractionModellerUnitTest.assertAlleleFractionPosteriorCenters(modeller.getAlleleFractionModeller(), simulatedDataAF);
+        return new SmoothedModellerAndSimulatedData(modeller, simulatedDataCR, simulatedDataAF);
     }
 
     private List<MultidimensionalSegment> constructOversegmentedSegments(final CopyRatioSimulatedData simulatedDataCR,
@@ -0,0 +1,55 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptStore;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfFeature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CreateGencodeTranscriptStoreIntegrationTest extends CommandLineProgramTest {
+    private static final String DATA_SOURCE_DIR = toolsTestDir + "funcotator/small_chr1_1M_gencode_ds/gencode_chr1_1M/hg19/";
+    private static final File GTF_FILE = new File(DATA_SOURCE_DIR + "gencode.v19.chr1_1M.gtf");
+    private static final File TRANSCRIPT_FASTA_FILE = new File(DATA_SOURCE_DIR + "gencode.v19.chr1_1M_transcript.fasta");
+
+    @Test
+    public void testCreateGencodeTranscriptStore() {
+        final File outputFile = new File(createTempDir("testCreateGencodeTranscriptStore"), "gencode.v19.chr1_1M" + GencodeTranscriptStore.GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION);
+        final ArgumentsBuilder arguments = new ArgumentsBuilder()
+                .addInput(GTF_FILE)
+                .addFileArgument(CreateGencodeTranscriptStore.TRANSCRIPT_FASTA_LONG_NAME, TRANSCRIPT_FASTA_FILE)
+                .addOutput(outputFile);
+        runCommandLine(arguments);
+
+        final List<GencodeGtfFeature> expected = new ArrayList<>();
+        try ( final FeatureDataSource<GencodeGtfFeature> gtf = new FeatureDataSource<>(GTF_FILE) ) {
+            gtf.forEach(expected::add);
+        }
+        Assert.assertFalse(expected.isEmpty());
+
+        final GencodeTranscriptStore store = GencodeTranscriptStore.open(outputFile.toPath());
+        Assert.assertEquals(store.getUcscGenomeVersion(), expected.get(0).getUcscGenomeVersion());
+        Assert.assertEquals(store.getContigs(), Collections.singleton("1"));
+        Assert.assertEquals(store.getOverlappingGenes(new SimpleInterval("1", 1, 1_000_000)), expected);
+        Assert.assertEquals(store.getOverlappingGenes(new SimpleInterval("2", 1, 1_000_000)), Collections.emptyList());
+        for ( final GencodeGtfFeature gene : expected ) {
+            Assert.assertTrue(store.getOverlappingGenes(new SimpleInterval(gene.getContig(), gene.getEnd(), gene.getEnd())).contains(gene), gene.getGeneId());
+        }
+    }
+
+    @Test(expectedExceptions = org.broadinstitute.barclay.argparser.CommandLineException.BadArgumentValue.class)
+    public void testBadOutputFileName() {
+        final ArgumentsBuilder arguments = new ArgumentsBuilder()
+                .addInput(GTF_FILE)
+                .addFileArgument(CreateGencodeTranscriptStore.TRANSCRIPT_FASTA_LONG_NAME, TRANSCRIPT_FASTA_FILE)
+                .addOutput(createTempFile("gencode.v19.test", ".bin"));
+        runCommandLine(arguments);
+    }
+}
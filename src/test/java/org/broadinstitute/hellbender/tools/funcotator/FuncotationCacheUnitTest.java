@@ -0,0 +1,122 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import htsjdk.tribble.Feature;
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotation;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotationBuilder;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class FuncotationCacheUnitTest extends GATKBaseTest {
+
+    private ReferenceDataSource referenceDataSource;
+
+    @BeforeClass
+    public void openReference() {
+        referenceDataSource = ReferenceDataSource.of(Paths.get(hg19_chr1_1M_Reference));
+    }
+
+    @AfterClass
+    public void closeReference() {
+        referenceDataSource.close();
+    }
+
+    private static VariantContext createVariant(final int start, final String... alleles) {
+        return new VariantContextBuilder().chr("1").start(start).stop(start + alleles[0].length() - 1).alleles(Arrays.asList(alleles)).make();
+    }
+
+    private ReferenceContext createReferenceContext(final VariantContext variant) {
+        return new ReferenceContext(referenceDataSource, new SimpleInterval(variant));
+    }
+
+    private static List<Funcotation> get(final FuncotationCache cache, final VariantContext variant, final ReferenceContext referenceContext,
+                                         final List<Feature> features, final List<GencodeFuncotation> gencodeFuncotations) {
+        return cache.get(variant, referenceContext, features, gencodeFuncotations, ArrayList::new);
+    }
+
+    @Test
+    public void testKeyIsSiteAllelesAndFeatureReferences() {
+        final FuncotationCache cache = new FuncotationCache(10);
+        final Feature feature = new SimpleFeature("1", 100000, 100010);
+        final List<Feature> features = Collections.singletonList(feature);
+
+        final VariantContext variant = createVariant(100005, "A", "C");
+        final List<Funcotation> funcotations = get(cache, variant, createReferenceContext(variant), features, null);
+        Assert.assertEquals(cache.getMisses(), 1);
+
+        // Another variant with the same site and alleles, and the same feature objects, is a hit:
+        final VariantContext sameSiteVariant = new VariantContextBuilder(variant).attribute("DP", 10).make();
+        Assert.assertSame(get(cache, sameSiteVariant, createReferenceContext(sameSiteVariant), new ArrayList<>(features), null), funcotations);
+        Assert.assertEquals(cache.getHits(), 1);
+
+        // Different alleles, position, or features are misses:
+        Assert.assertNotSame(get(cache, createVariant(100005, "A", "G"), createReferenceContext(variant), features, null), funcotations);
+        Assert.assertNotSame(get(cache, createVariant(100006, "A", "C"), createReferenceContext(variant), features, null), funcotations);
+        Assert.assertNotSame(get(cache, variant, createReferenceContext(variant),
+                Collections.singletonList(new SimpleFeature("1", 100000, 100010)), null), funcotations);
+
+        // Gencode funcotations are part of the key:
+        final List<GencodeFuncotation> gencodeFuncotations = Collections.singletonList(new GencodeFuncotationBuilder().build());
+        final List<Funcotation> gencodeDependentFuncotations = get(cache, variant, createReferenceContext(variant), features, gencodeFuncotations);
+        Assert.assertNotSame(gencodeDependentFuncotations, funcotations);
+        Assert.assertSame(get(cache, variant, createReferenceContext(variant), features, new ArrayList<>(gencodeFuncotations)), gencodeDependentFuncotations);
+
+        Assert.assertEquals(cache.getHits(), 2);
+        Assert.assertEquals(cache.getMisses(), 5);
+        Assert.assertEquals(cache.size(), 5);
+        Assert.assertEquals(cache.getHitRate(), 2.0 / 7);
+    }
+
+    @Test
+    public void testEviction() {
+        final FuncotationCache cache = new FuncotationCache(2);
+        final List<Feature> features = Collections.emptyList();
+        final VariantContext variant1 = createVariant(100001, "A", "C");
+        final VariantContext variant2 = createVariant(100002, "A", "C");
+        final VariantContext variant3 = createVariant(100003, "A", "C");
+
+        final List<Funcotation> funcotations1 = get(cache, variant1, createReferenceContext(variant1), features, null);
+        get(cache, variant2, createReferenceContext(variant2), features, null);
+
+        // Using variant1 makes variant2 the least recently used entry, which is evicted by variant3:
+        Assert.assertSame(get(cache, variant1, createReferenceContext(variant1), features, null), funcotations1);
+        get(cache, variant3, createReferenceContext(variant3), features, null);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertSame(get(cache, variant1, createReferenceContext(variant1), features, null), funcotations1);
+        Assert.assertEquals(cache.getMisses(), 3);
+
+        get(cache, variant2, createReferenceContext(variant2), features, null);
+        Assert.assertEquals(cache.getMisses(), 4);
+        Assert.assertEquals(cache.getHits(), 2);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        final FuncotationCache cache = new FuncotationCache(0);
+        final VariantContext variant = createVariant(100001, "A", "C");
+        final List<Funcotation> funcotations = get(cache, variant, createReferenceContext(variant), Collections.emptyList(), null);
+        Assert.assertNotSame(get(cache, variant, createReferenceContext(variant), Collections.emptyList(), null), funcotations);
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getHits(), 0);
+        Assert.assertEquals(cache.getMisses(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        new FuncotationCache(-1);
+    }
+}
@@ -6,6 +6,7 @@ import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFCompoundHeaderLine;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -22,6 +23,7 @@ import org.broadinstitute.hellbender.tools.copynumber.utils.annotatedinterval.An
 import org.broadinstitute.hellbender.tools.copynumber.utils.annotatedinterval.AnnotatedIntervalCollection;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.DataSourceUtils;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotation;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptStore;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.xsv.SimpleKeyXsvFuncotationFactory;
 import org.broadinstitute.hellbender.tools.funcotator.mafOutput.CustomMafFuncotationCreator;
 import org.broadinstitute.hellbender.tools.funcotator.mafOutput.MafOutputRenderer;
@@ -82,6 +84,8 @@ public class FuncotatorIntegrationTest extends CommandLineProgramTest {
     private static final String EMPTY_VCF  = publicTestDir + File.separator + "empty.vcf";
     private static final String PIK3CA_DBSNP_DS          = toolsTestDir + "funcotator" + File.separator + "small_pik3ca_dbsnp_ds";
     private static final String MAF_DBSNP_TEST           = toolsTestDir + "funcotator" + File.separator + "maf_dbsnp_test_input.vcf";
+    private static final String CHR1_1M_GENCODE_DS       = toolsTestDir + "funcotator" + File.separator + "small_chr1_1M_gencode_ds";
+    private static final String CHR1_1M_THREADS_TEST_VCF = toolsTestDir + "funcotator" + File.separator + "chr1_1M_threads_test.vcf";
 
     private static final List<String> VCF_FIELDS_GENCODE_19_DS = Arrays.asList("Gencode_19_hugoSymbol","Gencode_19_ncbiBuild","Gencode_19_chromosome","Gencode_19_start","Gencode_19_end","Gencode_19_variantClassification","Gencode_19_variantType","Gencode_19_refAllele","Gencode_19_tumorSeqAllele1","Gencode_19_tumorSeqAllele2","Gencode_19_genomeChange","Gencode_19_annotationTranscript","Gencode_19_transcriptStrand","Gencode_19_transcriptExon","Gencode_19_transcriptPos","Gencode_19_cDnaChange","Gencode_19_codonChange","Gencode_19_proteinChange","Gencode_19_gcContent","Gencode_19_referenceContext","Gencode_19_otherTranscripts");//,"Achilles_Top_Genes","CGC_Name","CGC_GeneID","CGC_Chr","CGC_Chr_Band","CGC_Cancer_Somatic_Mut","CGC_Cancer_Germline_Mut","CGC_Tumour_Types__(Somatic_Mutations)","CGC_Tumour_Types_(Germline_Mutations)","CGC_Cancer_Syndrome","CGC_Tissue_Type","CGC_Cancer_Molecular_Genetics","CGC_Mutation_Type","CGC_Translocation_Partner","CGC_Other_Germline_Mut","CGC_Other_Syndrome/Disease","ClinVar_HGMD_ID","ClinVar_SYM","ClinVar_TYPE","ClinVar_ASSEMBLY","ClinVar_rs","Cosmic_overlapping_mutations","CosmicFusion_fusion_genes","CosmicFusion_fusion_id","CosmicTissue_total_alterations_in_gene","CosmicTissue_tissue_types_affected","DNARepairGenes_Activity_linked_to_OMIM","DNARepairGenes_Chromosome_location_linked_to_NCBI_MapView","DNARepairGenes_Accession_number_linked_to_NCBI_Entrez","Familial_Cancer_Genes_Syndrome","Familial_Cancer_Genes_Synonym","Familial_Cancer_Genes_Reference","Gencode_XHGNC_hgnc_id","Gencode_XRefSeq_mRNA_id","Gencode_XRefSeq_prot_acc","HGNC_HGNC_ID","HGNC_Approved_Name","HGNC_Status","HGNC_Locus_Type","HGNC_Locus_Group","HGNC_Previous_Symbols","HGNC_Previous_Name","HGNC_Synonyms","HGNC_Name_Synonyms","HGNC_Chromosome","HGNC_Date_Modified","HGNC_Date_Symbol_Changed","HGNC_Date_Name_Changed","HGNC_Accession_Numbers","HGNC_Enzyme_IDs","HGNC_Entrez_Gene_ID","HGNC_Ensembl_Gene_ID","HGNC_Pubmed_IDs","HGNC_RefSeq_IDs","HGNC_Gene_Family_ID","HGNC_Gene_Family_Name","HGNC_CCDS_IDs","HGNC_Vega_ID","HGNC_Entrez_Gene_ID(supplied_by_NCBI)","HGNC_OMIM_ID(supplied_by_OMIM)","HGNC_RefSeq(supplied_by_NCBI)","HGNC_UniProt_ID(supplied_by_UniProt)","HGNC_Ensembl_ID(supplied_by_Ensembl)","HGNC_UCSC_ID(supplied_by_UCSC)","Oreganno_Build","Oreganno_ID","Oreganno_Values","Simple_Uniprot_uniprot_entry_name","Simple_Uniprot_DrugBank","Simple_Uniprot_alt_uniprot_accessions","Simple_Uniprot_uniprot_accession","Simple_Uniprot_GO_Biological_Process","Simple_Uniprot_GO_Cellular_Component","Simple_Uniprot_GO_Molecular_Function","dbSNP_ASP","dbSNP_ASS","dbSNP_CAF","dbSNP_CDA","dbSNP_CFL","dbSNP_COMMON","dbSNP_DSS","dbSNP_G5","dbSNP_G5A","dbSNP_GENEINFO","dbSNP_GNO","dbSNP_HD","dbSNP_INT","dbSNP_KGPhase1","dbSNP_KGPhase3","dbSNP_LSD","dbSNP_MTP","dbSNP_MUT","dbSNP_NOC","dbSNP_NOV","dbSNP_NSF","dbSNP_NSM","dbSNP_NSN","dbSNP_OM","dbSNP_OTH","dbSNP_PM","dbSNP_PMC","dbSNP_R3","dbSNP_R5","dbSNP_REF","dbSNP_RS","dbSNP_RSPOS","dbSNP_RV","dbSNP_S3D","dbSNP_SAO","dbSNP_SLO","dbSNP_SSR","dbSNP_SYN","dbSNP_TOPMED","dbSNP_TPA","dbSNP_U3","dbSNP_U5","dbSNP_VC","dbSNP_VLD","dbSNP_VP","dbSNP_WGT","dbSNP_WTD","dbSNP_dbSNPBuildID");
     private static final List<String> VCF_FIELDS_GENCODE_28_DS = Arrays.asList("Gencode_28_hugoSymbol","Gencode_28_ncbiBuild","Gencode_28_chromosome","Gencode_28_start","Gencode_28_end","Gencode_28_variantClassification","Gencode_28_variantType","Gencode_28_refAllele","Gencode_28_tumorSeqAllele1","Gencode_28_tumorSeqAllele2","Gencode_28_genomeChange","Gencode_28_annotationTranscript","Gencode_28_transcriptStrand","Gencode_28_transcriptExon","Gencode_28_transcriptPos","Gencode_28_cDnaChange","Gencode_28_codonChange","Gencode_28_proteinChange","Gencode_28_gcContent","Gencode_28_referenceContext","Gencode_28_otherTranscripts");//,"Achilles_Top_Genes","CGC_Name","CGC_GeneID","CGC_Chr","CGC_Chr_Band","CGC_Cancer_Somatic_Mut","CGC_Cancer_Germline_Mut","CGC_Tumour_Types__(Somatic_Mutations)","CGC_Tumour_Types_(Germline_Mutations)","CGC_Cancer_Syndrome","CGC_Tissue_Type","CGC_Cancer_Molecular_Genetics","CGC_Mutation_Type","CGC_Translocation_Partner","CGC_Other_Germline_Mut","CGC_Other_Syndrome/Disease","ClinVar_HGMD_ID","ClinVar_SYM","ClinVar_TYPE","ClinVar_ASSEMBLY","ClinVar_rs","Cosmic_overlapping_mutations","CosmicFusion_fusion_genes","CosmicFusion_fusion_id","CosmicTissue_total_alterations_in_gene","CosmicTissue_tissue_types_affected","DNARepairGenes_Activity_linked_to_OMIM","DNARepairGenes_Chromosome_location_linked_to_NCBI_MapView","DNARepairGenes_Accession_number_linked_to_NCBI_Entrez","Familial_Cancer_Genes_Syndrome","Familial_Cancer_Genes_Synonym","Familial_Cancer_Genes_Reference","Gencode_XHGNC_hgnc_id","Gencode_XRefSeq_mRNA_id","Gencode_XRefSeq_prot_acc","HGNC_HGNC_ID","HGNC_Approved_Name","HGNC_Status","HGNC_Locus_Type","HGNC_Locus_Group","HGNC_Previous_Symbols","HGNC_Previous_Name","HGNC_Synonyms","HGNC_Name_Synonyms","HGNC_Chromosome","HGNC_Date_Modified","HGNC_Date_Symbol_Changed","HGNC_Date_Name_Changed","HGNC_Accession_Numbers","HGNC_Enzyme_IDs","HGNC_Entrez_Gene_ID","HGNC_Ensembl_Gene_ID","HGNC_Pubmed_IDs","HGNC_RefSeq_IDs","HGNC_Gene_Family_ID","HGNC_Gene_Family_Name","HGNC_CCDS_IDs","HGNC_Vega_ID","HGNC_Entrez_Gene_ID(supplied_by_NCBI)","HGNC_OMIM_ID(supplied_by_OMIM)","HGNC_RefSeq(supplied_by_NCBI)","HGNC_UniProt_ID(supplied_by_UniProt)","HGNC_Ensembl_ID(supplied_by_Ensembl)","HGNC_UCSC_ID(supplied_by_UCSC)","Oreganno_Build","Oreganno_ID","Oreganno_Values","Simple_Uniprot_uniprot_entry_name","Simple_Uniprot_DrugBank","Simple_Uniprot_alt_uniprot_accessions","Simple_Uniprot_uniprot_accession","Simple_Uniprot_GO_Biological_Process","Simple_Uniprot_GO_Cellular_Component","Simple_Uniprot_GO_Molecular_Function","dbSNP_ASP","dbSNP_ASS","dbSNP_CAF","dbSNP_CDA","dbSNP_CFL","dbSNP_COMMON","dbSNP_DSS","dbSNP_G5","dbSNP_G5A","dbSNP_GENEINFO","dbSNP_GNO","dbSNP_HD","dbSNP_INT","dbSNP_KGPhase1","dbSNP_KGPhase3","dbSNP_LSD","dbSNP_MTP","dbSNP_MUT","dbSNP_NOC","dbSNP_NOV","dbSNP_NSF","dbSNP_NSM","dbSNP_NSN","dbSNP_OM","dbSNP_OTH","dbSNP_PM","dbSNP_PMC","dbSNP_R3","dbSNP_R5","dbSNP_REF","dbSNP_RS","dbSNP_RSPOS","dbSNP_RV","dbSNP_S3D","dbSNP_SAO","dbSNP_SLO","dbSNP_SSR","dbSNP_SYN","dbSNP_TOPMED","dbSNP_TPA","dbSNP_U3","dbSNP_U5","dbSNP_VC","dbSNP_VLD","dbSNP_VP","dbSNP_WGT","dbSNP_WTD","dbSNP_dbSNPBuildID");
@@ -584,6 +588,92 @@ public class FuncotatorIntegrationTest extends CommandLineProgramTest {
                                final String referenceVersion,
                                final String dataSourcesPath,
                                final String expectedOutputPath ) {
+        runNonTrivialLargeDataValidation(inputVcfName, referencePath, referenceVersion, dataSourcesPath, expectedOutputPath, 1);
+    }
+
+    @Test(dataProvider = "provideForNonTrivialLargeDataValidationTest")
+    public void nonTrivialLargeDataValidationMultiThreadedTest(final String inputVcfName,
+                               final String referencePath,
+                               final String referenceVersion,
+                               final String dataSourcesPath,
+                               final String expectedOutputPath ) {
+        // The output must be identical to the single threaded output, including the order of the variants:
+        runNonTrivialLargeDataValidation(inputVcfName, referencePath, referenceVersion, dataSourcesPath, expectedOutputPath, 3);
+    }
+
+    @Test
+    public void testMultiThreadedOutputIsIdenticalToSingleThreadedOutput() throws IOException {
+        // PIK3CA and MUC16 (on both strands), moved to the first 1Mb of chr1, with variants of every kind in and around
+        // them.  There are enough variants for several batches per thread.
+        for ( final FuncotatorArgumentDefinitions.OutputFormatType outputFormatType : FuncotatorArgumentDefinitions.OutputFormatType.values() ) {
+            final File singleThreadedOutputFile = runFuncotatorWithThreads(CHR1_1M_THREADS_TEST_VCF, CHR1_1M_GENCODE_DS, outputFormatType, 1);
+            final File multiThreadedOutputFile = runFuncotatorWithThreads(CHR1_1M_THREADS_TEST_VCF, CHR1_1M_GENCODE_DS, outputFormatType, 2);
+
+            // The command lines in the headers differ:
+            IntegrationTestSpec.assertEqualTextFiles(multiThreadedOutputFile, singleThreadedOutputFile, "##");
+        }
+    }
+
+    @Test
+    public void testGencodeTranscriptStoreOutputIsIdenticalToGtfOutput() throws IOException {
+        // Replace the GTF and transcript FASTA files of the data source by a GENCODE transcript store:
+        final File storeDataSourcesDir = createTempDir("storeDataSources");
+        FileUtils.copyDirectory(new File(CHR1_1M_GENCODE_DS), storeDataSourcesDir);
+        final File gencodeDir = new File(storeDataSourcesDir, "gencode_chr1_1M" + File.separator + "hg19");
+        final File gtfFile = new File(gencodeDir, "gencode.v19.chr1_1M.gtf");
+        final File transcriptFastaFile = new File(gencodeDir, "gencode.v19.chr1_1M_transcript.fasta");
+
+        final ArgumentsBuilder storeArguments = new ArgumentsBuilder()
+                .addInput(gtfFile)
+                .addFileArgument(CreateGencodeTranscriptStore.TRANSCRIPT_FASTA_LONG_NAME, transcriptFastaFile)
+                .addOutput(new File(gencodeDir, "gencode.v19.chr1_1M" + GencodeTranscriptStore.GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION));
+        runCommandLine(storeArguments.getArgsList(), CreateGencodeTranscriptStore.class.getSimpleName());
+
+        for ( final File file : gencodeDir.listFiles() ) {
+            if ( file.getName().startsWith(gtfFile.getName()) || file.getName().startsWith("gencode.v19.chr1_1M_transcript.") ) {
+                Assert.assertTrue(file.delete(), file.getPath());
+            }
+        }
+        final File configFile = new File(gencodeDir, "gencode.config");
+        final String config = new String(Files.readAllBytes(configFile.toPath()));
+        Files.write(configFile.toPath(), config.replace("src_file = " + gtfFile.getName(),
+                "src_file = gencode.v19.chr1_1M" + GencodeTranscriptStore.GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION).getBytes());
+
+        for ( final FuncotatorArgumentDefinitions.OutputFormatType outputFormatType : FuncotatorArgumentDefinitions.OutputFormatType.values() ) {
+            final File gtfOutputFile = runFuncotatorWithThreads(CHR1_1M_THREADS_TEST_VCF, CHR1_1M_GENCODE_DS, outputFormatType, 1);
+            final File storeOutputFile = runFuncotatorWithThreads(CHR1_1M_THREADS_TEST_VCF, storeDataSourcesDir.getAbsolutePath(), outputFormatType, 2);
+
+            // The command lines in the headers differ:
+            IntegrationTestSpec.assertEqualTextFiles(storeOutputFile, gtfOutputFile, "##");
+        }
+    }
+
+    private File runFuncotatorWithThreads(final String inputVcfName,
+                                          final String dataSourcesPath,
+                                          final FuncotatorArgumentDefinitions.OutputFormatType outputFormatType,
+                                          final int threads) {
+        final File outputFile = createTempFile(tmpOutDir + File.separator + "threads" + threads + ".funcotator", "." + outputFormatType.toString().toLowerCase());
+
+        final ArgumentsBuilder arguments = createBaselineArgumentsForFuncotator(
+                inputVcfName,
+                outputFile,
+                hg19_chr1_1M_Reference,
+                dataSourcesPath,
+                FuncotatorTestConstants.REFERENCE_VERSION_HG19,
+                outputFormatType,
+                true);
+        arguments.addArgument(FuncotatorArgumentDefinitions.VARIANT_THREADS_LONG_NAME, String.valueOf(threads));
+
+        runCommandLine(arguments);
+        return outputFile;
+    }
+
+    private void runNonTrivialLargeDataValidation(final String inputVcfName,
+                               final String referencePath,
+                               final String referenceVersion,
+                               final String dataSourcesPath,
+                               final String expectedOutputPath,
+                               final int threads ) {
 
         for ( final FuncotatorArgumentDefinitions.OutputFormatType outputFormatType : FuncotatorArgumentDefinitions.OutputFormatType.values()) {
 
@@ -599,6 +689,7 @@ public class FuncotatorIntegrationTest extends CommandLineProgramTest {
                     referenceVersion,
                     outputFormatType,
                     true);
+            arguments.addArgument(FuncotatorArgumentDefinitions.VARIANT_THREADS_LONG_NAME, String.valueOf(threads));
 
             // Run the tool with our args:
             long startTime = 0, endTime = 0;
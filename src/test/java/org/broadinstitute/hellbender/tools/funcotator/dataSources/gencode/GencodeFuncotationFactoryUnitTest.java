@@ -1290,7 +1290,7 @@ public class GencodeFuncotationFactoryUnitTest extends GATKBaseTest {
         final List<? extends Locatable> exonPositionList = GencodeFuncotationFactory.getSortedCdsAndStartStopPositions(transcript);
 
         final ReferenceDataSource muc16TranscriptDataSource = ReferenceDataSource.of(new File(FuncotatorTestConstants.GENCODE_DATA_SOURCE_FASTA_PATH_HG19).toPath());
-        final Map<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> muc16TranscriptIdMap = GencodeFuncotationFactory. createTranscriptIdMap(muc16TranscriptDataSource);
+        final GencodeFuncotationFactory.TranscriptFastaSequenceSource muc16TranscriptSequences = new GencodeFuncotationFactory.TranscriptFastaSequenceSource(muc16TranscriptDataSource);
 
         final SequenceComparison seqComp =
                 GencodeFuncotationFactory.createSequenceComparison(
@@ -1299,8 +1299,7 @@ public class GencodeFuncotationFactoryUnitTest extends GATKBaseTest {
                         referenceContext,
                         transcript,
                         exonPositionList,
-                        muc16TranscriptIdMap,
-                        muc16TranscriptDataSource,
+                        muc16TranscriptSequences,
                         true);
 
         final GencodeFuncotation.VariantClassification varClass = GencodeFuncotationFactory.createVariantClassification(
@@ -2492,6 +2491,8 @@ public class GencodeFuncotationFactoryUnitTest extends GATKBaseTest {
 
             Assert.assertEquals(funcotation.getVariantClassification(), expectedVariantClassification, "Variant classification not correct");
             Assert.assertEquals(funcotation.getHugoSymbol(), expectedGeneName, "Gene name not correct");
+            // The NCBI build must be set even on an IGR created by a new factory, before any gene was annotated:
+            Assert.assertEquals(funcotation.getNcbiBuild(), "hg19", "NCBI build not correct");
         }
     }
 }
@@ -0,0 +1,112 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode;
+
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfFeature;
+import org.broadinstitute.hellbender.utils.codecs.gencode.GencodeGtfGeneFeature;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class GencodeTranscriptStoreUnitTest extends GATKBaseTest {
+    private static final String DATA_SOURCE_DIR = toolsTestDir + "funcotator/small_chr1_1M_gencode_ds/gencode_chr1_1M/hg19/";
+    private static final File GTF_FILE = new File(DATA_SOURCE_DIR + "gencode.v19.chr1_1M.gtf");
+    private static final File TRANSCRIPT_FASTA_FILE = new File(DATA_SOURCE_DIR + "gencode.v19.chr1_1M_transcript.fasta");
+
+    private final List<GencodeGtfGeneFeature> genes = new ArrayList<>();
+    private GencodeTranscriptStore store;
+
+    @BeforeClass
+    public void createStore() {
+        try ( final FeatureDataSource<GencodeGtfFeature> gtf = new FeatureDataSource<>(GTF_FILE) ) {
+            gtf.forEach(gene -> genes.add((GencodeGtfGeneFeature) gene));
+        }
+
+        final Path storePath = new File(createTempDir("GencodeTranscriptStoreUnitTest"), "test" + GencodeTranscriptStore.GENCODE_TRANSCRIPT_STORE_FILE_EXTENSION).toPath();
+        try ( final ReferenceDataSource transcriptFasta = ReferenceDataSource.of(TRANSCRIPT_FASTA_FILE.toPath()) ) {
+            Assert.assertEquals(GencodeTranscriptStore.write(storePath, genes.iterator(), transcriptFasta), genes.size());
+        }
+        Assert.assertTrue(GencodeTranscriptStore.isGencodeTranscriptStore(storePath));
+        Assert.assertFalse(GencodeTranscriptStore.isGencodeTranscriptStore(GTF_FILE.toPath()));
+        store = GencodeTranscriptStore.open(storePath);
+    }
+
+    @Test
+    public void testGetOverlappingGenesIsLikeTheGtfFile() {
+        // Genes queried through the index of the GTF file have line numbers relative to the position of the query in
+        // the file, so the genes of the store are compared to those read from the whole file:
+        final Random random = new Random(42);
+        int numOverlappingGenes = 0;
+        for ( int i = 0; i < 1000; ++i ) {
+            final int start = 1 + random.nextInt(1_000_000);
+            final SimpleInterval interval = new SimpleInterval("1", start, start + random.nextInt(i % 2 == 0 ? 10 : 100_000));
+            final List<GencodeGtfGeneFeature> overlappingGenes = store.getOverlappingGenes(interval);
+            Assert.assertEquals(overlappingGenes, genes.stream().filter(interval::overlaps).collect(Collectors.toList()), interval.toString());
+            numOverlappingGenes += overlappingGenes.size();
+        }
+        Assert.assertTrue(numOverlappingGenes > 0);
+    }
+
+    @Test
+    public void testDecodedGenesAreReused() {
+        final SimpleInterval interval = new SimpleInterval(genes.get(0));
+        final List<GencodeGtfGeneFeature> first = store.getOverlappingGenes(interval);
+        final List<GencodeGtfGeneFeature> second = store.getOverlappingGenes(interval);
+        Assert.assertFalse(first.isEmpty());
+        for ( int i = 0; i < first.size(); ++i ) {
+            Assert.assertSame(second.get(i), first.get(i));
+        }
+    }
+
+    @Test
+    public void testSequencesAreLikeTheTranscriptFasta() {
+        try ( final GencodeFuncotationFactory.TranscriptFastaSequenceSource fasta =
+                      new GencodeFuncotationFactory.TranscriptFastaSequenceSource(TRANSCRIPT_FASTA_FILE.toPath()) ) {
+            final List<String> transcriptIds = new ArrayList<>();
+            try ( final ReferenceDataSource transcriptFasta = ReferenceDataSource.of(TRANSCRIPT_FASTA_FILE.toPath()) ) {
+                for ( final SAMSequenceRecord sequence : transcriptFasta.getSequenceDictionary().getSequences() ) {
+                    transcriptIds.addAll(Utils.split(sequence.getSequenceName(), "|"));
+                }
+            }
+            Assert.assertFalse(transcriptIds.isEmpty());
+
+            for ( final String transcriptId : transcriptIds ) {
+                Assert.assertTrue(store.containsTranscript(transcriptId), transcriptId);
+                Assert.assertEquals(store.getCodingSequence(transcriptId), fasta.getCodingSequence(transcriptId), transcriptId);
+                Assert.assertEquals(store.getFivePrimeUtrSequence(transcriptId, 0), fasta.getFivePrimeUtrSequence(transcriptId, 0), transcriptId);
+                Assert.assertEquals(store.getFivePrimeUtrSequence(transcriptId, 3), fasta.getFivePrimeUtrSequence(transcriptId, 3), transcriptId);
+            }
+
+            // The transcripts of the genes are found by their IDs:
+            final List<String> geneTranscriptIds = genes.stream().flatMap(gene -> gene.getTranscripts().stream())
+                    .map(GencodeGtfFeature::getTranscriptId).collect(Collectors.toList());
+            for ( final String transcriptId : geneTranscriptIds ) {
+                Assert.assertEquals(store.containsTranscript(transcriptId), fasta.containsTranscript(transcriptId), transcriptId);
+            }
+            Assert.assertTrue(geneTranscriptIds.stream().anyMatch(store::containsTranscript));
+        }
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testUnknownTranscript() {
+        Assert.assertFalse(store.containsTranscript("ENST_NOT_A_TRANSCRIPT"));
+        store.getCodingSequence("ENST_NOT_A_TRANSCRIPT");
+    }
+
+    @Test(expectedExceptions = UserException.MalformedFile.class)
+    public void testNotAStore() {
+        GencodeTranscriptStore.open(GTF_FILE.toPath());
+    }
+}
@@ -18,6 +18,7 @@ import org.broadinstitute.hellbender.engine.ReferenceDataSource;
 import org.broadinstitute.hellbender.testutils.FuncotatorReferenceTestUtils;
 import org.broadinstitute.hellbender.testutils.VariantContextTestUtils;
 import org.broadinstitute.hellbender.tools.funcotator.Funcotation;
+import org.broadinstitute.hellbender.tools.funcotator.FuncotationCache;
 import org.broadinstitute.hellbender.tools.funcotator.FuncotatorArgumentDefinitions;
 import org.broadinstitute.hellbender.tools.funcotator.FuncotatorTestConstants;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.TableFuncotation;
@@ -346,7 +347,7 @@ public class VcfFuncotationFactoryUnitTest extends GATKBaseTest {
                 .alleles(alleles)
                 .make();
 
-        final List<Funcotation> funcotations = vcfFuncotationFactory.createFuncotationsOnVariant(
+        final List<Funcotation> funcotations = vcfFuncotationFactory.createFuncotationsFromFeatures(
                 variant,
                 referenceContext,
                 vcfFeatures,
@@ -361,21 +362,34 @@ public class VcfFuncotationFactoryUnitTest extends GATKBaseTest {
             )
         );
 
-        Assert.assertEquals(vcfFuncotationFactory.cacheHits, 0);
-        Assert.assertEquals(vcfFuncotationFactory.cacheMisses, 1);  // Should match the number of times createFuncotationOnVariant was called.
+        final FuncotationCache cache = vcfFuncotationFactory.getFuncotationCache();
+        Assert.assertEquals(cache.getHits(), 0);
+        Assert.assertEquals(cache.getMisses(), 1);  // Should match the number of times createFuncotationsFromFeatures was called.
 
         // Funcotate again, so that we should get a cache hit.
-        final List<Funcotation> funcotations2 = vcfFuncotationFactory.createFuncotationsOnVariant(
+        final List<Funcotation> funcotations2 = vcfFuncotationFactory.createFuncotationsFromFeatures(
                 variant,
                 referenceContext,
                 vcfFeatures,
                 Collections.emptyList()
         );
 
-        Assert.assertEquals(vcfFuncotationFactory.cacheHits, 1);
-        Assert.assertEquals(vcfFuncotationFactory.cacheMisses, 1);
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 1);
         Assert.assertEquals(funcotations, funcotations2, "Even though there was a cache hit, the funcotations are not equal.");
 
+        // A different variant at the same site with the same alleles (e.g. from another line of a multi-sample VCF)
+        //  should also be a cache hit, whatever the gencode funcotations of its transcript are.
+        final VariantContext sameSiteVariant = new VariantContextBuilder(variant).attribute("DP", 10).make();
+        Assert.assertSame(vcfFuncotationFactory.createFuncotationsFromFeatures(
+                sameSiteVariant,
+                new ReferenceContext(ReferenceDataSource.of(Paths.get(FuncotatorReferenceTestUtils.retrieveB37Chr3Ref())), variantInterval),
+                vcfFeatures,
+                null
+        ), funcotations);
+        Assert.assertEquals(cache.getHits(), 2);
+        Assert.assertEquals(cache.getMisses(), 1);
+
         // Sanity check that we get the same funcotations whether we use the three parameter or the four parameter
         //  version of createFuncotationsOnVariant.
         Assert.assertEquals(vcfFuncotationFactory.createFuncotationsOnVariant(
@@ -393,34 +407,39 @@ public class VcfFuncotationFactoryUnitTest extends GATKBaseTest {
         // Please note that this test does not actually test the content of the funcotations.  Just whether the cache
         //  was set to the appropriate size and that the hit/miss counters are being maintained properly.
 
+        final int cacheSize = 20;
+
         // Create dummy data.  Remember that since the cache is based on reference, we always have to index into this list.
         final List<String> alleles = Arrays.asList("G", "C", "T");
-        final List<Triple<VariantContext, ReferenceContext, List<Feature>>> dummyTriples = IntStream.range(0, VcfFuncotationFactory.LRUCache.MAX_ENTRIES + 1)
+        final List<Triple<VariantContext, ReferenceContext, List<Feature>>> dummyTriples = IntStream.range(0, cacheSize + 1)
                 .boxed().map(i -> createDummyCacheTriples(alleles, i)).collect(Collectors.toList());
 
         // Create our funcotation factory to test
         final VcfFuncotationFactory vcfFuncotationFactory =
                 createVcfFuncotationFactory(FACTORY_NAME, FACTORY_VERSION, IOUtils.getPath(EXAC_SNIPPET));
+        vcfFuncotationFactory.setFuncotationCacheSize(cacheSize);
+        final FuncotationCache cache = vcfFuncotationFactory.getFuncotationCache();
 
-        for (int i = 0; i < VcfFuncotationFactory.LRUCache.MAX_ENTRIES; i++) {
+        for (int i = 0; i < cacheSize; i++) {
             funcotateForCacheTest(vcfFuncotationFactory, dummyTriples.get(i));
-            Assert.assertEquals(vcfFuncotationFactory.cacheHits, 0);
-            Assert.assertEquals(vcfFuncotationFactory.cacheMisses, i+1);  // Should match the number of times createFuncotationOnVariant was called.
+            Assert.assertEquals(cache.getHits(), 0);
+            Assert.assertEquals(cache.getMisses(), i+1);  // Should match the number of times createFuncotationsFromFeatures was called.
         }
         // We will get one more miss in this loop, since [0] will have been purged from the cache.  We will test this below.
-        for (int i = 0; i < (VcfFuncotationFactory.LRUCache.MAX_ENTRIES + 1); i++) {
+        for (int i = 0; i < (cacheSize + 1); i++) {
             funcotateForCacheTest(vcfFuncotationFactory, dummyTriples.get(i));
         }
-        Assert.assertEquals(vcfFuncotationFactory.cacheHits, VcfFuncotationFactory.LRUCache.MAX_ENTRIES);
+        Assert.assertEquals(cache.getHits(), cacheSize);
+        Assert.assertEquals(cache.size(), cacheSize);
 
         // This should be another miss, since the variant at index = 0 should no longer be in the cache.
         funcotateForCacheTest(vcfFuncotationFactory, dummyTriples.get(0));
-        Assert.assertEquals(vcfFuncotationFactory.cacheMisses, (VcfFuncotationFactory.LRUCache.MAX_ENTRIES + 2));
+        Assert.assertEquals(cache.getMisses(), (cacheSize + 2));
     }
 
     // Performs a dummy funcotation with an offset for controlling the cache.
     private void funcotateForCacheTest(final VcfFuncotationFactory vcfFuncotationFactory, final Triple<VariantContext, ReferenceContext, List<Feature>> cacheTriple) {
-        vcfFuncotationFactory.createFuncotationsOnVariant(
+        vcfFuncotationFactory.createFuncotationsFromFeatures(
                 cacheTriple.getLeft(),
                 cacheTriple.getMiddle(),
                 cacheTriple.getRight(),
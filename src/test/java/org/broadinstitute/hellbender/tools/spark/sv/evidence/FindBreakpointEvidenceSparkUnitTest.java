@@ -50,7 +50,8 @@ public final class FindBreakpointEvidenceSparkUnitTest extends GATKBaseTest {
                         { new ReadMetadata.PartitionBounds(0, 1, 1, 10000, 9999)},
                     100, 10, 30);
     private final Broadcast<ReadMetadata> broadcastMetadata = ctx.broadcast(readMetadataExpected);
-    private final Broadcast<SVIntervalTree<SVInterval>> broadcastRegionsToIgnore = ctx.broadcast(new SVIntervalTree<>());
+    private final Broadcast<ImmutableSVIntervalTree<SVInterval>> broadcastRegionsToIgnore =
+            ctx.broadcast(ImmutableSVIntervalTree.ofIntervals(Collections.emptyList()));
     private final List<List<BreakpointEvidence>> externalEvidence =
             FindBreakpointEvidenceSpark.readExternalEvidence(null, readMetadataExpected,
                                                     params.externalEvidenceWeight, params.externalEvidenceUncertainty);
@@ -0,0 +1,168 @@
+package org.broadinstitute.hellbender.tools.spark.sv.utils;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class ImmutableSVIntervalTreeTest extends GATKBaseTest {
+
+    private static SVIntervalTree<Integer> randomTree( final Random random, final int size ) {
+        final SVIntervalTree<Integer> tree = new SVIntervalTree<>();
+        while ( tree.size() < size ) {
+            final int contig = random.nextInt(3);
+            final int start = random.nextInt(10000);
+            final int length = random.nextInt(10) == 0 ? random.nextInt(2000) : random.nextInt(100);
+            tree.put(new SVInterval(contig, start, start + length), tree.size());
+        }
+        return tree;
+    }
+
+    private static List<SVInterval> randomProbes( final Random random, final int nProbes ) {
+        final List<SVInterval> probes = new ArrayList<>(nProbes);
+        for ( int idx = 0; idx != nProbes; ++idx ) {
+            final int contig = random.nextInt(4);
+            final int start = random.nextInt(11000);
+            probes.add(new SVInterval(contig, start, start + random.nextInt(500)));
+        }
+        return probes;
+    }
+
+    private static <V> void assertSameEntries( final Iterator<SVIntervalTree.Entry<V>> actual,
+                                               final Iterator<SVIntervalTree.Entry<V>> expected ) {
+        while ( expected.hasNext() ) {
+            Assert.assertTrue(actual.hasNext());
+            assertSameEntry(actual.next(), expected.next());
+        }
+        Assert.assertFalse(actual.hasNext());
+    }
+
+    private static <V> void assertSameEntry( final SVIntervalTree.Entry<V> actual, final SVIntervalTree.Entry<V> expected ) {
+        if ( expected == null ) {
+            Assert.assertNull(actual);
+        } else {
+            Assert.assertNotNull(actual);
+            Assert.assertEquals(actual.getInterval(), expected.getInterval());
+            Assert.assertEquals(actual.getValue(), expected.getValue());
+        }
+    }
+
+    @DataProvider(name = "sizes")
+    public Object[][] sizes() {
+        return new Object[][] { {0}, {1}, {2}, {3}, {7}, {16}, {17}, {100}, {1000}, {4097} };
+    }
+
+    @Test(groups = "sv", dataProvider = "sizes")
+    public void queriesMatchSVIntervalTreeTest( final int size ) {
+        final Random random = new Random(size);
+        final SVIntervalTree<Integer> expected = randomTree(random, size);
+        final ImmutableSVIntervalTree<Integer> actual = new ImmutableSVIntervalTree<>(expected);
+
+        Assert.assertEquals(actual.size(), expected.size());
+        assertSameEntries(actual.iterator(), expected.iterator());
+        assertSameEntries(actual.reverseIterator(), expected.reverseIterator());
+        assertSameEntry(actual.min(), expected.min());
+        assertSameEntry(actual.max(), expected.max());
+        if ( size > 0 ) { // ties may be broken differently, so just check the endpoint
+            Assert.assertEquals(actual.maxEnd().getContig(), expected.maxEnd().getContig());
+            Assert.assertEquals(actual.maxEnd().getEnd(), expected.maxEnd().getEnd());
+        } else {
+            Assert.assertNull(actual.maxEnd());
+        }
+        for ( int idx = 0; idx != size; ++idx ) {
+            assertSameEntry(actual.findByIndex(idx), expected.findByIndex(idx));
+            final SVInterval interval = expected.findByIndex(idx).getInterval();
+            assertSameEntry(actual.find(interval), expected.find(interval));
+            Assert.assertEquals(actual.getIndex(interval), idx);
+        }
+        Assert.assertNull(actual.findByIndex(size));
+
+        for ( final SVInterval probe : randomProbes(random, 1000) ) {
+            Assert.assertEquals(actual.hasOverlapper(probe), expected.hasOverlapper(probe));
+            assertSameEntry(actual.minOverlapper(probe), expected.minOverlapper(probe));
+            assertSameEntries(actual.overlappers(probe), expected.overlappers(probe));
+            assertSameEntry(actual.find(probe), expected.find(probe));
+            Assert.assertEquals(actual.getIndex(probe), expected.getIndex(probe));
+            assertSameEntry(actual.min(probe), expected.min(probe));
+            assertSameEntry(actual.max(probe), expected.max(probe));
+            assertSameEntries(actual.iterator(probe), expected.iterator(probe));
+            assertSameEntries(actual.reverseIterator(probe), expected.reverseIterator(probe));
+        }
+    }
+
+    @Test(groups = "sv")
+    public void ofIntervalsTest() {
+        final SVInterval interval1 = new SVInterval(1, 100, 200);
+        final SVInterval interval2 = new SVInterval(0, 150, 250);
+        final SVInterval interval3 = new SVInterval(0, 100, 300);
+        final ImmutableSVIntervalTree<SVInterval> tree =
+                ImmutableSVIntervalTree.ofIntervals(Arrays.asList(interval1, interval2, interval3, interval2));
+        Assert.assertEquals(tree.size(), 3);
+        final Iterator<SVIntervalTree.Entry<SVInterval>> itr = tree.iterator();
+        for ( final SVInterval interval : Arrays.asList(interval3, interval2, interval1) ) {
+            final SVIntervalTree.Entry<SVInterval> entry = itr.next();
+            Assert.assertEquals(entry.getInterval(), interval);
+            Assert.assertEquals(entry.getValue(), interval);
+        }
+        Assert.assertFalse(itr.hasNext());
+
+        Assert.assertEquals(ImmutableSVIntervalTree.ofIntervals(Collections.emptyList()).size(), 0);
+        Assert.assertFalse(ImmutableSVIntervalTree.ofIntervals(Collections.emptyList()).hasOverlapper(interval1));
+    }
+
+    @Test(groups = "sv", expectedExceptions = UnsupportedOperationException.class)
+    public void setValueTest() {
+        final SVIntervalTree<Integer> tree = new SVIntervalTree<>();
+        tree.put(new SVInterval(0, 100, 200), 0);
+        new ImmutableSVIntervalTree<>(tree).min().setValue(1);
+    }
+
+    @Test(groups = "sv")
+    public void serializationTest() {
+        final Kryo kryo = new Kryo();
+        final SVIntervalTree<Integer> tree = randomTree(new Random(47), 1000);
+        final ImmutableSVIntervalTree<Integer> immutableTree = new ImmutableSVIntervalTree<>(tree);
+        final ImmutableSVIntervalTree<Integer> immutableTreeCopy = roundTrip(kryo, immutableTree);
+        assertSameEntries(immutableTreeCopy.iterator(), tree.iterator());
+        for ( final SVInterval probe : randomProbes(new Random(47), 100) ) {
+            assertSameEntries(immutableTreeCopy.overlappers(probe), tree.overlappers(probe));
+        }
+
+        // a set of intervals needn't serialize its values, so it ought to be much smaller than an SVIntervalTree
+        final SVIntervalTree<SVInterval> intervalSet = new SVIntervalTree<>();
+        tree.forEach(entry -> intervalSet.put(entry.getInterval(), entry.getInterval()));
+        final ImmutableSVIntervalTree<SVInterval> immutableIntervalSet = new ImmutableSVIntervalTree<>(intervalSet);
+        final ImmutableSVIntervalTree<SVInterval> immutableIntervalSetCopy = roundTrip(kryo, immutableIntervalSet);
+        assertSameEntries(immutableIntervalSetCopy.iterator(), intervalSet.iterator());
+        Assert.assertTrue(4 * serializedSize(kryo, immutableIntervalSet) < serializedSize(kryo, intervalSet));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip( final Kryo kryo, final T object ) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Output output = new Output(bytes);
+        kryo.writeClassAndObject(output, object);
+        output.close();
+        return (T)kryo.readClassAndObject(new Input(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static int serializedSize( final Kryo kryo, final Object object ) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Output output = new Output(bytes);
+        kryo.writeClassAndObject(output, object);
+        output.close();
+        return bytes.size();
+    }
+}
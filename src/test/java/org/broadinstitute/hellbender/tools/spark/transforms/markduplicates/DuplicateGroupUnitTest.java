@@ -0,0 +1,161 @@
+package org.broadinstitute.hellbender.tools.spark.transforms.markduplicates;
+
+import com.esotericsoftware.kryo.Kryo;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMReadGroupRecord;
+import org.apache.spark.SparkConf;
+import org.apache.spark.serializer.KryoRegistrator;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils.IndexPair;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.markduplicates.MarkDuplicatesScoringStrategy;
+import org.broadinstitute.hellbender.testutils.SparkTestUtils;
+import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.Fragment;
+import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.MarkDuplicatesSparkRecord;
+import org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.Pair;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import picard.sam.markduplicates.util.OpticalDuplicateFinder;
+import scala.Tuple2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DuplicateGroupUnitTest extends GATKBaseTest {
+    private static final SAMFileHeader HEADER = ArtificialReadUtils.createArtificialSamHeader();
+    private static final Map<String, Byte> LIBRARY_MAP;
+    static {
+        final SAMReadGroupRecord readGroup = new SAMReadGroupRecord("1");
+        readGroup.setLibrary("library");
+        HEADER.setReadGroups(Collections.singletonList(readGroup));
+        LIBRARY_MAP = Collections.singletonMap("library", (byte) 0);
+    }
+
+    private static GATKRead read(final String name, final int start, final boolean firstOfPair, final boolean reverse, final byte qual) {
+        final GATKRead read = ArtificialReadUtils.createArtificialRead(HEADER, name, 0, start, 10);
+        read.setBaseQualities(Utils.repeatBytes(qual, 10));
+        read.setIsPaired(true);
+        read.setIsFirstOfPair();
+        if (!firstOfPair) {
+            read.setIsSecondOfPair();
+        }
+        read.setIsReverseStrand(reverse);
+        read.setReadGroup("1");
+        return read;
+    }
+
+    private static MarkDuplicatesSparkRecord pair(final String name, final byte qual, final int partitionIndex) {
+        return MarkDuplicatesSparkRecord.newPair(read(name, 100, true, false, qual), read(name, 200, false, true, qual), HEADER,
+                partitionIndex, MarkDuplicatesScoringStrategy.SUM_OF_BASE_QUALITIES, LIBRARY_MAP);
+    }
+
+    private static MarkDuplicatesSparkRecord fragment(final String name, final byte qual, final int partitionIndex) {
+        return MarkDuplicatesSparkRecord.newFragment(read(name, 100, true, false, qual), HEADER,
+                partitionIndex, MarkDuplicatesScoringStrategy.SUM_OF_BASE_QUALITIES, LIBRARY_MAP);
+    }
+
+    // keyed by "name/partition index", since IndexPair doesn't override equals
+    private static Map<String, Integer> asMap(final List<Tuple2<IndexPair<String>, Integer>> nonDuplicates) {
+        final Map<String, Integer> map = new HashMap<>();
+        nonDuplicates.forEach(t -> Assert.assertNull(map.put(t._1().getValue() + "/" + t._1().getIndex(), t._2()), "duplicate entry for " + t._1().getValue()));
+        return map;
+    }
+
+    @Test
+    public void testBestPairAndOpticalDuplicates() {
+        final OpticalDuplicateFinder finder = new OpticalDuplicateFinder();
+        final DuplicateGroup group = new DuplicateGroup(true)
+                .add(pair("machine:1:flowcell:1:1101:1000:1000", (byte) 20, 0), finder)
+                .add(pair("machine:1:flowcell:1:1101:1010:1010", (byte) 30, 1), finder)
+                .add(pair("machine:1:flowcell:1:1101:9000:9000", (byte) 10, 2), finder);
+
+        final Map<String, Integer> nonDuplicates = asMap(group.getNonDuplicates(finder, true));
+        // the best pair has one optical duplicate, which is tagged, and the far away pair is only a PCR duplicate
+        Assert.assertEquals(nonDuplicates.size(), 2);
+        Assert.assertEquals(nonDuplicates.get("machine:1:flowcell:1:1101:1010:1010/1").intValue(), 1);
+        Assert.assertEquals(nonDuplicates.get("machine:1:flowcell:1:1101:1000:1000/0").intValue(), MarkDuplicatesSpark.OPTICAL_DUPLICATE_MARKER);
+
+        // when optical duplicates are not tagged only their number is reported
+        final DuplicateGroup untagged = new DuplicateGroup(false)
+                .add(pair("machine:1:flowcell:1:1101:1000:1000", (byte) 20, 0), finder)
+                .add(pair("machine:1:flowcell:1:1101:1010:1010", (byte) 30, 1), finder)
+                .add(pair("machine:1:flowcell:1:1101:9000:9000", (byte) 10, 2), finder);
+        Assert.assertEquals(asMap(untagged.getNonDuplicates(finder, false)),
+                Collections.singletonMap("machine:1:flowcell:1:1101:1010:1010/1", 1));
+    }
+
+    @Test
+    public void testMergeMatchesAdd() {
+        final OpticalDuplicateFinder finder = new OpticalDuplicateFinder();
+        final List<MarkDuplicatesSparkRecord> records = Arrays.asList(
+                pair("machine:1:flowcell:1:1101:1000:1000", (byte) 20, 0),
+                fragment("machine:1:flowcell:1:1101:2000:2000", (byte) 15, 0),
+                pair("machine:1:flowcell:1:1101:1010:1010", (byte) 30, 1),
+                fragment("machine:1:flowcell:1:1101:3000:3000", (byte) 25, 1),
+                pair("machine:1:flowcell:1:1101:9000:9000", (byte) 10, 2),
+                pair("machine:1:flowcell:1:1101:1005:1005", (byte) 5, 2));
+
+        final DuplicateGroup all = new DuplicateGroup(true);
+        records.forEach(r -> all.add(r, finder));
+
+        final DuplicateGroup first = new DuplicateGroup(true);
+        records.subList(0, 3).forEach(r -> first.add(r, finder));
+        final DuplicateGroup second = new DuplicateGroup(true);
+        records.subList(3, records.size()).forEach(r -> second.add(r, finder));
+
+        final Map<String, Integer> expected = asMap(all.getNonDuplicates(finder, true));
+        Assert.assertEquals(asMap(second.merge(first, finder).getNonDuplicates(finder, true)), expected);
+        Assert.assertEquals(expected.get("machine:1:flowcell:1:1101:3000:3000/1").intValue(), -1);
+        Assert.assertEquals(expected.get("machine:1:flowcell:1:1101:1010:1010/1").intValue(), 2);
+    }
+
+    @Test
+    public void testEmptyFragmentMakesFragmentsDuplicates() {
+        final OpticalDuplicateFinder finder = new OpticalDuplicateFinder();
+        final DuplicateGroup group = new DuplicateGroup(false)
+                .add(fragment("machine:1:flowcell:1:1101:2000:2000", (byte) 15, 0), finder)
+                .add(MarkDuplicatesSparkRecord.newEmptyFragment(read("mate", 100, true, false, (byte) 20), HEADER, LIBRARY_MAP), finder);
+        Assert.assertTrue(group.getNonDuplicates(finder, false).isEmpty());
+    }
+
+    @Test
+    public void testSerializerRoundTrip() {
+        final SparkConf conf = new SparkConf().set("spark.kryo.registrator",
+                "org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.DuplicateGroupUnitTest$TestGATKRegistrator");
+        final OpticalDuplicateFinder finder = new OpticalDuplicateFinder();
+        final List<MarkDuplicatesSparkRecord> records = Arrays.asList(
+                pair("machine:1:flowcell:1:1101:1000:1000", (byte) 20, 0),
+                fragment("machine:1:flowcell:1:1101:2000:2000", (byte) 15, 0),
+                pair("machine:1:flowcell:1:1101:1010:1010", (byte) 30, 1),
+                MarkDuplicatesSparkRecord.getPassthrough(read("passthrough", 100, true, false, (byte) 20), 3),
+                pair("machine:1:flowcell:1:1101:9000:9000", (byte) 10, 2),
+                pair("machine:1:flowcell:1:1101:1005:1005", (byte) 5, 2));
+
+        for (final boolean keepNames : new boolean[]{true, false}) {
+            final DuplicateGroup group = new DuplicateGroup(keepNames);
+            records.forEach(r -> group.add(r, finder));
+            final DuplicateGroup roundTripped = SparkTestUtils.roundTripInKryo(group, DuplicateGroup.class, conf);
+            Assert.assertEquals(asMap(roundTripped.getNonDuplicates(finder, keepNames)), asMap(group.getNonDuplicates(finder, keepNames)));
+        }
+
+        // a group with nothing but an empty fragment
+        final DuplicateGroup empty = new DuplicateGroup(false)
+                .add(MarkDuplicatesSparkRecord.newEmptyFragment(read("mate", 100, true, false, (byte) 20), HEADER, LIBRARY_MAP), finder)
+                .add(fragment("machine:1:flowcell:1:1101:2000:2000", (byte) 15, 0), finder);
+        Assert.assertTrue(SparkTestUtils.roundTripInKryo(empty, DuplicateGroup.class, conf).getNonDuplicates(finder, false).isEmpty());
+    }
+
+    public static class TestGATKRegistrator implements KryoRegistrator {
+        @Override
+        public void registerClasses(Kryo kryo) {
+            kryo.register(Fragment.class, new Fragment.Serializer());
+            kryo.register(Pair.class, new Pair.Serializer());
+            kryo.register(DuplicateGroup.class, new DuplicateGroup.Serializer());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.apache.commons.lang.StringUtils;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
@@ -149,6 +150,24 @@ public final class ApplyBQSRIntegrationTest extends CommandLineProgramTest {
         }
     }
 
+    @Test(dataProvider = "MiniApplyBQSRTest")
+    public void testApplyBQSRMultiThreaded(ABQSRTest params) throws IOException {
+        final File outFile = GATKBaseTest.createTempFile("applyBQSRTest", params.outputExtension);
+        final ArrayList<String> args = new ArrayList<>();
+        args.add("-I");
+        args.add(new File(params.bam).getAbsolutePath());
+        args.add("--" + StandardArgumentDefinitions.BQSR_TABLE_LONG_NAME);
+        args.add(new File(resourceDir + "HiSeq.20mb.1RG.table.gz").getAbsolutePath());
+        args.add("-O");
+        args.add(outFile.getAbsolutePath());
+        args.add("--" + ReadWalker.READ_THREADS_LONG_NAME);
+        args.add("3");
+
+        runCommandLine(args);
+
+        SamAssertionUtils.assertSamsEqual(outFile, new File(params.expectedFile));
+    }
+
     @Test(dataProvider = "ApplyBQSRTest", groups={"bucket"})
     public void testApplyBQSRCloud(ABQSRTest params) throws IOException {
         // getTempFilePath also deletes the file on exit.
@@ -14,6 +14,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.AssemblyRegionWalker;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
 import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.exceptions.UserException;
@@ -395,6 +396,86 @@ public class HaplotypeCallerIntegrationTest extends CommandLineProgramTest {
         }
     }
 
+    /*
+     * Test that with multiple assembly region threads we make the same calls as single-threaded HaplotypeCaller,
+     * and that the output, including jittered QD values, doesn't depend on the number of threads, since each region
+     * draws from its own random generator. Jittered QD values may differ from those of a single-threaded run, which
+     * draws from the shared generator, so only calls are compared with the single-threaded output.
+     */
+    @Test(dataProvider="HaplotypeCallerTestInputs")
+    public void testMultipleAssemblyRegionThreadsAreConsistentWithSingleThreadedResults(final String inputFileName, final String referenceFileName) throws Exception {
+        final File singleThreadedOutput = runHaplotypeCallerWithAssemblyRegionThreads(inputFileName, referenceFileName, 1);
+        final File twoThreadsOutput = runHaplotypeCallerWithAssemblyRegionThreads(inputFileName, referenceFileName, 2);
+        final File fourThreadsOutput = runHaplotypeCallerWithAssemblyRegionThreads(inputFileName, referenceFileName, 4);
+
+        IntegrationTestSpec.assertEqualTextFiles(fourThreadsOutput, twoThreadsOutput);
+        final double concordance = calculateConcordance(fourThreadsOutput, singleThreadedOutput);
+        Assert.assertEquals(concordance, 1.0, "Multi-threaded calls differ from single-threaded calls");
+    }
+
+    private File runHaplotypeCallerWithAssemblyRegionThreads(final String inputFileName, final String referenceFileName, final int assemblyRegionThreads) throws Exception {
+        Utils.resetRandomGenerator();
+        final File output = createTempFile("testMultipleAssemblyRegionThreadsAreConsistentWithSingleThreadedResults." + assemblyRegionThreads + ".", ".vcf");
+
+        final String[] args = {
+                "-I", inputFileName,
+                "-R", referenceFileName,
+                "-L", "20:10000000-10100000",
+                "-O", output.getAbsolutePath(),
+                "-pairHMM", "AVX_LOGLESS_CACHING",
+                "--" + AssemblyRegionWalker.ASSEMBLY_REGION_THREADS_LONG_NAME, Integer.toString(assemblyRegionThreads),
+                "--" + StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false"
+        };
+
+        runCommandLine(args);
+        return output;
+    }
+
+    /**
+     * Test that HaplotypeCaller makes the same calls with a .2bit reference as with the same reference in fasta format.
+     */
+    @Test
+    public void testTwoBitReferenceIsConsistentWithFastaReference() throws Exception {
+        final File fastaOutput = runHaplotypeCallerOnChr17(v37_chr17_1Mb_Reference);
+        final File twoBitOutput = runHaplotypeCallerOnChr17(v37_chr17_1Mb_TwoBitReference);
+
+        Assert.assertTrue(VariantContextTestUtils.streamVcf(fastaOutput).count() > 0, "no calls, the test would pass trivially");
+        IntegrationTestSpec.assertEqualTextFiles(twoBitOutput, fastaOutput, "##");
+    }
+
+    private File runHaplotypeCallerOnChr17(final String referenceFileName) {
+        Utils.resetRandomGenerator();
+        final File output = createTempFile("testTwoBitReferenceIsConsistentWithFastaReference", ".vcf");
+
+        final String[] args = {
+                "-I", NA12878_chr17_1k_BAM,
+                "-R", referenceFileName,
+                "-L", "17:69000-70000",
+                "-O", output.getAbsolutePath(),
+                "-pairHMM", "AVX_LOGLESS_CACHING",
+                "--" + StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false"
+        };
+
+        runCommandLine(args);
+        return output;
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultipleAssemblyRegionThreadsNotAllowedWithBamout() {
+        final File vcfOutput = createTempFile("testMultipleAssemblyRegionThreadsNotAllowedWithBamout", ".vcf");
+        final File bamOutput = createTempFile("testMultipleAssemblyRegionThreadsNotAllowedWithBamout", ".bam");
+
+        final ArgumentsBuilder argBuilder = new ArgumentsBuilder();
+        argBuilder.addInput(new File(NA12878_20_21_WGS_bam));
+        argBuilder.addReference(new File(b37_reference_20_21));
+        argBuilder.addOutput(vcfOutput);
+        argBuilder.addArgument("L", "20:10000000-10010000");
+        argBuilder.addArgument(AssemblyBasedCallerArgumentCollection.BAM_OUTPUT_SHORT_NAME, bamOutput.getAbsolutePath());
+        argBuilder.addArgument(AssemblyRegionWalker.ASSEMBLY_REGION_THREADS_LONG_NAME, "2");
+
+        runCommandLine(argBuilder.getArgsArray());
+    }
+
     @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
     public void testGenotypeGivenAllelesModeNotAllowedInGVCFMode() throws IOException {
         Utils.resetRandomGenerator();
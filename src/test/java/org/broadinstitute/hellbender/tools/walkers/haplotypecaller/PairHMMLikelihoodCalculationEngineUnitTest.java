@@ -7,6 +7,7 @@ import htsjdk.variant.variantcontext.Allele;
 import org.broadinstitute.gatk.nativebindings.pairhmm.PairHMMNativeArguments;
 import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.QualityUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
 import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
 import org.broadinstitute.hellbender.utils.genotyper.ReadLikelihoods;
@@ -160,6 +161,86 @@ public final class PairHMMLikelihoodCalculationEngineUnitTest extends GATKBaseTe
         return true;
     }
 
+    @Test
+    public void testLikelihoodCache() {
+        final Random random = new Random(5);
+        final byte[] ref = new byte[60];
+        for ( int i = 0; i < ref.length; i++ ) {
+            ref[i] = "ACGT".getBytes()[random.nextInt(4)];
+        }
+        final List<Haplotype> haplotypes = new ArrayList<>();
+        for ( int h = 0; h < 3; h++ ) {
+            final byte[] bases = ref.clone();
+            if ( h > 0 ) {
+                bases[10 * h] = bases[10 * h] == 'A' ? (byte)'C' : (byte)'A';
+            }
+            final Haplotype haplotype = new Haplotype(bases, h == 0);
+            haplotype.setGenomeLocation(new SimpleInterval("1", 1, bases.length));
+            haplotypes.add(haplotype);
+        }
+        final List<GATKRead> firstReads = new ArrayList<>();
+        for ( int r = 0; r < 6; r++ ) {
+            firstReads.add(makeReadFromHaplotype(haplotypes.get(r % 3), 5 * r, 30, "read" + r));
+        }
+        // the same reads (as new objects), plus one that hasn't been seen yet
+        final List<GATKRead> secondReads = new ArrayList<>();
+        for ( int r = 0; r < 3; r++ ) {
+            secondReads.add(makeReadFromHaplotype(haplotypes.get(r % 3), 5 * r, 30, "again" + r));
+        }
+        secondReads.add(makeReadFromHaplotype(haplotypes.get(1), 3, 40, "new"));
+
+        final PairHMMLikelihoodCalculationEngine uncachedEngine = new PairHMMLikelihoodCalculationEngine((byte)10, new PairHMMNativeArguments(),
+                PairHMM.Implementation.LOGLESS_CACHING, -4.5, PairHMMLikelihoodCalculationEngine.PCRErrorModel.CONSERVATIVE, PairHMM.BASE_QUALITY_SCORE_THRESHOLD);
+        final PairHMMLikelihoodCalculationEngine cachedEngine = new PairHMMLikelihoodCalculationEngine((byte)10, new PairHMMNativeArguments(),
+                PairHMM.Implementation.LOGLESS_CACHING, -4.5, PairHMMLikelihoodCalculationEngine.PCRErrorModel.CONSERVATIVE, PairHMM.BASE_QUALITY_SCORE_THRESHOLD, 100);
+
+        assertSameLikelihoods(cachedEngine, uncachedEngine, haplotypes, firstReads);
+        Assert.assertEquals(cachedEngine.getLikelihoodCacheHits(), 0);
+        Assert.assertEquals(cachedEngine.getLikelihoodCacheMisses(), 18);
+
+        assertSameLikelihoods(cachedEngine, uncachedEngine, haplotypes, secondReads);
+        Assert.assertEquals(cachedEngine.getLikelihoodCacheHits(), 9);
+        Assert.assertEquals(cachedEngine.getLikelihoodCacheMisses(), 21);
+
+        cachedEngine.close();
+        uncachedEngine.close();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeLikelihoodCacheSize() {
+        new PairHMMLikelihoodCalculationEngine((byte)10, new PairHMMNativeArguments(), PairHMM.Implementation.LOGLESS_CACHING, -4.5,
+                PairHMMLikelihoodCalculationEngine.PCRErrorModel.CONSERVATIVE, PairHMM.BASE_QUALITY_SCORE_THRESHOLD, -1);
+    }
+
+    private static GATKRead makeReadFromHaplotype(final Haplotype haplotype, final int start, final int length, final String name) {
+        final byte[] quals = new byte[length];
+        for ( int i = 0; i < length; i++ ) {
+            quals[i] = (byte)(20 + (i * 7) % 20);
+        }
+        final GATKRead read = ArtificialReadUtils.createArtificialRead(Arrays.copyOfRange(haplotype.getBases(), start, start + length), quals, length + "M");
+        read.setName(name);
+        read.setMappingQuality(60);
+        return read;
+    }
+
+    private static void assertSameLikelihoods(final ReadLikelihoodCalculationEngine engine, final ReadLikelihoodCalculationEngine expectedEngine,
+                                              final List<Haplotype> haplotypes, final List<GATKRead> reads) {
+        final AssemblyResultSet assemblyResultSet = new AssemblyResultSet();
+        haplotypes.forEach(assemblyResultSet::add);
+        final SampleList samples = new IndexedSampleList("sample");
+        final LikelihoodMatrix<Haplotype> actual = engine.computeReadLikelihoods(assemblyResultSet, samples,
+                Collections.singletonMap("sample", reads)).sampleMatrix(0);
+        final LikelihoodMatrix<Haplotype> expected = expectedEngine.computeReadLikelihoods(assemblyResultSet, samples,
+                Collections.singletonMap("sample", reads)).sampleMatrix(0);
+
+        Assert.assertEquals(actual.numberOfReads(), expected.numberOfReads());
+        for ( int h = 0; h < haplotypes.size(); h++ ) {
+            for ( int r = 0; r < actual.numberOfReads(); r++ ) {
+                Assert.assertEquals(actual.get(h, r), expected.get(h, r));
+            }
+        }
+    }
+
     @Test
     public void testComputeLikelihoods(){
         try {
@@ -0,0 +1,81 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.Kmer;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+public final class PackedKmerMapUnitTest extends GATKBaseTest {
+
+    @DataProvider(name = "kmerSizes")
+    public Object[][] kmerSizes() {
+        return new Object[][] { {1}, {5}, {PackedKmerMap.MAX_PACKED_KMER_SIZE}, {PackedKmerMap.MAX_PACKED_KMER_SIZE + 1}, {45} };
+    }
+
+    @Test(dataProvider = "kmerSizes")
+    public void testBehavesLikeKmerKeyedMap(final int kmerSize) {
+        final Random random = new Random(13);
+        // mostly ACGT, with occasional Ns and lower case bases that must not be confused with the upper case ones
+        final byte[] alphabet = "AAACCCGGGTTTNa".getBytes();
+        final byte[] sequence = new byte[2000];
+        for ( int i = 0; i < sequence.length; i++ ) {
+            sequence[i] = alphabet[random.nextInt(kmerSize < 5 ? 4 : alphabet.length)];
+        }
+
+        final PackedKmerMap<Integer> packedKmerMap = new PackedKmerMap<>(kmerSize);
+        final Map<Kmer, Integer> expected = new HashMap<>();
+        for ( int i = 0; i <= sequence.length - kmerSize; i++ ) {
+            final Kmer kmer = new Kmer(sequence, i, kmerSize);
+            Assert.assertEquals(packedKmerMap.putIfAbsent(sequence, i, i), expected.putIfAbsent(kmer, i));
+        }
+        Assert.assertEquals(packedKmerMap.size(), expected.size());
+        Assert.assertEquals(new HashSet<>(packedKmerMap.values()), new HashSet<>(expected.values()));
+
+        for ( int i = 0; i <= sequence.length - kmerSize; i++ ) {
+            final Kmer kmer = new Kmer(sequence, i, kmerSize);
+            Assert.assertEquals(packedKmerMap.get(sequence, i), expected.get(kmer));
+            Assert.assertEquals(packedKmerMap.get(new Kmer(Arrays.copyOfRange(sequence, i, i + kmerSize))), expected.get(kmer));
+            Assert.assertTrue(packedKmerMap.containsKey(sequence, i));
+        }
+
+        for ( int i = 0; i <= sequence.length - kmerSize; i += 2 ) {
+            Assert.assertEquals(packedKmerMap.remove(sequence, i), expected.remove(new Kmer(sequence, i, kmerSize)));
+            Assert.assertFalse(packedKmerMap.containsKey(sequence, i));
+        }
+        Assert.assertEquals(packedKmerMap.size(), expected.size());
+
+        packedKmerMap.clear();
+        Assert.assertTrue(packedKmerMap.isEmpty());
+    }
+
+    @Test
+    public void testPacking() {
+        final PackedKmerMap<Object> packedKmerMap = new PackedKmerMap<>(4);
+        Assert.assertEquals(packedKmerMap.pack("ACGT".getBytes(), 0), 0b00011011L);
+        Assert.assertEquals(packedKmerMap.pack("TTACGT".getBytes(), 2), 0b00011011L);
+        Assert.assertEquals(packedKmerMap.pack("TTTT".getBytes(), 0), 0xFFL);
+        Assert.assertEquals(packedKmerMap.pack("ACNT".getBytes(), 0), -1L);
+        Assert.assertEquals(packedKmerMap.pack("acgt".getBytes(), 0), -1L);
+
+        final byte[] longestPackable = new byte[PackedKmerMap.MAX_PACKED_KMER_SIZE];
+        Arrays.fill(longestPackable, (byte)'T');
+        Assert.assertTrue(new PackedKmerMap<>(longestPackable.length).pack(longestPackable, 0) > 0);
+
+        final byte[] tooLongToPack = new byte[PackedKmerMap.MAX_PACKED_KMER_SIZE + 1];
+        Arrays.fill(tooLongToPack, (byte)'A');
+        Assert.assertEquals(new PackedKmerMap<>(tooLongToPack.length).pack(tooLongToPack, 0), -1L);
+    }
+
+    @Test
+    public void testKmersOfTheWrongSizeAreNotFound() {
+        final PackedKmerMap<String> packedKmerMap = new PackedKmerMap<>(3);
+        packedKmerMap.putIfAbsent("ACG".getBytes(), 0, "ACG");
+        Assert.assertEquals(packedKmerMap.get(new Kmer("ACG")), "ACG");
+        Assert.assertNull(packedKmerMap.get(new Kmer("ACGT")));
+        Assert.assertNull(packedKmerMap.remove(new Kmer("AC")));
+        Assert.assertEquals(packedKmerMap.size(), 1);
+    }
+}
@@ -15,6 +15,7 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.engine.AssemblyRegionWalker;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
 import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
+import org.broadinstitute.hellbender.testutils.IntegrationTestSpec;
 import org.broadinstitute.hellbender.testutils.VariantContextTestUtils;
 import org.broadinstitute.hellbender.testutils.CommandLineProgramTester;
 import org.broadinstitute.hellbender.tools.exome.orientationbiasvariantfilter.OrientationBiasUtils;
@@ -638,6 +639,54 @@ public class Mutect2IntegrationTest extends CommandLineProgramTest {
         Assert.assertEquals(variants.get(0).getGenotype("NA12878").getAnyAttribute(GATKVCFConstants.POTENTIAL_POLYMORPHIC_NUMT_KEY), "true");
     }
 
+    // with multiple assembly region threads, M2 must produce exactly the same output as single-threaded M2
+    @Test
+    public void testMultipleAssemblyRegionThreadsAreConsistentWithSingleThreadedResults() throws Exception {
+        final File singleThreadedVcf = runMitochondriaWithAssemblyRegionThreads(1);
+        final File multiThreadedVcf = runMitochondriaWithAssemblyRegionThreads(4);
+
+        IntegrationTestSpec.assertEqualTextFiles(multiThreadedVcf, singleThreadedVcf);
+    }
+
+    private File runMitochondriaWithAssemblyRegionThreads(final int assemblyRegionThreads) {
+        Utils.resetRandomGenerator();
+        final File unfilteredVcf = createTempFile("unfiltered." + assemblyRegionThreads + ".", ".vcf");
+
+        final List<String> args = Arrays.asList("-I", NA12878_MITO_BAM.getAbsolutePath(),
+                "-R", MITO_REF.getAbsolutePath(),
+                "-L", "chrM:1-1000",
+                "--" + M2ArgumentCollection.MEDIAN_AUTOSOMAL_COVERAGE_LONG_NAME, "1556",
+                "--" + M2ArgumentCollection.MITOCHONDRIA_MODE_LONG_NAME,
+                "--" + AssemblyRegionWalker.ASSEMBLY_REGION_THREADS_LONG_NAME, String.valueOf(assemblyRegionThreads),
+                "--" + StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false",
+                "-O", unfilteredVcf.getAbsolutePath());
+        runCommandLine(args);
+        return unfilteredVcf;
+    }
+
+    // M2 must produce the same calls with a .2bit reference as with the same reference in fasta format
+    @Test
+    public void testTwoBitReferenceIsConsistentWithFastaReference() throws Exception {
+        final File fastaVcf = runTumorOnlyOnChr17(v37_chr17_1Mb_Reference);
+        final File twoBitVcf = runTumorOnlyOnChr17(v37_chr17_1Mb_TwoBitReference);
+
+        Assert.assertTrue(VariantContextTestUtils.streamVcf(fastaVcf).count() > 0, "no calls, the test would pass trivially");
+        IntegrationTestSpec.assertEqualTextFiles(twoBitVcf, fastaVcf, "##");
+    }
+
+    private File runTumorOnlyOnChr17(final String reference) {
+        Utils.resetRandomGenerator();
+        final File unfilteredVcf = createTempFile("unfiltered", ".vcf");
+
+        final List<String> args = Arrays.asList("-I", NA12878_chr17_1k_BAM,
+                "-R", reference,
+                "-L", "17:69000-70000",
+                "--" + StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false",
+                "-O", unfilteredVcf.getAbsolutePath());
+        runCommandLine(args);
+        return unfilteredVcf;
+    }
+
     @Test
     public void testFilterMitochondria() throws Exception {
         final File filteredVcf = createTempFile("filtered", ".vcf");
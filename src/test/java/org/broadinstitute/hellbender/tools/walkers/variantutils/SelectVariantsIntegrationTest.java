@@ -1,5 +1,7 @@
 package org.broadinstitute.hellbender.tools.walkers.variantutils;
 
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.zip.DeflaterFactory;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
@@ -8,10 +10,13 @@ import org.testng.annotations.Test;
 
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
 import org.broadinstitute.hellbender.testutils.IntegrationTestSpec;
+import org.testng.Assert;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collections;
 
 public class SelectVariantsIntegrationTest extends CommandLineProgramTest {
@@ -900,4 +905,37 @@ public class SelectVariantsIntegrationTest extends CommandLineProgramTest {
         );
         spec.executeTest("testDropAnnotations--" + testName, this);
     }
+
+    private File selectVariantsWithBGZFThreads(final File input, final int bgzfThreads) {
+        final File outFile = createTempFile("testParallelBGZFCompression." + bgzfThreads + ".", ".vcf.gz");
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addVCF(input);
+        args.addOutput(outFile);
+        args.addArgument(StandardArgumentDefinitions.BGZF_THREADS_LONG_NAME, String.valueOf(bgzfThreads));
+        args.addBooleanArgument(StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, false);
+        // the JDK deflater keeps no state from one block to the next, so blocks compressed in parallel match htsjdk's
+        args.addBooleanArgument(StandardArgumentDefinitions.USE_JDK_DEFLATER_LONG_NAME, true);
+        // the tool cannot change the factory back to the JDK one if an earlier test already set it to Intel
+        final DeflaterFactory currentDeflaterFactory = BlockCompressedOutputStream.getDefaultDeflaterFactory();
+        BlockCompressedOutputStream.setDefaultDeflaterFactory(new DeflaterFactory());
+        try {
+            runCommandLine(args);
+        } finally {
+            BlockCompressedOutputStream.setDefaultDeflaterFactory(currentDeflaterFactory);
+        }
+        new File(outFile.getAbsolutePath() + ".tbi").deleteOnExit();
+        return outFile;
+    }
+
+    @Test
+    public void testParallelBGZFCompression() throws IOException {
+        // large enough to span many BGZF blocks
+        final File input = new File(getToolTestDataDir(), "multi-allelic.bi-allelicInGIH.vcf");
+        final File expected = selectVariantsWithBGZFThreads(input, 1);
+        final File actual = selectVariantsWithBGZFThreads(input, 4);
+
+        Assert.assertEquals(Files.readAllBytes(actual.toPath()), Files.readAllBytes(expected.toPath()));
+        Assert.assertEquals(Files.readAllBytes(new File(actual.getAbsolutePath() + ".tbi").toPath()),
+                Files.readAllBytes(new File(expected.getAbsolutePath() + ".tbi").toPath()));
+    }
 }
@@ -0,0 +1,112 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+public final class BinaryTensorBatchUnitTest extends GATKBaseTest {
+
+    private static final Allele Aref = Allele.create("A", true);
+    private static final Allele C = Allele.create("C");
+    private static final Allele ATC = Allele.create("ATC");
+
+    private static String readText(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(final DataInputStream in, final int length) throws IOException {
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testSerializeWithoutReads() throws IOException {
+        final BinaryTensorBatch batch = new BinaryTensorBatch(4, Arrays.asList("QD", "FS", "MQ"), false);
+        final VariantContext snp = new VariantContextBuilder("test", "20", 100, 100, Arrays.asList(Aref, C))
+                .attribute("QD", 12.5).attribute("FS", "[1.5]").make();
+        final VariantContext indel = new VariantContextBuilder("test", "20", 200, 200, Arrays.asList(Aref, ATC))
+                .attribute("MQ", "not a number").make();
+        batch.add(snp, "ACGTN".getBytes(StandardCharsets.US_ASCII), null);
+        batch.add(indel, "AC".getBytes(StandardCharsets.US_ASCII), null);
+        Assert.assertEquals(batch.size(), 2);
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch.serialize().toByteArray()));
+        Assert.assertEquals(in.readInt(), 2);
+        Assert.assertEquals(in.readInt(), 4);
+        Assert.assertEquals(in.readInt(), 3);
+        Assert.assertEquals(readText(in), "QD\tFS\tMQ");
+        Assert.assertEquals(readText(in), "20\t100\tA\t[C]\tSNP\n20\t200\tA\t[ATC]\tINDEL\n");
+
+        // reference bases are truncated or zero padded to the window size
+        Assert.assertEquals(readBytes(in, 4), "ACGT".getBytes(StandardCharsets.US_ASCII));
+        Assert.assertEquals(readBytes(in, 4), new byte[]{'A', 'C', 0, 0});
+
+        Assert.assertEquals(in.readDouble(), 12.5);
+        Assert.assertEquals(in.readDouble(), 1.5);
+        Assert.assertTrue(Double.isNaN(in.readDouble()));
+        Assert.assertTrue(Double.isNaN(in.readDouble()));
+        Assert.assertTrue(Double.isNaN(in.readDouble()));
+        Assert.assertTrue(Double.isNaN(in.readDouble()));
+
+        Assert.assertEquals(in.readInt(), 0);
+        Assert.assertEquals(in.available(), 0);
+    }
+
+    @Test
+    public void testSerializeWithReads() throws IOException {
+        final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeader();
+        final GATKRead read = ArtificialReadUtils.createArtificialRead(header, "read", 0, 98, new byte[]{'A', 'C', 'G', 'T'}, new byte[]{30, 31, 32, 33}, "2S2M");
+        read.setIsReverseStrand(true);
+        read.setIsPaired(true);
+        read.setIsFirstOfPair();
+        read.setMappingQuality(42);
+
+        final BinaryTensorBatch batch = new BinaryTensorBatch(2, Collections.emptyList(), true);
+        final VariantContext snp = new VariantContextBuilder("test", "1", 100, 100, Arrays.asList(Aref, C)).make();
+        batch.add(snp, "AC".getBytes(StandardCharsets.US_ASCII), Collections.singletonList(read));
+        batch.add(snp, "AC".getBytes(StandardCharsets.US_ASCII), Collections.emptyList());
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch.serialize().toByteArray()));
+        Assert.assertEquals(in.readInt(), 2);
+        Assert.assertEquals(in.readInt(), 2);
+        Assert.assertEquals(in.readInt(), 0);
+        Assert.assertEquals(readText(in), "");
+        readText(in);
+        readBytes(in, 4);
+
+        Assert.assertEquals(in.readInt(), 1);
+        Assert.assertEquals(in.readInt(), 1);
+        Assert.assertEquals(in.readInt(), 4);
+        Assert.assertEquals(readBytes(in, 4), new byte[]{'A', 'C', 'G', 'T'});
+        Assert.assertEquals(readBytes(in, 4), new byte[]{30, 31, 32, 33});
+        Assert.assertEquals(readText(in), "2S2M");
+        Assert.assertEquals(in.readByte(), BinaryTensorBatch.READ_REVERSE_STRAND_FLAG | BinaryTensorBatch.FIRST_OF_PAIR_FLAG);
+        Assert.assertEquals(in.readInt(), 42);
+        Assert.assertEquals(in.readInt(), 96);
+
+        Assert.assertEquals(in.readInt(), 0);
+        Assert.assertEquals(in.available(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testReadsRequired() {
+        final BinaryTensorBatch batch = new BinaryTensorBatch(2, Collections.emptyList(), true);
+        batch.add(new VariantContextBuilder("test", "1", 100, 100, Arrays.asList(Aref, C)).make(), new byte[2], null);
+    }
+}
@@ -99,6 +99,23 @@ public class CNNScoreVariantsIntegrationTest extends CommandLineProgramTest {
         spec.executeTest("testInference", this);
     }
 
+    @Test(groups = {"python"})
+    public void testBinaryTransferInference()throws IOException {
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder();
+        argsBuilder.addArgument(StandardArgumentDefinitions.VARIANT_LONG_NAME, inputVCF)
+                .addArgument(StandardArgumentDefinitions.OUTPUT_LONG_NAME, "%s")
+                .addArgument(StandardArgumentDefinitions.REFERENCE_LONG_NAME, b37_reference_20_21)
+                .addArgument("architecture", architecture1D)
+                .addArgument("inference-batch-size", "8")
+                .addArgument("transfer-batch-size", "16")
+                .addBooleanArgument("binary-transfer", true)
+                .addArgument(StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false");
+
+        final IntegrationTestSpec spec = new IntegrationTestSpec(argsBuilder.toString(),
+                Arrays.asList(largeFileTestDir + "VQSR/expected/cnn_1d_chr20_subset_expected.vcf"));
+        spec.executeTest("testBinaryTransferInference", this);
+    }
+
     @Test(groups = {"python"})
     public void testOnContigEdge() throws IOException{
         final String edgeVcf = toolsTestDir + "walkers/VQSR/variantNearContigEdge.vcf";
@@ -162,4 +179,26 @@ public class CNNScoreVariantsIntegrationTest extends CommandLineProgramTest {
         spec.executeTest("testInference2d", this);
 
     }
+
+    /**
+     * Run the 2D Model on a small test VCF, sending the reads to python in binary format.
+     */
+    @Test(groups = {"python"})
+    public void testBinaryTransferInference2d() throws IOException{
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder();
+        argsBuilder.addArgument(StandardArgumentDefinitions.VARIANT_LONG_NAME, inputVCF)
+                .addArgument(StandardArgumentDefinitions.INPUT_LONG_NAME, largeFileTestDir + "VQSR/g94982_chr20_1m_10m_bamout.bam")
+                .addArgument(StandardArgumentDefinitions.OUTPUT_LONG_NAME, "%s")
+                .addArgument(StandardArgumentDefinitions.REFERENCE_LONG_NAME, b37_reference_20_21)
+                .addArgument("architecture", architecture2D)
+                .addArgument("inference-batch-size", "4")
+                .addArgument("transfer-batch-size", "8")
+                .addArgument("tensor-type", TensorType.read_tensor.name())
+                .addBooleanArgument("binary-transfer", true)
+                .addArgument(StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false");
+
+        final IntegrationTestSpec spec = new IntegrationTestSpec(argsBuilder.toString(),
+                Arrays.asList(largeFileTestDir + "VQSR/expected/cnn_2d_chr20_subset_expected.vcf"));
+        spec.executeTest("testBinaryTransferInference2d", this);
+    }
 }
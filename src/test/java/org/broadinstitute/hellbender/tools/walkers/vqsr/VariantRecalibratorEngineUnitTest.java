@@ -0,0 +1,119 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public final class VariantRecalibratorEngineUnitTest extends GATKBaseTest {
+
+    private static List<VariantDatum> createClusteredData(final int numData, final int numAnnotations) {
+        final Random random = new Random(13);
+        final List<VariantDatum> data = new ArrayList<>(numData);
+        for( int i = 0; i < numData; i++ ) {
+            final VariantDatum datum = new VariantDatum();
+            final int cluster = random.nextInt(3);
+            datum.annotations = new double[numAnnotations];
+            datum.isNull = new boolean[numAnnotations];
+            for( int j = 0; j < numAnnotations; j++ ) {
+                datum.annotations[j] = 2.0 * (cluster - 1) + 0.5 * random.nextGaussian();
+            }
+            data.add(datum);
+        }
+        return data;
+    }
+
+    private static GaussianMixtureModel trainModel(final List<VariantDatum> data, final int threads) {
+        Utils.resetRandomGenerator();
+        final VariantRecalibratorArgumentCollection vrac = new VariantRecalibratorArgumentCollection();
+        vrac.EM_THREADS = threads;
+        return new VariantRecalibratorEngine(vrac).generateModel(data, 3);
+    }
+
+    @Test
+    public void testVariantDataColumns() {
+        // more than one block of data
+        final List<VariantDatum> data = createClusteredData(40000, 3);
+        final List<double[]> annotations = data.stream().map(datum -> datum.annotations.clone()).collect(Collectors.toList());
+
+        final VariantDataColumns columns = VariantDataColumns.takeAnnotations(data);
+        Assert.assertEquals(columns.size(), 40000);
+        Assert.assertEquals(columns.getNumAnnotations(), 3);
+        Assert.assertTrue(columns.getNumBlocks() > 1);
+        final double[] datumAnnotations = new double[3];
+        for( int i = 0; i < data.size(); i++ ) {
+            Assert.assertNull(data.get(i).annotations);
+            columns.copyAnnotations(i, datumAnnotations);
+            Assert.assertEquals(datumAnnotations, annotations.get(i));
+            for( int j = 0; j < 3; j++ ) {
+                Assert.assertEquals(columns.get(i, j), annotations.get(i)[j]);
+            }
+        }
+        for( int block = 0; block < columns.getNumBlocks(); block++ ) {
+            for( int j = 0; j < 3; j++ ) {
+                final double[] column = columns.getBlockColumn(block, j);
+                for( int offset = 0; offset < column.length; offset++ ) {
+                    Assert.assertEquals(column[offset], annotations.get(columns.getBlockStart(block) + offset)[j]);
+                }
+            }
+        }
+
+        columns.returnAnnotations(data);
+        for( int i = 0; i < data.size(); i++ ) {
+            Assert.assertEquals(data.get(i).annotations, annotations.get(i));
+        }
+    }
+
+    @Test
+    public void testVariantDataColumnsRejectDuplicateData() {
+        final List<VariantDatum> data = createClusteredData(20000, 3);
+        data.add(data.get(0));
+        final List<double[]> annotations = data.stream().map(datum -> datum.annotations.clone()).collect(Collectors.toList());
+        Assert.assertThrows(IllegalArgumentException.class, () -> VariantDataColumns.takeAnnotations(data));
+        // the annotations taken before the duplicate was found are given back
+        for( int i = 0; i < data.size(); i++ ) {
+            Assert.assertEquals(data.get(i).annotations, annotations.get(i));
+        }
+    }
+
+    @Test
+    public void testTrainingKeepsAnnotations() {
+        final List<VariantDatum> data = createClusteredData(100, 3);
+        final List<double[]> annotations = data.stream().map(datum -> datum.annotations.clone()).collect(Collectors.toList());
+        trainModel(data, 2);
+        for( int i = 0; i < data.size(); i++ ) {
+            Assert.assertEquals(data.get(i).annotations, annotations.get(i));
+        }
+    }
+
+    @Test
+    public void testModelDoesNotDependOnNumberOfThreads() {
+        // enough data for the E step to be split into several fork-join tasks
+        final List<VariantDatum> data = createClusteredData(25000, 3);
+
+        final GaussianMixtureModel singleThreadedModel = trainModel(data, 1);
+        final GaussianMixtureModel multiThreadedModel = trainModel(data, 4);
+
+        final List<MultivariateGaussian> expectedGaussians = singleThreadedModel.getModelGaussians();
+        final List<MultivariateGaussian> actualGaussians = multiThreadedModel.getModelGaussians();
+        Assert.assertEquals(actualGaussians.size(), expectedGaussians.size());
+        for( int k = 0; k < expectedGaussians.size(); k++ ) {
+            Assert.assertEquals(actualGaussians.get(k).pMixtureLog10, expectedGaussians.get(k).pMixtureLog10);
+            Assert.assertEquals(actualGaussians.get(k).mu, expectedGaussians.get(k).mu);
+            for( int j = 0; j < 3; j++ ) {
+                Assert.assertEquals(actualGaussians.get(k).sigma.getArray()[j], expectedGaussians.get(k).sigma.getArray()[j]);
+            }
+        }
+
+        // the three clusters are found:
+        final double[] means = expectedGaussians.stream().mapToDouble(g -> g.mu[0]).sorted().toArray();
+        Assert.assertEquals(means[0], -2.0, 0.1);
+        Assert.assertEquals(means[1], 0.0, 0.1);
+        Assert.assertEquals(means[2], 2.0, 0.1);
+    }
+}
@@ -0,0 +1,88 @@
+package org.broadinstitute.hellbender.utils;
+
+import htsjdk.tribble.FeatureCodec;
+import org.broadinstitute.barclay.argparser.ClassFinder;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.filters.ReadFilter;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.tools.walkers.annotator.Annotation;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public final class ClassRegistryUnitTest extends GATKBaseTest {
+
+    private static final List<String> PACKAGES = Arrays.asList("org.broadinstitute.hellbender.engine.filters", "htsjdk.tribble");
+    private static final List<Class<?>> BASE_CLASSES = Arrays.asList(ReadFilter.class, FeatureCodec.class, Annotation.class);
+
+    private static Set<Class<?>> scan(final String packageName, final Class<?> baseClass) {
+        final ClassFinder finder = new ClassFinder();
+        finder.find(packageName, baseClass);
+        return finder.getClasses();
+    }
+
+    private static ClassRegistry writeAndRead(final ClassRegistry registry) throws IOException {
+        final StringWriter writer = new StringWriter();
+        registry.write(writer);
+        return ClassRegistry.read(new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @DataProvider(name = "registeredQueries")
+    public Object[][] registeredQueries() {
+        return new Object[][] {
+                {"org.broadinstitute.hellbender.engine.filters", ReadFilter.class},
+                {"org.broadinstitute.hellbender.engine.filters.barclay", ReadFilter.class},  // a sub-package
+                {"htsjdk.tribble", FeatureCodec.class},
+                {"htsjdk.tribble.bed", FeatureCodec.class},
+                {"htsjdk.tribble", ReadFilter.class},                                        // no classes
+                {"org.broadinstitute.hellbender.engine.filters", Annotation.class}           // no classes
+        };
+    }
+
+    @Test(dataProvider = "registeredQueries")
+    public void testLookUpMatchesScan(final String packageName, final Class<?> baseClass) throws IOException {
+        final ClassRegistry registry = writeAndRead(ClassRegistry.scan(PACKAGES, BASE_CLASSES));
+        Assert.assertEquals(registry.lookUp(packageName, baseClass), scan(packageName, baseClass));
+    }
+
+    @Test
+    public void testUnregisteredQueries() throws IOException {
+        final ClassRegistry registry = writeAndRead(ClassRegistry.scan(PACKAGES, BASE_CLASSES));
+        // base class not registered
+        Assert.assertNull(registry.lookUp("org.broadinstitute.hellbender.engine.filters", Object.class));
+        // package not registered, or only partly covered by a registered package
+        Assert.assertNull(registry.lookUp("org.broadinstitute.hellbender.tools", ReadFilter.class));
+        Assert.assertNull(registry.lookUp("org.broadinstitute.hellbender", ReadFilter.class));
+        Assert.assertNull(registry.lookUp("htsjdk.tribblefake", FeatureCodec.class));
+    }
+
+    @Test
+    public void testUnloadableClassFallsBack() throws IOException {
+        final String registryText = "package\thtsjdk.tribble\n" +
+                "class\thtsjdk.tribble.FeatureCodec\thtsjdk.tribble.NoSuchCodec\n";
+        final ClassRegistry registry = ClassRegistry.read(new ByteArrayInputStream(registryText.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertNull(registry.lookUp("htsjdk.tribble", FeatureCodec.class));
+    }
+
+    @Test(expectedExceptions = GATKException.class)
+    public void testMalformedRegistry() throws IOException {
+        ClassRegistry.read(new ByteArrayInputStream("not a registry\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testFindClassesWithoutRegistry() {
+        // the registry is only packaged into the jars, so this scans
+        Assert.assertEquals(ClassRegistry.findClasses("org.broadinstitute.hellbender.engine.filters", ReadFilter.class),
+                scan("org.broadinstitute.hellbender.engine.filters", ReadFilter.class));
+        Assert.assertEquals(ClassRegistry.findClasses("htsjdk.tribble", String.class), Collections.emptySet());
+    }
+}
@@ -978,4 +978,32 @@ public final class UtilsUnitTest extends GATKBaseTest {
         Set<String> actual = Utils.filterCollectionByExpressions(values, filters, exactMatch);
         Assert.assertEquals(actual, expected);
     }
+
+    @Test
+    public void testRunWithRandomGenerator() {
+        final Random sharedGenerator = Utils.getRandomGenerator();
+        final Random generator = new Random(17);
+        final Random nestedGenerator = new Random(42);
+
+        final Random generatorInAction = Utils.runWithRandomGenerator(generator, () -> {
+            Assert.assertSame(Utils.runWithRandomGenerator(nestedGenerator, Utils::getRandomGenerator), nestedGenerator);
+            return Utils.getRandomGenerator();
+        });
+        Assert.assertSame(generatorInAction, generator);
+        Assert.assertSame(Utils.getRandomGenerator(), sharedGenerator);
+
+        // other threads still get the shared generator
+        Utils.runWithRandomGenerator(generator, () -> {
+            final Random[] otherThreadGenerator = new Random[1];
+            final Thread otherThread = new Thread(() -> otherThreadGenerator[0] = Utils.getRandomGenerator());
+            otherThread.start();
+            try {
+                otherThread.join();
+            } catch ( InterruptedException e ) {
+                throw new RuntimeException(e);
+            }
+            Assert.assertSame(otherThreadGenerator[0], sharedGenerator);
+            return null;
+        });
+    }
 }
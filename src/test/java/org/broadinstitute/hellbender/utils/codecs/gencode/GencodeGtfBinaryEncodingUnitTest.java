@@ -0,0 +1,61 @@
+package org.broadinstitute.hellbender.utils.codecs.gencode;
+
+import htsjdk.tribble.AbstractFeatureReader;
+import htsjdk.tribble.FeatureReader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GencodeGtfBinaryEncodingUnitTest extends GATKBaseTest {
+    private static final String testResourceDir = publicTestDir + "org/broadinstitute/hellbender/utils/codecs/gencode/";
+
+    @DataProvider
+    public Object[][] provideGtfFiles() {
+        return new Object[][] {
+                {"gencode.valid1.gtf"},
+                {"gencode.valid_gencode_file2.gtf"},
+                {"gencode.and.this.is.a.valid.one.too.table.gtf"},
+                {"gencode.v19.valid1.gtf"},
+                {"gencode.v19.valid_gencode_file2.gtf"},
+                {"gencode.v19.and.this.is.a.valid.one.too.gtf"},
+        };
+    }
+
+    @Test(dataProvider = "provideGtfFiles")
+    public void testRoundTrip(final String gtfFileName) throws IOException {
+        final File gtfFile = new File(testResourceDir + gtfFileName);
+        final List<GencodeGtfGeneFeature> genes = new ArrayList<>();
+        try ( final FeatureReader<GencodeGtfFeature> reader = AbstractFeatureReader.getFeatureReader(gtfFile.getAbsolutePath(), new GencodeGtfCodec(), false) ) {
+            reader.iterator().forEachRemaining(gene -> genes.add((GencodeGtfGeneFeature) gene));
+        }
+        Assert.assertFalse(genes.isEmpty());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( final DataOutputStream out = new DataOutputStream(bytes) ) {
+            for ( final GencodeGtfGeneFeature gene : genes ) {
+                GencodeGtfBinaryEncoding.writeGene(out, gene);
+            }
+        }
+
+        // equality includes the UCSC genome version and the original line numbers of all sub-features:
+        final List<GencodeGtfGeneFeature> decodedGenes = new ArrayList<>();
+        try ( final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())) ) {
+            for ( final GencodeGtfGeneFeature gene : genes ) {
+                decodedGenes.add(GencodeGtfBinaryEncoding.readGene(in, gene.getUcscGenomeVersion()));
+            }
+            Assert.assertEquals(in.read(), -1);
+        }
+        Assert.assertEquals(decodedGenes, genes);
+        Assert.assertEquals(decodedGenes.toString(), genes.toString());
+    }
+}
@@ -8,6 +8,7 @@ import htsjdk.tribble.readers.LineIterator;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -3560,6 +3561,11 @@ public class GencodeGtfCodecUnitTest extends GATKBaseTest {
         }
     }
 
+    @Test(dataProvider = "decodeTestProvider")
+    public void testReadUcscGenomeVersion( final String filePath, final List<GencodeGtfFeature> expected, final String expectedUcscVersion) {
+        Assert.assertEquals(GencodeGtfCodec.readUcscGenomeVersion(IOUtils.getPath(testResourceDir + filePath)), expectedUcscVersion);
+    }
+
     @Test(dataProvider = "toStringTestProvider")
     public void testToString( final GencodeGtfFeature feature, final String expected ) {
         Assert.assertEquals(feature.serializeToString(), expected);
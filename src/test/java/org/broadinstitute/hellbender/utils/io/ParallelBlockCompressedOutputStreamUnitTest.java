@@ -0,0 +1,204 @@
+package org.broadinstitute.hellbender.utils.io;
+
+import com.intel.gkl.compression.IntelDeflaterFactory;
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.zip.DeflaterFactory;
+import org.apache.commons.io.IOUtils;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.BLOCK_LENGTH_OFFSET;
+
+public final class ParallelBlockCompressedOutputStreamUnitTest extends GATKBaseTest {
+
+    // the JDK deflater keeps no state from one block to the next, so the output must match htsjdk's exactly
+    private static final DeflaterFactory JDK_DEFLATER_FACTORY = new DeflaterFactory();
+
+    /**
+     * Compressible text, followed by random (incompressible) bytes, followed by more text, so that some blocks
+     * don't fit in a BGZF block when compressed and are stored instead.
+     */
+    private static byte[] makeData() {
+        final Random random = new Random(17);
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for ( int i = 0; i < 5_000; i++ ) {
+            final byte[] line = String.format("read%d\t%d\tchr1\t%d\t60\t%dM\n", i, random.nextInt(4096), random.nextInt(1_000_000), 100 + random.nextInt(50))
+                    .getBytes(StandardCharsets.US_ASCII);
+            data.write(line, 0, line.length);
+        }
+        final byte[] noise = new byte[150_000];
+        random.nextBytes(noise);
+        data.write(noise, 0, noise.length);
+        for ( int i = 0; i < 3_000; i++ ) {
+            final byte[] line = ("ACGT" + i + "\n").getBytes(StandardCharsets.US_ASCII);
+            data.write(line, 0, line.length);
+        }
+        return data.toByteArray();
+    }
+
+    /**
+     * Write the data in chunks of varying size (including single bytes), flushing every few chunks.
+     */
+    private static void writeData( final OutputStream out, final byte[] data ) throws IOException {
+        final Random random = new Random(42);
+        int offset = 0;
+        int chunks = 0;
+        while ( offset < data.length ) {
+            final int length = Math.min(data.length - offset, random.nextInt(100) == 0 ? 100_000 : random.nextInt(2_000));
+            if ( length == 1 ) {
+                out.write(data[offset]);
+            } else {
+                out.write(data, offset, length);
+            }
+            offset += length;
+            if ( ++chunks % 50 == 0 ) {
+                out.flush();
+            }
+        }
+    }
+
+    private static byte[] compressWithHtsjdk( final byte[] data, final int compressionLevel, final DeflaterFactory deflaterFactory ) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( final BlockCompressedOutputStream out = new BlockCompressedOutputStream(compressed, (Path)null, compressionLevel, deflaterFactory) ) {
+            writeData(out, data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress( final byte[] compressed ) throws IOException {
+        try ( final BlockCompressedInputStream in = new BlockCompressedInputStream(new ByteArrayInputStream(compressed)) ) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    @DataProvider(name = "compressionSettings")
+    public Object[][] compressionSettings() {
+        return new Object[][] {
+                {0, 1}, {1, 1}, {1, 4}, {2, 3}, {5, 2}, {5, 8}, {9, 4}, {-1, 2}
+        };
+    }
+
+    @Test(dataProvider = "compressionSettings")
+    public void testIdenticalToBlockCompressedOutputStream( final int compressionLevel, final int numThreads ) throws IOException {
+        final byte[] data = makeData();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( final ParallelBlockCompressedOutputStream out = new ParallelBlockCompressedOutputStream(compressed, compressionLevel, JDK_DEFLATER_FACTORY, numThreads) ) {
+            writeData(out, data);
+        }
+        Assert.assertEquals(compressed.toByteArray(), compressWithHtsjdk(data, compressionLevel, JDK_DEFLATER_FACTORY));
+    }
+
+    @Test(dataProvider = "compressionSettings")
+    public void testStoredBlockSink( final int compressionLevel, final int numThreads ) throws IOException {
+        final byte[] data = makeData();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ParallelBlockCompressedOutputStream parallelOut = new ParallelBlockCompressedOutputStream(compressed, compressionLevel, JDK_DEFLATER_FACTORY, numThreads);
+        try ( final BlockCompressedOutputStream out = new BlockCompressedOutputStream(parallelOut.storedBlockSink(), (Path)null,
+                compressionLevel, ParallelBlockCompressedOutputStream.STORING_DEFLATER_FACTORY) ) {
+            writeData(out, data);
+        }
+        Assert.assertEquals(compressed.toByteArray(), compressWithHtsjdk(data, compressionLevel, JDK_DEFLATER_FACTORY));
+    }
+
+    @Test(dataProvider = "compressionSettings")
+    public void testStoredBlockListener( final int compressionLevel, final int numThreads ) throws IOException {
+        final byte[] data = makeData();
+        final List<Long> storedAddresses = new ArrayList<>();
+        final List<Long> compressedAddresses = new ArrayList<>();
+        final ParallelBlockCompressedOutputStream parallelOut = new ParallelBlockCompressedOutputStream(new ByteArrayOutputStream(), compressionLevel, JDK_DEFLATER_FACTORY, numThreads);
+        try ( final BlockCompressedOutputStream out = new BlockCompressedOutputStream(parallelOut.storedBlockSink((storedAddress, compressedAddress) -> {
+                    storedAddresses.add(storedAddress);
+                    compressedAddresses.add(compressedAddress);
+                }), (Path)null, compressionLevel, ParallelBlockCompressedOutputStream.STORING_DEFLATER_FACTORY) ) {
+            writeData(out, data);
+        }
+        // every block is reported, including the terminator, at the addresses of the same block in htsjdk's output
+        Assert.assertEquals(storedAddresses, blockAddresses(compressWithHtsjdk(data, compressionLevel, ParallelBlockCompressedOutputStream.STORING_DEFLATER_FACTORY)));
+        Assert.assertEquals(compressedAddresses, blockAddresses(compressWithHtsjdk(data, compressionLevel, JDK_DEFLATER_FACTORY)));
+    }
+
+    private static List<Long> blockAddresses( final byte[] bgzf ) {
+        final List<Long> addresses = new ArrayList<>();
+        for ( int address = 0; address < bgzf.length; address += (ByteBuffer.wrap(bgzf).order(ByteOrder.LITTLE_ENDIAN).getShort(address + BLOCK_LENGTH_OFFSET) & 0xFFFF) + 1 ) {
+            addresses.add((long)address);
+        }
+        return addresses;
+    }
+
+    @DataProvider(name = "intelCompressionSettings")
+    public Object[][] intelCompressionSettings() {
+        return new Object[][] {
+                {1, 1}, {1, 4}, {2, 2}, {2, 8}
+        };
+    }
+
+    @Test(dataProvider = "intelCompressionSettings")
+    public void testIntelDeflaterLowCompressionLevels( final int compressionLevel, final int numThreads ) throws IOException {
+        // the Intel deflater can't compress blocks independently at these levels, so the JDK deflater is used instead
+        Assert.assertSame(ParallelBlockCompressedOutputStream.getPerBlockDeflaterFactory(compressionLevel, new IntelDeflaterFactory()).getClass(), DeflaterFactory.class);
+        final byte[] data = makeData();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( final ParallelBlockCompressedOutputStream out = new ParallelBlockCompressedOutputStream(compressed, compressionLevel, new IntelDeflaterFactory(), numThreads) ) {
+            writeData(out, data);
+        }
+        Assert.assertEquals(compressed.toByteArray(), compressWithHtsjdk(data, compressionLevel, JDK_DEFLATER_FACTORY));
+    }
+
+    @Test
+    public void testOtherDeflatersAreUsedAsIs() {
+        final IntelDeflaterFactory intelDeflaterFactory = new IntelDeflaterFactory();
+        Assert.assertSame(ParallelBlockCompressedOutputStream.getPerBlockDeflaterFactory(5, intelDeflaterFactory), intelDeflaterFactory);
+        Assert.assertSame(ParallelBlockCompressedOutputStream.getPerBlockDeflaterFactory(2, JDK_DEFLATER_FACTORY), JDK_DEFLATER_FACTORY);
+    }
+
+    @Test
+    public void testDefaultDeflaterRoundTrip() throws IOException {
+        // the default deflater may be the Intel deflater, whose blocks are valid but differ from the JDK deflater's
+        final byte[] data = makeData();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( final ParallelBlockCompressedOutputStream out = new ParallelBlockCompressedOutputStream(compressed, 4) ) {
+            writeData(out, data);
+        }
+        Assert.assertEquals(decompress(compressed.toByteArray()), data);
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelBlockCompressedOutputStream(compressed, 5, JDK_DEFLATER_FACTORY, 2).close();
+        Assert.assertEquals(compressed.toByteArray(), compressWithHtsjdk(new byte[0], 5, JDK_DEFLATER_FACTORY));
+    }
+
+    @Test(expectedExceptions = GATKException.class)
+    public void testStoredBlockSinkRejectsCompressedBlocks() throws IOException {
+        final byte[] compressed = compressWithHtsjdk(makeData(), 5, JDK_DEFLATER_FACTORY);
+        final ParallelBlockCompressedOutputStream out = new ParallelBlockCompressedOutputStream(new ByteArrayOutputStream(), 5, JDK_DEFLATER_FACTORY, 2);
+        out.storedBlockSink().write(compressed);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidNumThreads() {
+        new ParallelBlockCompressedOutputStream(new ByteArrayOutputStream(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCompressionLevel() {
+        new ParallelBlockCompressedOutputStream(new ByteArrayOutputStream(), 10, JDK_DEFLATER_FACTORY, 2);
+    }
+}
@@ -24,16 +24,18 @@ public final class PairHMMUnitTest extends GATKBaseTest {
     final N2MemoryPairHMM exactHMM = new Log10PairHMM(true); // the log truth implementation
     final N2MemoryPairHMM originalHMM = new Log10PairHMM(false); // the reference implementation
     final N2MemoryPairHMM loglessHMM = new LoglessPairHMM();
+    final N2MemoryPairHMM prefixSharingHMM = new PrefixSharingLoglessPairHMM();
 
     @BeforeClass
     public void initialize() {
         exactHMM.doNotUseTristateCorrection();
         originalHMM.doNotUseTristateCorrection();
         loglessHMM.doNotUseTristateCorrection();
+        prefixSharingHMM.doNotUseTristateCorrection();
     }
 
     private List<N2MemoryPairHMM> getHMMs() {
-        return Arrays.asList(exactHMM, originalHMM, loglessHMM);
+        return Arrays.asList(exactHMM, originalHMM, loglessHMM, prefixSharingHMM);
     }
 
     // --------------------------------------------------------------------------------
@@ -746,6 +748,59 @@ public final class PairHMMUnitTest extends GATKBaseTest {
                 baseQuals, baseQuals, baseQuals, baseQuals, true, null);
     }
 
+    @Test
+    public void testPrefixSharingMatchesLoglessCaching() {
+        final Random random = new Random(11);
+        final byte[] bases = {'A', 'C', 'G', 'T'};
+        final byte[] ref = new byte[80];
+        for ( int i = 0; i < ref.length; i++ ) {
+            ref[i] = bases[random.nextInt(bases.length)];
+        }
+
+        // haplotypes with SNPs (same length as the reference, so they share prefixes) and with indels (different lengths)
+        final List<Haplotype> haplotypes = new ArrayList<>();
+        haplotypes.add(new Haplotype(ref, true));
+        for ( int i = 0; i < 12; i++ ) {
+            final byte[] snpHaplotype = ref.clone();
+            snpHaplotype[random.nextInt(ref.length)] = bases[random.nextInt(bases.length)];
+            haplotypes.add(new Haplotype(snpHaplotype));
+            final int indelPosition = 1 + random.nextInt(ref.length - 2);
+            final byte[] indelHaplotype = i % 2 == 0 ?
+                    Utils.concat(Arrays.copyOfRange(ref, 0, indelPosition), Arrays.copyOfRange(ref, indelPosition + 1, ref.length)) :
+                    Utils.concat(Arrays.copyOfRange(ref, 0, indelPosition), new byte[]{'G', 'T'}, Arrays.copyOfRange(ref, indelPosition, ref.length));
+            haplotypes.add(new Haplotype(indelHaplotype));
+        }
+
+        final List<GATKRead> reads = new ArrayList<>();
+        for ( int i = 0; i < 30; i++ ) {
+            final byte[] source = haplotypes.get(random.nextInt(haplotypes.size())).getBases();
+            final int readLength = 20 + random.nextInt(40);
+            final int start = random.nextInt(source.length - readLength);
+            final byte[] readBases = Arrays.copyOfRange(source, start, start + readLength);
+            final byte[] readQuals = new byte[readLength];
+            for ( int j = 0; j < readLength; j++ ) {
+                readQuals[j] = (byte)(10 + random.nextInt(30));
+            }
+            reads.add(ArtificialReadUtils.createArtificialRead(readBases, readQuals, readLength + "M"));
+        }
+        final Map<GATKRead, byte[]> gcps = buildGapContinuationPenalties(reads, (byte)10);
+
+        final PairHMM logless = new LoglessPairHMM();
+        final PairHMM prefixSharing = new PrefixSharingLoglessPairHMM();
+        // run each twice, to check that state left behind by a previous batch doesn't change the results
+        for ( int i = 0; i < 2; i++ ) {
+            logless.computeLog10Likelihoods(matrix(haplotypes), reads, gcps);
+            prefixSharing.computeLog10Likelihoods(matrix(haplotypes), reads, gcps);
+            Assert.assertEquals(prefixSharing.getLogLikelihoodArray(), logless.getLogLikelihoodArray());
+        }
+    }
+
+    @Test
+    public void testSortHaplotypesForPrefixSharing() {
+        final byte[][] haplotypes = { "ACGT".getBytes(), "AC".getBytes(), "AAGT".getBytes(), "TT".getBytes(), "ACGA".getBytes() };
+        Assert.assertEquals(PrefixSharingLoglessPairHMM.sortHaplotypesForPrefixSharing(haplotypes), new int[]{1, 3, 2, 4, 0});
+    }
+
     @Test
     public void dumpMatrices(){
         //doesn't test anything other than not-blowing up
@@ -1,9 +1,13 @@
 package org.broadinstitute.hellbender.utils.read.markduplicates;
 
+import com.esotericsoftware.kryo.Kryo;
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMReadGroupRecord;
+import org.apache.spark.SparkConf;
+import org.apache.spark.serializer.KryoRegistrator;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils;
+import org.broadinstitute.hellbender.testutils.SparkTestUtils;
 import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.testng.Assert;
@@ -165,4 +169,26 @@ public class ReadsKeyUnitTest extends GATKBaseTest {
         Assert.assertEquals(key1.equals(key2), shouldEqual);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testSerializersRoundTrip() {
+        final SparkConf conf = new SparkConf().set("spark.kryo.registrator",
+                "org.broadinstitute.hellbender.utils.read.markduplicates.ReadsKeyUnitTest$TestGATKRegistrator");
+        // negative and large values must survive the fixed width encoding
+        for (final ReadsKey key : new ReadsKey[]{
+                ReadsKey.getKeyForFragment(1000, true, 2, (byte) 3),
+                ReadsKey.getKeyForFragment(-5, false, 0, (byte) 0),
+                new ReadsKey.KeyForFragment(Long.MIN_VALUE),
+                new ReadsKey.KeyForPair(Long.MAX_VALUE, -1L)}) {
+            Assert.assertEquals(SparkTestUtils.roundTripInKryo(key, key.getClass(), conf), key);
+        }
+    }
+
+    public static class TestGATKRegistrator implements KryoRegistrator {
+        @Override
+        public void registerClasses(Kryo kryo) {
+            kryo.register(ReadsKey.KeyForFragment.class, new ReadsKey.KeyForFragment.Serializer());
+            kryo.register(ReadsKey.KeyForPair.class, new ReadsKey.KeyForPair.Serializer());
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords;
 
+import com.esotericsoftware.kryo.Kryo;
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMReadGroupRecord;
+import org.apache.spark.SparkConf;
+import org.apache.spark.serializer.KryoRegistrator;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils;
+import org.broadinstitute.hellbender.testutils.SparkTestUtils;
 import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.markduplicates.LibraryIdGenerator;
@@ -15,8 +19,11 @@ import picard.sam.markduplicates.util.ReadEnds;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 
 public class PairedEndsUnitTest extends GATKBaseTest {
+    private static final SparkConf KRYO_CONF = new SparkConf().set("spark.kryo.registrator",
+            "org.broadinstitute.hellbender.utils.read.markduplicates.sparkrecords.PairedEndsUnitTest$TestGATKRegistrator");
 
     @DataProvider
     public Object[][] orientationTruthTable() {
@@ -59,5 +66,52 @@ public class PairedEndsUnitTest extends GATKBaseTest {
         Pair pair = PairedEnds.newPair(primaryRead, secondaryRead, header, 0, MarkDuplicatesScoringStrategy.SUM_OF_BASE_QUALITIES, Collections.singletonMap(MarkDuplicatesSparkUtils.getLibraryForRead(primaryRead, header, LibraryIdGenerator.UNKNOWN_LIBRARY), (byte) 0));
         Assert.assertEquals(pair.getOrientationForPCRDuplicates(), PCROrientation);
         Assert.assertEquals(pair.getOrientationForOpticalDuplicates(), opticalOrientation);
+
+        // the orientation survives serialization
+        pair.setReadGroup((short) 3);
+        final Pair roundTripped = SparkTestUtils.roundTripInKryo(pair, Pair.class, KRYO_CONF);
+        Assert.assertEquals(roundTripped.getOrientationForPCRDuplicates(), PCROrientation);
+        Assert.assertEquals(roundTripped.getOrientationForOpticalDuplicates(), opticalOrientation);
+        Assert.assertEquals(roundTripped.getScore(), pair.getScore());
+        Assert.assertEquals(roundTripped.getReadGroup(), 3);
+        Assert.assertEquals(roundTripped.getName(), pair.getName());
+        Assert.assertEquals(roundTripped.getPartitionIndex(), pair.getPartitionIndex());
+    }
+
+    @Test
+    public void testSerializersRoundTrip() {
+        final SAMFileHeader header = hg19Header.clone();
+        header.setReadGroups(Arrays.asList(new SAMReadGroupRecord("1")));
+        final GATKRead read = ArtificialReadUtils.createSamBackedRead("100M", 100000, 100);
+        read.setName("readName");
+        read.setReadGroup("1");
+        read.setIsReverseStrand(true);
+        final Map<String, Byte> libraryMap = Collections.singletonMap(MarkDuplicatesSparkUtils.getLibraryForRead(read, header, LibraryIdGenerator.UNKNOWN_LIBRARY), (byte) 0);
+
+        final Fragment fragment = MarkDuplicatesSparkRecord.newFragment(read, header, 7, MarkDuplicatesScoringStrategy.SUM_OF_BASE_QUALITIES, libraryMap);
+        final Fragment roundTrippedFragment = SparkTestUtils.roundTripInKryo(fragment, Fragment.class, KRYO_CONF);
+        Assert.assertEquals(roundTrippedFragment.getName(), "readName");
+        Assert.assertEquals(roundTrippedFragment.getPartitionIndex(), 7);
+        Assert.assertEquals(roundTrippedFragment.getScore(), fragment.getScore());
+        Assert.assertEquals(roundTrippedFragment.getReadGroup(), fragment.getReadGroup());
+        Assert.assertTrue(roundTrippedFragment.isRead1ReverseStrand());
+
+        final EmptyFragment emptyFragment = MarkDuplicatesSparkRecord.newEmptyFragment(read, header, libraryMap);
+        Assert.assertTrue(SparkTestUtils.roundTripInKryo(emptyFragment, EmptyFragment.class, KRYO_CONF).isRead1ReverseStrand());
+
+        final Passthrough passthrough = MarkDuplicatesSparkRecord.getPassthrough(read, 5);
+        final Passthrough roundTrippedPassthrough = SparkTestUtils.roundTripInKryo(passthrough, Passthrough.class, KRYO_CONF);
+        Assert.assertEquals(roundTrippedPassthrough.getName(), "readName");
+        Assert.assertEquals(roundTrippedPassthrough.getPartitionIndex(), 5);
+    }
+
+    public static class TestGATKRegistrator implements KryoRegistrator {
+        @Override
+        public void registerClasses(Kryo kryo) {
+            kryo.register(EmptyFragment.class, new EmptyFragment.Serializer());
+            kryo.register(Fragment.class, new Fragment.Serializer());
+            kryo.register(Pair.class, new Pair.Serializer());
+            kryo.register(Passthrough.class, new Passthrough.Serializer());
+        }
     }
 }
\ No newline at end of file
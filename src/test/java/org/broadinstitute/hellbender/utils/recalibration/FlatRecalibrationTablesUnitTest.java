@@ -0,0 +1,107 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
+import org.broadinstitute.hellbender.utils.recalibration.covariates.StandardCovariateList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class FlatRecalibrationTablesUnitTest extends GATKBaseTest {
+    private static final int NUM_READ_GROUPS = 3;
+
+    private static StandardCovariateList makeCovariates(final RecalibrationArgumentCollection recalArgs) {
+        final List<String> readGroups = IntStream.range(0, NUM_READ_GROUPS).mapToObj(i -> "readgroup" + i).collect(Collectors.toList());
+        return new StandardCovariateList(recalArgs, readGroups);
+    }
+
+    /**
+     * Count the same random events in nested and flat tables, splitting the flat events between {@code numFlatTables} tables
+     */
+    private static void fillTables(final StandardCovariateList covariates, final RecalibrationTables nestedTables, final FlatRecalibrationTables[] flatTables) {
+        final Random random = new Random(11);
+        for ( int i = 0; i < 20000; i++ ) {
+            final int rg = random.nextInt(NUM_READ_GROUPS);
+            final int qual = random.nextInt(covariates.getQualityScoreCovariate().maximumKeyValue() + 1);
+            final int eventIndex = random.nextInt(EventType.values().length);
+            // a mix of errors, non-errors and fractional (BAQ) errors
+            final double isError = random.nextInt(3) == 0 ? 1.0 / (1 + random.nextInt(5)) : 0.0;
+            final FlatRecalibrationTables flat = flatTables[i % flatTables.length];
+
+            RecalUtils.incrementDatumOrPutIfNecessary3keys(nestedTables.getQualityScoreTable(), (byte)qual, isError, rg, qual, eventIndex);
+            flat.incrementQualityScoreTable(rg, qual, eventIndex, isError);
+            for ( int table = covariates.numberOfSpecialCovariates(); table < covariates.size(); table++ ) {
+                final int key = random.nextInt(Math.min(50, covariates.get(table).maximumKeyValue() + 1));
+                RecalUtils.incrementDatumOrPutIfNecessary4keys(nestedTables.getTable(table), (byte)qual, isError, rg, qual, key, eventIndex);
+                flat.incrementAdditionalTable(table, rg, qual, key, eventIndex, isError);
+            }
+        }
+    }
+
+    private static void assertTablesEqual(final RecalibrationTables actual, final RecalibrationTables expected, final double mismatchesTolerance) {
+        Assert.assertEquals(actual.numTables(), expected.numTables());
+        for ( int table = 0; table < expected.numTables(); table++ ) {
+            final List<NestedIntegerArray.Leaf<RecalDatum>> expectedLeaves = expected.getTable(table).getAllLeaves();
+            Assert.assertEquals(actual.getTable(table).getAllLeaves().size(), expectedLeaves.size());
+            for ( final NestedIntegerArray.Leaf<RecalDatum> leaf : expectedLeaves ) {
+                final RecalDatum actualDatum = actual.getTable(table).get(leaf.keys);
+                Assert.assertNotNull(actualDatum);
+                Assert.assertEquals(actualDatum.getNumObservations(), leaf.value.getNumObservations());
+                Assert.assertEquals(actualDatum.getNumMismatches(), leaf.value.getNumMismatches(), mismatchesTolerance);
+                Assert.assertEquals(actualDatum.getEstimatedQReported(), leaf.value.getEstimatedQReported());
+            }
+        }
+    }
+
+    @Test
+    public void testFlushedTablesAreIdenticalToNestedTables() {
+        final StandardCovariateList covariates = makeCovariates(new RecalibrationArgumentCollection());
+        final RecalibrationTables nestedTables = new RecalibrationTables(covariates, NUM_READ_GROUPS);
+        final FlatRecalibrationTables flatTables = new FlatRecalibrationTables(covariates, NUM_READ_GROUPS);
+        fillTables(covariates, nestedTables, new FlatRecalibrationTables[]{flatTables});
+
+        final RecalibrationTables flushedTables = new RecalibrationTables(covariates, NUM_READ_GROUPS);
+        flatTables.flushInto(flushedTables);
+        assertTablesEqual(flushedTables, nestedTables, 0.0);
+
+        // flushing empties the flat tables
+        flatTables.flushInto(flushedTables);
+        assertTablesEqual(flushedTables, nestedTables, 0.0);
+    }
+
+    @Test
+    public void testCombine() {
+        final StandardCovariateList covariates = makeCovariates(new RecalibrationArgumentCollection());
+        final RecalibrationTables nestedTables = new RecalibrationTables(covariates, NUM_READ_GROUPS);
+        final FlatRecalibrationTables[] flatTables = IntStream.range(0, 3)
+                .mapToObj(i -> new FlatRecalibrationTables(covariates, NUM_READ_GROUPS)).toArray(FlatRecalibrationTables[]::new);
+        fillTables(covariates, nestedTables, flatTables);
+
+        flatTables[0].combine(flatTables[1]).combine(flatTables[2]);
+        final RecalibrationTables combinedTables = new RecalibrationTables(covariates, NUM_READ_GROUPS);
+        flatTables[0].flushInto(combinedTables);
+        // the mismatches are summed in a different order, so they can differ in the last bits
+        assertTablesEqual(combinedTables, nestedTables, 1e-6);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCombineWithDifferentCovariates() {
+        final RecalibrationArgumentCollection longContexts = new RecalibrationArgumentCollection();
+        longContexts.MISMATCHES_CONTEXT_SIZE = 4;
+        new FlatRecalibrationTables(makeCovariates(new RecalibrationArgumentCollection()), NUM_READ_GROUPS)
+                .combine(new FlatRecalibrationTables(makeCovariates(longContexts), NUM_READ_GROUPS));
+    }
+
+    @Test
+    public void testCanRepresent() {
+        Assert.assertTrue(FlatRecalibrationTables.canRepresent(makeCovariates(new RecalibrationArgumentCollection())));
+
+        final RecalibrationArgumentCollection longContexts = new RecalibrationArgumentCollection();
+        longContexts.MISMATCHES_CONTEXT_SIZE = 13;
+        Assert.assertFalse(FlatRecalibrationTables.canRepresent(makeCovariates(longContexts)));
+    }
+}
@@ -13,6 +13,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.broadinstitute.hellbender.utils.recalibration.covariates.ContextCovariate.getStrandedClippedBytes;
@@ -73,6 +74,17 @@ public final class ContextCovariateUnitTest extends GATKBaseTest {
         Assert.assertEquals(new String(strandedBaseArray), new String(expected));
     }
 
+    @Test(dataProvider = "strandedBytes")
+    public void testFillStrandedClippedBases(final String baseStr, final byte[] quals, final String cigar, final boolean neg, final int lowQTail, final String expecteBaseStr){
+        final GATKRead read = ArtificialReadUtils.createArtificialRead(baseStr.getBytes(), quals, cigar);
+        read.setIsReverseStrand(neg);
+        // the buffer is filled with garbage to check that it is entirely overwritten
+        final byte[] buffer = new byte[baseStr.length() + 3];
+        Arrays.fill(buffer, (byte)'x');
+        final int length = ContextCovariate.fillStrandedClippedBases(read, (byte)lowQTail, buffer);
+        Assert.assertEquals(new String(buffer, 0, length), expecteBaseStr);
+    }
+
     @DataProvider(name="strandedOffset")
     public Object[][] strandedOffset() {
         return new Object[][]{
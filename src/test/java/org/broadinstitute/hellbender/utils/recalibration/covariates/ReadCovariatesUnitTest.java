@@ -84,4 +84,39 @@ public final class ReadCovariatesUnitTest extends GATKBaseTest {
 
     }
 
+    @Test
+    public void testReusedWorkspaceMatchesFreshCovariates() {
+        final RecalibrationArgumentCollection RAC = new RecalibrationArgumentCollection();
+        final String readGroupID = "RG1";
+        final StandardCovariateList covariates = new StandardCovariateList(RAC, Arrays.asList(readGroupID));
+        final SAMReadGroupRecord readGroupRecord = new SAMReadGroupRecord(readGroupID);
+        readGroupRecord.setPlatform("illumina");
+        final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeaderWithReadGroup(readGroupRecord);
+
+        final Random rnd = new Random(42);
+        final ReadCovariates workspace = new ReadCovariates(covariates.size());
+        for (int idx = 0; idx < 200; idx++) {
+            // read lengths go up and down, so that the workspace is both grown and reused for shorter reads
+            final int length = 1 + rnd.nextInt(150);
+            final GATKRead read = ArtificialReadUtils.createRandomRead(header, length, false);
+            read.setIsReverseStrand(rnd.nextBoolean());
+            read.setReadGroup(readGroupID);
+            if (rnd.nextBoolean()) {
+                // low quality tails are written over with Ns by the context covariate, sometimes for the whole read
+                final byte[] quals = read.getBaseQualities();
+                Arrays.fill(quals, 0, rnd.nextInt(length + 1), RAC.LOW_QUAL_TAIL);
+                read.setBaseQualities(quals);
+            }
+
+            final ReadCovariates expected = RecalUtils.computeCovariates(read, header, covariates, true, new CovariateKeyCache());
+            workspace.reset(length);
+            RecalUtils.computeCovariates(read, header, covariates, workspace, true);
+
+            for (int i = 0; i < length; i++) {
+                Assert.assertEquals(workspace.getMismatchesKeySet(i), expected.getMismatchesKeySet(i), "read: " + idx + " position: " + i);
+                Assert.assertEquals(workspace.getInsertionsKeySet(i), expected.getInsertionsKeySet(i), "read: " + idx + " position: " + i);
+                Assert.assertEquals(workspace.getDeletionsKeySet(i), expected.getDeletionsKeySet(i), "read: " + idx + " position: " + i);
+            }
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package org.broadinstitute.hellbender.utils.runtime;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class OrderedWorkerPoolUnitTest extends GATKBaseTest {
+
+    /**
+     * Worker that records how many tasks are running on it at once, and whether it was closed.
+     */
+    private static final class CountingWorker {
+        private final AtomicInteger tasksInProgress = new AtomicInteger();
+        private final AtomicBoolean sharedByConcurrentTasks = new AtomicBoolean(false);
+        private boolean closed = false;
+
+        Runnable process( final int taskIndex, final List<Integer> emitted, final long sleepMillis ) {
+            if ( tasksInProgress.incrementAndGet() > 1 ) {
+                sharedByConcurrentTasks.set(true);
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            } finally {
+                tasksInProgress.decrementAndGet();
+            }
+            return () -> emitted.add(taskIndex);
+        }
+
+        void close() {
+            closed = true;
+        }
+    }
+
+    @DataProvider(name = "threadCounts")
+    public Object[][] threadCounts() {
+        return new Object[][] { {1}, {2}, {4}, {8} };
+    }
+
+    @Test(dataProvider = "threadCounts")
+    public void testResultsAreEmittedInSubmissionOrder( final int numThreads ) {
+        final int numTasks = 200;
+        final List<CountingWorker> workers = new ArrayList<>();
+        final List<Integer> emitted = new ArrayList<>();
+        final Random random = new Random(7);
+
+        try ( final OrderedWorkerPool<CountingWorker> pool = new OrderedWorkerPool<>("test-worker", numThreads, () -> {
+            final CountingWorker worker = new CountingWorker();
+            workers.add(worker);
+            return worker;
+        }, CountingWorker::close) ) {
+            for ( int i = 0; i < numTasks; i++ ) {
+                final int taskIndex = i;
+                final long sleepMillis = random.nextInt(3);
+                pool.submit(worker -> worker.process(taskIndex, emitted, sleepMillis));
+            }
+            pool.drain();
+        }
+
+        Assert.assertEquals(workers.size(), numThreads);
+        Assert.assertEquals(emitted.size(), numTasks);
+        for ( int i = 0; i < numTasks; i++ ) {
+            Assert.assertEquals(emitted.get(i).intValue(), i);
+        }
+        for ( final CountingWorker worker : workers ) {
+            Assert.assertFalse(worker.sharedByConcurrentTasks.get(), "a worker was used by two tasks at once");
+            Assert.assertTrue(worker.closed, "worker was not closed");
+        }
+    }
+
+    @Test(expectedExceptions = UserException.class)
+    public void testWorkerExceptionIsRethrownOnSubmittingThread() {
+        try ( final OrderedWorkerPool<CountingWorker> pool = new OrderedWorkerPool<>("test-worker", 2, CountingWorker::new, CountingWorker::close) ) {
+            for ( int i = 0; i < 10; i++ ) {
+                final int taskIndex = i;
+                pool.submit(worker -> {
+                    if ( taskIndex == 5 ) {
+                        throw new UserException("bad region");
+                    }
+                    return () -> {};
+                });
+            }
+            pool.drain();
+        }
+    }
+
+    @Test
+    public void testCloseWithoutDrainDiscardsPendingResults() {
+        final List<Integer> emitted = Collections.synchronizedList(new ArrayList<>());
+        try ( final OrderedWorkerPool<CountingWorker> pool = new OrderedWorkerPool<>("test-worker", 2, CountingWorker::new, CountingWorker::close) ) {
+            pool.submit(worker -> worker.process(0, emitted, 0));
+        }
+        Assert.assertTrue(emitted.isEmpty());
+    }
+
+    @Test
+    public void testWorkersAreClosedIfWorkerFactoryFails() {
+        final List<CountingWorker> workers = new ArrayList<>();
+        try {
+            new OrderedWorkerPool<>("test-worker", 4, () -> {
+                if ( workers.size() == 2 ) {
+                    throw new UserException("could not open reader");
+                }
+                final CountingWorker worker = new CountingWorker();
+                workers.add(worker);
+                return worker;
+            }, CountingWorker::close);
+            Assert.fail("the worker factory exception was not rethrown");
+        } catch ( final UserException e ) {
+            Assert.assertEquals(e.getMessage(), "could not open reader");
+        }
+
+        Assert.assertEquals(workers.size(), 2);
+        for ( final CountingWorker worker : workers ) {
+            Assert.assertTrue(worker.closed, "worker was not closed");
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testZeroThreadsIsRejected() {
+        new OrderedWorkerPool<>("test-worker", 0, CountingWorker::new, CountingWorker::close);
+    }
+}